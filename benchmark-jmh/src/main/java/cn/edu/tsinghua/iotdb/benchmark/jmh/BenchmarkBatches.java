@@ -0,0 +1,53 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package cn.edu.tsinghua.iotdb.benchmark.jmh;
+
+import cn.edu.tsinghua.iotdb.benchmark.conf.Config;
+import cn.edu.tsinghua.iotdb.benchmark.conf.ConfigDescriptor;
+import cn.edu.tsinghua.iotdb.benchmark.workload.SyntheticWorkload;
+import cn.edu.tsinghua.iotdb.benchmark.workload.WorkloadException;
+import cn.edu.tsinghua.iotdb.benchmark.workload.ingestion.Batch;
+import cn.edu.tsinghua.iotdb.benchmark.workload.schema.DataSchema;
+import cn.edu.tsinghua.iotdb.benchmark.workload.schema.DeviceSchema;
+
+/** Batches used by the micro-benchmarks, generated by the synthetic workload as in a real test */
+public class BenchmarkBatches {
+
+  private static final Config config = ConfigDescriptor.getInstance().getConfig();
+
+  private BenchmarkBatches() {}
+
+  /** The first device bound to client 0, which is known by the workload of client 0 */
+  public static DeviceSchema getDeviceSchema() {
+    return DataSchema.getInstance().getClientBindSchema().get(0).get(0);
+  }
+
+  /**
+   * Generate an ordered batch of the first device. The batch is never released, so it is kept by
+   * the caller instead of going back to the pool of the workload.
+   *
+   * @param batchSize rows of the batch
+   */
+  public static Batch newBatch(int batchSize) throws WorkloadException {
+    config.setBATCH_SIZE_PER_WRITE(batchSize);
+    config.setIS_OUT_OF_ORDER(false);
+    return new SyntheticWorkload(0).getOneBatch(getDeviceSchema(), 0);
+  }
+}
@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package cn.edu.tsinghua.iotdb.benchmark.jmh;
+
+import cn.edu.tsinghua.iotdb.benchmark.client.Operation;
+import cn.edu.tsinghua.iotdb.benchmark.conf.Config;
+import cn.edu.tsinghua.iotdb.benchmark.conf.ConfigDescriptor;
+import cn.edu.tsinghua.iotdb.benchmark.measurement.Measurement;
+import cn.edu.tsinghua.iotdb.benchmark.measurement.WindowMetricsReporter;
+import cn.edu.tsinghua.iotdb.benchmark.measurement.WindowRecorder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Measurement#addOperationLatency} called by concurrent clients. As in a test, each client
+ * thread owns its measurement and window recorder, and in group "sampled" a reporter thread keeps
+ * collecting the windows of all the clients, which is where the clients contend.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@org.openjdk.jmh.annotations.Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MeasurementBenchmark {
+
+  private static final Config config = ConfigDescriptor.getInstance().getConfig();
+  private static final int LATENCY_NUMBER = 1024;
+
+  /** Whether latencies are also recorded into the windows of WindowMetricsReporter */
+  @Param({"false", "true"})
+  public boolean windowed;
+
+  @Param({"false", "true"})
+  public boolean histogram;
+
+  private final WindowRecorder.Window window = new WindowRecorder.Window();
+
+  @Setup
+  public void setUp() {
+    config.setWINDOW_REPORT_INTERVAL(windowed ? 1 : 0);
+    config.setLATENCY_HISTOGRAM_EXPORT(histogram);
+  }
+
+  /** One client thread */
+  @State(Scope.Thread)
+  public static class ClientState {
+
+    private final double[] latencies = new double[LATENCY_NUMBER];
+    private Measurement measurement;
+    private int latencyIndex;
+
+    /** depends on the benchmark state so that the config is set before creating measurement */
+    @Setup
+    public void setUp(MeasurementBenchmark benchmark) {
+      measurement = new Measurement();
+      measurement.setWindowRecorder(WindowMetricsReporter.createRecorder());
+      // latencies of a few milliseconds with a long tail
+      Random random = new Random(Thread.currentThread().getId());
+      for (int i = 0; i < LATENCY_NUMBER; i++) {
+        latencies[i] = Math.exp(random.nextGaussian() + 1);
+      }
+    }
+
+    double nextLatency() {
+      latencyIndex = (latencyIndex + 1) % LATENCY_NUMBER;
+      return latencies[latencyIndex];
+    }
+  }
+
+  @Benchmark
+  @Threads(4)
+  public void addOperationLatency(ClientState client) {
+    client.measurement.addOperationLatency(Operation.INGESTION, client.nextLatency());
+  }
+
+  @Benchmark
+  @Group("sampled")
+  @GroupThreads(4)
+  public void record(ClientState client) {
+    client.measurement.addOperationLatency(Operation.INGESTION, client.nextLatency());
+  }
+
+  @Benchmark
+  @Group("sampled")
+  @GroupThreads(1)
+  public long sample() {
+    WindowMetricsReporter.collect(window);
+    long okOperationNum = window.getOkOperationNum(Operation.INGESTION);
+    window.reset();
+    return okOperationNum;
+  }
+}
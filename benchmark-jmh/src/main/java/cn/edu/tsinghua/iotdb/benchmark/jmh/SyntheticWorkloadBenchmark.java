@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package cn.edu.tsinghua.iotdb.benchmark.jmh;
+
+import cn.edu.tsinghua.iotdb.benchmark.conf.Config;
+import cn.edu.tsinghua.iotdb.benchmark.conf.ConfigDescriptor;
+import cn.edu.tsinghua.iotdb.benchmark.workload.SyntheticWorkload;
+import cn.edu.tsinghua.iotdb.benchmark.workload.WorkloadException;
+import cn.edu.tsinghua.iotdb.benchmark.workload.ingestion.Batch;
+import cn.edu.tsinghua.iotdb.benchmark.workload.schema.DeviceSchema;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/** Generation of one batch by {@link SyntheticWorkload#getOneBatch} in each order mode */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SyntheticWorkloadBenchmark {
+
+  private static final Config config = ConfigDescriptor.getInstance().getConfig();
+
+  /** ordered, or out-of-order mode 0 (poisson) or 1 (batch) */
+  @Param({"ordered", "poisson", "batch"})
+  public String order;
+
+  @Param({"100", "1000"})
+  public int batchSize;
+
+  private SyntheticWorkload workload;
+  private DeviceSchema deviceSchema;
+  private long loopIndex;
+
+  @Setup
+  public void setUp() {
+    config.setBATCH_SIZE_PER_WRITE(batchSize);
+    config.setIS_OUT_OF_ORDER(!"ordered".equals(order));
+    config.setOUT_OF_ORDER_MODE("batch".equals(order) ? 1 : 0);
+    workload = new SyntheticWorkload(0);
+    deviceSchema = BenchmarkBatches.getDeviceSchema();
+  }
+
+  @Benchmark
+  public long getOneBatch() throws WorkloadException {
+    Batch batch = workload.getOneBatch(deviceSchema, loopIndex++);
+    long lastTimestamp = batch.getTimestamp(batch.getRowSize() - 1);
+    // give the batch back to the pool, as the client does once it is sent
+    batch.release();
+    return lastTimestamp;
+  }
+}
@@ -0,0 +1,49 @@
+#!/bin/sh
+
+# Run one coordinator and N benchmarks on this host, usage:
+# cluster-benchmark.sh <config file> <benchmark number>
+# The coordinator prints the merged result, logs of benchmarks are written to
+# ${BENCHMARK_HOME}/logs/cluster-benchmark-<index>.log
+
+if [ $# -ne 2 ]; then
+  echo "Usage: $0 <config file> <benchmark number>"
+  exit 1
+fi
+
+if [ -z "${BENCHMARK_HOME}" ]; then
+  export BENCHMARK_HOME="$(cd "`dirname "$0"`"/..; pwd)"
+fi
+
+CONFIG_FILE=$1
+BENCHMARK_NUMBER=$2
+CONFIG_DIR=$(mktemp -d)
+mkdir -p ${BENCHMARK_HOME}/logs
+
+# write config of one process, the given properties replace those of the config file
+write_config() {
+  TARGET=$1
+  shift
+  cp "$CONFIG_FILE" "$TARGET"
+  for property in "$@"; do
+    key=${property%%=*}
+    sed -i.bak "/^${key}=/d" "$TARGET"
+    echo "$property" >> "$TARGET"
+  done
+}
+
+write_config ${CONFIG_DIR}/coordinator.properties BENCHMARK_WORK_MODE=coordinatorMode \
+  COORDINATOR_WORKER_NUMBER=${BENCHMARK_NUMBER}
+i=0
+while [ $i -lt $BENCHMARK_NUMBER ]; do
+  write_config ${CONFIG_DIR}/benchmark-$i.properties BENCHMARK_WORK_MODE=testWithDefaultPath \
+    BENCHMARK_CLUSTER=true BENCHMARK_INDEX=$i COORDINATOR_HOST=127.0.0.1
+  "${BENCHMARK_HOME}"/bin/startup.sh -cf ${CONFIG_DIR}/benchmark-$i.properties \
+    > ${BENCHMARK_HOME}/logs/cluster-benchmark-$i.log 2>&1 &
+  i=$((i + 1))
+done
+
+"${BENCHMARK_HOME}"/bin/startup.sh -cf ${CONFIG_DIR}/coordinator.properties
+STATUS=$?
+wait
+rm -rf ${CONFIG_DIR}
+exit $STATUS
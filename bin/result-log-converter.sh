@@ -0,0 +1,32 @@
+#!/bin/sh
+
+# Convert the binary result logs of one test, usage:
+# result-log-converter.sh <csv|summary> <binary log directory> <output file>
+
+if [ -z "${BENCHMARK_HOME}" ]; then
+  export BENCHMARK_HOME="$(cd "`dirname "$0"`"/..; pwd)"
+fi
+
+MAIN_CLASS=cn.edu.tsinghua.iotdb.benchmark.measurement.persistence.binary.BinaryResultLogConverter
+
+CLASSPATH=""
+for f in ${BENCHMARK_HOME}/lib/*.jar; do
+  CLASSPATH=${CLASSPATH}":"$f
+done
+
+
+if [ -n "$JAVA_HOME" ]; then
+    for java in "$JAVA_HOME"/bin/amd64/java "$JAVA_HOME"/bin/java; do
+        if [ -x "$java" ]; then
+            JAVA="$java"
+            break
+        fi
+    done
+else
+    JAVA=java
+fi
+
+
+exec "$JAVA" -Duser.timezone=GMT+8 -Dlogback.configurationFile=${BENCHMARK_HOME}/conf/logback.xml  -cp "$CLASSPATH" "$MAIN_CLASS" "$@"
+
+exit $?
@@ -23,7 +23,11 @@ import cn.edu.tsinghua.iotdb.benchmark.client.*;
 import cn.edu.tsinghua.iotdb.benchmark.conf.Config;
 import cn.edu.tsinghua.iotdb.benchmark.conf.ConfigDescriptor;
 import cn.edu.tsinghua.iotdb.benchmark.conf.Constants;
+import cn.edu.tsinghua.iotdb.benchmark.coordinator.Coordinator;
+import cn.edu.tsinghua.iotdb.benchmark.coordinator.CoordinatorClient;
+import cn.edu.tsinghua.iotdb.benchmark.measurement.LoaderCapacityReport;
 import cn.edu.tsinghua.iotdb.benchmark.measurement.Measurement;
+import cn.edu.tsinghua.iotdb.benchmark.measurement.WindowMetricsReporter;
 import cn.edu.tsinghua.iotdb.benchmark.measurement.enums.SystemMetrics;
 import cn.edu.tsinghua.iotdb.benchmark.measurement.persistence.ITestDataPersistence;
 import cn.edu.tsinghua.iotdb.benchmark.measurement.persistence.PersistenceFactory;
@@ -38,13 +42,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
+import java.io.IOException;
 import java.sql.SQLException;
 import java.text.SimpleDateFormat;
 import java.util.*;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.CyclicBarrier;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 public class App {
 
@@ -64,6 +68,8 @@ public class App {
     Config config = ConfigDescriptor.getInstance().getConfig();
     switch (config.getBENCHMARK_WORK_MODE().trim()) {
       case Constants.MODE_TEST_WITH_DEFAULT_PATH:
+      case Constants.MODE_CAPACITY_SEARCH:
+      case Constants.MODE_LOADER_CAPACITY:
         testWithDefaultPath(config);
         break;
       case Constants.MODE_WRITE_WITH_REAL_DATASET:
@@ -75,13 +81,52 @@ public class App {
       case Constants.MODE_SERVER_MODE:
         serverMode(config);
         break;
+      case Constants.MODE_COORDINATOR:
+        coordinatorMode(config);
+        break;
       default:
         throw new SQLException("Unsupported mode:" + config.getBENCHMARK_WORK_MODE());
     }
   }
 
-  /** Benchmark mode: testWithDefaultPath */
+  /**
+   * Benchmark mode: testWithDefaultPath, capacitySearchMode which adjusts its load, and
+   * loaderCapacityMode which writes to FakeDB as fast as possible
+   */
   private static void testWithDefaultPath(Config config) {
+    boolean loaderCapacityMode =
+        Constants.MODE_LOADER_CAPACITY.equals(config.getBENCHMARK_WORK_MODE().trim());
+    if (loaderCapacityMode && (config.getOP_INTERVAL() > 0 || config.getTARGET_RATE() > 0)) {
+      LOGGER.info("OP_INTERVAL and TARGET_RATE are ignored in {}", Constants.MODE_LOADER_CAPACITY);
+      config.setOP_INTERVAL(0);
+      config.setTARGET_RATE(0);
+    }
+    PhaseSchedule phaseSchedule;
+    if (Constants.MODE_CAPACITY_SEARCH.equals(config.getBENCHMARK_WORK_MODE().trim())) {
+      phaseSchedule = new CapacitySearch();
+    } else {
+      try {
+        phaseSchedule = PhasePlan.loadFromConfig();
+      } catch (IOException | IllegalArgumentException e) {
+        LOGGER.error("Failed to load phase script {} because ", config.getPHASE_SCRIPT(), e);
+        return;
+      }
+    }
+    CoordinatorClient coordinatorClient = null;
+    if (config.isBENCHMARK_CLUSTER() && !config.getCOORDINATOR_HOST().isEmpty()) {
+      try {
+        coordinatorClient =
+            CoordinatorClient.connect(
+                config.getCOORDINATOR_HOST(),
+                config.getCOORDINATOR_PORT(),
+                config.getBENCHMARK_INDEX());
+      } catch (IOException e) {
+        LOGGER.error("Failed to connect coordinator because ", e);
+        return;
+      }
+      LOGGER.info("Benchmark index is {}", coordinatorClient.getBenchmarkIndex());
+      config.resetBENCHMARK_INDEX(coordinatorClient.getBenchmarkIndex());
+    }
     PersistenceFactory persistenceFactory = new PersistenceFactory();
     ITestDataPersistence recorder = persistenceFactory.getPersistence();
     recorder.saveTestConfig();
@@ -117,21 +162,82 @@ public class App {
         LOGGER.error("Close {} failed because ", config.getNET_DEVICE(), e);
       }
     }
+    if (coordinatorClient != null) {
+      try {
+        // wait for that all benchmarks start test simultaneously
+        coordinatorClient.awaitStart();
+      } catch (IOException e) {
+        LOGGER.error("Failed to wait for other benchmarks because ", e);
+        closeCoordinatorClient(coordinatorClient);
+        return;
+      }
+    }
     // create getCLIENT_NUMBER() client threads to do the workloads
     List<Measurement> threadsMeasurements = new ArrayList<>();
     List<Client> clients = new ArrayList<>();
     CountDownLatch downLatch = new CountDownLatch(config.getCLIENT_NUMBER());
-    CyclicBarrier barrier = new CyclicBarrier(config.getCLIENT_NUMBER());
+    // phases start when all clients are ready
+    CyclicBarrier barrier =
+        phaseSchedule == null
+            ? new CyclicBarrier(config.getCLIENT_NUMBER())
+            : new CyclicBarrier(config.getCLIENT_NUMBER(), phaseSchedule::start);
     long st = 0;
-    ExecutorService executorService = Executors.newFixedThreadPool(config.getCLIENT_NUMBER());
+    ExecutorService executorService = new ClientExecutorFactory().getExecutor();
     LOGGER.info("Generating workload buffer...");
     for (int i = 0; i < config.getCLIENT_NUMBER(); i++) {
       SyntheticClient client = new SyntheticClient(i, downLatch, barrier);
+      if (phaseSchedule != null) {
+        client.setPhaseSchedule(phaseSchedule);
+      }
       clients.add(client);
+    }
+    // sampled after the workload buffer is generated, as the clients start
+    LoaderCapacityReport loaderCapacityReport =
+        loaderCapacityMode ? new LoaderCapacityReport() : null;
+    for (Client client : clients) {
       st = System.nanoTime();
       executorService.submit(client);
     }
-    finalMeasure(executorService, downLatch, measurement, threadsMeasurements, st, clients);
+    finalMeasure(
+        executorService,
+        downLatch,
+        measurement,
+        threadsMeasurements,
+        st,
+        clients,
+        phaseSchedule,
+        loaderCapacityReport);
+    if (coordinatorClient != null) {
+      try {
+        coordinatorClient.sendResult(measurement);
+      } catch (IOException e) {
+        LOGGER.error("Failed to send result to coordinator because ", e);
+      }
+      closeCoordinatorClient(coordinatorClient);
+    }
+  }
+
+  private static void closeCoordinatorClient(CoordinatorClient coordinatorClient) {
+    try {
+      coordinatorClient.close();
+    } catch (IOException e) {
+      LOGGER.warn("Failed to close connection to coordinator because ", e);
+    }
+  }
+
+  /**
+   * Benchmark mode: coordinatorMode, coordinate COORDINATOR_WORKER_NUMBER benchmarks and output
+   * their merged results
+   */
+  private static void coordinatorMode(Config config) {
+    try (Coordinator coordinator =
+        new Coordinator(config.getCOORDINATOR_PORT(), config.getCOORDINATOR_WORKER_NUMBER())) {
+      Measurement measurement = coordinator.coordinate();
+      LOGGER.info("All benchmarks finished.");
+      outputMeasurement(measurement);
+    } catch (IOException e) {
+      LOGGER.error("Failed to coordinate benchmarks because ", e);
+    }
   }
 
   /** Benchmark mode: testWithRealDataSet */
@@ -203,13 +309,14 @@ public class App {
     List<Client> clients = new ArrayList<>();
     CountDownLatch downLatch = new CountDownLatch(config.getCLIENT_NUMBER());
     long st = System.nanoTime();
-    ExecutorService executorService = Executors.newFixedThreadPool(config.getCLIENT_NUMBER());
+    ExecutorService executorService = new ClientExecutorFactory().getExecutor();
     for (int i = 0; i < config.getCLIENT_NUMBER(); i++) {
       Client client = new RealDatasetClient(i, downLatch, config, threadFiles.get(i), barrier);
       clients.add(client);
       executorService.submit(client);
     }
-    finalMeasure(executorService, downLatch, measurement, threadsMeasurements, st, clients);
+    finalMeasure(
+        executorService, downLatch, measurement, threadsMeasurements, st, clients, null, null);
   }
 
   /**
@@ -221,6 +328,8 @@ public class App {
    * @param threadsMeasurements
    * @param st
    * @param clients
+   * @param phaseSchedule phases of test, null if clients run LOOP operations
+   * @param loaderCapacityReport report of loaderCapacityMode, null in other modes
    */
   private static void finalMeasure(
       ExecutorService executorService,
@@ -228,8 +337,14 @@ public class App {
       Measurement measurement,
       List<Measurement> threadsMeasurements,
       long st,
-      List<Client> clients) {
+      List<Client> clients,
+      PhaseSchedule phaseSchedule,
+      LoaderCapacityReport loaderCapacityReport) {
     executorService.shutdown();
+    WindowMetricsReporter windowMetricsReporter = new WindowMetricsReporter();
+    windowMetricsReporter.start();
+    ProgressReporter progressReporter = new ProgressReporter();
+    progressReporter.start();
 
     try {
       // wait for all clients finish test
@@ -240,14 +355,100 @@ public class App {
     }
     long en = System.nanoTime();
     LOGGER.info("All clients finished.");
+    if (loaderCapacityReport != null) {
+      loaderCapacityReport.stop();
+    }
+    windowMetricsReporter.stop();
+    progressReporter.stop();
     // sum up all the measurements and calculate statistics
-    measurement.setElapseTime((en - st) / NANO_TO_SECOND);
+    measurement.setElapseTime((en - getMeasureStartTime(clients, st)) / NANO_TO_SECOND);
+    Measurement warmUpMeasurement = new Measurement();
     for (Client client : clients) {
       threadsMeasurements.add(client.getMeasurement());
+      threadsMeasurements.addAll(client.getPhaseMeasurements());
+      warmUpMeasurement.mergeMeasurement(client.getWarmUpMeasurement());
+    }
+    logWarmUp(warmUpMeasurement);
+    if (phaseSchedule instanceof PhasePlan) {
+      outputPhaseMeasurements((PhasePlan) phaseSchedule, clients, en);
     }
     for (Measurement m : threadsMeasurements) {
       measurement.mergeMeasurement(m);
     }
+    outputMeasurement(measurement);
+    if (phaseSchedule instanceof CapacitySearch) {
+      ((CapacitySearch) phaseSchedule).showCapacityCurve();
+    }
+    if (loaderCapacityReport != null) {
+      loaderCapacityReport.show(measurement, warmUpMeasurement);
+    }
+  }
+
+  /**
+   * Get the time when the measured operations started. When clients warm up, it is the time when
+   * the first client finished warm-up, so that throughput is not overstated.
+   *
+   * @param clients clients of test
+   * @param st the time when clients started
+   * @return start time in nanoseconds
+   */
+  private static long getMeasureStartTime(List<Client> clients, long st) {
+    long measureStartTime = Long.MAX_VALUE;
+    for (Client client : clients) {
+      if (client.getWarmUpEndTime() > 0) {
+        measureStartTime = Math.min(measureStartTime, client.getWarmUpEndTime());
+      }
+    }
+    return measureStartTime == Long.MAX_VALUE ? st : measureStartTime;
+  }
+
+  /** Log the number of operations excluded from measurements by warm-up */
+  private static void logWarmUp(Measurement warmUpMeasurement) {
+    long okOperationNum = 0;
+    long failOperationNum = 0;
+    for (Operation operation : Operation.values()) {
+      okOperationNum += warmUpMeasurement.getOkOperationNum(operation);
+      failOperationNum += warmUpMeasurement.getFailOperationNum(operation);
+    }
+    if (okOperationNum + failOperationNum > 0) {
+      LOGGER.info(
+          "{} succeeded and {} failed operations of warm-up are excluded from measurements.",
+          okOperationNum,
+          failOperationNum);
+    }
+  }
+
+  /**
+   * Output the measurements of each phase which has started, before the measurement of the whole
+   * test
+   *
+   * @param phasePlan phases of test
+   * @param clients clients of test
+   * @param en the time when all clients finished
+   */
+  private static void outputPhaseMeasurements(PhasePlan phasePlan, List<Client> clients, long en) {
+    for (int i = 0; i < phasePlan.size(); i++) {
+      long phaseEnd = Math.min(phasePlan.getPhaseEndNanos(i), en);
+      if (phaseEnd <= phasePlan.getPhaseStartNanos(i)) {
+        break;
+      }
+      Measurement phaseMeasurement = new Measurement();
+      phaseMeasurement.setElapseTime((phaseEnd - phasePlan.getPhaseStartNanos(i)) / NANO_TO_SECOND);
+      for (Client client : clients) {
+        // a client has no measurement of the phases it did not enter
+        if (client.getPhaseMeasurements().size() > i) {
+          phaseMeasurement.mergeMeasurement(client.getPhaseMeasurements().get(i));
+        }
+      }
+      String phaseName = phasePlan.getPhase(i).getName();
+      phaseMeasurement.calculateMetrics();
+      phaseMeasurement.showMeasurements(phaseName);
+      phaseMeasurement.showMetrics(phaseName);
+    }
+  }
+
+  /** Calculate metrics of the merged measurement and output them */
+  private static void outputMeasurement(Measurement measurement) {
     // must call calculateMetrics() before using the Metrics
     measurement.calculateMetrics();
     // output results
@@ -257,6 +458,9 @@ public class App {
     if (config.isCSV_OUTPUT()) {
       measurement.outputCSV();
     }
+    if (config.isLATENCY_HISTOGRAM_EXPORT()) {
+      measurement.outputLatencyHistogram();
+    }
   }
 
   /**
@@ -279,13 +483,14 @@ public class App {
     List<Client> clients = new ArrayList<>();
     CountDownLatch downLatch = new CountDownLatch(config.getCLIENT_NUMBER());
     long st = System.nanoTime();
-    ExecutorService executorService = Executors.newFixedThreadPool(config.getCLIENT_NUMBER());
+    ExecutorService executorService = new ClientExecutorFactory().getExecutor();
     for (int i = 0; i < config.getCLIENT_NUMBER(); i++) {
       Client client = new QueryRealDatasetClient(i, downLatch, barrier, config);
       clients.add(client);
       executorService.submit(client);
     }
-    finalMeasure(executorService, downLatch, measurement, threadsMeasurements, st, clients);
+    finalMeasure(
+        executorService, downLatch, measurement, threadsMeasurements, st, clients, null, null);
   }
 
   /**
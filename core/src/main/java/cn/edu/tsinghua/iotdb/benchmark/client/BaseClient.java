@@ -20,6 +20,7 @@
 package cn.edu.tsinghua.iotdb.benchmark.client;
 
 import cn.edu.tsinghua.iotdb.benchmark.exception.DBConnectException;
+import cn.edu.tsinghua.iotdb.benchmark.measurement.Measurement;
 import cn.edu.tsinghua.iotdb.benchmark.tsdb.DBUtil;
 import cn.edu.tsinghua.iotdb.benchmark.workload.IWorkload;
 import cn.edu.tsinghua.iotdb.benchmark.workload.SingletonWorkload;
@@ -31,8 +32,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
-import java.util.concurrent.*;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
 
 /**
  * Responsible for writing and querying artificial data, and querying real data Write and query are
@@ -42,14 +46,37 @@ import java.util.concurrent.*;
 public abstract class BaseClient extends Client implements Runnable {
 
   protected static final Logger LOGGER = LoggerFactory.getLogger(BaseClient.class);
+  /** the max time that an inactive client waits before checking the phase plan again in ms */
+  private static final long PHASE_IDLE_INTERVAL = 10;
 
   private final OperationController operationController;
   private final IWorkload syntheticWorkload;
   private final SingletonWorkload singletonWorkload;
   private long insertLoopIndex;
   private final DataSchema dataSchema = DataSchema.getInstance();
-  private final ScheduledExecutorService service = Executors.newSingleThreadScheduledExecutor();
   private long loopIndex;
+  /** read by the shared progress reporter */
+  private final ClientProgress clientProgress = ProgressReporter.createProgress();
+  /** schemas of each sensor of the bound devices, only used when IS_SENSOR_TS_ALIGNMENT = false */
+  private final Map<DeviceSchema, DeviceSchema[]> sensorSchemaMap = new IdentityHashMap<>();
+  /** generates batches ahead of sending, only used when INGESTION_PIPELINE_DEPTH > 0 */
+  private IngestionPipeline ingestionPipeline;
+  /** devices written by each ingestion operation of the pipeline */
+  private final List<DeviceSchema> pipelineSchemas = new ArrayList<>();
+  /** number of batches sent by each ingestion operation of the pipeline */
+  private int pipelineBatchNum;
+  /** position of the next batch generated by the pipeline */
+  private int pipelineDeviceIndex;
+
+  private int pipelineColIndex;
+  /** batches of the bound devices waiting to be sent in one request, see insertAlignedBatch */
+  private final List<Batch> deviceBatches = new ArrayList<>();
+  /** phases of test, null if the client runs LOOP operations */
+  private PhaseSchedule phaseSchedule;
+  /** index of the running phase, -1 before the first phase */
+  private int phaseIndex = -1;
+  /** OP_INTERVAL only applies to closed-loop mode, open-loop mode is paced by DBWrapper */
+  private long opInterval;
 
   public BaseClient(
       int id, CountDownLatch countDownLatch, CyclicBarrier barrier, IWorkload workload) {
@@ -60,6 +87,15 @@ public abstract class BaseClient extends Client implements Runnable {
     insertLoopIndex = 0;
   }
 
+  /**
+   * Run phases instead of LOOP operations
+   *
+   * @param phaseSchedule phases shared by all clients
+   */
+  public void setPhaseSchedule(PhaseSchedule phaseSchedule) {
+    this.phaseSchedule = phaseSchedule;
+  }
+
   @Override
   void doTest() {
     String currentThread = Thread.currentThread().getName();
@@ -70,21 +106,41 @@ public abstract class BaseClient extends Client implements Runnable {
         config.getDEVICE_NUMBER() * config.getFIRST_DEVICE_INDEX()
             + config.getDEVICE_NUMBER() * config.getREAL_INSERT_RATE();
 
-    // print current progress periodically
-    service.scheduleAtFixedRate(
-        () -> {
-          String percent = String.format("%.2f", (loopIndex + 1) * 100.0D / config.getLOOP());
-          LOGGER.info("{} {}% syntheticWorkload is done.", currentThread, percent);
-        },
-        1,
-        config.getLOG_PRINT_INTERVAL(),
-        TimeUnit.SECONDS);
+    opInterval = config.getTARGET_RATE() > 0 ? 0 : config.getOP_INTERVAL();
     long start = 0;
+    if (config.getINGESTION_PIPELINE_DEPTH() > 0 && config.isIS_CLIENT_BIND()) {
+      startIngestionPipeline(currentThread, actualDeviceFloor);
+    }
+    boolean warmingUp = config.getWARMUP_LOOP() > 0 || config.getWARMUP_TIME() > 0;
+    long warmUpDeadline = System.currentTimeMillis() + config.getWARMUP_TIME();
+    if (warmingUp) {
+      dbWrapper.startWarmUp(warmUpMeasurement);
+    }
+    long loopNum = phaseSchedule == null ? config.getLOOP() : Long.MAX_VALUE;
+    long deadline =
+        config.getTEST_MAX_TIME() > 0
+            ? System.currentTimeMillis() + config.getTEST_MAX_TIME()
+            : Long.MAX_VALUE;
     loop:
-    for (loopIndex = 0; loopIndex < config.getLOOP(); loopIndex++) {
+    for (loopIndex = 0; loopIndex < loopNum; loopIndex++) {
+      if (System.currentTimeMillis() >= deadline) {
+        LOGGER.info("{} reached TEST_MAX_TIME after {} loops", currentThread, loopIndex);
+        break;
+      }
+      if (phaseSchedule != null && !followPhaseSchedule(currentThread)) {
+        break;
+      }
+      if (warmingUp
+          && loopIndex >= config.getWARMUP_LOOP()
+          && System.currentTimeMillis() >= warmUpDeadline) {
+        dbWrapper.finishWarmUp();
+        warmingUp = false;
+        warmUpEndTime = System.nanoTime();
+        LOGGER.info("{} finished warm-up after {} loops", currentThread, loopIndex);
+      }
       // According to the probabilities (proportion) of operations.
       Operation operation = operationController.getNextOperationType();
-      if (config.getOP_INTERVAL() > 0) {
+      if (opInterval > 0) {
         start = System.currentTimeMillis();
       }
       switch (operation) {
@@ -166,18 +222,229 @@ public abstract class BaseClient extends Client implements Runnable {
         default:
           LOGGER.error("Unsupported operation type {}", operation);
       }
-      if (config.getOP_INTERVAL() > 0) {
+      clientProgress.finishOperation(operation);
+      if (opInterval > 0) {
         long elapsed = System.currentTimeMillis() - start;
-        if (elapsed < config.getOP_INTERVAL()) {
+        if (elapsed < opInterval) {
           try {
-            Thread.sleep(config.getOP_INTERVAL() - elapsed);
+            Thread.sleep(opInterval - elapsed);
           } catch (InterruptedException e) {
             LOGGER.error("Wait for next operation failed because ", e);
           }
         }
       }
     }
-    service.shutdown();
+    if (warmingUp) {
+      LOGGER.warn("{} ended during warm-up, none of its operations is measured", currentThread);
+    }
+    if (ingestionPipeline != null) {
+      ingestionPipeline.close();
+    }
+    clientProgress.finish();
+  }
+
+  /**
+   * Switch to the running phase, and wait while this client is not active in it
+   *
+   * @return false if all phases are finished
+   */
+  private boolean followPhaseSchedule(String currentThread) {
+    while (true) {
+      long now = System.nanoTime();
+      int index = phaseSchedule.getPhaseIndex(now);
+      if (index < 0) {
+        return false;
+      }
+      Phase phase = phaseSchedule.getPhase(index);
+      if (index != phaseIndex) {
+        switchPhase(index, phase);
+        LOGGER.info("{} enters phase {}", currentThread, phase.getName());
+      }
+      long elapsed = now - phaseSchedule.getPhaseStartNanos(index);
+      if (clientThreadId < phase.getActiveClientNumber(elapsed)) {
+        return true;
+      }
+      long phaseRemaining = (phaseSchedule.getPhaseEndNanos(index) - now) / 1000000L;
+      try {
+        Thread.sleep(Math.max(1, Math.min(PHASE_IDLE_INTERVAL, phaseRemaining)));
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return false;
+      }
+    }
+  }
+
+  /** Apply the operation mix, target rate and measurement of one phase */
+  private void switchPhase(int index, Phase phase) {
+    phaseIndex = index;
+    while (phaseMeasurements.size() <= index) {
+      Measurement phaseMeasurement = new Measurement();
+      phaseMeasurement.setWindowRecorder(windowRecorder);
+      phaseMeasurements.add(phaseMeasurement);
+    }
+    operationController.setPhaseProportion(phase.getOperationProportion());
+    dbWrapper.setPacer(OperationPacer.create(phase.getTargetRate(), phase.getMaxClientNumber()));
+    dbWrapper.setMeasurement(phaseMeasurements.get(index));
+    opInterval = phase.getTargetRate() > 0 ? 0 : config.getOP_INTERVAL();
+  }
+
+  /**
+   * Start generating the batches of the bound devices in another thread, they are generated in the
+   * same order as ingestionOperation does
+   */
+  private void startIngestionPipeline(String currentThread, double actualDeviceFloor) {
+    for (DeviceSchema deviceSchema : dataSchema.getClientBindSchema().get(clientThreadId)) {
+      if (deviceSchema.getDeviceId() < actualDeviceFloor) {
+        pipelineSchemas.add(deviceSchema);
+      }
+    }
+    if (pipelineSchemas.isEmpty()) {
+      return;
+    }
+    pipelineBatchNum = pipelineSchemas.size();
+    if (!config.isIS_SENSOR_TS_ALIGNMENT()) {
+      pipelineBatchNum *= config.getSENSOR_NUMBER();
+    }
+    ingestionPipeline =
+        new IngestionPipeline(
+            currentThread + "-generator",
+            config.getINGESTION_PIPELINE_DEPTH(),
+            this::generatePipelineBatch);
+    ingestionPipeline.start();
+  }
+
+  /** Generate the next batch of pipeline, only called by the generating thread */
+  private Batch generatePipelineBatch() throws Exception {
+    DeviceSchema deviceSchema = pipelineSchemas.get(pipelineDeviceIndex);
+    Batch batch;
+    if (config.isIS_SENSOR_TS_ALIGNMENT()) {
+      batch = syntheticWorkload.getOneBatch(deviceSchema, insertLoopIndex);
+      pipelineDeviceIndex++;
+    } else {
+      DeviceSchema[] sensorSchemas = getSensorSchemas(deviceSchema);
+      batch =
+          syntheticWorkload.getOneBatch(
+              sensorSchemas[pipelineColIndex], insertLoopIndex, pipelineColIndex);
+      batch.setColIndex(pipelineColIndex);
+      batch.setColType(DBUtil.getDataType(pipelineColIndex));
+      insertLoopIndex++;
+      if (++pipelineColIndex == sensorSchemas.length) {
+        pipelineColIndex = 0;
+        pipelineDeviceIndex++;
+      }
+    }
+    if (pipelineDeviceIndex == pipelineSchemas.size()) {
+      pipelineDeviceIndex = 0;
+      if (config.isIS_SENSOR_TS_ALIGNMENT()) {
+        insertLoopIndex++;
+      }
+    }
+    return batch;
+  }
+
+  /**
+   * Send the batches of one ingestion operation generated by pipeline, the latency of each batch
+   * only covers sending
+   *
+   * @return false when connect failed or batches could not be generated
+   */
+  private boolean pipelinedIngestionOperation() {
+    for (int i = 0; i < pipelineBatchNum; i++) {
+      Batch batch;
+      try {
+        batch = ingestionPipeline.take();
+      } catch (WorkloadException e) {
+        LOGGER.error("Failed to generate one batch data because ", e);
+        return false;
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return false;
+      }
+      try {
+        if (config.isIS_SENSOR_TS_ALIGNMENT()) {
+          insertAlignedBatch(batch);
+        } else {
+          dbWrapper.insertOneSensorBatch(batch);
+        }
+      } catch (DBConnectException e) {
+        LOGGER.error("Failed to insert one batch data because ", e);
+        releaseDeviceBatches();
+        return false;
+      } catch (Exception e) {
+        LOGGER.error("Failed to insert one batch data because ", e);
+      }
+    }
+    try {
+      flushDeviceBatches();
+    } catch (DBConnectException e) {
+      LOGGER.error("Failed to insert batches because ", e);
+      return false;
+    } catch (Exception e) {
+      LOGGER.error("Failed to insert batches because ", e);
+    } finally {
+      releaseDeviceBatches();
+    }
+    return true;
+  }
+
+  /**
+   * Send one batch of an aligned ingestion operation. If DEVICE_NUMBER_PER_WRITE > 1, the batch is
+   * kept until the batches of DEVICE_NUMBER_PER_WRITE devices are ready, and they are sent in one
+   * request.
+   */
+  private void insertAlignedBatch(Batch batch) throws DBConnectException {
+    if (config.getDEVICE_NUMBER_PER_WRITE() <= 1) {
+      dbWrapper.insertOneBatch(batch);
+      return;
+    }
+    deviceBatches.add(batch);
+    if (deviceBatches.size() >= config.getDEVICE_NUMBER_PER_WRITE()) {
+      flushDeviceBatches();
+    }
+  }
+
+  /** Send the kept batches in one request, called at the end of each loop */
+  private void flushDeviceBatches() throws DBConnectException {
+    if (deviceBatches.isEmpty()) {
+      return;
+    }
+    try {
+      // DBWrapper releases the batches
+      dbWrapper.insertBatches(deviceBatches);
+    } finally {
+      deviceBatches.clear();
+    }
+  }
+
+  /** Release the kept batches which could not be sent */
+  private void releaseDeviceBatches() {
+    for (Batch batch : deviceBatches) {
+      batch.release();
+    }
+    deviceBatches.clear();
+  }
+
+  /**
+   * Get the schemas of each sensor of device, which are cloned once and reused by all loops
+   *
+   * @param deviceSchema schema of device
+   * @return schema whose only sensor is the sensor at the same index
+   */
+  private DeviceSchema[] getSensorSchemas(DeviceSchema deviceSchema)
+      throws CloneNotSupportedException {
+    DeviceSchema[] sensorSchemas = sensorSchemaMap.get(deviceSchema);
+    if (sensorSchemas == null) {
+      List<String> sensors = deviceSchema.getSensors();
+      sensorSchemas = new DeviceSchema[sensors.size()];
+      for (int i = 0; i < sensorSchemas.length; i++) {
+        List<String> sensorList = new ArrayList<>();
+        sensorList.add(sensors.get(i));
+        sensorSchemas[i] = (DeviceSchema) deviceSchema.clone();
+        sensorSchemas[i].setSensors(sensorList);
+      }
+      sensorSchemaMap.put(deviceSchema, sensorSchemas);
+    }
+    return sensorSchemas;
   }
 
   /**
@@ -186,6 +453,9 @@ public abstract class BaseClient extends Client implements Runnable {
    * @param actualDeviceFloor @Return when connect failed return false
    */
   private boolean ingestionOperation(double actualDeviceFloor) {
+    if (ingestionPipeline != null) {
+      return pipelinedIngestionOperation();
+    }
     if (config.isIS_CLIENT_BIND()) {
       if (config.isIS_SENSOR_TS_ALIGNMENT()) {
         // IS_CLIENT_BIND == true && IS_SENSOR_TS_ALIGNMENT = true
@@ -194,37 +464,34 @@ public abstract class BaseClient extends Client implements Runnable {
           for (DeviceSchema deviceSchema : schemas) {
             if (deviceSchema.getDeviceId() < actualDeviceFloor) {
               Batch batch = syntheticWorkload.getOneBatch(deviceSchema, insertLoopIndex);
-              dbWrapper.insertOneBatch(batch);
+              insertAlignedBatch(batch);
             }
           }
+          flushDeviceBatches();
         } catch (DBConnectException e) {
           LOGGER.error("Failed to insert one batch data because ", e);
           return false;
         } catch (Exception e) {
           LOGGER.error("Failed to insert one batch data because ", e);
+        } finally {
+          releaseDeviceBatches();
         }
         insertLoopIndex++;
       } else {
         // IS_CLIENT_BIND == true && IS_SENSOR_IS_ALIGNMENT = false
         try {
           List<DeviceSchema> schemas = dataSchema.getClientBindSchema().get(clientThreadId);
-          DeviceSchema sensorSchema = null;
-          List<String> sensorList = new ArrayList<String>();
           for (DeviceSchema deviceSchema : schemas) {
             if (deviceSchema.getDeviceId() < actualDeviceFloor) {
-              int colIndex = 0;
-              for (String sensor : deviceSchema.getSensors()) {
-                sensorList = new ArrayList<String>();
-                sensorList.add(sensor);
-                sensorSchema = (DeviceSchema) deviceSchema.clone();
-                sensorSchema.setSensors(sensorList);
+              DeviceSchema[] sensorSchemas = getSensorSchemas(deviceSchema);
+              for (int colIndex = 0; colIndex < sensorSchemas.length; colIndex++) {
                 Batch batch =
-                    syntheticWorkload.getOneBatch(sensorSchema, insertLoopIndex, colIndex);
+                    syntheticWorkload.getOneBatch(
+                        sensorSchemas[colIndex], insertLoopIndex, colIndex);
                 batch.setColIndex(colIndex);
                 String colType = DBUtil.getDataType(colIndex);
                 batch.setColType(colType);
                 dbWrapper.insertOneSensorBatch(batch);
-                colIndex++;
                 insertLoopIndex++;
               }
             }
@@ -0,0 +1,316 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package cn.edu.tsinghua.iotdb.benchmark.client;
+
+import cn.edu.tsinghua.iotdb.benchmark.conf.Config;
+import cn.edu.tsinghua.iotdb.benchmark.conf.ConfigDescriptor;
+import cn.edu.tsinghua.iotdb.benchmark.conf.Constants;
+import cn.edu.tsinghua.iotdb.benchmark.measurement.WindowMetricsReporter;
+import cn.edu.tsinghua.iotdb.benchmark.measurement.WindowRecorder;
+import cn.edu.tsinghua.iotdb.benchmark.measurement.persistence.ITestDataPersistence;
+import cn.edu.tsinghua.iotdb.benchmark.measurement.persistence.PersistenceFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Searches the max sustainable load in capacitySearchMode. The offered load, either the aggregate
+ * target rate of open-loop mode or the number of active clients, is doubled step by step until a
+ * step misses the SLO, then the highest sustainable load is binary searched. Each step lasts for
+ * CAPACITY_STEP_DURATION, and it is sustainable if the p99 latency and the error rate of all
+ * operations in it meet CAPACITY_SLO_P99_LATENCY and CAPACITY_MAX_ERROR_RATE. The offered load,
+ * achieved rate and p99 latency of each step make up the capacity curve.
+ */
+public class CapacitySearch implements PhaseSchedule {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(CapacitySearch.class);
+  private static final Config config = ConfigDescriptor.getInstance().getConfig();
+  private static final String CAPACITY = "capacity";
+
+  /** whether the load is the number of active clients, otherwise the target rate */
+  private final boolean byClient;
+  /** whether rates are in points/s, otherwise in operations/s */
+  private final boolean pointUnit;
+
+  private final double maxLoad;
+  /** steps published to clients, the last one is running */
+  private final List<Phase> steps = new CopyOnWriteArrayList<>();
+
+  private final List<Long> stepStartNanos = new CopyOnWriteArrayList<>();
+  /** results of finished steps, only accessed by the search thread until it finishes */
+  private final List<StepResult> curve = new ArrayList<>();
+
+  private volatile boolean finished = false;
+  private double maxSustainableLoad = 0;
+
+  public CapacitySearch() {
+    byClient = Constants.CAPACITY_LOAD_CLIENT.equalsIgnoreCase(config.getCAPACITY_SEARCH_LOAD());
+    pointUnit = !Constants.RATE_UNIT_OPERATION.equalsIgnoreCase(config.getTARGET_RATE_UNIT());
+    if (byClient) {
+      maxLoad =
+          config.getCAPACITY_MAX_LOAD() > 0
+              ? Math.min(config.getCAPACITY_MAX_LOAD(), config.getCLIENT_NUMBER())
+              : config.getCLIENT_NUMBER();
+    } else {
+      maxLoad = config.getCAPACITY_MAX_LOAD();
+    }
+  }
+
+  /** Publish the first step and search in another thread */
+  @Override
+  public void start() {
+    publishStep(getStartLoad());
+    Thread thread = new Thread(this::search, "capacity-search");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  private double getStartLoad() {
+    double startLoad = config.getCAPACITY_START_LOAD();
+    if (startLoad <= 0) {
+      startLoad = byClient ? 1 : config.getTARGET_RATE() > 0 ? config.getTARGET_RATE() : 1000;
+    }
+    if (byClient) {
+      startLoad = Math.floor(startLoad);
+    }
+    return maxLoad > 0 ? Math.min(startLoad, maxLoad) : startLoad;
+  }
+
+  private void search() {
+    double sustainable = 0;
+    double unsustainable = 0;
+    WindowRecorder.Window window = new WindowRecorder.Window();
+    try {
+      for (int step = 0; step < config.getCAPACITY_MAX_STEP(); step++) {
+        Phase phase = steps.get(step);
+        double load = byClient ? phase.getMaxClientNumber() : phase.getTargetRate();
+        Thread.sleep(config.getCAPACITY_STEP_DURATION());
+        window.reset();
+        WindowMetricsReporter.collect(window);
+        long stepNanos = System.nanoTime() - stepStartNanos.get(step);
+        StepResult result = evaluate(load, window, stepNanos / 1000000000.0D);
+        curve.add(result);
+        LOGGER.info(
+            "Capacity search step {}: load {}, achieved {} {}/s, p99 {} ms, error rate {}, {}",
+            step,
+            formatLoad(load),
+            String.format("%.2f", result.achievedRate),
+            pointUnit ? "points" : "operations",
+            String.format("%.2f", result.p99Latency),
+            String.format("%.4f", result.errorRate),
+            result.sustainable ? "sustainable" : "unsustainable");
+        if (result.sustainable) {
+          sustainable = load;
+        } else {
+          unsustainable = load;
+        }
+        double next =
+            nextLoad(sustainable, unsustainable, maxLoad, config.getCAPACITY_PRECISION(), byClient);
+        if (next < 0 || step + 1 == config.getCAPACITY_MAX_STEP()) {
+          break;
+        }
+        publishStep(next);
+      }
+    } catch (InterruptedException e) {
+      LOGGER.warn("Capacity search is interrupted");
+      Thread.currentThread().interrupt();
+    }
+    maxSustainableLoad = sustainable;
+    finished = true;
+  }
+
+  /**
+   * Decide the load of the next step, which doubles until unsustainable and then binary searches
+   *
+   * @param sustainable the highest sustainable load so far, 0 if none
+   * @param unsustainable the lowest unsustainable load so far, 0 if none
+   * @param maxLoad the max load, 0 means no limit
+   * @param precision the search ends when its range is smaller than this ratio of unsustainable
+   * @param byClient whether the load is the number of clients, which ends when its range is 1
+   * @return load of the next step, -1 if the search is finished
+   */
+  static double nextLoad(
+      double sustainable,
+      double unsustainable,
+      double maxLoad,
+      double precision,
+      boolean byClient) {
+    if (unsustainable == 0) {
+      if (maxLoad > 0 && sustainable >= maxLoad) {
+        return -1;
+      }
+      return maxLoad > 0 ? Math.min(sustainable * 2, maxLoad) : sustainable * 2;
+    }
+    double range = unsustainable - sustainable;
+    if (byClient ? range <= 1 : range <= precision * unsustainable) {
+      return -1;
+    }
+    double next = (sustainable + unsustainable) / 2;
+    return byClient ? Math.floor(next) : next;
+  }
+
+  /**
+   * Evaluate one step by the window of its operations
+   *
+   * @param load offered load of step
+   * @param window operations of step
+   * @param seconds duration of step
+   */
+  StepResult evaluate(double load, WindowRecorder.Window window, double seconds) {
+    long okOperationNum = 0;
+    long failOperationNum = 0;
+    long okPointNum = 0;
+    for (Operation operation : Operation.values()) {
+      okOperationNum += window.getOkOperationNum(operation);
+      failOperationNum += window.getFailOperationNum(operation);
+      okPointNum += window.getOkPointNum(operation);
+    }
+    long operationNum = okOperationNum + failOperationNum;
+    double achievedRate = (pointUnit ? okPointNum : okOperationNum) / seconds;
+    double p99Latency = window.getLatency(0.99);
+    double errorRate = operationNum == 0 ? 0 : (double) failOperationNum / operationNum;
+    // a step without any finished operation is stalled
+    boolean sustainable =
+        operationNum > 0
+            && p99Latency <= config.getCAPACITY_SLO_P99_LATENCY()
+            && errorRate <= config.getCAPACITY_MAX_ERROR_RATE();
+    return new StepResult(load, achievedRate, p99Latency, errorRate, sustainable);
+  }
+
+  private void publishStep(double load) {
+    // clients run in closed-loop mode when the load is the number of clients
+    int clientNumber = byClient ? (int) load : config.getCLIENT_NUMBER();
+    Phase step =
+        new Phase(
+            "step-" + steps.size(),
+            config.getCAPACITY_STEP_DURATION(),
+            clientNumber,
+            clientNumber,
+            config.getOPERATION_PROPORTION(),
+            byClient ? 0 : load);
+    // discard the operations before this step
+    WindowMetricsReporter.collect(new WindowRecorder.Window());
+    stepStartNanos.add(System.nanoTime());
+    steps.add(step);
+  }
+
+  @Override
+  public int getPhaseIndex(long nanoTime) {
+    return finished ? -1 : steps.size() - 1;
+  }
+
+  @Override
+  public Phase getPhase(int index) {
+    return steps.get(index);
+  }
+
+  @Override
+  public long getPhaseStartNanos(int index) {
+    return stepStartNanos.get(index);
+  }
+
+  @Override
+  public long getPhaseEndNanos(int index) {
+    return stepStartNanos.get(index) + config.getCAPACITY_STEP_DURATION() * 1000000L;
+  }
+
+  /** Show the capacity curve and record it according to TEST_DATA_PERSISTENCE */
+  public void showCapacityCurve() {
+    ITestDataPersistence recorder = new PersistenceFactory().getPersistence();
+    String rateUnit = pointUnit ? "point/s" : "operation/s";
+    String loadName = byClient ? "clients" : "offered(" + rateUnit + ")";
+    System.out.println(
+        "-------------------------------------Capacity Curve-------------------------------------");
+    String format = "%-10s%-22s%-24s%-12s%-12s%-12s\n";
+    System.out.printf(
+        format,
+        "Step",
+        loadName,
+        "achieved(" + rateUnit + ")",
+        "p99(ms)",
+        "errorRate",
+        "sustainable");
+    for (int i = 0; i < curve.size(); i++) {
+      StepResult result = curve.get(i);
+      String step = "step-" + i;
+      System.out.printf(
+          format,
+          step,
+          formatLoad(result.load),
+          String.format("%.2f", result.achievedRate),
+          String.format("%.2f", result.p99Latency),
+          String.format("%.4f", result.errorRate),
+          result.sustainable);
+      recorder.saveResult(CAPACITY, step + ":offeredLoad", formatLoad(result.load));
+      recorder.saveResult(
+          CAPACITY, step + ":achievedRate", String.format("%.2f", result.achievedRate));
+      recorder.saveResult(CAPACITY, step + ":p99Latency", String.format("%.2f", result.p99Latency));
+      recorder.saveResult(CAPACITY, step + ":errorRate", String.format("%.4f", result.errorRate));
+    }
+    System.out.println(
+        "Max sustainable "
+            + (byClient ? "CLIENT_NUMBER: " : "TARGET_RATE: ")
+            + formatLoad(maxSustainableLoad)
+            + (byClient ? "" : " " + rateUnit));
+    System.out.println(
+        "----------------------------------------------------------------------------------------");
+    recorder.saveResult(CAPACITY, "maxSustainableLoad", formatLoad(maxSustainableLoad));
+    recorder.close();
+  }
+
+  private String formatLoad(double load) {
+    return byClient ? String.valueOf((int) load) : String.format("%.2f", load);
+  }
+
+  /** Result of one load step */
+  static class StepResult {
+    private final double load;
+    /** successful points or operations per second according to TARGET_RATE_UNIT */
+    private final double achievedRate;
+
+    private final double p99Latency;
+    private final double errorRate;
+    private final boolean sustainable;
+
+    StepResult(
+        double load,
+        double achievedRate,
+        double p99Latency,
+        double errorRate,
+        boolean sustainable) {
+      this.load = load;
+      this.achievedRate = achievedRate;
+      this.p99Latency = p99Latency;
+      this.errorRate = errorRate;
+      this.sustainable = sustainable;
+    }
+
+    boolean isSustainable() {
+      return sustainable;
+    }
+
+    double getAchievedRate() {
+      return achievedRate;
+    }
+  }
+}
@@ -22,11 +22,15 @@ package cn.edu.tsinghua.iotdb.benchmark.client;
 import cn.edu.tsinghua.iotdb.benchmark.conf.Config;
 import cn.edu.tsinghua.iotdb.benchmark.conf.ConfigDescriptor;
 import cn.edu.tsinghua.iotdb.benchmark.measurement.Measurement;
+import cn.edu.tsinghua.iotdb.benchmark.measurement.WindowMetricsReporter;
+import cn.edu.tsinghua.iotdb.benchmark.measurement.WindowRecorder;
 import cn.edu.tsinghua.iotdb.benchmark.tsdb.DBWrapper;
 import cn.edu.tsinghua.iotdb.benchmark.tsdb.TsdbException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.CyclicBarrier;
 
@@ -39,6 +43,14 @@ public abstract class Client implements Runnable {
 
   protected static Config config = ConfigDescriptor.getInstance().getConfig();
   protected Measurement measurement;
+  /** measurement of the operations during warm-up, which are excluded from measurement */
+  protected final Measurement warmUpMeasurement = new Measurement();
+  /** the time in nanoseconds when warm-up finished, 0 if the client did not warm up */
+  protected long warmUpEndTime = 0;
+  /** measurement of each phase the client has entered, empty if it does not run phases */
+  protected final List<Measurement> phaseMeasurements = new ArrayList<>();
+
+  protected final WindowRecorder windowRecorder = WindowMetricsReporter.createRecorder();
   protected int clientThreadId;
   protected DBWrapper dbWrapper;
 
@@ -47,6 +59,7 @@ public abstract class Client implements Runnable {
     this.barrier = barrier;
     clientThreadId = id;
     measurement = new Measurement();
+    measurement.setWindowRecorder(windowRecorder);
     dbWrapper = new DBWrapper(measurement);
   }
 
@@ -82,6 +95,18 @@ public abstract class Client implements Runnable {
     return measurement;
   }
 
+  public Measurement getWarmUpMeasurement() {
+    return warmUpMeasurement;
+  }
+
+  public long getWarmUpEndTime() {
+    return warmUpEndTime;
+  }
+
+  public List<Measurement> getPhaseMeasurements() {
+    return phaseMeasurements;
+  }
+
   /** Do test */
   abstract void doTest();
 }
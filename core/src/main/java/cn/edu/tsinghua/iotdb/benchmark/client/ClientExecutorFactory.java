@@ -0,0 +1,63 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package cn.edu.tsinghua.iotdb.benchmark.client;
+
+import cn.edu.tsinghua.iotdb.benchmark.conf.Config;
+import cn.edu.tsinghua.iotdb.benchmark.conf.ConfigDescriptor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/** Creates the executor which runs all the clients, one thread per client */
+public class ClientExecutorFactory {
+  private static final Logger LOGGER = LoggerFactory.getLogger(ClientExecutorFactory.class);
+  private static final Config config = ConfigDescriptor.getInstance().getConfig();
+
+  /**
+   * Virtual threads are created by reflection since the benchmark is compiled for JDK 8
+   *
+   * @return an executor which starts a virtual thread for each client if ENABLE_VIRTUAL_THREAD is
+   *     true and supported by the JDK, otherwise a pool of CLIENT_NUMBER platform threads
+   */
+  public ExecutorService getExecutor() {
+    if (config.isENABLE_VIRTUAL_THREAD()) {
+      try {
+        // Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("client-", 0).factory())
+        Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+        Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+        builder =
+            builderClass.getMethod("name", String.class, long.class).invoke(builder, "client-", 0L);
+        ThreadFactory factory = (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+        Method method = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+        LOGGER.info("Run {} clients in virtual threads", config.getCLIENT_NUMBER());
+        return (ExecutorService) method.invoke(null, factory);
+      } catch (ReflectiveOperationException e) {
+        LOGGER.warn(
+            "Virtual thread is not supported by JDK {}, use platform threads",
+            System.getProperty("java.version"));
+      }
+    }
+    return Executors.newFixedThreadPool(config.getCLIENT_NUMBER());
+  }
+}
@@ -0,0 +1,61 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package cn.edu.tsinghua.iotdb.benchmark.client;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Progress of one client, updated by the client thread and read by {@link ProgressReporter}. Each
+ * counter has only one writer, so updating it is not contended.
+ */
+public class ClientProgress {
+
+  private final long totalLoops;
+  /** number of finished operations of each type */
+  private final AtomicLongArray operationNums = new AtomicLongArray(Operation.values().length);
+
+  private volatile boolean finished;
+
+  ClientProgress(long totalLoops) {
+    this.totalLoops = totalLoops;
+  }
+
+  /** Called after each loop of client */
+  public void finishOperation(Operation operation) {
+    operationNums.lazySet(operation.ordinal(), operationNums.get(operation.ordinal()) + 1);
+  }
+
+  /** Called when the client finished all the loops or stopped */
+  public void finish() {
+    finished = true;
+  }
+
+  public boolean isFinished() {
+    return finished;
+  }
+
+  public long getTotalLoops() {
+    return totalLoops;
+  }
+
+  public long getOperationNum(Operation operation) {
+    return operationNums.get(operation.ordinal());
+  }
+}
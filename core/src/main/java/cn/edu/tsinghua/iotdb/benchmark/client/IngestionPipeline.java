@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package cn.edu.tsinghua.iotdb.benchmark.client;
+
+import cn.edu.tsinghua.iotdb.benchmark.workload.WorkloadException;
+import cn.edu.tsinghua.iotdb.benchmark.workload.ingestion.Batch;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Generates the batches of one client in a separate thread, so that the next batches are prepared
+ * while the client is blocked in sending the current one. At most depth generated batches wait in
+ * the queue, and the batches left in the queue are released when the pipeline is closed.
+ */
+class IngestionPipeline {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(IngestionPipeline.class);
+
+  /** Marks that the generator failed, the cause is kept in failure */
+  private static final Batch END = new Batch();
+
+  private final BlockingQueue<Batch> queue;
+  private final BatchGenerator generator;
+  private final Thread thread;
+  private volatile boolean running = true;
+  private volatile Exception failure;
+
+  /** Generates the batches in the order they are sent */
+  interface BatchGenerator {
+    Batch next() throws Exception;
+  }
+
+  /**
+   * @param name name of the generating thread
+   * @param depth max number of generated batches waiting to be sent
+   * @param generator generator of batches, which is only called by the generating thread
+   */
+  IngestionPipeline(String name, int depth, BatchGenerator generator) {
+    this.queue = new ArrayBlockingQueue<>(Math.max(depth, 1));
+    this.generator = generator;
+    this.thread = new Thread(this::generate, name);
+    this.thread.setDaemon(true);
+  }
+
+  void start() {
+    thread.start();
+  }
+
+  private void generate() {
+    while (running) {
+      Batch batch;
+      try {
+        batch = generator.next();
+      } catch (Exception e) {
+        failure = e;
+        offerEnd();
+        return;
+      }
+      try {
+        queue.put(batch);
+      } catch (InterruptedException e) {
+        batch.release();
+        Thread.currentThread().interrupt();
+        return;
+      }
+    }
+  }
+
+  private void offerEnd() {
+    try {
+      queue.put(END);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Get the next generated batch, waiting if it is not ready
+   *
+   * @throws WorkloadException if the generator failed
+   */
+  Batch take() throws WorkloadException, InterruptedException {
+    Batch batch = queue.take();
+    if (batch == END) {
+      // keep the marker for later calls
+      queue.offer(END);
+      throw new WorkloadException("Failed to generate batch", failure);
+    }
+    return batch;
+  }
+
+  /** Stop generating and release the batches which are not sent */
+  void close() {
+    running = false;
+    thread.interrupt();
+    try {
+      thread.join();
+    } catch (InterruptedException e) {
+      LOGGER.warn("Interrupted while waiting for {} to stop", thread.getName());
+      Thread.currentThread().interrupt();
+    }
+    Batch batch;
+    while ((batch = queue.poll()) != null) {
+      if (batch != END) {
+        batch.release();
+      }
+    }
+  }
+}
@@ -22,6 +22,7 @@ package cn.edu.tsinghua.iotdb.benchmark.client;
 import cn.edu.tsinghua.iotdb.benchmark.conf.Config;
 import cn.edu.tsinghua.iotdb.benchmark.conf.ConfigDescriptor;
 import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -29,58 +30,58 @@ import java.util.Random;
 
 public class OperationController {
 
-  private static final Logger LOGGER = null;
+  private static final Logger LOGGER = LoggerFactory.getLogger(OperationController.class);
   private static Config config = ConfigDescriptor.getInstance().getConfig();
   private Random random;
 
+  /** the compiled operation mix, rebuilt only when the proportion or mode is changed */
+  private OperationMix operationMix;
+
+  /** OPERATION_PROPORTION of the current phase, null to follow config */
+  private String phaseProportion;
+
+  private String resolvedProportion;
+  private boolean resolvedInterleaved;
+  /** sequence number of next operation, starts from seed so that clients are staggered */
+  private long operationIndex;
+
   OperationController(int seed) {
     random = new Random(seed);
+    operationIndex = seed;
   }
 
   /** @return Operation the next operation for client to execute */
   Operation getNextOperationType() {
-    List<Double> proportion = resolveOperationProportion();
-    // p contains cumulative probability
-    double[] p = new double[Operation.values().length + 1];
-    p[0] = 0.0;
-    for (int i = 1; i <= Operation.values().length; i++) {
-      p[i] = p[i - 1] + proportion.get(i - 1);
-    }
-    // use random to getNextOperationType
-    double rand = random.nextDouble();
-    int i;
-    for (i = 1; i <= Operation.values().length; i++) {
-      if (rand >= p[i - 1] && rand <= p[i]) {
-        break;
+    return getOperationMix().next(random, operationIndex++);
+  }
+
+  /**
+   * Use the operation proportion of one phase instead of OPERATION_PROPORTION
+   *
+   * @param phaseProportion proportion in the same format as OPERATION_PROPORTION
+   */
+  void setPhaseProportion(String phaseProportion) {
+    this.phaseProportion = phaseProportion;
+  }
+
+  /**
+   * Get the compiled operation mix. OPERATION_PROPORTION may be changed at runtime (e.g. by
+   * phases), so it is compared by reference and recompiled on change.
+   */
+  OperationMix getOperationMix() {
+    String proportion =
+        phaseProportion != null ? phaseProportion : config.getOPERATION_PROPORTION();
+    boolean interleaved = config.isIS_OPERATION_INTERLEAVED();
+    if (proportion != resolvedProportion || interleaved != resolvedInterleaved) {
+      if (operationMix == null
+          || !proportion.equals(resolvedProportion)
+          || interleaved != resolvedInterleaved) {
+        operationMix = new OperationMix(resolveOperationWeight(proportion), interleaved);
       }
+      resolvedProportion = proportion;
+      resolvedInterleaved = interleaved;
     }
-    switch (i) {
-      case 1:
-        return Operation.INGESTION;
-      case 2:
-        return Operation.PRECISE_QUERY;
-      case 3:
-        return Operation.RANGE_QUERY;
-      case 4:
-        return Operation.VALUE_RANGE_QUERY;
-      case 5:
-        return Operation.AGG_RANGE_QUERY;
-      case 6:
-        return Operation.AGG_VALUE_QUERY;
-      case 7:
-        return Operation.AGG_RANGE_VALUE_QUERY;
-      case 8:
-        return Operation.GROUP_BY_QUERY;
-      case 9:
-        return Operation.LATEST_POINT_QUERY;
-      case 10:
-        return Operation.RANGE_QUERY_ORDER_BY_TIME_DESC;
-      case 11:
-        return Operation.VALUE_RANGE_QUERY_ORDER_BY_TIME_DESC;
-      default:
-        LOGGER.error("Unsupported operation {}, use default operation: INGESTION.", i);
-        return Operation.INGESTION;
-    }
+    return operationMix;
   }
 
   /**
@@ -90,17 +91,12 @@ public class OperationController {
    */
   List<Double> resolveOperationProportion() {
     List<Double> proportion = new ArrayList<>();
-    String[] split = config.getOPERATION_PROPORTION().split(":");
-    if (split.length != Operation.values().length) {
-      LOGGER.error("OPERATION_PROPORTION error, please check this parameter.");
-    }
-    double[] proportions = new double[Operation.values().length];
+    double[] proportions = resolveOperationWeight(config.getOPERATION_PROPORTION());
     double sum = 0;
-    for (int i = 0; i < split.length; i++) {
-      proportions[i] = Double.parseDouble(split[i]);
-      sum += proportions[i];
+    for (double weight : proportions) {
+      sum += weight;
     }
-    for (int i = 0; i < split.length; i++) {
+    for (int i = 0; i < proportions.length; i++) {
       if (sum != 0) {
         proportion.add(proportions[i] / sum);
       } else {
@@ -110,4 +106,22 @@ public class OperationController {
     }
     return proportion;
   }
+
+  /**
+   * parse the raw weights in OPERATION_PROPORTION
+   *
+   * @param proportion proportion in the format of OPERATION_PROPORTION
+   * @return weights in the order of {@link Operation}
+   */
+  private double[] resolveOperationWeight(String proportion) {
+    String[] split = proportion.split(":");
+    if (split.length != Operation.values().length) {
+      LOGGER.error("OPERATION_PROPORTION error, please check this parameter.");
+    }
+    double[] weights = new double[Operation.values().length];
+    for (int i = 0; i < split.length && i < weights.length; i++) {
+      weights[i] = Double.parseDouble(split[i]);
+    }
+    return weights;
+  }
 }
@@ -0,0 +1,197 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package cn.edu.tsinghua.iotdb.benchmark.client;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Random;
+
+/**
+ * Operation mix resolved from OPERATION_PROPORTION once. It supports two ways to pick operations:
+ *
+ * <p>1. random: weighted sampling by alias table, O(1) for each operation.
+ *
+ * <p>2. interleaved: a deterministic schedule in which operations are spread evenly according to
+ * their weights, e.g. 9:1 gives exactly 1 query per 9 writes.
+ */
+public class OperationMix {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(OperationMix.class);
+  private static final Operation[] OPERATIONS = Operation.values();
+  /** the max length of interleaved schedule, non-integer weights are scaled to it */
+  private static final int MAX_SCHEDULE_LENGTH = 1000;
+
+  private final boolean interleaved;
+  /** alias table */
+  private final double[] aliasProbability;
+
+  private final int[] alias;
+  /** interleaved schedule */
+  private final Operation[] schedule;
+
+  /**
+   * @param weights weights of operations, in the order of {@link Operation}
+   * @param interleaved whether use deterministic interleaved schedule
+   */
+  public OperationMix(double[] weights, boolean interleaved) {
+    this.interleaved = interleaved;
+    double sum = 0;
+    for (double weight : weights) {
+      sum += weight;
+    }
+    double[] proportions = new double[OPERATIONS.length];
+    if (sum <= 0) {
+      LOGGER.error("The sum of operation proportions is zero, use INGESTION only!");
+      proportions[Operation.INGESTION.ordinal()] = 1;
+    } else {
+      for (int i = 0; i < weights.length && i < proportions.length; i++) {
+        proportions[i] = weights[i] / sum;
+      }
+    }
+    this.aliasProbability = new double[OPERATIONS.length];
+    this.alias = new int[OPERATIONS.length];
+    buildAliasTable(proportions);
+    this.schedule = interleaved ? buildSchedule(weights, proportions) : null;
+  }
+
+  /** Vose's alias method */
+  private void buildAliasTable(double[] proportions) {
+    int n = proportions.length;
+    double[] scaled = new double[n];
+    Deque<Integer> small = new ArrayDeque<>();
+    Deque<Integer> large = new ArrayDeque<>();
+    for (int i = 0; i < n; i++) {
+      scaled[i] = proportions[i] * n;
+      if (scaled[i] < 1) {
+        small.push(i);
+      } else {
+        large.push(i);
+      }
+    }
+    while (!small.isEmpty() && !large.isEmpty()) {
+      int less = small.pop();
+      int more = large.pop();
+      aliasProbability[less] = scaled[less];
+      alias[less] = more;
+      scaled[more] = scaled[more] + scaled[less] - 1;
+      if (scaled[more] < 1) {
+        small.push(more);
+      } else {
+        large.push(more);
+      }
+    }
+    // the rest are 1 up to rounding error
+    while (!large.isEmpty()) {
+      int index = large.pop();
+      aliasProbability[index] = 1;
+      alias[index] = index;
+    }
+    while (!small.isEmpty()) {
+      int index = small.pop();
+      aliasProbability[index] = 1;
+      alias[index] = index;
+    }
+  }
+
+  /**
+   * Spread operations evenly by smooth weighted round robin. Integer weights are used as they are,
+   * otherwise the proportions are scaled to MAX_SCHEDULE_LENGTH slots.
+   */
+  private static Operation[] buildSchedule(double[] weights, double[] proportions) {
+    int[] counts = new int[proportions.length];
+    boolean integral = true;
+    long total = 0;
+    for (int i = 0; i < weights.length && i < counts.length; i++) {
+      if (weights[i] != Math.rint(weights[i])) {
+        integral = false;
+      }
+      total += (long) weights[i];
+    }
+    if (integral && total > 0 && total <= MAX_SCHEDULE_LENGTH) {
+      for (int i = 0; i < weights.length && i < counts.length; i++) {
+        counts[i] = (int) weights[i];
+      }
+    } else {
+      // largest remainder rounding, keeps the length exactly MAX_SCHEDULE_LENGTH
+      total = 0;
+      double[] remainders = new double[counts.length];
+      for (int i = 0; i < counts.length; i++) {
+        double slots = proportions[i] * MAX_SCHEDULE_LENGTH;
+        counts[i] = (int) slots;
+        remainders[i] = slots - counts[i];
+        total += counts[i];
+      }
+      for (; total < MAX_SCHEDULE_LENGTH; total++) {
+        int max = 0;
+        for (int i = 1; i < remainders.length; i++) {
+          if (remainders[i] > remainders[max]) {
+            max = i;
+          }
+        }
+        counts[max]++;
+        remainders[max] = -1;
+      }
+    }
+    Operation[] schedule = new Operation[(int) total];
+    long[] current = new long[counts.length];
+    for (int slot = 0; slot < schedule.length; slot++) {
+      int selected = -1;
+      for (int i = 0; i < counts.length; i++) {
+        current[i] += counts[i];
+        if (counts[i] > 0 && (selected == -1 || current[i] > current[selected])) {
+          selected = i;
+        }
+      }
+      current[selected] -= total;
+      schedule[slot] = OPERATIONS[selected];
+    }
+    return schedule;
+  }
+
+  /**
+   * Get the operation to execute
+   *
+   * @param random random used for weighted sampling
+   * @param index sequence number of this operation, used by interleaved schedule
+   * @return the operation
+   */
+  public Operation next(Random random, long index) {
+    if (interleaved) {
+      return schedule[(int) (index % schedule.length)];
+    }
+    // one draw per operation: the integer part picks the column, the fraction is the coin
+    double u = random.nextDouble() * OPERATIONS.length;
+    int column = Math.min((int) u, OPERATIONS.length - 1);
+    double coin = u - column;
+    return coin < aliasProbability[column] ? OPERATIONS[column] : OPERATIONS[alias[column]];
+  }
+
+  public boolean isInterleaved() {
+    return interleaved;
+  }
+
+  /** @return the schedule of interleaved mix, null if it is random */
+  Operation[] getSchedule() {
+    return schedule;
+  }
+}
@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package cn.edu.tsinghua.iotdb.benchmark.client;
+
+import cn.edu.tsinghua.iotdb.benchmark.conf.Config;
+import cn.edu.tsinghua.iotdb.benchmark.conf.ConfigDescriptor;
+import cn.edu.tsinghua.iotdb.benchmark.conf.Constants;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Pacing scheduler of one client in open-loop mode. Operations are assigned intended start times
+ * on a fixed schedule derived from TARGET_RATE, independent of how long previous operations take.
+ * If the database stalls, the schedule does not slide: the following operations start late and
+ * their latency, measured from the intended start time, includes the time spent waiting, which
+ * corrects coordinated omission.
+ */
+public class OperationPacer {
+
+  private static final Config config = ConfigDescriptor.getInstance().getConfig();
+  /** park until this close to the intended start time, then spin */
+  private static final long SPIN_THRESHOLD_NANOS = 50_000L;
+
+  /** nanoseconds per permit, one permit is one point or one operation */
+  private final double permitIntervalNanos;
+  /** whether one permit is one point, otherwise one permit is one operation */
+  private final boolean pointUnit;
+  /** points charged for an operation whose point number is unknown before execution, e.g. query */
+  private final int defaultPointNum;
+  /** intended start time of the first operation */
+  private long baseNanos;
+  /** offset of the intended start time of the next operation from baseNanos */
+  private double nextOffsetNanos = 0;
+
+  private boolean started = false;
+
+  /**
+   * @param ratePerSecond target rate of this client
+   * @param pointUnit true if the rate is in points/s, false if in operations/s
+   * @param defaultPointNum points charged for an operation whose point number is unknown
+   */
+  public OperationPacer(double ratePerSecond, boolean pointUnit, int defaultPointNum) {
+    if (ratePerSecond <= 0) {
+      throw new IllegalArgumentException("Rate must be positive, but is " + ratePerSecond);
+    }
+    this.permitIntervalNanos = 1_000_000_000.0D / ratePerSecond;
+    this.pointUnit = pointUnit;
+    this.defaultPointNum = Math.max(defaultPointNum, 1);
+  }
+
+  /**
+   * Create the pacer of one client according to TARGET_RATE, TARGET_RATE_UNIT and CLIENT_NUMBER.
+   *
+   * @return null if running in closed-loop mode
+   */
+  public static OperationPacer createFromConfig() {
+    return create(config.getTARGET_RATE(), config.getCLIENT_NUMBER());
+  }
+
+  /**
+   * Create the pacer of one client which shares the target rate with other clients equally.
+   *
+   * @param targetRate aggregate target rate of all clients in TARGET_RATE_UNIT
+   * @param clientNumber number of clients sharing the target rate
+   * @return null if targetRate is not positive, which means closed-loop mode
+   */
+  public static OperationPacer create(double targetRate, int clientNumber) {
+    if (targetRate <= 0) {
+      return null;
+    }
+    double clientRate = targetRate / Math.max(clientNumber, 1);
+    if (Constants.RATE_UNIT_OPERATION.equalsIgnoreCase(config.getTARGET_RATE_UNIT())) {
+      return new OperationPacer(clientRate, false, 1);
+    }
+    // query is charged as many points as one write of a device
+    return new OperationPacer(
+        clientRate, true, config.getBATCH_SIZE_PER_WRITE() * config.getSENSOR_NUMBER());
+  }
+
+  /**
+   * Wait until the intended start time of the next operation.
+   *
+   * @param pointNum point number of the operation, non-positive if unknown
+   * @return intended start time in the same time base as System.nanoTime()
+   */
+  public long acquire(int pointNum) {
+    long now = System.nanoTime();
+    if (!started) {
+      baseNanos = now;
+      started = true;
+    }
+    long intendedStart = baseNanos + (long) nextOffsetNanos;
+    nextOffsetNanos += permitIntervalNanos * permits(pointNum);
+    waitUntil(intendedStart, now);
+    return intendedStart;
+  }
+
+  private int permits(int pointNum) {
+    if (!pointUnit) {
+      return 1;
+    }
+    return pointNum > 0 ? pointNum : defaultPointNum;
+  }
+
+  private static void waitUntil(long deadline, long now) {
+    long remaining = deadline - now;
+    while (remaining > 0) {
+      if (remaining > SPIN_THRESHOLD_NANOS) {
+        LockSupport.parkNanos(remaining - SPIN_THRESHOLD_NANOS);
+      } else {
+        Thread.yield();
+      }
+      remaining = deadline - System.nanoTime();
+    }
+  }
+}
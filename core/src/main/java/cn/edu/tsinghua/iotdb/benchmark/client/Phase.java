@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package cn.edu.tsinghua.iotdb.benchmark.client;
+
+/**
+ * One phase of a phase script, which runs for a fixed duration with its own operation mix, target
+ * rate and number of active clients. The number of active clients can ramp linearly from one value
+ * to another over the phase.
+ */
+public class Phase {
+
+  private final String name;
+  /** duration of phase in ms */
+  private final long duration;
+  /** number of active clients at the beginning of phase */
+  private final int startClientNumber;
+  /** number of active clients at the end of phase */
+  private final int endClientNumber;
+  /** OPERATION_PROPORTION of phase */
+  private final String operationProportion;
+  /** TARGET_RATE of phase, 0 means closed-loop mode */
+  private final double targetRate;
+
+  public Phase(
+      String name,
+      long duration,
+      int startClientNumber,
+      int endClientNumber,
+      String operationProportion,
+      double targetRate) {
+    this.name = name;
+    this.duration = duration;
+    this.startClientNumber = startClientNumber;
+    this.endClientNumber = endClientNumber;
+    this.operationProportion = operationProportion;
+    this.targetRate = targetRate;
+  }
+
+  /**
+   * Get the number of active clients. When clients ramp, each number between startClientNumber and
+   * endClientNumber lasts for the same time.
+   *
+   * @param elapsedNanos time elapsed since the start of phase in nanoseconds
+   * @return number of active clients
+   */
+  public int getActiveClientNumber(long elapsedNanos) {
+    if (startClientNumber == endClientNumber) {
+      return endClientNumber;
+    }
+    int levels = Math.abs(endClientNumber - startClientNumber) + 1;
+    long durationNanos = duration * 1000000L;
+    int level = (int) Math.min(levels - 1, levels * (double) elapsedNanos / durationNanos);
+    return endClientNumber > startClientNumber
+        ? startClientNumber + level
+        : startClientNumber - level;
+  }
+
+  /** @return the largest number of active clients during phase */
+  public int getMaxClientNumber() {
+    return Math.max(startClientNumber, endClientNumber);
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public long getDuration() {
+    return duration;
+  }
+
+  public int getStartClientNumber() {
+    return startClientNumber;
+  }
+
+  public int getEndClientNumber() {
+    return endClientNumber;
+  }
+
+  public String getOperationProportion() {
+    return operationProportion;
+  }
+
+  public double getTargetRate() {
+    return targetRate;
+  }
+}
@@ -0,0 +1,233 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package cn.edu.tsinghua.iotdb.benchmark.client;
+
+import cn.edu.tsinghua.iotdb.benchmark.conf.Config;
+import cn.edu.tsinghua.iotdb.benchmark.conf.ConfigDescriptor;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Phases of test read from PHASE_SCRIPT, which are run one after another by the same clients
+ * without restarting benchmark. Each phase of the script starts with its name in brackets, followed
+ * by its parameters, e.g.
+ *
+ * <pre>
+ * [ramp]
+ * DURATION=300000
+ * CLIENT_NUMBER=1-50
+ * [steady]
+ * DURATION=1800000
+ * OPERATION_PROPORTION=4:1:0:0:0:0:0:0:0:0:0
+ * </pre>
+ *
+ * DURATION (ms) is required. CLIENT_NUMBER is the number of active clients, or a linear ramp like
+ * 1-50, which can not exceed the CLIENT_NUMBER of config. OPERATION_PROPORTION and TARGET_RATE are
+ * the same as config. Parameters not given are inherited from the previous phase, or from config
+ * for the first phase.
+ */
+public class PhasePlan implements PhaseSchedule {
+
+  private static final Config config = ConfigDescriptor.getInstance().getConfig();
+
+  private static final String DURATION = "DURATION";
+  private static final String CLIENT_NUMBER = "CLIENT_NUMBER";
+  private static final String OPERATION_PROPORTION = "OPERATION_PROPORTION";
+  private static final String TARGET_RATE = "TARGET_RATE";
+
+  private final List<Phase> phases;
+  /** end time of each phase relative to the start of plan in nanoseconds */
+  private final long[] phaseEndNanos;
+  /** start time of plan, set when all clients are ready */
+  private volatile long startNanos;
+
+  PhasePlan(List<Phase> phases) {
+    this.phases = phases;
+    phaseEndNanos = new long[phases.size()];
+    long end = 0;
+    for (int i = 0; i < phases.size(); i++) {
+      end += phases.get(i).getDuration() * 1000000L;
+      phaseEndNanos[i] = end;
+    }
+  }
+
+  /**
+   * Load phase script according to PHASE_SCRIPT
+   *
+   * @return null if PHASE_SCRIPT is not set
+   */
+  public static PhasePlan loadFromConfig() throws IOException {
+    if (config.getPHASE_SCRIPT().isEmpty()) {
+      return null;
+    }
+    List<String> lines =
+        Files.readAllLines(Paths.get(config.getPHASE_SCRIPT()), StandardCharsets.UTF_8);
+    return parse(
+        lines,
+        config.getCLIENT_NUMBER(),
+        config.getOPERATION_PROPORTION(),
+        config.getTARGET_RATE());
+  }
+
+  /**
+   * Parse phase script
+   *
+   * @param lines lines of script
+   * @param clientNumber number of clients, also the default number of active clients
+   * @param operationProportion default OPERATION_PROPORTION
+   * @param targetRate default TARGET_RATE
+   * @throws IllegalArgumentException if the script is illegal
+   */
+  static PhasePlan parse(
+      List<String> lines, int clientNumber, String operationProportion, double targetRate) {
+    List<Phase> phases = new ArrayList<>();
+    String name = null;
+    long duration = 0;
+    int startClientNumber = clientNumber;
+    int endClientNumber = clientNumber;
+    for (int i = 0; i < lines.size(); i++) {
+      String line = lines.get(i).trim();
+      if (line.isEmpty() || line.startsWith("#")) {
+        continue;
+      }
+      if (line.startsWith("[") && line.endsWith("]")) {
+        if (name != null) {
+          phases.add(
+              createPhase(
+                  name,
+                  duration,
+                  startClientNumber,
+                  endClientNumber,
+                  operationProportion,
+                  targetRate));
+        }
+        name = line.substring(1, line.length() - 1).trim();
+        duration = 0;
+        startClientNumber = endClientNumber;
+        continue;
+      }
+      int split = line.indexOf('=');
+      if (name == null || split < 0) {
+        throw new IllegalArgumentException("Illegal line " + (i + 1) + " of phase script: " + line);
+      }
+      String key = line.substring(0, split).trim();
+      String value = line.substring(split + 1).trim();
+      try {
+        switch (key) {
+          case DURATION:
+            duration = Long.parseLong(value);
+            break;
+          case CLIENT_NUMBER:
+            int rampSplit = value.indexOf('-');
+            if (rampSplit < 0) {
+              startClientNumber = Integer.parseInt(value);
+              endClientNumber = startClientNumber;
+            } else {
+              startClientNumber = Integer.parseInt(value.substring(0, rampSplit).trim());
+              endClientNumber = Integer.parseInt(value.substring(rampSplit + 1).trim());
+            }
+            if (Math.min(startClientNumber, endClientNumber) < 0
+                || Math.max(startClientNumber, endClientNumber) > clientNumber) {
+              throw new IllegalArgumentException(
+                  "CLIENT_NUMBER of phase should be between 0 and " + clientNumber);
+            }
+            break;
+          case OPERATION_PROPORTION:
+            if (value.split(":").length != Operation.values().length) {
+              throw new IllegalArgumentException(
+                  "OPERATION_PROPORTION of phase should have "
+                      + Operation.values().length
+                      + " parts");
+            }
+            operationProportion = value;
+            break;
+          case TARGET_RATE:
+            targetRate = Double.parseDouble(value);
+            break;
+          default:
+            throw new IllegalArgumentException("Unsupported parameter " + key);
+        }
+      } catch (IllegalArgumentException e) {
+        throw new IllegalArgumentException(
+            "Illegal line " + (i + 1) + " of phase script: " + e.getMessage(), e);
+      }
+    }
+    if (name == null) {
+      throw new IllegalArgumentException("No phase in phase script");
+    }
+    phases.add(
+        createPhase(
+            name, duration, startClientNumber, endClientNumber, operationProportion, targetRate));
+    return new PhasePlan(phases);
+  }
+
+  private static Phase createPhase(
+      String name,
+      long duration,
+      int startClientNumber,
+      int endClientNumber,
+      String operationProportion,
+      double targetRate) {
+    if (duration <= 0) {
+      throw new IllegalArgumentException("DURATION of phase " + name + " should be positive");
+    }
+    return new Phase(
+        name, duration, startClientNumber, endClientNumber, operationProportion, targetRate);
+  }
+
+  @Override
+  public void start() {
+    startNanos = System.nanoTime();
+  }
+
+  @Override
+  public int getPhaseIndex(long nanoTime) {
+    long elapsed = nanoTime - startNanos;
+    int index = 0;
+    while (index < phaseEndNanos.length && elapsed >= phaseEndNanos[index]) {
+      index++;
+    }
+    return index < phaseEndNanos.length ? index : -1;
+  }
+
+  @Override
+  public long getPhaseStartNanos(int index) {
+    return startNanos + (index == 0 ? 0 : phaseEndNanos[index - 1]);
+  }
+
+  @Override
+  public long getPhaseEndNanos(int index) {
+    return startNanos + phaseEndNanos[index];
+  }
+
+  @Override
+  public Phase getPhase(int index) {
+    return phases.get(index);
+  }
+
+  public int size() {
+    return phases.size();
+  }
+}
@@ -0,0 +1,46 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package cn.edu.tsinghua.iotdb.benchmark.client;
+
+/**
+ * Phases which clients run one after another, either read from a script (PhasePlan) or decided
+ * during the test (CapacitySearch). Phases are indexed from 0 in the order they run.
+ */
+public interface PhaseSchedule {
+
+  /** Start the schedule, called once when all clients are ready */
+  void start();
+
+  /**
+   * Get the phase running at the given time
+   *
+   * @param nanoTime time in the same time base as System.nanoTime()
+   * @return index of phase, -1 if all phases are finished
+   */
+  int getPhaseIndex(long nanoTime);
+
+  Phase getPhase(int index);
+
+  /** @return start time of phase in the same time base as System.nanoTime() */
+  long getPhaseStartNanos(int index);
+
+  /** @return expected end time of phase in the same time base as System.nanoTime() */
+  long getPhaseEndNanos(int index);
+}
@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package cn.edu.tsinghua.iotdb.benchmark.client;
+
+import cn.edu.tsinghua.iotdb.benchmark.conf.Config;
+import cn.edu.tsinghua.iotdb.benchmark.conf.ConfigDescriptor;
+import cn.edu.tsinghua.iotdb.benchmark.measurement.MetricsEndpoint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Logs one line of the aggregate progress of all clients every LOG_PRINT_INTERVAL seconds, by
+ * reading the counters of every client progress. One reporter thread is shared by all clients
+ * instead of one thread per client. The same snapshot is served at /metrics if METRICS_PORT is set.
+ */
+public class ProgressReporter {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ProgressReporter.class);
+  private static final Config config = ConfigDescriptor.getInstance().getConfig();
+  private static final List<ClientProgress> progresses = new CopyOnWriteArrayList<>();
+
+  private ScheduledExecutorService service;
+  private MetricsEndpoint endpoint;
+  private volatile ProgressSnapshot snapshot;
+
+  /** Create the progress of one client */
+  public static ClientProgress createProgress() {
+    ClientProgress progress = new ClientProgress(config.getLOOP());
+    progresses.add(progress);
+    return progress;
+  }
+
+  /** Start reporting periodically and serving the metrics endpoint if METRICS_PORT is set */
+  public synchronized void start() {
+    if (service != null) {
+      return;
+    }
+    snapshot = new ProgressSnapshot(progresses, null, System.nanoTime());
+    service =
+        Executors.newSingleThreadScheduledExecutor(
+            r -> {
+              Thread thread = new Thread(r, "progress-reporter");
+              thread.setDaemon(true);
+              return thread;
+            });
+    service.scheduleAtFixedRate(
+        this::report,
+        config.getLOG_PRINT_INTERVAL(),
+        config.getLOG_PRINT_INTERVAL(),
+        TimeUnit.SECONDS);
+    if (config.getMETRICS_PORT() > 0) {
+      try {
+        endpoint = new MetricsEndpoint(config.getMETRICS_PORT(), () -> snapshot.toPrometheus());
+        endpoint.start();
+        LOGGER.info("Serve test progress at port {}", config.getMETRICS_PORT());
+      } catch (IOException e) {
+        LOGGER.error("Failed to serve test progress at port {}", config.getMETRICS_PORT(), e);
+      }
+    }
+  }
+
+  /** Stop reporting, the final progress is reported as well */
+  public synchronized void stop() {
+    if (service == null) {
+      return;
+    }
+    service.shutdown();
+    service = null;
+    report();
+    if (endpoint != null) {
+      endpoint.stop();
+      endpoint = null;
+    }
+  }
+
+  private synchronized void report() {
+    snapshot = new ProgressSnapshot(progresses, snapshot, System.nanoTime());
+    if (snapshot.getClientNum() > 0) {
+      LOGGER.info(snapshot.toLogMessage());
+    }
+  }
+}
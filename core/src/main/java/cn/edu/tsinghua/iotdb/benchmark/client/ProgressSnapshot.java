@@ -0,0 +1,157 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package cn.edu.tsinghua.iotdb.benchmark.client;
+
+import java.util.List;
+
+/** Progress of all the clients at one moment, sampled by {@link ProgressReporter} */
+public class ProgressSnapshot {
+
+  private static final double NANO_TO_SECOND = 1000000000.0d;
+
+  /** sample time in nanoseconds */
+  private final long time;
+
+  private final int clientNum;
+  private final int runningClientNum;
+  private final long finishedLoops;
+  private final long totalLoops;
+  /** finished operations per second since the previous snapshot */
+  private final double rate;
+  /** estimated seconds to finish all the loops, negative if unknown */
+  private final double etaSeconds;
+
+  private final long[] operationNums = new long[Operation.values().length];
+
+  /**
+   * @param progresses progress of all clients
+   * @param previous previous snapshot, null if this is the first one
+   * @param time sample time in nanoseconds
+   */
+  ProgressSnapshot(List<ClientProgress> progresses, ProgressSnapshot previous, long time) {
+    this.time = time;
+    int running = 0;
+    long finished = 0;
+    long total = 0;
+    for (ClientProgress progress : progresses) {
+      long clientLoops = 0;
+      for (Operation operation : Operation.values()) {
+        long operationNum = progress.getOperationNum(operation);
+        operationNums[operation.ordinal()] += operationNum;
+        clientLoops += operationNum;
+      }
+      finished += clientLoops;
+      if (progress.isFinished()) {
+        // a client may stop before all its loops are done
+        total += clientLoops;
+      } else {
+        running++;
+        total += Math.max(progress.getTotalLoops(), clientLoops);
+      }
+    }
+    this.clientNum = progresses.size();
+    this.runningClientNum = running;
+    this.finishedLoops = finished;
+    this.totalLoops = total;
+    if (previous != null && time > previous.time) {
+      rate = (finished - previous.finishedLoops) / ((time - previous.time) / NANO_TO_SECOND);
+    } else {
+      rate = 0;
+    }
+    etaSeconds = rate > 0 ? (total - finished) / rate : (total == finished ? 0 : -1);
+  }
+
+  public int getClientNum() {
+    return clientNum;
+  }
+
+  public int getRunningClientNum() {
+    return runningClientNum;
+  }
+
+  public long getFinishedLoops() {
+    return finishedLoops;
+  }
+
+  public long getTotalLoops() {
+    return totalLoops;
+  }
+
+  public double getRate() {
+    return rate;
+  }
+
+  public double getEtaSeconds() {
+    return etaSeconds;
+  }
+
+  public long getOperationNum(Operation operation) {
+    return operationNums[operation.ordinal()];
+  }
+
+  /** @return finished loops in percent */
+  public double getPercent() {
+    return totalLoops == 0 ? 100 : finishedLoops * 100.0D / totalLoops;
+  }
+
+  /** @return one line summary, operations which are never executed are omitted */
+  public String toLogMessage() {
+    StringBuilder builder = new StringBuilder();
+    builder.append(
+        String.format(
+            "%d/%d clients are running, %.2f%% syntheticWorkload is done (%d/%d), %.2f ops/s, ETA ",
+            runningClientNum, clientNum, getPercent(), finishedLoops, totalLoops, rate));
+    builder.append(etaSeconds < 0 ? "unknown" : String.format("%.0f s", etaSeconds));
+    for (Operation operation : Operation.values()) {
+      long operationNum = operationNums[operation.ordinal()];
+      if (operationNum > 0) {
+        builder.append(", ").append(operation.getName()).append(' ').append(operationNum);
+      }
+    }
+    return builder.toString();
+  }
+
+  /** @return the snapshot in Prometheus text exposition format */
+  public String toPrometheus() {
+    StringBuilder builder = new StringBuilder();
+    appendGauge(builder, "benchmark_clients", clientNum);
+    appendGauge(builder, "benchmark_running_clients", runningClientNum);
+    appendGauge(builder, "benchmark_finished_loops", finishedLoops);
+    appendGauge(builder, "benchmark_total_loops", totalLoops);
+    appendGauge(builder, "benchmark_progress_percent", getPercent());
+    appendGauge(builder, "benchmark_operation_rate", rate);
+    appendGauge(builder, "benchmark_eta_seconds", etaSeconds);
+    builder.append("# TYPE benchmark_operations_total counter\n");
+    for (Operation operation : Operation.values()) {
+      builder
+          .append("benchmark_operations_total{operation=\"")
+          .append(operation.getName())
+          .append("\"} ")
+          .append(operationNums[operation.ordinal()])
+          .append('\n');
+    }
+    return builder.toString();
+  }
+
+  private static void appendGauge(StringBuilder builder, String name, double value) {
+    builder.append("# TYPE ").append(name).append(" gauge\n");
+    builder.append(name).append(' ').append(value).append('\n');
+  }
+}
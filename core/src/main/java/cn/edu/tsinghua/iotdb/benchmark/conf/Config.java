@@ -49,6 +49,56 @@ public class Config {
   // 初始化：工作状态
   /** Total number of operations that each client process */
   private long LOOP = 10000;
+  /**
+   * The number of the first loops of each client that only warm up the database under test, they
+   * are excluded from the measurements
+   */
+  private long WARMUP_LOOP = 0;
+  /**
+   * The minimum time that each client warms up the database under test in ms, the warm-up ends
+   * when both WARMUP_LOOP and WARMUP_TIME are reached
+   */
+  private long WARMUP_TIME = 0;
+  /**
+   * The max time of test in ms, the test ends when either LOOP or TEST_MAX_TIME is reached, 0 means
+   * no limit
+   */
+  private long TEST_MAX_TIME = 0;
+  /**
+   * The path of phase script, empty means no script. When it is set, clients run the phases of the
+   * script one after another and LOOP is ignored, see PhasePlan
+   */
+  private String PHASE_SCRIPT = "";
+
+  // 容量搜索模式
+  /**
+   * The load adjusted by capacitySearchMode, rate means TARGET_RATE of open-loop mode, client means
+   * the number of active clients of closed-loop mode
+   */
+  private String CAPACITY_SEARCH_LOAD = Constants.CAPACITY_LOAD_RATE;
+  /** The duration of each load step in ms */
+  private long CAPACITY_STEP_DURATION = 60000;
+  /** A load step is sustainable if its p99 latency in ms is not larger than this */
+  private double CAPACITY_SLO_P99_LATENCY = 100;
+  /** A load step is sustainable if its ratio of failed operations is not larger than this */
+  private double CAPACITY_MAX_ERROR_RATE = 0.01;
+  /**
+   * The load of the first step, 0 means TARGET_RATE (1000 if it is not set) for rate and 1 for
+   * client
+   */
+  private double CAPACITY_START_LOAD = 0;
+  /** The max load, 0 means no limit for rate and CLIENT_NUMBER for client */
+  private double CAPACITY_MAX_LOAD = 0;
+  /** The binary search ends when its range is smaller than this ratio of its upper bound */
+  private double CAPACITY_PRECISION = 0.05;
+  /** The max number of load steps */
+  private int CAPACITY_MAX_STEP = 20;
+
+  /**
+   * The work done by FakeDB with each batch, none returns at once, serialize encodes the batch in
+   * binary and sql builds insert statements of its rows, then the result is discarded
+   */
+  private String LOADER_SINK = Constants.LOADER_SINK_NONE;
 
   /**
    * The running mode of benchmark 1. testWithDefaultPath: Conventional test mode, supporting mixed
@@ -68,13 +118,23 @@ public class Config {
   private int BENCHMARK_INDEX = 0;
   /** Calculated in this way: FIRST_DEVICE_INDEX = BENCHMARK_INDEX * DEVICE_NUMBER */
   private int FIRST_DEVICE_INDEX = 0;
+  /**
+   * The host of coordinator in cluster mode of benchmark. If it is set, BENCHMARK_INDEX is assigned
+   * by the coordinator, all benchmarks start at the same time and their results are merged by the
+   * coordinator
+   */
+  private String COORDINATOR_HOST = "";
+  /** The port of coordinator */
+  private int COORDINATOR_PORT = 6670;
+  /** The number of benchmarks which the coordinator waits for, used by coordinatorMode */
+  private int COORDINATOR_WORKER_NUMBER = 1;
 
   // 初始化：数据库信息
   /**
    * The database to use, format: {name of database}{-version}{-insert mode} name of database:
    * IoTDB, InfluxDB, OpenTSDB, CTSDB, KairosDB, TimescaleDB, FakeDB, TaosDB ... version: take iotdb
-   * for example, 09, 10, 11, 12 insert mode: JDBC, SESSION_BY_TABLET, SESSION_BY_RECORD,
-   * SESSION_BY_RECORDS, SESSION_BY_POOL
+   * for example, 09, 10, 11, 12 insert mode: JDBC, SESSION_BY_TABLET, SESSION_BY_TABLETS,
+   * SESSION_BY_RECORD, SESSION_BY_RECORDS, SESSION_BY_POOL
    */
   private String DB_SWITCH = "IoTDB-012-JDBC";
 
@@ -175,6 +235,11 @@ public class Config {
    * number of devices.
    */
   private int CLIENT_NUMBER = 2;
+  /**
+   * Whether run each client in a virtual thread, which needs JDK 21 or later. Clients run in a
+   * fixed pool of platform threads if it is false or virtual threads are not supported.
+   */
+  private boolean ENABLE_VIRTUAL_THREAD = false;
 
   // 设备、传感器、客户端：生成数据的规律
   /** 线性 默认 9个 0.054 */
@@ -199,6 +264,26 @@ public class Config {
   private int GROUP_NUMBER = 1;
   /** The size of IoTDB core session pool */
   private int IOTDB_SESSION_POOL_SIZE = 50;
+  /**
+   * How the JDBC mode of IoTDB 0.12 inserts a batch: row sends an insert statement for each row,
+   * multiRow sends one insert statement of all rows. There is no prepared mode, since IoTDB 0.12
+   * has no server-side parameter binding and its PreparedStatement only substitutes the values into
+   * the sql text on the client.
+   */
+  private String IOTDB_JDBC_INSERT_MODE = Constants.JDBC_INSERT_ROW;
+  /**
+   * Whether to start an in-process stand-in of the IoTDB RPC service on each PORT, so that the
+   * IoTDB 0.12 adapters could be tested without a server. HOST should be this machine.
+   */
+  private boolean IOTDB_STAND_IN = false;
+  /** The latency injected into each insert and query of the stand-in, unit: ms */
+  private int STAND_IN_LATENCY = 0;
+  /** A random latency in [0, STAND_IN_LATENCY_JITTER) added to STAND_IN_LATENCY, unit: ms */
+  private int STAND_IN_LATENCY_JITTER = 0;
+  /** The ratio of inserts and queries which the stand-in fails */
+  private double STAND_IN_ERROR_RATE = 0;
+  /** The number of rows of each synthetic query result of the stand-in */
+  private int STAND_IN_QUERY_ROWS = 10;
 
   // Operation 相关参数
   /**
@@ -206,6 +291,14 @@ public class Config {
    * right now. else wait (OP_INTERVAL - operation time) unit: ms
    */
   private long OP_INTERVAL = 0;
+  /**
+   * The aggregate target rate of all clients in open-loop mode, 0 means closed-loop mode. When it
+   * is set, operations are issued at fixed intended start times regardless of how long previous
+   * operations take, and latency is measured from the intended start time.
+   */
+  private double TARGET_RATE = 0;
+  /** The unit of TARGET_RATE, point (points/s) or operation (operations/s) */
+  private String TARGET_RATE_UNIT = Constants.RATE_UNIT_POINT;
   /** The max time for writing in ms */
   private int WRITE_OPERATION_TIMEOUT_MS = 120000;
   /** The max time for reading in ms */
@@ -218,6 +311,21 @@ public class Config {
    * * BATCH_SIZE
    */
   private int BATCH_SIZE_PER_WRITE = 1;
+  /**
+   * The number of batches generated ahead by each client while it is sending the previous one, 0
+   * means that batches are generated and sent one by one in the client thread
+   */
+  private int INGESTION_PIPELINE_DEPTH = 0;
+  /**
+   * The max number of insert requests of each client which are sent but not completed, 1 means
+   * that each client waits for the result of one request before sending the next one
+   */
+  private int MAX_IN_FLIGHT = 1;
+  /**
+   * The number of bound devices whose batches of the same loop are sent in one insert request, 1
+   * means that each batch is sent alone
+   */
+  private int DEVICE_NUMBER_PER_WRITE = 1;
   /** Whether create schema before writing */
   private boolean CREATE_SCHEMA = true;
 
@@ -262,6 +370,11 @@ public class Config {
    * > ? and device in ? order by time desc
    */
   private String OPERATION_PROPORTION = "1:0:0:0:0:0:0:0:0:0:0";
+  /**
+   * Whether execute operations in a deterministic interleaved order instead of random sampling,
+   * Eg. OPERATION_PROPORTION = 9:1:0:0:0:0:0:0:0:0:0 gives exactly 1 precise query per 9 writes
+   */
+  private boolean IS_OPERATION_INTERLEAVED = false;
   /** The number of sensors involved in each query */
   private int QUERY_SENSOR_NUM = 1;
   /** The number of devices involved in each query */
@@ -309,6 +422,16 @@ public class Config {
   private boolean IS_QUIET_MODE = true;
   /** Print test progress log interval in second */
   private int LOG_PRINT_INTERVAL = 5;
+  /**
+   * Report throughput and latency percentiles of each operation in every window of this many
+   * seconds during the test, 0 means disabled
+   */
+  private int WINDOW_REPORT_INTERVAL = 0;
+  /**
+   * The port of the HTTP endpoint which serves the test progress reported every LOG_PRINT_INTERVAL
+   * seconds in Prometheus text format at /metrics, 0 means disabled
+   */
+  private int METRICS_PORT = 0;
 
   // 输出：数据库配置，当前支持IoTDB和MySQL
   /** The Ip of database */
@@ -330,16 +453,39 @@ public class Config {
   // 输出：MySQL
   /** ratio of real writes into mysql */
   private double MYSQL_REAL_INSERT_RATE = 1.0;
+  /** number of connections to mysql shared by all the recorders */
+  private int MYSQL_POOL_SIZE = 2;
+  /** max number of operation results in one batch insert */
+  private int MYSQL_BATCH_SIZE = 5000;
+  /** max interval between two batch inserts of operation results in ms */
+  private long MYSQL_FLUSH_INTERVAL = 1000;
+
+  // 输出：IoTDB
+  /** max number of rows in the tablet of one device before it is sent by IoTDBSession recorder */
+  private int IOTDB_RECORDER_TABLET_SIZE = 1000;
+  /** max interval between two sends of tablets by IoTDBSession recorder in ms */
+  private long IOTDB_RECORDER_FLUSH_INTERVAL = 1000;
 
   // 输出：CSV
   /** Whether output the result to an csv file located in data folder */
   private boolean CSV_OUTPUT = true;
+  /**
+   * Whether export the latency histogram of each operation to an csv file located in data folder
+   */
+  private boolean LATENCY_HISTOGRAM_EXPORT = false;
   /** Current csv file write line */
   private AtomicLong CURRENT_CSV_LINE = new AtomicLong();
   /** Max line of csv line */
   private long CSV_MAX_LINE = 10000000;
   /** Whether split result into different csv file */
   private boolean CSV_FILE_SPLIT = true;
+  /**
+   * Size of the buffer between clients and the result writer thread, clients wait when the buffer
+   * is full
+   */
+  private int RESULT_BUFFER_SIZE = 65536;
+  /** Size of one segment of the binary result log in MB */
+  private long BINARY_LOG_SEGMENT_SIZE = 64;
 
   /** Device ID */
   private List<Integer> DEVICE_CODES = new ArrayList<>();
@@ -539,6 +685,110 @@ public class Config {
     this.LOOP = LOOP;
   }
 
+  public long getWARMUP_LOOP() {
+    return WARMUP_LOOP;
+  }
+
+  public void setWARMUP_LOOP(long WARMUP_LOOP) {
+    this.WARMUP_LOOP = WARMUP_LOOP;
+  }
+
+  public long getWARMUP_TIME() {
+    return WARMUP_TIME;
+  }
+
+  public void setWARMUP_TIME(long WARMUP_TIME) {
+    this.WARMUP_TIME = WARMUP_TIME;
+  }
+
+  public long getTEST_MAX_TIME() {
+    return TEST_MAX_TIME;
+  }
+
+  public void setTEST_MAX_TIME(long TEST_MAX_TIME) {
+    this.TEST_MAX_TIME = TEST_MAX_TIME;
+  }
+
+  public String getPHASE_SCRIPT() {
+    return PHASE_SCRIPT;
+  }
+
+  public void setPHASE_SCRIPT(String PHASE_SCRIPT) {
+    this.PHASE_SCRIPT = PHASE_SCRIPT;
+  }
+
+  public String getCAPACITY_SEARCH_LOAD() {
+    return CAPACITY_SEARCH_LOAD;
+  }
+
+  public void setCAPACITY_SEARCH_LOAD(String CAPACITY_SEARCH_LOAD) {
+    this.CAPACITY_SEARCH_LOAD = CAPACITY_SEARCH_LOAD;
+  }
+
+  public long getCAPACITY_STEP_DURATION() {
+    return CAPACITY_STEP_DURATION;
+  }
+
+  public void setCAPACITY_STEP_DURATION(long CAPACITY_STEP_DURATION) {
+    this.CAPACITY_STEP_DURATION = CAPACITY_STEP_DURATION;
+  }
+
+  public double getCAPACITY_SLO_P99_LATENCY() {
+    return CAPACITY_SLO_P99_LATENCY;
+  }
+
+  public void setCAPACITY_SLO_P99_LATENCY(double CAPACITY_SLO_P99_LATENCY) {
+    this.CAPACITY_SLO_P99_LATENCY = CAPACITY_SLO_P99_LATENCY;
+  }
+
+  public double getCAPACITY_MAX_ERROR_RATE() {
+    return CAPACITY_MAX_ERROR_RATE;
+  }
+
+  public void setCAPACITY_MAX_ERROR_RATE(double CAPACITY_MAX_ERROR_RATE) {
+    this.CAPACITY_MAX_ERROR_RATE = CAPACITY_MAX_ERROR_RATE;
+  }
+
+  public double getCAPACITY_START_LOAD() {
+    return CAPACITY_START_LOAD;
+  }
+
+  public void setCAPACITY_START_LOAD(double CAPACITY_START_LOAD) {
+    this.CAPACITY_START_LOAD = CAPACITY_START_LOAD;
+  }
+
+  public double getCAPACITY_MAX_LOAD() {
+    return CAPACITY_MAX_LOAD;
+  }
+
+  public void setCAPACITY_MAX_LOAD(double CAPACITY_MAX_LOAD) {
+    this.CAPACITY_MAX_LOAD = CAPACITY_MAX_LOAD;
+  }
+
+  public double getCAPACITY_PRECISION() {
+    return CAPACITY_PRECISION;
+  }
+
+  public void setCAPACITY_PRECISION(double CAPACITY_PRECISION) {
+    this.CAPACITY_PRECISION = CAPACITY_PRECISION;
+  }
+
+  public int getCAPACITY_MAX_STEP() {
+    return CAPACITY_MAX_STEP;
+  }
+
+  public void setCAPACITY_MAX_STEP(int CAPACITY_MAX_STEP) {
+    this.CAPACITY_MAX_STEP = CAPACITY_MAX_STEP;
+  }
+
+  public String getLOADER_SINK() {
+    return LOADER_SINK;
+  }
+
+  public void setLOADER_SINK(String LOADER_SINK) {
+    this.LOADER_SINK = LOADER_SINK;
+  }
+
   public String getBENCHMARK_WORK_MODE() {
     return BENCHMARK_WORK_MODE;
   }
@@ -571,6 +821,41 @@ public class Config {
     this.FIRST_DEVICE_INDEX = FIRST_DEVICE_INDEX;
   }
 
+  /**
+   * Change the index of benchmark in cluster mode and the devices of this benchmark, must be called
+   * before DataSchema is used
+   */
+  public void resetBENCHMARK_INDEX(int BENCHMARK_INDEX) {
+    this.BENCHMARK_INDEX = BENCHMARK_INDEX;
+    this.FIRST_DEVICE_INDEX = BENCHMARK_INDEX * DEVICE_NUMBER;
+    DEVICE_CODES = new ArrayList<>();
+    initDeviceCodes();
+  }
+
+  public String getCOORDINATOR_HOST() {
+    return COORDINATOR_HOST;
+  }
+
+  public void setCOORDINATOR_HOST(String COORDINATOR_HOST) {
+    this.COORDINATOR_HOST = COORDINATOR_HOST;
+  }
+
+  public int getCOORDINATOR_PORT() {
+    return COORDINATOR_PORT;
+  }
+
+  public void setCOORDINATOR_PORT(int COORDINATOR_PORT) {
+    this.COORDINATOR_PORT = COORDINATOR_PORT;
+  }
+
+  public int getCOORDINATOR_WORKER_NUMBER() {
+    return COORDINATOR_WORKER_NUMBER;
+  }
+
+  public void setCOORDINATOR_WORKER_NUMBER(int COORDINATOR_WORKER_NUMBER) {
+    this.COORDINATOR_WORKER_NUMBER = COORDINATOR_WORKER_NUMBER;
+  }
+
   public String getDB_SWITCH() {
     return DB_SWITCH;
   }
@@ -819,6 +1104,14 @@ public class Config {
     this.CLIENT_NUMBER = CLIENT_NUMBER;
   }
 
+  public boolean isENABLE_VIRTUAL_THREAD() {
+    return ENABLE_VIRTUAL_THREAD;
+  }
+
+  public void setENABLE_VIRTUAL_THREAD(boolean ENABLE_VIRTUAL_THREAD) {
+    this.ENABLE_VIRTUAL_THREAD = ENABLE_VIRTUAL_THREAD;
+  }
+
   public double getLINE_RATIO() {
     return LINE_RATIO;
   }
@@ -899,6 +1192,54 @@ public class Config {
     this.IOTDB_SESSION_POOL_SIZE = IOTDB_SESSION_POOL_SIZE;
   }
 
+  public String getIOTDB_JDBC_INSERT_MODE() {
+    return IOTDB_JDBC_INSERT_MODE;
+  }
+
+  public void setIOTDB_JDBC_INSERT_MODE(String IOTDB_JDBC_INSERT_MODE) {
+    this.IOTDB_JDBC_INSERT_MODE = IOTDB_JDBC_INSERT_MODE;
+  }
+
+  public boolean isIOTDB_STAND_IN() {
+    return IOTDB_STAND_IN;
+  }
+
+  public void setIOTDB_STAND_IN(boolean IOTDB_STAND_IN) {
+    this.IOTDB_STAND_IN = IOTDB_STAND_IN;
+  }
+
+  public int getSTAND_IN_LATENCY() {
+    return STAND_IN_LATENCY;
+  }
+
+  public void setSTAND_IN_LATENCY(int STAND_IN_LATENCY) {
+    this.STAND_IN_LATENCY = STAND_IN_LATENCY;
+  }
+
+  public int getSTAND_IN_LATENCY_JITTER() {
+    return STAND_IN_LATENCY_JITTER;
+  }
+
+  public void setSTAND_IN_LATENCY_JITTER(int STAND_IN_LATENCY_JITTER) {
+    this.STAND_IN_LATENCY_JITTER = STAND_IN_LATENCY_JITTER;
+  }
+
+  public double getSTAND_IN_ERROR_RATE() {
+    return STAND_IN_ERROR_RATE;
+  }
+
+  public void setSTAND_IN_ERROR_RATE(double STAND_IN_ERROR_RATE) {
+    this.STAND_IN_ERROR_RATE = STAND_IN_ERROR_RATE;
+  }
+
+  public int getSTAND_IN_QUERY_ROWS() {
+    return STAND_IN_QUERY_ROWS;
+  }
+
+  public void setSTAND_IN_QUERY_ROWS(int STAND_IN_QUERY_ROWS) {
+    this.STAND_IN_QUERY_ROWS = STAND_IN_QUERY_ROWS;
+  }
+
   public long getOP_INTERVAL() {
     return OP_INTERVAL;
   }
@@ -907,6 +1248,22 @@ public class Config {
     this.OP_INTERVAL = OP_INTERVAL;
   }
 
+  public double getTARGET_RATE() {
+    return TARGET_RATE;
+  }
+
+  public void setTARGET_RATE(double TARGET_RATE) {
+    this.TARGET_RATE = TARGET_RATE;
+  }
+
+  public String getTARGET_RATE_UNIT() {
+    return TARGET_RATE_UNIT;
+  }
+
+  public void setTARGET_RATE_UNIT(String TARGET_RATE_UNIT) {
+    this.TARGET_RATE_UNIT = TARGET_RATE_UNIT;
+  }
+
   public int getWRITE_OPERATION_TIMEOUT_MS() {
     return WRITE_OPERATION_TIMEOUT_MS;
   }
@@ -931,6 +1288,30 @@ public class Config {
     this.BATCH_SIZE_PER_WRITE = BATCH_SIZE_PER_WRITE;
   }
 
+  public int getINGESTION_PIPELINE_DEPTH() {
+    return INGESTION_PIPELINE_DEPTH;
+  }
+
+  public void setINGESTION_PIPELINE_DEPTH(int INGESTION_PIPELINE_DEPTH) {
+    this.INGESTION_PIPELINE_DEPTH = INGESTION_PIPELINE_DEPTH;
+  }
+
+  public int getMAX_IN_FLIGHT() {
+    return MAX_IN_FLIGHT;
+  }
+
+  public void setMAX_IN_FLIGHT(int MAX_IN_FLIGHT) {
+    this.MAX_IN_FLIGHT = MAX_IN_FLIGHT;
+  }
+
+  public int getDEVICE_NUMBER_PER_WRITE() {
+    return DEVICE_NUMBER_PER_WRITE;
+  }
+
+  public void setDEVICE_NUMBER_PER_WRITE(int DEVICE_NUMBER_PER_WRITE) {
+    this.DEVICE_NUMBER_PER_WRITE = DEVICE_NUMBER_PER_WRITE;
+  }
+
   public boolean isCREATE_SCHEMA() {
     return CREATE_SCHEMA;
   }
@@ -1011,6 +1392,14 @@ public class Config {
     this.OPERATION_PROPORTION = OPERATION_PROPORTION;
   }
 
+  public boolean isIS_OPERATION_INTERLEAVED() {
+    return IS_OPERATION_INTERLEAVED;
+  }
+
+  public void setIS_OPERATION_INTERLEAVED(boolean IS_OPERATION_INTERLEAVED) {
+    this.IS_OPERATION_INTERLEAVED = IS_OPERATION_INTERLEAVED;
+  }
+
   public int getQUERY_SENSOR_NUM() {
     return QUERY_SENSOR_NUM;
   }
@@ -1155,6 +1544,22 @@ public class Config {
     this.LOG_PRINT_INTERVAL = LOG_PRINT_INTERVAL;
   }
 
+  public int getWINDOW_REPORT_INTERVAL() {
+    return WINDOW_REPORT_INTERVAL;
+  }
+
+  public void setWINDOW_REPORT_INTERVAL(int WINDOW_REPORT_INTERVAL) {
+    this.WINDOW_REPORT_INTERVAL = WINDOW_REPORT_INTERVAL;
+  }
+
+  public int getMETRICS_PORT() {
+    return METRICS_PORT;
+  }
+
+  public void setMETRICS_PORT(int METRICS_PORT) {
+    this.METRICS_PORT = METRICS_PORT;
+  }
+
   public String getTEST_DATA_STORE_IP() {
     return TEST_DATA_STORE_IP;
   }
@@ -1211,6 +1616,46 @@ public class Config {
     this.MYSQL_REAL_INSERT_RATE = MYSQL_REAL_INSERT_RATE;
   }
 
+  public int getMYSQL_POOL_SIZE() {
+    return MYSQL_POOL_SIZE;
+  }
+
+  public void setMYSQL_POOL_SIZE(int MYSQL_POOL_SIZE) {
+    this.MYSQL_POOL_SIZE = MYSQL_POOL_SIZE;
+  }
+
+  public int getMYSQL_BATCH_SIZE() {
+    return MYSQL_BATCH_SIZE;
+  }
+
+  public void setMYSQL_BATCH_SIZE(int MYSQL_BATCH_SIZE) {
+    this.MYSQL_BATCH_SIZE = MYSQL_BATCH_SIZE;
+  }
+
+  public long getMYSQL_FLUSH_INTERVAL() {
+    return MYSQL_FLUSH_INTERVAL;
+  }
+
+  public void setMYSQL_FLUSH_INTERVAL(long MYSQL_FLUSH_INTERVAL) {
+    this.MYSQL_FLUSH_INTERVAL = MYSQL_FLUSH_INTERVAL;
+  }
+
+  public int getIOTDB_RECORDER_TABLET_SIZE() {
+    return IOTDB_RECORDER_TABLET_SIZE;
+  }
+
+  public void setIOTDB_RECORDER_TABLET_SIZE(int IOTDB_RECORDER_TABLET_SIZE) {
+    this.IOTDB_RECORDER_TABLET_SIZE = IOTDB_RECORDER_TABLET_SIZE;
+  }
+
+  public long getIOTDB_RECORDER_FLUSH_INTERVAL() {
+    return IOTDB_RECORDER_FLUSH_INTERVAL;
+  }
+
+  public void setIOTDB_RECORDER_FLUSH_INTERVAL(long IOTDB_RECORDER_FLUSH_INTERVAL) {
+    this.IOTDB_RECORDER_FLUSH_INTERVAL = IOTDB_RECORDER_FLUSH_INTERVAL;
+  }
+
   public boolean isCSV_OUTPUT() {
     return CSV_OUTPUT;
   }
@@ -1219,6 +1664,14 @@ public class Config {
     this.CSV_OUTPUT = CSV_OUTPUT;
   }
 
+  public boolean isLATENCY_HISTOGRAM_EXPORT() {
+    return LATENCY_HISTOGRAM_EXPORT;
+  }
+
+  public void setLATENCY_HISTOGRAM_EXPORT(boolean LATENCY_HISTOGRAM_EXPORT) {
+    this.LATENCY_HISTOGRAM_EXPORT = LATENCY_HISTOGRAM_EXPORT;
+  }
+
   public long getCSV_MAX_LINE() {
     return CSV_MAX_LINE;
   }
@@ -1235,6 +1688,22 @@ public class Config {
     this.CSV_FILE_SPLIT = CSV_FILE_SPLIT;
   }
 
+  public int getRESULT_BUFFER_SIZE() {
+    return RESULT_BUFFER_SIZE;
+  }
+
+  public void setRESULT_BUFFER_SIZE(int RESULT_BUFFER_SIZE) {
+    this.RESULT_BUFFER_SIZE = RESULT_BUFFER_SIZE;
+  }
+
+  public long getBINARY_LOG_SEGMENT_SIZE() {
+    return BINARY_LOG_SEGMENT_SIZE;
+  }
+
+  public void setBINARY_LOG_SEGMENT_SIZE(long BINARY_LOG_SEGMENT_SIZE) {
+    this.BINARY_LOG_SEGMENT_SIZE = BINARY_LOG_SEGMENT_SIZE;
+  }
+
   public List<Integer> getDEVICE_CODES() {
     return DEVICE_CODES;
   }
@@ -76,6 +76,43 @@ public class ConfigDescriptor {
                 properties.getProperty("INIT_WAIT_TIME", config.getINIT_WAIT_TIME() + "")));
         config.setNET_DEVICE(properties.getProperty("NET_DEVICE", config.getNET_DEVICE()));
         config.setLOOP(Long.parseLong(properties.getProperty("LOOP", config.getLOOP() + "")));
+        config.setWARMUP_LOOP(
+            Long.parseLong(properties.getProperty("WARMUP_LOOP", config.getWARMUP_LOOP() + "")));
+        config.setWARMUP_TIME(
+            Long.parseLong(properties.getProperty("WARMUP_TIME", config.getWARMUP_TIME() + "")));
+        config.setTEST_MAX_TIME(
+            Long.parseLong(
+                properties.getProperty("TEST_MAX_TIME", config.getTEST_MAX_TIME() + "")));
+        config.setPHASE_SCRIPT(properties.getProperty("PHASE_SCRIPT", config.getPHASE_SCRIPT()));
+        config.setCAPACITY_SEARCH_LOAD(
+            properties.getProperty("CAPACITY_SEARCH_LOAD", config.getCAPACITY_SEARCH_LOAD()));
+        config.setCAPACITY_STEP_DURATION(
+            Long.parseLong(
+                properties.getProperty(
+                    "CAPACITY_STEP_DURATION", config.getCAPACITY_STEP_DURATION() + "")));
+        config.setCAPACITY_SLO_P99_LATENCY(
+            Double.parseDouble(
+                properties.getProperty(
+                    "CAPACITY_SLO_P99_LATENCY", config.getCAPACITY_SLO_P99_LATENCY() + "")));
+        config.setCAPACITY_MAX_ERROR_RATE(
+            Double.parseDouble(
+                properties.getProperty(
+                    "CAPACITY_MAX_ERROR_RATE", config.getCAPACITY_MAX_ERROR_RATE() + "")));
+        config.setCAPACITY_START_LOAD(
+            Double.parseDouble(
+                properties.getProperty(
+                    "CAPACITY_START_LOAD", config.getCAPACITY_START_LOAD() + "")));
+        config.setCAPACITY_MAX_LOAD(
+            Double.parseDouble(
+                properties.getProperty("CAPACITY_MAX_LOAD", config.getCAPACITY_MAX_LOAD() + "")));
+        config.setCAPACITY_PRECISION(
+            Double.parseDouble(
+                properties.getProperty(
+                    "CAPACITY_PRECISION", config.getCAPACITY_PRECISION() + "")));
+        config.setCAPACITY_MAX_STEP(
+            Integer.parseInt(
+                properties.getProperty("CAPACITY_MAX_STEP", config.getCAPACITY_MAX_STEP() + "")));
+        config.setLOADER_SINK(properties.getProperty("LOADER_SINK", config.getLOADER_SINK()));
         config.setBENCHMARK_WORK_MODE(properties.getProperty("BENCHMARK_WORK_MODE", ""));
 
         config.setDB_SWITCH(properties.getProperty("DB_SWITCH", config.getDB_SWITCH()));
@@ -191,6 +228,10 @@ public class ConfigDescriptor {
         config.setCLIENT_NUMBER(
             Integer.parseInt(
                 properties.getProperty("CLIENT_NUMBER", config.getCLIENT_NUMBER() + "")));
+        config.setENABLE_VIRTUAL_THREAD(
+            Boolean.parseBoolean(
+                properties.getProperty(
+                    "ENABLE_VIRTUAL_THREAD", config.isENABLE_VIRTUAL_THREAD() + "")));
         config.setBENCHMARK_CLUSTER(
             Boolean.parseBoolean(
                 properties.getProperty("BENCHMARK_CLUSTER", config.isBENCHMARK_CLUSTER() + "")));
@@ -202,6 +243,15 @@ public class ConfigDescriptor {
         } else {
           config.setFIRST_DEVICE_INDEX(0);
         }
+        config.setCOORDINATOR_HOST(
+            properties.getProperty("COORDINATOR_HOST", config.getCOORDINATOR_HOST()).trim());
+        config.setCOORDINATOR_PORT(
+            Integer.parseInt(
+                properties.getProperty("COORDINATOR_PORT", config.getCOORDINATOR_PORT() + "")));
+        config.setCOORDINATOR_WORKER_NUMBER(
+            Integer.parseInt(
+                properties.getProperty(
+                    "COORDINATOR_WORKER_NUMBER", config.getCOORDINATOR_WORKER_NUMBER() + "")));
 
         config.setLINE_RATIO(
             Double.parseDouble(properties.getProperty("LINE_RATIO", config.getLINE_RATIO() + "")));
@@ -231,12 +281,37 @@ public class ConfigDescriptor {
             Integer.parseInt(
                 properties.getProperty(
                     "IOTDB_SESSION_POOL_SIZE", config.getIOTDB_SESSION_POOL_SIZE() + "")));
+        config.setIOTDB_JDBC_INSERT_MODE(
+            properties.getProperty("IOTDB_JDBC_INSERT_MODE", config.getIOTDB_JDBC_INSERT_MODE()));
+        config.setIOTDB_STAND_IN(
+            Boolean.parseBoolean(
+                properties.getProperty("IOTDB_STAND_IN", config.isIOTDB_STAND_IN() + "")));
+        config.setSTAND_IN_LATENCY(
+            Integer.parseInt(
+                properties.getProperty("STAND_IN_LATENCY", config.getSTAND_IN_LATENCY() + "")));
+        config.setSTAND_IN_LATENCY_JITTER(
+            Integer.parseInt(
+                properties.getProperty(
+                    "STAND_IN_LATENCY_JITTER", config.getSTAND_IN_LATENCY_JITTER() + "")));
+        config.setSTAND_IN_ERROR_RATE(
+            Double.parseDouble(
+                properties.getProperty(
+                    "STAND_IN_ERROR_RATE", config.getSTAND_IN_ERROR_RATE() + "")));
+        config.setSTAND_IN_QUERY_ROWS(
+            Integer.parseInt(
+                properties.getProperty(
+                    "STAND_IN_QUERY_ROWS", config.getSTAND_IN_QUERY_ROWS() + "")));
 
         config.setOP_INTERVAL(
             Long.parseLong(properties.getProperty("OP_INTERVAL", config.getOP_INTERVAL() + "")));
         if (config.getOP_INTERVAL() == -1L) {
           config.setOP_INTERVAL(config.getPOINT_STEP());
         }
+        config.setTARGET_RATE(
+            Double.parseDouble(
+                properties.getProperty("TARGET_RATE", config.getTARGET_RATE() + "")));
+        config.setTARGET_RATE_UNIT(
+            properties.getProperty("TARGET_RATE_UNIT", config.getTARGET_RATE_UNIT()));
         config.setWRITE_OPERATION_TIMEOUT_MS(
             Integer.parseInt(
                 properties.getProperty(
@@ -249,6 +324,17 @@ public class ConfigDescriptor {
             Integer.parseInt(
                 properties.getProperty(
                     "BATCH_SIZE_PER_WRITE", config.getBATCH_SIZE_PER_WRITE() + "")));
+        config.setINGESTION_PIPELINE_DEPTH(
+            Integer.parseInt(
+                properties.getProperty(
+                    "INGESTION_PIPELINE_DEPTH", config.getINGESTION_PIPELINE_DEPTH() + "")));
+        config.setMAX_IN_FLIGHT(
+            Integer.parseInt(
+                properties.getProperty("MAX_IN_FLIGHT", config.getMAX_IN_FLIGHT() + "")));
+        config.setDEVICE_NUMBER_PER_WRITE(
+            Integer.parseInt(
+                properties.getProperty(
+                    "DEVICE_NUMBER_PER_WRITE", config.getDEVICE_NUMBER_PER_WRITE() + "")));
 
         config.setCREATE_SCHEMA(
             Boolean.parseBoolean(
@@ -276,6 +362,10 @@ public class ConfigDescriptor {
             Integer.parseInt(properties.getProperty("STEP_SIZE", config.getSTEP_SIZE() + "")));
         config.setOPERATION_PROPORTION(
             properties.getProperty("OPERATION_PROPORTION", config.getOPERATION_PROPORTION()));
+        config.setIS_OPERATION_INTERLEAVED(
+            Boolean.parseBoolean(
+                properties.getProperty(
+                    "IS_OPERATION_INTERLEAVED", config.isIS_OPERATION_INTERLEAVED() + "")));
         config.setQUERY_SENSOR_NUM(
             Integer.parseInt(
                 properties.getProperty("QUERY_SENSOR_NUM", config.getQUERY_SENSOR_NUM() + "")));
@@ -336,6 +426,13 @@ public class ConfigDescriptor {
         config.setLOG_PRINT_INTERVAL(
             Integer.parseInt(
                 properties.getProperty("LOG_PRINT_INTERVAL", config.getLOG_PRINT_INTERVAL() + "")));
+        config.setWINDOW_REPORT_INTERVAL(
+            Integer.parseInt(
+                properties.getProperty(
+                    "WINDOW_REPORT_INTERVAL", config.getWINDOW_REPORT_INTERVAL() + "")));
+        config.setMETRICS_PORT(
+            Integer.parseInt(
+                properties.getProperty("METRICS_PORT", config.getMETRICS_PORT() + "")));
 
         config.setTEST_DATA_STORE_IP(
             properties.getProperty("TEST_DATA_STORE_IP", config.getTEST_DATA_STORE_IP()));
@@ -357,14 +454,44 @@ public class ConfigDescriptor {
             Double.parseDouble(
                 properties.getProperty(
                     "MYSQL_REAL_INSERT_RATE", config.getMYSQL_REAL_INSERT_RATE() + "")));
+        config.setMYSQL_POOL_SIZE(
+            Integer.parseInt(
+                properties.getProperty("MYSQL_POOL_SIZE", config.getMYSQL_POOL_SIZE() + "")));
+        config.setMYSQL_BATCH_SIZE(
+            Integer.parseInt(
+                properties.getProperty("MYSQL_BATCH_SIZE", config.getMYSQL_BATCH_SIZE() + "")));
+        config.setMYSQL_FLUSH_INTERVAL(
+            Long.parseLong(
+                properties.getProperty(
+                    "MYSQL_FLUSH_INTERVAL", config.getMYSQL_FLUSH_INTERVAL() + "")));
+        config.setIOTDB_RECORDER_TABLET_SIZE(
+            Integer.parseInt(
+                properties.getProperty(
+                    "IOTDB_RECORDER_TABLET_SIZE", config.getIOTDB_RECORDER_TABLET_SIZE() + "")));
+        config.setIOTDB_RECORDER_FLUSH_INTERVAL(
+            Long.parseLong(
+                properties.getProperty(
+                    "IOTDB_RECORDER_FLUSH_INTERVAL",
+                    config.getIOTDB_RECORDER_FLUSH_INTERVAL() + "")));
 
         config.setCSV_OUTPUT(
             Boolean.parseBoolean(properties.getProperty("CSV_OUTPUT", config.isCSV_OUTPUT() + "")));
+        config.setLATENCY_HISTOGRAM_EXPORT(
+            Boolean.parseBoolean(
+                properties.getProperty(
+                    "LATENCY_HISTOGRAM_EXPORT", config.isLATENCY_HISTOGRAM_EXPORT() + "")));
         config.setCSV_MAX_LINE(
             Long.parseLong(properties.getProperty("CSV_MAX_LINE", config.getCSV_MAX_LINE() + "")));
         config.setCSV_FILE_SPLIT(
             Boolean.parseBoolean(
                 properties.getProperty("CSV_FILE_SPLIT", config.isCSV_FILE_SPLIT() + "")));
+        config.setRESULT_BUFFER_SIZE(
+            Integer.parseInt(
+                properties.getProperty("RESULT_BUFFER_SIZE", config.getRESULT_BUFFER_SIZE() + "")));
+        config.setBINARY_LOG_SEGMENT_SIZE(
+            Long.parseLong(
+                properties.getProperty(
+                    "BINARY_LOG_SEGMENT_SIZE", config.getBINARY_LOG_SEGMENT_SIZE() + "")));
       } catch (IOException e) {
         e.printStackTrace();
       }
@@ -41,11 +41,17 @@ public class Constants {
   public static final String INSERT_USE_JDBC = "JDBC";
 
   public static final String INSERT_USE_SESSION_TABLET = "SESSION_BY_TABLET";
+  public static final String INSERT_USE_SESSION_TABLETS = "SESSION_BY_TABLETS";
   public static final String INSERT_USE_SESSION_RECORD = "SESSION_BY_RECORD";
   public static final String INSERT_USE_SESSION_RECORDS = "SESSION_BY_RECORDS";
   public static final String INSERT_USE_SESSION = "SESSION";
   public static final String INSERT_USE_SESSION_POOL = "SESSION_POOL";
 
+  /** How JDBC inserts a batch */
+  public static final String JDBC_INSERT_ROW = "row";
+
+  public static final String JDBC_INSERT_MULTI_ROW = "multiRow";
+
   /** Different version of mode */
   public static final String VERSION_09 = "09";
 
@@ -61,6 +67,8 @@ public class Constants {
 
   public static final String DB_IOT_012_SESSION_BY_TABLET =
       DB_IOT + "-" + VERSION_012 + "-" + INSERT_USE_SESSION_TABLET;
+  public static final String DB_IOT_012_SESSION_BY_TABLETS =
+      DB_IOT + "-" + VERSION_012 + "-" + INSERT_USE_SESSION_TABLETS;
   public static final String DB_IOT_012_SESSION_BY_RECORD =
       DB_IOT + "-" + VERSION_012 + "-" + INSERT_USE_SESSION_RECORD;
   public static final String DB_IOT_012_SESSION_BY_RECORDS =
@@ -103,12 +111,34 @@ public class Constants {
   public static final String MODE_QUERY_WITH_REAL_DATASET = "queryWithRealDataSet";
   public static final String MODE_TEST_WITH_DEFAULT_PATH = "testWithDefaultPath";
   public static final String MODE_SERVER_MODE = "serverMODE";
+  public static final String MODE_COORDINATOR = "coordinatorMode";
+  public static final String MODE_CAPACITY_SEARCH = "capacitySearchMode";
+  public static final String MODE_LOADER_CAPACITY = "loaderCapacityMode";
   /** support test data persistence */
   public static final String TDP_NONE = "None";
 
   public static final String TDP_IOTDB = "IoTDB";
   public static final String TDP_MYSQL = "MySQL";
   public static final String TDP_CSV = "CSV";
+  public static final String TDP_BINARY = "Binary";
+  /** IoTDB 0.12 by tablets of session, the recorder is in module iotdb-0.12 */
+  public static final String TDP_IOTDB_SESSION = "IoTDBSession";
+
+  /** unit of TARGET_RATE */
+  public static final String RATE_UNIT_POINT = "point";
+
+  public static final String RATE_UNIT_OPERATION = "operation";
+
+  /** load adjusted by capacity search */
+  public static final String CAPACITY_LOAD_RATE = "rate";
+
+  public static final String CAPACITY_LOAD_CLIENT = "client";
+
+  /** work done by FakeDB with each batch */
+  public static final String LOADER_SINK_NONE = "none";
+
+  public static final String LOADER_SINK_SERIALIZE = "serialize";
+  public static final String LOADER_SINK_SQL = "sql";
 
   /** device and storage group assignment */
   public static final String MOD_SG_ASSIGN_MODE = "mod";
@@ -123,6 +153,8 @@ public class Constants {
       "cn.edu.tsinghua.iotdb.benchmark.iotdb012.IoTDBSession";
   public static final String IOTDB012_ROUNDROBIN_SESSION_CLASS =
       "cn.edu.tsinghua.iotdb.benchmark.iotdb012.IoTDBClusterSession";
+  public static final String IOTDB012_SESSION_RECORDER_CLASS =
+      "cn.edu.tsinghua.iotdb.benchmark.iotdb012.IoTDBSessionRecorder";
 
   public static final String IOTDB011_JDBC_CLASS = "cn.edu.tsinghua.iotdb.benchmark.iotdb011.IoTDB";
   public static final String IOTDB011_DOUBLE_JDBC_CLASS =
@@ -144,4 +176,7 @@ public class Constants {
   public static final String TIMESCALEDB_CLASS =
       "cn.edu.tsinghua.iotdb.benchmark.timescaledb.TimescaleDB";
   public static final String TAOSDB_CLASS = "cn.edu.tsinghua.iotdb.benchmark.taosdb.TaosDB";
+
+  /** prefix of the remark of the operation results saved during warm-up */
+  public static final String WARM_UP_REMARK = "warm-up";
 }
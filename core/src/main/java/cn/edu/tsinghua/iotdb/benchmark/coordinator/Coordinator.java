@@ -0,0 +1,154 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package cn.edu.tsinghua.iotdb.benchmark.coordinator;
+
+import cn.edu.tsinghua.iotdb.benchmark.measurement.Measurement;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Coordinates several benchmark processes in cluster mode through a TCP control channel:
+ *
+ * <ol>
+ *   <li>each benchmark connects and sends HELLO with its configured BENCHMARK_INDEX;
+ *   <li>after all benchmarks connect, they are sorted by the configured index and the position is
+ *       sent back by ASSIGN, so the devices are split deterministically;
+ *   <li>each benchmark registers schema and sends READY, START is sent after all are ready, which
+ *       is the shared barrier of all benchmarks;
+ *   <li>each benchmark sends its measurement by RESULT after test, they are merged into one.
+ * </ol>
+ */
+public class Coordinator implements Closeable {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(Coordinator.class);
+
+  static final byte HELLO = 1;
+  static final byte ASSIGN = 2;
+  static final byte READY = 3;
+  static final byte START = 4;
+  static final byte RESULT = 5;
+
+  private final ServerSocket serverSocket;
+  private final int workerNumber;
+  private final List<Worker> workers = new ArrayList<>();
+
+  /**
+   * @param port port to listen on, 0 means any free port
+   * @param workerNumber number of benchmarks to coordinate
+   */
+  public Coordinator(int port, int workerNumber) throws IOException {
+    this.serverSocket = new ServerSocket(port);
+    this.workerNumber = workerNumber;
+  }
+
+  public int getPort() {
+    return serverSocket.getLocalPort();
+  }
+
+  /**
+   * Run one test of all benchmarks
+   *
+   * @return merged measurement of all benchmarks, whose elapse time is the longest one
+   */
+  public Measurement coordinate() throws IOException {
+    LOGGER.info("Waiting for {} benchmarks at port {}", workerNumber, getPort());
+    while (workers.size() < workerNumber) {
+      Worker worker = new Worker(serverSocket.accept());
+      worker.expect(HELLO);
+      worker.configuredIndex = worker.input.readInt();
+      workers.add(worker);
+      LOGGER.info(
+          "Benchmark {} connected from {}", worker.configuredIndex, worker.socket.getInetAddress());
+    }
+    // stable sort, benchmarks with the same index keep the order of connection
+    workers.sort(Comparator.comparingInt(worker -> worker.configuredIndex));
+    for (int i = 0; i < workers.size(); i++) {
+      Worker worker = workers.get(i);
+      worker.output.writeByte(ASSIGN);
+      worker.output.writeInt(i);
+      worker.output.flush();
+    }
+    for (Worker worker : workers) {
+      worker.expect(READY);
+    }
+    LOGGER.info("All benchmarks are ready, start test");
+    for (Worker worker : workers) {
+      worker.output.writeByte(START);
+      worker.output.flush();
+    }
+    Measurement measurement = new Measurement();
+    double elapseTime = 0;
+    for (int i = 0; i < workers.size(); i++) {
+      Worker worker = workers.get(i);
+      worker.expect(RESULT);
+      Measurement workerMeasurement = Measurement.deserialize(worker.input);
+      LOGGER.info("Benchmark {} finished in {} s", i, workerMeasurement.getElapseTime());
+      measurement.mergeMeasurement(workerMeasurement);
+      elapseTime = Math.max(elapseTime, workerMeasurement.getElapseTime());
+    }
+    measurement.setElapseTime(elapseTime);
+    return measurement;
+  }
+
+  @Override
+  public void close() throws IOException {
+    for (Worker worker : workers) {
+      worker.socket.close();
+    }
+    serverSocket.close();
+  }
+
+  /** Read the type of next message, and check that it is expected */
+  static void expect(DataInputStream input, byte expected) throws IOException {
+    byte type = input.readByte();
+    if (type != expected) {
+      throw new IOException("Unexpected message " + type + ", expected " + expected);
+    }
+  }
+
+  private static class Worker {
+    private final Socket socket;
+    private final DataInputStream input;
+    private final DataOutputStream output;
+    private int configuredIndex;
+
+    private Worker(Socket socket) throws IOException {
+      this.socket = socket;
+      this.input = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+      this.output = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+    }
+
+    private void expect(byte expected) throws IOException {
+      Coordinator.expect(input, expected);
+    }
+  }
+}
@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package cn.edu.tsinghua.iotdb.benchmark.coordinator;
+
+import cn.edu.tsinghua.iotdb.benchmark.measurement.Measurement;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.Socket;
+
+/** The benchmark side of the control channel to {@link Coordinator} */
+public class CoordinatorClient implements Closeable {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(CoordinatorClient.class);
+  /** benchmarks may be started before the coordinator, so connecting is retried */
+  private static final int CONNECT_RETRY_TIMES = 60;
+
+  private static final long CONNECT_RETRY_INTERVAL_MS = 1000;
+
+  private final Socket socket;
+  private final DataInputStream input;
+  private final DataOutputStream output;
+  private final int benchmarkIndex;
+
+  private CoordinatorClient(Socket socket, int configuredIndex) throws IOException {
+    this.socket = socket;
+    this.input = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+    this.output = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+    output.writeByte(Coordinator.HELLO);
+    output.writeInt(configuredIndex);
+    output.flush();
+    Coordinator.expect(input, Coordinator.ASSIGN);
+    this.benchmarkIndex = input.readInt();
+  }
+
+  /**
+   * Connect to the coordinator and wait until all benchmarks connect
+   *
+   * @param configuredIndex BENCHMARK_INDEX of configuration, used to order the benchmarks
+   */
+  public static CoordinatorClient connect(String host, int port, int configuredIndex)
+      throws IOException {
+    for (int i = 0; ; i++) {
+      Socket socket;
+      try {
+        socket = new Socket(host, port);
+      } catch (ConnectException e) {
+        if (i >= CONNECT_RETRY_TIMES) {
+          throw e;
+        }
+        LOGGER.info("Coordinator {}:{} is not started, retry later", host, port);
+        try {
+          Thread.sleep(CONNECT_RETRY_INTERVAL_MS);
+        } catch (InterruptedException interruptedException) {
+          Thread.currentThread().interrupt();
+          throw e;
+        }
+        continue;
+      }
+      try {
+        return new CoordinatorClient(socket, configuredIndex);
+      } catch (IOException e) {
+        socket.close();
+        throw e;
+      }
+    }
+  }
+
+  /** @return index of this benchmark assigned by coordinator */
+  public int getBenchmarkIndex() {
+    return benchmarkIndex;
+  }
+
+  /** Tell the coordinator that this benchmark is ready and wait for all the others */
+  public void awaitStart() throws IOException {
+    output.writeByte(Coordinator.READY);
+    output.flush();
+    Coordinator.expect(input, Coordinator.START);
+  }
+
+  /** Send the measurement of this benchmark after test */
+  public void sendResult(Measurement measurement) throws IOException {
+    output.writeByte(Coordinator.RESULT);
+    measurement.serialize(output);
+    output.flush();
+  }
+
+  @Override
+  public void close() throws IOException {
+    socket.close();
+  }
+}
@@ -24,7 +24,9 @@ import cn.edu.tsinghua.iotdb.benchmark.conf.ConfigDescriptor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class PoissonDistribution {
 
@@ -34,10 +36,18 @@ public class PoissonDistribution {
   private static final double BASIC_MODEL_LAMBDA = 10;
   private static final int BASIC_MODEL_MAX_K = 25;
 
+  /**
+   * Cumulative distribution tables keyed by (lambda, k). A table is built once and shared by all
+   * instances, so that sampling only costs a binary search.
+   */
+  private static final Map<String, double[]> RANGE_CACHE = new ConcurrentHashMap<>();
+
   private final Random random;
 
   private double lambdaConfig;
   private int deltaKindsConfig;
+  /** range[i + 1] - range[i] is the probability of delta i + 1, null until first use */
+  private double[] range;
 
   public PoissonDistribution(Random ran) {
     this.random = ran;
@@ -51,32 +61,12 @@ public class PoissonDistribution {
    * @return
    */
   public int getNextPoissonDelta() {
-    int nextDelta = 0;
-    int kInUse = BASIC_MODEL_MAX_K;
-    double lambdaInUse = BASIC_MODEL_LAMBDA;
-    if (lambdaConfig < 500) {
-      kInUse = this.deltaKindsConfig;
-      lambdaInUse = this.lambdaConfig;
+    if (range == null) {
+      range = getRange();
     }
+    int kInUse = range.length - 1;
     double rand = random.nextDouble();
-    double[] p = new double[kInUse];
-    double sum = 0;
-    for (int i = 0; i < kInUse - 1; i++) {
-      p[i] = getPoissonProbability(i, lambdaInUse);
-      sum += p[i];
-    }
-    p[kInUse - 1] = 1 - sum;
-    double[] range = new double[kInUse + 1];
-    range[0] = 0;
-    for (int i = 0; i < kInUse; i++) {
-      range[i + 1] = range[i] + p[i];
-    }
-    for (int i = 0; i < kInUse; i++) {
-      nextDelta++;
-      if (isBetween(rand, range[i], range[i + 1])) {
-        break;
-      }
-    }
+    int nextDelta = searchDelta(range, rand, kInUse);
     if (lambdaConfig >= 500) {
       double step;
       if (nextDelta <= BASIC_MODEL_LAMBDA) {
@@ -93,30 +83,77 @@ public class PoissonDistribution {
   }
 
   /**
-   * get next poisson probability
-   *
-   * @param k
-   * @param la
-   * @return
+   * Find i which satisfies range[i] < rand < range[i + 1] and return i + 1. If no such interval
+   * exists, kInUse is returned.
    */
-  private double getPoissonProbability(int k, double la) {
-    double c = Math.exp(-la);
-    double sum = 1;
-    for (int i = 1; i <= k; i++) {
-      sum *= la / i;
+  private static int searchDelta(double[] range, double rand, int kInUse) {
+    // find the first index whose range is larger than rand
+    int low = 1;
+    int high = kInUse;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      if (range[mid] > rand) {
+        high = mid - 1;
+      } else {
+        low = mid + 1;
+      }
+    }
+    if (low > kInUse || !(range[low - 1] < rand)) {
+      return kInUse;
     }
-    return sum * c;
+    return low;
   }
 
-  private static boolean isBetween(double a, double b, double c) {
-    return a > b && a < c;
+  /** Get the cumulative distribution table of current (lambda, k), build it if absent */
+  private double[] getRange() {
+    int kInUse = BASIC_MODEL_MAX_K;
+    double lambdaInUse = BASIC_MODEL_LAMBDA;
+    if (lambdaConfig < 500) {
+      kInUse = this.deltaKindsConfig;
+      lambdaInUse = this.lambdaConfig;
+    }
+    final int k = kInUse;
+    final double lambda = lambdaInUse;
+    return RANGE_CACHE.computeIfAbsent(lambda + "-" + k, key -> buildRange(k, lambda));
+  }
+
+  /**
+   * Build the cumulative distribution table. The probability of the last kind is 1 - sum of the
+   * others.
+   *
+   * @param kInUse number of delta kinds
+   * @param lambdaInUse lambda
+   * @return range array of length kInUse + 1
+   */
+  private static double[] buildRange(int kInUse, double lambdaInUse) {
+    double[] p = new double[kInUse];
+    double c = Math.exp(-lambdaInUse);
+    // la^i / i!, accumulated in the same order as computing it from scratch for each i
+    double product = 1;
+    double sum = 0;
+    for (int i = 0; i < kInUse - 1; i++) {
+      if (i > 0) {
+        product *= lambdaInUse / i;
+      }
+      p[i] = product * c;
+      sum += p[i];
+    }
+    p[kInUse - 1] = 1 - sum;
+    double[] range = new double[kInUse + 1];
+    range[0] = 0;
+    for (int i = 0; i < kInUse; i++) {
+      range[i + 1] = range[i] + p[i];
+    }
+    return range;
   }
 
   public void setLambdaConfig(double lambdaConfig) {
     this.lambdaConfig = lambdaConfig;
+    this.range = null;
   }
 
   public void setDeltaKindsConfig(int deltaKindsConfig) {
     this.deltaKindsConfig = deltaKindsConfig;
+    this.range = null;
   }
 }
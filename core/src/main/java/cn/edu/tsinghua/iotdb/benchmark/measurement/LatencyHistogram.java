@@ -0,0 +1,189 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package cn.edu.tsinghua.iotdb.benchmark.measurement;
+
+import java.io.BufferedWriter;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Log-linear latency histogram in microseconds. Latencies below 256us are counted exactly, larger
+ * latencies fall into buckets whose width is less than 1% of their value, so every recorded
+ * latency is kept with a bounded relative error. It is not thread-safe, each client records into
+ * its own histogram and the histograms are merged after the test.
+ */
+public class LatencyHistogram {
+
+  /** number of sub buckets in each power of two range */
+  private static final int SUB_BUCKET_BITS = 7;
+
+  private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+  /** latencies below this are counted in buckets of width 1 */
+  private static final int LINEAR_LIMIT = SUB_BUCKET_COUNT << 1;
+  /** larger latencies (about 19 hours) are counted in the last bucket */
+  private static final int MAX_SHIFT = 29;
+
+  private static final int BUCKET_COUNT = LINEAR_LIMIT + MAX_SHIFT * SUB_BUCKET_COUNT;
+  private static final double MILLIS_TO_MICROS = 1000.0D;
+
+  private final long[] counts = new long[BUCKET_COUNT];
+  private long totalCount = 0;
+  private long minMicros = Long.MAX_VALUE;
+  private long maxMicros = 0;
+
+  /**
+   * Record one latency
+   *
+   * @param latencyInMillis latency in milliseconds
+   */
+  public void record(double latencyInMillis) {
+    long micros = Math.max(0L, Math.round(latencyInMillis * MILLIS_TO_MICROS));
+    counts[bucketIndex(micros)]++;
+    totalCount++;
+    minMicros = Math.min(minMicros, micros);
+    maxMicros = Math.max(maxMicros, micros);
+  }
+
+  /**
+   * Add all latencies of another histogram into this one
+   *
+   * @param other histogram to be merged
+   */
+  public void merge(LatencyHistogram other) {
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      counts[i] += other.counts[i];
+    }
+    totalCount += other.totalCount;
+    minMicros = Math.min(minMicros, other.minMicros);
+    maxMicros = Math.max(maxMicros, other.maxMicros);
+  }
+
+  /** Clear all recorded latencies */
+  public void reset() {
+    Arrays.fill(counts, 0L);
+    totalCount = 0;
+    minMicros = Long.MAX_VALUE;
+    maxMicros = 0;
+  }
+
+  public long getTotalCount() {
+    return totalCount;
+  }
+
+  /**
+   * Get latency at the given quantile
+   *
+   * @param quantile in [0, 1]
+   * @return latency in milliseconds, the upper bound of the bucket containing the quantile
+   */
+  public double getValueAtQuantile(double quantile) {
+    if (totalCount == 0) {
+      return 0;
+    }
+    long rank = Math.max(1L, (long) Math.ceil(quantile * totalCount));
+    long seen = 0;
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      seen += counts[i];
+      if (seen >= rank) {
+        return Math.max(minMicros, Math.min(maxMicros, bucketUpperBound(i))) / MILLIS_TO_MICROS;
+      }
+    }
+    return maxMicros / MILLIS_TO_MICROS;
+  }
+
+  /**
+   * Write non-empty buckets as csv lines: operation, latency upper bound (ms), count, cumulative
+   * quantile
+   */
+  public void writeCsv(String operation, BufferedWriter writer) throws IOException {
+    long seen = 0;
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      if (counts[i] == 0) {
+        continue;
+      }
+      seen += counts[i];
+      writer.write(
+          operation
+              + ","
+              + String.format("%.3f", Math.min(maxMicros, bucketUpperBound(i)) / MILLIS_TO_MICROS)
+              + ","
+              + counts[i]
+              + ","
+              + String.format("%.6f", seen * 1.0D / totalCount));
+      writer.newLine();
+    }
+  }
+
+  /** Write the non-empty buckets, so that the histogram can be merged in another process */
+  public void serialize(DataOutputStream outputStream) throws IOException {
+    outputStream.writeLong(totalCount);
+    outputStream.writeLong(minMicros);
+    outputStream.writeLong(maxMicros);
+    int bucketNum = 0;
+    for (long count : counts) {
+      if (count != 0) {
+        bucketNum++;
+      }
+    }
+    outputStream.writeInt(bucketNum);
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      if (counts[i] != 0) {
+        outputStream.writeInt(i);
+        outputStream.writeLong(counts[i]);
+      }
+    }
+  }
+
+  public static LatencyHistogram deserialize(DataInputStream inputStream) throws IOException {
+    LatencyHistogram histogram = new LatencyHistogram();
+    histogram.totalCount = inputStream.readLong();
+    histogram.minMicros = inputStream.readLong();
+    histogram.maxMicros = inputStream.readLong();
+    int bucketNum = inputStream.readInt();
+    for (int i = 0; i < bucketNum; i++) {
+      int index = inputStream.readInt();
+      histogram.counts[index] = inputStream.readLong();
+    }
+    return histogram;
+  }
+
+  static int bucketIndex(long micros) {
+    if (micros < LINEAR_LIMIT) {
+      return (int) micros;
+    }
+    int shift = 63 - Long.numberOfLeadingZeros(micros) - SUB_BUCKET_BITS;
+    if (shift > MAX_SHIFT) {
+      return BUCKET_COUNT - 1;
+    }
+    int subBucket = (int) (micros >>> shift) - SUB_BUCKET_COUNT;
+    return LINEAR_LIMIT + (shift - 1) * SUB_BUCKET_COUNT + subBucket;
+  }
+
+  static long bucketUpperBound(int index) {
+    if (index < LINEAR_LIMIT) {
+      return index;
+    }
+    int shift = (index - LINEAR_LIMIT) / SUB_BUCKET_COUNT + 1;
+    long subBucket = (index - LINEAR_LIMIT) % SUB_BUCKET_COUNT + SUB_BUCKET_COUNT;
+    return ((subBucket + 1) << shift) - 1;
+  }
+}
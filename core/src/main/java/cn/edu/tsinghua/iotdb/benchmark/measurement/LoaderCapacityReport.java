@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package cn.edu.tsinghua.iotdb.benchmark.measurement;
+
+import cn.edu.tsinghua.iotdb.benchmark.client.Operation;
+import cn.edu.tsinghua.iotdb.benchmark.conf.Config;
+import cn.edu.tsinghua.iotdb.benchmark.conf.ConfigDescriptor;
+import cn.edu.tsinghua.iotdb.benchmark.measurement.persistence.ITestDataPersistence;
+import cn.edu.tsinghua.iotdb.benchmark.measurement.persistence.PersistenceFactory;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+
+/**
+ * Result of loaderCapacityMode, in which clients write to FakeDB. The ingestion rate is divided by
+ * the CPU cores the process used on average, which gives the points per second one core of the
+ * benchmark could generate. A test whose rate is close to this per core ceiling times the cores of
+ * the benchmark is bounded by the benchmark rather than by the database. Both the rate and the
+ * cores are taken over the same window, from the start of the clients to their end, so that the
+ * points of warm-up are counted as well.
+ */
+public class LoaderCapacityReport {
+
+  private static final Config config = ConfigDescriptor.getInstance().getConfig();
+  private static final String LOADER_CAPACITY = "loaderCapacity";
+  private static final double NANO_TO_SECOND = 1000000000.0d;
+
+  private final long startNanos;
+  private final long startCpuNanos;
+  private long elapsedNanos;
+  private long cpuNanos = -1;
+
+  /** Created when the clients start, after the workload buffer is generated */
+  public LoaderCapacityReport() {
+    startNanos = System.nanoTime();
+    startCpuNanos = getProcessCpuTime();
+  }
+
+  /**
+   * Get the CPU time used by this process
+   *
+   * @return CPU time in nanoseconds, -1 if it is not supported by the JVM
+   */
+  static long getProcessCpuTime() {
+    OperatingSystemMXBean bean = ManagementFactory.getOperatingSystemMXBean();
+    if (bean instanceof com.sun.management.OperatingSystemMXBean) {
+      return ((com.sun.management.OperatingSystemMXBean) bean).getProcessCpuTime();
+    }
+    return -1;
+  }
+
+  /**
+   * Get the average number of cores used
+   *
+   * @param cpuNanos CPU time used, negative if unknown
+   * @param elapsedNanos wall time elapsed
+   * @param clientNumber number of clients, used if CPU time is unknown
+   */
+  static double getUsedCores(long cpuNanos, long elapsedNanos, int clientNumber) {
+    if (cpuNanos <= 0 || elapsedNanos <= 0) {
+      // every client keeps one core busy at most
+      return Math.min(clientNumber, Runtime.getRuntime().availableProcessors());
+    }
+    return (double) cpuNanos / elapsedNanos;
+  }
+
+  /** Called when all clients finished, before the results are output */
+  public void stop() {
+    elapsedNanos = System.nanoTime() - startNanos;
+    long endCpuNanos = getProcessCpuTime();
+    cpuNanos = startCpuNanos < 0 || endCpuNanos < 0 ? -1 : endCpuNanos - startCpuNanos;
+  }
+
+  /**
+   * Get the ingestion rate of the window
+   *
+   * @param pointNum points written in the window
+   * @param elapsedNanos wall time of the window
+   */
+  static double getPointRate(long pointNum, long elapsedNanos) {
+    return elapsedNanos > 0 ? pointNum * NANO_TO_SECOND / elapsedNanos : 0;
+  }
+
+  /**
+   * Output the loader capacity
+   *
+   * @param measurement merged measurement of all clients
+   * @param warmUpMeasurement merged measurement of warm-up, which is also in the window
+   */
+  public void show(Measurement measurement, Measurement warmUpMeasurement) {
+    double usedCores = getUsedCores(cpuNanos, elapsedNanos, config.getCLIENT_NUMBER());
+    long pointNum =
+        measurement.getOkPointNum(Operation.INGESTION)
+            + warmUpMeasurement.getOkPointNum(Operation.INGESTION);
+    double pointRate = getPointRate(pointNum, elapsedNanos);
+    double pointRatePerCore = usedCores > 0 ? pointRate / usedCores : 0;
+
+    System.out.println(
+        "------------------------------------Loader Capacity-------------------------------------");
+    String format = "%-32s%s\n";
+    System.out.printf(format, "LOADER_SINK", config.getLOADER_SINK());
+    System.out.printf(format, "CLIENT_NUMBER", config.getCLIENT_NUMBER());
+    System.out.printf(format, "points", pointNum);
+    System.out.printf(format, "rate(point/s)", String.format("%.2f", pointRate));
+    System.out.printf(
+        format,
+        "used cores",
+        String.format(
+            "%.2f of %d%s",
+            usedCores,
+            Runtime.getRuntime().availableProcessors(),
+            cpuNanos < 0 ? " (CPU time unknown, estimated by clients)" : ""));
+    System.out.printf(format, "rate per core(point/s)", String.format("%.2f", pointRatePerCore));
+    System.out.println(
+        "----------------------------------------------------------------------------------------");
+
+    ITestDataPersistence recorder = new PersistenceFactory().getPersistence();
+    recorder.saveResult(LOADER_CAPACITY, "sink", config.getLOADER_SINK());
+    recorder.saveResult(LOADER_CAPACITY, "pointRate", String.format("%.2f", pointRate));
+    recorder.saveResult(LOADER_CAPACITY, "usedCores", String.format("%.2f", usedCores));
+    recorder.saveResult(
+        LOADER_CAPACITY, "pointRatePerCore", String.format("%.2f", pointRatePerCore));
+    recorder.close();
+  }
+}
@@ -32,9 +32,12 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.BufferedWriter;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.EnumMap;
@@ -44,10 +47,17 @@ public class Measurement {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(Measurement.class);
   private static final Config config = ConfigDescriptor.getInstance().getConfig();
-  private static final Map<Operation, TDigest> operationLatencyDigest =
-      new EnumMap<>(Operation.class);
-  private static final Map<Operation, Double> operationLatencySumAllClient =
-      new EnumMap<>(Operation.class);
+  /** latency digests of this client, merged into the final measurement after the test */
+  private final Map<Operation, TDigest> operationLatencyDigest;
+  /**
+   * exported latency histograms, only recorded when LATENCY_HISTOGRAM_EXPORT is true, created on
+   * the first latency of each operation
+   */
+  private final Map<Operation, LatencyHistogram> operationLatencyHistogram;
+
+  private final Map<Operation, Double> operationLatencySumAllClient;
+  /** records the current time window of this client, null if WINDOW_REPORT_INTERVAL is 0 */
+  private WindowRecorder windowRecorder;
   private double createSchemaTime;
   private double elapseTime;
   private final Map<Operation, Double> operationLatencySumThisClient;
@@ -55,29 +65,30 @@ public class Measurement {
   private final Map<Operation, Long> failOperationNumMap;
   private final Map<Operation, Long> okPointNumMap;
   private final Map<Operation, Long> failPointNumMap;
+  /** whether other measurements are merged into this one, then it covers several clients */
+  private boolean merged = false;
   private static final String RESULT_ITEM = "%-20s";
   private static final String LATENCY_ITEM = "%-12s";
   private static final int COMPRESSION = 100;
 
-  static {
-    for (Operation operation : Operation.values()) {
-      operationLatencyDigest.put(operation, new TDigest(COMPRESSION));
-      operationLatencySumAllClient.put(operation, 0D);
-    }
-  }
-
   public Measurement() {
     okOperationNumMap = new EnumMap<>(Operation.class);
     failOperationNumMap = new EnumMap<>(Operation.class);
     okPointNumMap = new EnumMap<>(Operation.class);
     failPointNumMap = new EnumMap<>(Operation.class);
     operationLatencySumThisClient = new EnumMap<>(Operation.class);
+    operationLatencySumAllClient = new EnumMap<>(Operation.class);
+    operationLatencyDigest = new EnumMap<>(Operation.class);
+    operationLatencyHistogram =
+        config.isLATENCY_HISTOGRAM_EXPORT() ? new EnumMap<>(Operation.class) : null;
     for (Operation operation : Operation.values()) {
       okOperationNumMap.put(operation, 0L);
       failOperationNumMap.put(operation, 0L);
       okPointNumMap.put(operation, 0L);
       failPointNumMap.put(operation, 0L);
       operationLatencySumThisClient.put(operation, 0D);
+      operationLatencySumAllClient.put(operation, 0D);
+      operationLatencyDigest.put(operation, new TDigest(COMPRESSION));
     }
   }
 
@@ -102,11 +113,85 @@ public class Measurement {
         operationLatencySumThisClient.put(
             operation, m.getOperationLatencySumThisClient().get(operation));
       }
+      // a merged measurement, e.g. from another benchmark process, covers several clients
+      double latencySum =
+          m.merged
+              ? m.operationLatencySumAllClient.get(operation)
+              : m.getOperationLatencySumThisClient().get(operation);
       operationLatencySumAllClient.put(
-          operation,
-          operationLatencySumAllClient.get(operation)
-              + m.getOperationLatencySumThisClient().get(operation));
+          operation, operationLatencySumAllClient.get(operation) + latencySum);
+      if (m.operationLatencyDigest.get(operation).size() > 0) {
+        operationLatencyDigest.get(operation).add(m.operationLatencyDigest.get(operation));
+      }
+      if (operationLatencyHistogram != null
+          && m.operationLatencyHistogram != null
+          && m.operationLatencyHistogram.containsKey(operation)) {
+        getLatencyHistogram(operation).merge(m.operationLatencyHistogram.get(operation));
+      }
     }
+    createSchemaTime = Math.max(createSchemaTime, m.createSchemaTime);
+    merged = true;
+  }
+
+  /**
+   * Write the raw results of this measurement, so that it can be merged by the coordinator of
+   * several benchmark processes. Metrics are calculated again after merging.
+   *
+   * @param outputStream output stream
+   */
+  public void serialize(DataOutputStream outputStream) throws IOException {
+    outputStream.writeBoolean(merged);
+    outputStream.writeDouble(createSchemaTime);
+    outputStream.writeDouble(elapseTime);
+    for (Operation operation : Operation.values()) {
+      outputStream.writeLong(okOperationNumMap.get(operation));
+      outputStream.writeLong(failOperationNumMap.get(operation));
+      outputStream.writeLong(okPointNumMap.get(operation));
+      outputStream.writeLong(failPointNumMap.get(operation));
+      outputStream.writeDouble(operationLatencySumThisClient.get(operation));
+      outputStream.writeDouble(operationLatencySumAllClient.get(operation));
+      TDigest digest = operationLatencyDigest.get(operation);
+      ByteBuffer buffer = ByteBuffer.allocate(digest.byteSize());
+      digest.asBytes(buffer);
+      outputStream.writeInt(buffer.position());
+      outputStream.write(buffer.array(), 0, buffer.position());
+      LatencyHistogram histogram =
+          operationLatencyHistogram == null ? null : operationLatencyHistogram.get(operation);
+      outputStream.writeBoolean(histogram != null);
+      if (histogram != null) {
+        histogram.serialize(outputStream);
+      }
+    }
+  }
+
+  /**
+   * Read a measurement written by {@link #serialize(DataOutputStream)}
+   *
+   * @param inputStream input stream
+   */
+  public static Measurement deserialize(DataInputStream inputStream) throws IOException {
+    Measurement measurement = new Measurement();
+    measurement.merged = inputStream.readBoolean();
+    measurement.createSchemaTime = inputStream.readDouble();
+    measurement.elapseTime = inputStream.readDouble();
+    for (Operation operation : Operation.values()) {
+      measurement.okOperationNumMap.put(operation, inputStream.readLong());
+      measurement.failOperationNumMap.put(operation, inputStream.readLong());
+      measurement.okPointNumMap.put(operation, inputStream.readLong());
+      measurement.failPointNumMap.put(operation, inputStream.readLong());
+      measurement.operationLatencySumThisClient.put(operation, inputStream.readDouble());
+      measurement.operationLatencySumAllClient.put(operation, inputStream.readDouble());
+      byte[] digest = new byte[inputStream.readInt()];
+      inputStream.readFully(digest);
+      measurement.operationLatencyDigest.put(operation, TDigest.fromBytes(ByteBuffer.wrap(digest)));
+      if (inputStream.readBoolean()) {
+        LatencyHistogram histogram = LatencyHistogram.deserialize(inputStream);
+        if (measurement.operationLatencyHistogram != null) {
+          measurement.operationLatencyHistogram.put(operation, histogram);
+        }
+      }
+    }
+    return measurement;
   }
 
   /** Calculate metrics of each operation */
@@ -155,16 +240,32 @@ public class Measurement {
 
   /** Show measurements and record according to TEST_DATA_PERSISTENCE */
   public void showMeasurements() {
+    showMeasurements("");
+  }
+
+  /**
+   * Show measurements of one section of test, e.g. one phase, and record them according to
+   * TEST_DATA_PERSISTENCE with the section name as the prefix of result keys
+   *
+   * @param section name of section, empty for the whole test
+   */
+  public void showMeasurements(String section) {
     PersistenceFactory persistenceFactory = new PersistenceFactory();
     ITestDataPersistence recorder = persistenceFactory.getPersistence();
-    System.out.println(Thread.currentThread().getName() + " measurements:");
+    String prefix = section.isEmpty() ? "" : section + ":";
+    if (section.isEmpty()) {
+      System.out.println(Thread.currentThread().getName() + " measurements:");
+    } else {
+      System.out.println(Thread.currentThread().getName() + " measurements of " + section + ":");
+    }
     System.out.println("Create schema cost " + String.format("%.2f", createSchemaTime) + " second");
     System.out.println(
         "Test elapsed time (not include schema creation): "
             + String.format("%.2f", elapseTime)
             + " second");
-    recorder.saveResult("total", TotalResult.CREATE_SCHEMA_TIME.getName(), "" + createSchemaTime);
-    recorder.saveResult("total", TotalResult.ELAPSED_TIME.getName(), "" + elapseTime);
+    recorder.saveResult(
+        "total", prefix + TotalResult.CREATE_SCHEMA_TIME.getName(), "" + createSchemaTime);
+    recorder.saveResult("total", prefix + TotalResult.ELAPSED_TIME.getName(), "" + elapseTime);
 
     System.out.println(
         "----------------------------------------------------------Result Matrix----------------------------------------------------------");
@@ -194,22 +295,22 @@ public class Measurement {
 
       recorder.saveResult(
           operation.toString(),
-          TotalOperationResult.OK_OPERATION_NUM.getName(),
+          prefix + TotalOperationResult.OK_OPERATION_NUM.getName(),
           "" + okOperationNumMap.get(operation));
       recorder.saveResult(
           operation.toString(),
-          TotalOperationResult.OK_POINT_NUM.getName(),
+          prefix + TotalOperationResult.OK_POINT_NUM.getName(),
           "" + okPointNumMap.get(operation));
       recorder.saveResult(
           operation.toString(),
-          TotalOperationResult.FAIL_OPERATION_NUM.getName(),
+          prefix + TotalOperationResult.FAIL_OPERATION_NUM.getName(),
           "" + failOperationNumMap.get(operation));
       recorder.saveResult(
           operation.toString(),
-          TotalOperationResult.FAIL_POINT_NUM.getName(),
+          prefix + TotalOperationResult.FAIL_POINT_NUM.getName(),
           "" + failPointNumMap.get(operation));
       recorder.saveResult(
-          operation.toString(), TotalOperationResult.THROUGHPUT.getName(), throughput);
+          operation.toString(), prefix + TotalOperationResult.THROUGHPUT.getName(), throughput);
     }
     System.out.println(
         "---------------------------------------------------------------------------------------------------------------------------------");
@@ -233,6 +334,10 @@ public class Measurement {
     System.out.println("LOOP: " + config.getLOOP());
     System.out.println("POINT_STEP: " + config.getPOINT_STEP());
     System.out.println("QUERY_INTERVAL: " + config.getQUERY_INTERVAL());
+    if (config.getTARGET_RATE() > 0) {
+      System.out.println(
+          "TARGET_RATE: " + config.getTARGET_RATE() + " " + config.getTARGET_RATE_UNIT() + "/s");
+    }
     System.out.println("IS_OUT_OF_ORDER: " + config.isIS_OUT_OF_ORDER());
     System.out.println("OUT_OF_ORDER_MODE: " + config.getOUT_OF_ORDER_MODE());
     System.out.println("OUT_OF_ORDER_RATIO: " + config.getOUT_OF_ORDER_RATIO());
@@ -241,8 +346,18 @@ public class Measurement {
 
   /** Show metrics of test */
   public void showMetrics() {
+    showMetrics("");
+  }
+
+  /**
+   * Show metrics of one section of test, see {@link #showMeasurements(String)}
+   *
+   * @param section name of section, empty for the whole test
+   */
+  public void showMetrics(String section) {
     PersistenceFactory persistenceFactory = new PersistenceFactory();
     ITestDataPersistence recorder = persistenceFactory.getPersistence();
+    String prefix = section.isEmpty() ? "" : section + ":";
     System.out.println(
         "--------------------------------------------------------------------------Latency (ms) Matrix--------------------------------------------------------------------------");
     System.out.printf(RESULT_ITEM, "Operation");
@@ -255,7 +370,7 @@ public class Measurement {
       for (Metric metric : Metric.values()) {
         String metricResult = String.format("%.2f", metric.typeValueMap.get(operation));
         System.out.printf(LATENCY_ITEM, metricResult);
-        recorder.saveResult(operation.toString(), metric.name, metricResult);
+        recorder.saveResult(operation.toString(), prefix + metric.name, metricResult);
       }
       System.out.println();
     }
@@ -270,6 +385,15 @@ public class Measurement {
     measurementCsvWriter.write();
   }
 
+  /** output latency histograms to csv, requires LATENCY_HISTOGRAM_EXPORT */
+  public void outputLatencyHistogram() {
+    if (operationLatencyHistogram == null) {
+      return;
+    }
+    MeasurementCsvWriter measurementCsvWriter = new MeasurementCsvWriter();
+    measurementCsvWriter.writeLatencyHistogram();
+  }
+
   /** A class which write measurement to csv file */
   private class MeasurementCsvWriter {
     public void write() {
@@ -287,6 +411,22 @@ public class Measurement {
       }
     }
 
+    /** Write latency histogram of each operation to another csv file */
+    public void writeLatencyHistogram() {
+      String fileName = createFileName().replace("-test-result.csv", "-latency-histogram.csv");
+      createDirectory();
+      try (BufferedWriter bw = new BufferedWriter(new FileWriter(fileName))) {
+        bw.write("Operation,latency(ms),count,quantile");
+        bw.newLine();
+        for (Map.Entry<Operation, LatencyHistogram> entry :
+            operationLatencyHistogram.entrySet()) {
+          entry.getValue().writeCsv(entry.getKey().getName(), bw);
+        }
+      } catch (IOException e) {
+        LOGGER.error("Exception occurred during writing latency histogram because: ", e);
+      }
+    }
+
     /**
      * Get filename
      *
@@ -368,6 +508,8 @@ public class Measurement {
         bw.newLine();
         bw.write("QUERY_INTERVAL," + config.getQUERY_INTERVAL());
         bw.newLine();
+        bw.write("TARGET_RATE," + config.getTARGET_RATE() + " " + config.getTARGET_RATE_UNIT());
+        bw.newLine();
         bw.write("IS_OUT_OF_ORDER," + config.isIS_OUT_OF_ORDER());
         bw.newLine();
         bw.write("OVERFLOW_MODE_ORDER," + config.getOUT_OF_ORDER_MODE());
@@ -459,15 +601,24 @@ public class Measurement {
     return operationLatencySumThisClient;
   }
 
-  private long getOkOperationNum(Operation operation) {
+  private LatencyHistogram getLatencyHistogram(Operation operation) {
+    LatencyHistogram histogram = operationLatencyHistogram.get(operation);
+    if (histogram == null) {
+      histogram = new LatencyHistogram();
+      operationLatencyHistogram.put(operation, histogram);
+    }
+    return histogram;
+  }
+
+  public long getOkOperationNum(Operation operation) {
     return okOperationNumMap.get(operation);
   }
 
-  private long getFailOperationNum(Operation operation) {
+  public long getFailOperationNum(Operation operation) {
     return failOperationNumMap.get(operation);
   }
 
-  private long getOkPointNum(Operation operation) {
+  public long getOkPointNum(Operation operation) {
     return okPointNumMap.get(operation);
   }
 
@@ -475,19 +626,35 @@ public class Measurement {
     return failPointNumMap.get(operation);
   }
 
+  /**
+   * Record the latency of one operation. Each client owns its measurement, so no lock is needed.
+   *
+   * @param op operation
+   * @param latency latency in milliseconds
+   */
   public void addOperationLatency(Operation op, double latency) {
-    synchronized (operationLatencyDigest.get(op)) {
-      operationLatencyDigest.get(op).add(latency);
+    operationLatencyDigest.get(op).add(latency);
+    if (operationLatencyHistogram != null) {
+      getLatencyHistogram(op).record(latency);
+    }
+    if (windowRecorder != null) {
+      windowRecorder.recordOkOperation(op, latency);
     }
     operationLatencySumThisClient.put(op, operationLatencySumThisClient.get(op) + latency);
   }
 
   public void addOkPointNum(Operation operation, int pointNum) {
     okPointNumMap.put(operation, okPointNumMap.get(operation) + pointNum);
+    if (windowRecorder != null) {
+      windowRecorder.addOkPointNum(operation, pointNum);
+    }
   }
 
   public void addFailPointNum(Operation operation, int pointNum) {
     failPointNumMap.put(operation, failPointNumMap.get(operation) + pointNum);
+    if (windowRecorder != null) {
+      windowRecorder.addFailPointNum(operation, pointNum);
+    }
   }
 
   public void addOkOperationNum(Operation operation) {
@@ -496,6 +663,13 @@ public class Measurement {
 
   public void addFailOperationNum(Operation operation) {
     failOperationNumMap.put(operation, failOperationNumMap.get(operation) + 1);
+    if (windowRecorder != null) {
+      windowRecorder.addFailOperationNum(operation);
+    }
+  }
+
+  public void setWindowRecorder(WindowRecorder windowRecorder) {
+    this.windowRecorder = windowRecorder;
   }
 
   public double getCreateSchemaTime() {
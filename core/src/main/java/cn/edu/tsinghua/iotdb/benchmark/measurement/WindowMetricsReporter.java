@@ -0,0 +1,163 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package cn.edu.tsinghua.iotdb.benchmark.measurement;
+
+import cn.edu.tsinghua.iotdb.benchmark.client.Operation;
+import cn.edu.tsinghua.iotdb.benchmark.conf.Config;
+import cn.edu.tsinghua.iotdb.benchmark.conf.ConfigDescriptor;
+import cn.edu.tsinghua.iotdb.benchmark.conf.Constants;
+import cn.edu.tsinghua.iotdb.benchmark.measurement.enums.WindowResult;
+import cn.edu.tsinghua.iotdb.benchmark.measurement.persistence.ITestDataPersistence;
+import cn.edu.tsinghua.iotdb.benchmark.measurement.persistence.PersistenceFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Emits throughput and latency percentiles of each operation every WINDOW_REPORT_INTERVAL seconds
+ * during the test, by collecting the window of every client recorder. The results are logged and
+ * saved through ITestDataPersistence.
+ */
+public class WindowMetricsReporter {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(WindowMetricsReporter.class);
+  private static final Config config = ConfigDescriptor.getInstance().getConfig();
+  private static final List<WindowRecorder> recorders = new CopyOnWriteArrayList<>();
+
+  private final WindowRecorder.Window window = new WindowRecorder.Window();
+  private ScheduledExecutorService service;
+  private ITestDataPersistence recorder;
+  private long windowStartTime;
+
+  /**
+   * Create a recorder for one client
+   *
+   * @return null if WINDOW_REPORT_INTERVAL is not positive, except in capacitySearchMode
+   */
+  public static WindowRecorder createRecorder() {
+    if (config.getWINDOW_REPORT_INTERVAL() <= 0 && !isSampledByCapacitySearch()) {
+      return null;
+    }
+    WindowRecorder windowRecorder = new WindowRecorder();
+    recorders.add(windowRecorder);
+    return windowRecorder;
+  }
+
+  /**
+   * Collect the window of all clients since the last collection, used by capacity search which
+   * replaces periodic reporting
+   *
+   * @param target window to be merged into
+   */
+  public static void collect(WindowRecorder.Window target) {
+    for (WindowRecorder windowRecorder : recorders) {
+      windowRecorder.sampleInto(target);
+    }
+  }
+
+  /** In capacitySearchMode, windows are collected at the end of each load step instead */
+  private static boolean isSampledByCapacitySearch() {
+    return Constants.MODE_CAPACITY_SEARCH.equals(config.getBENCHMARK_WORK_MODE().trim());
+  }
+
+  /**
+   * Start reporting periodically, do nothing if WINDOW_REPORT_INTERVAL is not positive or in
+   * capacitySearchMode
+   */
+  public synchronized void start() {
+    if (config.getWINDOW_REPORT_INTERVAL() <= 0 || isSampledByCapacitySearch() || service != null) {
+      return;
+    }
+    recorder = new PersistenceFactory().getPersistence();
+    windowStartTime = System.currentTimeMillis();
+    service =
+        Executors.newSingleThreadScheduledExecutor(
+            r -> {
+              Thread thread = new Thread(r, "window-metrics-reporter");
+              thread.setDaemon(true);
+              return thread;
+            });
+    service.scheduleAtFixedRate(
+        this::report,
+        config.getWINDOW_REPORT_INTERVAL(),
+        config.getWINDOW_REPORT_INTERVAL(),
+        TimeUnit.SECONDS);
+  }
+
+  /** Stop reporting, the last partial window is reported as well */
+  public synchronized void stop() {
+    if (service == null) {
+      return;
+    }
+    service.shutdown();
+    try {
+      service.awaitTermination(config.getWINDOW_REPORT_INTERVAL(), TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      LOGGER.warn("Interrupted when waiting for window metrics reporter");
+      Thread.currentThread().interrupt();
+    }
+    report();
+    recorder.close();
+    service = null;
+  }
+
+  /** Collect the window of all clients and save metrics of each operation */
+  synchronized void report() {
+    long windowEndTime = System.currentTimeMillis();
+    window.reset();
+    collect(window);
+    double windowSeconds = Math.max(windowEndTime - windowStartTime, 1) / 1000.0D;
+    for (Operation operation : Operation.values()) {
+      long okOperationNum = window.getOkOperationNum(operation);
+      long failOperationNum = window.getFailOperationNum(operation);
+      if (okOperationNum == 0 && failOperationNum == 0) {
+        continue;
+      }
+      Map<WindowResult, Double> result = new EnumMap<>(WindowResult.class);
+      result.put(WindowResult.OK_OPERATION_NUM, (double) okOperationNum);
+      result.put(WindowResult.OK_POINT_NUM, (double) window.getOkPointNum(operation));
+      result.put(WindowResult.FAIL_OPERATION_NUM, (double) failOperationNum);
+      result.put(WindowResult.FAIL_POINT_NUM, (double) window.getFailPointNum(operation));
+      result.put(WindowResult.THROUGHPUT, window.getOkPointNum(operation) / windowSeconds);
+      result.put(WindowResult.P50_LATENCY, window.getLatency(operation, 0.5));
+      result.put(WindowResult.P99_LATENCY, window.getLatency(operation, 0.99));
+      result.put(WindowResult.P999_LATENCY, window.getLatency(operation, 0.999));
+      LOGGER.info(
+          "Window {}: {} ok {}, fail {}, throughput {} points/s, p50 {} ms, p99 {} ms, p999 {} ms",
+          windowStartTime,
+          operation,
+          okOperationNum,
+          failOperationNum,
+          String.format("%.2f", result.get(WindowResult.THROUGHPUT)),
+          String.format("%.2f", result.get(WindowResult.P50_LATENCY)),
+          String.format("%.2f", result.get(WindowResult.P99_LATENCY)),
+          String.format("%.2f", result.get(WindowResult.P999_LATENCY)));
+      recorder.saveWindowResult(windowStartTime, operation.getName(), result);
+    }
+    windowStartTime = windowEndTime;
+  }
+}
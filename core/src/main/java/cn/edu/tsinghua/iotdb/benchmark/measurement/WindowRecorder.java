@@ -0,0 +1,198 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package cn.edu.tsinghua.iotdb.benchmark.measurement;
+
+import cn.edu.tsinghua.iotdb.benchmark.client.Operation;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records the operations of one client in the current time window. The client records without
+ * locking, and the reporter thread swaps in an empty window to read the finished one, waiting only
+ * for the writes that were in flight during the swap (writer-reader phaser).
+ */
+public class WindowRecorder {
+
+  private final AtomicLong startEpoch = new AtomicLong(0);
+  private final AtomicLong evenEndEpoch = new AtomicLong(0);
+  private final AtomicLong oddEndEpoch = new AtomicLong(Long.MIN_VALUE);
+
+  private volatile Window active = new Window();
+  private Window inactive = new Window();
+
+  /**
+   * Record one successful operation
+   *
+   * @param operation operation
+   * @param latency latency in milliseconds
+   */
+  public void recordOkOperation(Operation operation, double latency) {
+    long epoch = startEpoch.getAndIncrement();
+    try {
+      active.getHistogram(operation).record(latency);
+    } finally {
+      exit(epoch);
+    }
+  }
+
+  public void addOkPointNum(Operation operation, int pointNum) {
+    long epoch = startEpoch.getAndIncrement();
+    try {
+      active.okPointNum[operation.ordinal()] += pointNum;
+    } finally {
+      exit(epoch);
+    }
+  }
+
+  public void addFailOperationNum(Operation operation) {
+    long epoch = startEpoch.getAndIncrement();
+    try {
+      active.failOperationNum[operation.ordinal()]++;
+    } finally {
+      exit(epoch);
+    }
+  }
+
+  public void addFailPointNum(Operation operation, int pointNum) {
+    long epoch = startEpoch.getAndIncrement();
+    try {
+      active.failPointNum[operation.ordinal()] += pointNum;
+    } finally {
+      exit(epoch);
+    }
+  }
+
+  /**
+   * Close the current window of this client and merge it into target, called by the reporter
+   *
+   * @param target window to be merged into
+   */
+  public synchronized void sampleInto(Window target) {
+    inactive.reset();
+    Window finished = active;
+    active = inactive;
+    inactive = finished;
+    flipPhase();
+    target.merge(finished);
+  }
+
+  private void exit(long epoch) {
+    if (epoch < 0) {
+      oddEndEpoch.getAndIncrement();
+    } else {
+      evenEndEpoch.getAndIncrement();
+    }
+  }
+
+  /** Wait until all the writes started before the flip have finished */
+  private void flipPhase() {
+    boolean nextPhaseIsEven = startEpoch.get() < 0;
+    long initialStartValue = nextPhaseIsEven ? 0 : Long.MIN_VALUE;
+    if (nextPhaseIsEven) {
+      evenEndEpoch.lazySet(initialStartValue);
+    } else {
+      oddEndEpoch.lazySet(initialStartValue);
+    }
+    long startValueAtFlip = startEpoch.getAndSet(initialStartValue);
+    AtomicLong previousEndEpoch = nextPhaseIsEven ? oddEndEpoch : evenEndEpoch;
+    while (previousEndEpoch.get() != startValueAtFlip) {
+      Thread.yield();
+    }
+  }
+
+  /** Operations of one time window */
+  public static class Window {
+
+    private static final int OPERATION_NUM = Operation.values().length;
+
+    /** latency of successful operations, created on the first operation of each type */
+    private final LatencyHistogram[] histograms = new LatencyHistogram[OPERATION_NUM];
+
+    private final long[] okPointNum = new long[OPERATION_NUM];
+    private final long[] failOperationNum = new long[OPERATION_NUM];
+    private final long[] failPointNum = new long[OPERATION_NUM];
+
+    LatencyHistogram getHistogram(Operation operation) {
+      LatencyHistogram histogram = histograms[operation.ordinal()];
+      if (histogram == null) {
+        histogram = new LatencyHistogram();
+        histograms[operation.ordinal()] = histogram;
+      }
+      return histogram;
+    }
+
+    public void merge(Window other) {
+      for (int i = 0; i < OPERATION_NUM; i++) {
+        if (other.histograms[i] != null) {
+          getHistogram(Operation.values()[i]).merge(other.histograms[i]);
+        }
+        okPointNum[i] += other.okPointNum[i];
+        failOperationNum[i] += other.failOperationNum[i];
+        failPointNum[i] += other.failPointNum[i];
+      }
+    }
+
+    public void reset() {
+      for (LatencyHistogram histogram : histograms) {
+        if (histogram != null && histogram.getTotalCount() > 0) {
+          histogram.reset();
+        }
+      }
+      Arrays.fill(okPointNum, 0L);
+      Arrays.fill(failOperationNum, 0L);
+      Arrays.fill(failPointNum, 0L);
+    }
+
+    public long getOkOperationNum(Operation operation) {
+      LatencyHistogram histogram = histograms[operation.ordinal()];
+      return histogram == null ? 0 : histogram.getTotalCount();
+    }
+
+    public long getOkPointNum(Operation operation) {
+      return okPointNum[operation.ordinal()];
+    }
+
+    public long getFailOperationNum(Operation operation) {
+      return failOperationNum[operation.ordinal()];
+    }
+
+    public long getFailPointNum(Operation operation) {
+      return failPointNum[operation.ordinal()];
+    }
+
+    /** @return latency in milliseconds at the quantile, 0 if no successful operation */
+    public double getLatency(Operation operation, double quantile) {
+      LatencyHistogram histogram = histograms[operation.ordinal()];
+      return histogram == null ? 0 : histogram.getValueAtQuantile(quantile);
+    }
+
+    /** @return latency in milliseconds at the quantile of all operations, 0 if none succeeded */
+    public double getLatency(double quantile) {
+      LatencyHistogram all = new LatencyHistogram();
+      for (LatencyHistogram histogram : histograms) {
+        if (histogram != null) {
+          all.merge(histogram);
+        }
+      }
+      return all.getTotalCount() == 0 ? 0 : all.getValueAtQuantile(quantile);
+    }
+  }
+}
@@ -0,0 +1,41 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package cn.edu.tsinghua.iotdb.benchmark.measurement.enums;
+
+public enum WindowResult {
+  OK_OPERATION_NUM("okOperationNum"),
+  OK_POINT_NUM("okPointNum"),
+  FAIL_OPERATION_NUM("failOperationNum"),
+  FAIL_POINT_NUM("failPointNum"),
+  THROUGHPUT("throughput"),
+  P50_LATENCY("p50"),
+  P99_LATENCY("p99"),
+  P999_LATENCY("p999");
+
+  String name;
+
+  WindowResult(String name) {
+    this.name = name;
+  }
+
+  public String getName() {
+    return name;
+  }
+}
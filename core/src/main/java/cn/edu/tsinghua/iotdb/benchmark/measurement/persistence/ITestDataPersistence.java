@@ -20,6 +20,7 @@
 package cn.edu.tsinghua.iotdb.benchmark.measurement.persistence;
 
 import cn.edu.tsinghua.iotdb.benchmark.measurement.enums.SystemMetrics;
+import cn.edu.tsinghua.iotdb.benchmark.measurement.enums.WindowResult;
 
 import java.util.Map;
 
@@ -56,6 +57,16 @@ public interface ITestDataPersistence {
    */
   void saveResult(String operation, String key, String value);
 
+  /**
+   * Save result of operation in one time window of the test
+   *
+   * @param windowStartTime start time of the window in ms
+   * @param operation which type of operation
+   * @param windowResultMap results of the operation in the window
+   */
+  void saveWindowResult(
+      long windowStartTime, String operation, Map<WindowResult, Double> windowResultMap);
+
   /** Close record */
   void close();
 }
@@ -0,0 +1,186 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package cn.edu.tsinghua.iotdb.benchmark.measurement.persistence;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded multi-producer single-consumer ring buffer of operation results. Client threads publish
+ * results into preallocated slots without locking or allocation, and one writer thread drains them
+ * in order. When the buffer is full, publishers either wait for the writer (back-pressure) or give
+ * up the result, so that a slow writer does not stall them.
+ */
+public class OperationResultRingBuffer {
+
+  /** how long a publisher parks when the buffer is full */
+  private static final long FULL_WAIT_NANOS = 10_000L;
+
+  private final int capacity;
+  private final int mask;
+
+  private final long[] recordTimes;
+  private final String[] clientNames;
+  private final String[] operations;
+  private final int[] okPoints;
+  private final int[] failPoints;
+  private final double[] latencies;
+  private final String[] remarks;
+  /** sequence of the result published in each slot */
+  private final AtomicLongArray published;
+
+  /** next sequence to be claimed by publishers */
+  private final AtomicLong tail = new AtomicLong(0);
+  /** next sequence to be consumed, only updated by the consumer */
+  private final AtomicLong head = new AtomicLong(0);
+
+  /** @param size capacity of the buffer, rounded up to a power of two */
+  public OperationResultRingBuffer(int size) {
+    int actualSize = Integer.highestOneBit(Math.max(size, 2) - 1) << 1;
+    this.capacity = actualSize;
+    this.mask = actualSize - 1;
+    recordTimes = new long[actualSize];
+    clientNames = new String[actualSize];
+    operations = new String[actualSize];
+    okPoints = new int[actualSize];
+    failPoints = new int[actualSize];
+    latencies = new double[actualSize];
+    remarks = new String[actualSize];
+    published = new AtomicLongArray(actualSize);
+    for (int i = 0; i < actualSize; i++) {
+      published.set(i, -1L);
+    }
+  }
+
+  /** Publish one operation result, wait if the buffer is full */
+  public void publish(
+      long recordTime,
+      String clientName,
+      String operation,
+      int okPoint,
+      int failPoint,
+      double latency,
+      String remark) {
+    long sequence = tail.getAndIncrement();
+    while (sequence - head.get() >= capacity) {
+      LockSupport.parkNanos(FULL_WAIT_NANOS);
+    }
+    put(sequence, recordTime, clientName, operation, okPoint, failPoint, latency, remark);
+  }
+
+  /**
+   * Publish one operation result if the buffer is not full
+   *
+   * @return false if the buffer is full and the result is not published
+   */
+  public boolean tryPublish(
+      long recordTime,
+      String clientName,
+      String operation,
+      int okPoint,
+      int failPoint,
+      double latency,
+      String remark) {
+    long sequence;
+    do {
+      sequence = tail.get();
+      if (sequence - head.get() >= capacity) {
+        return false;
+      }
+    } while (!tail.compareAndSet(sequence, sequence + 1));
+    put(sequence, recordTime, clientName, operation, okPoint, failPoint, latency, remark);
+    return true;
+  }
+
+  private void put(
+      long sequence,
+      long recordTime,
+      String clientName,
+      String operation,
+      int okPoint,
+      int failPoint,
+      double latency,
+      String remark) {
+    int index = (int) sequence & mask;
+    recordTimes[index] = recordTime;
+    clientNames[index] = clientName;
+    operations[index] = operation;
+    okPoints[index] = okPoint;
+    failPoints[index] = failPoint;
+    latencies[index] = latency;
+    remarks[index] = remark;
+    published.lazySet(index, sequence);
+  }
+
+  /**
+   * Hand published results to the handler in publishing order, only called by the consumer thread
+   *
+   * @param handler handler of each result
+   * @param maxNum max number of results to be drained
+   * @return number of drained results
+   */
+  public int drain(OperationResultHandler handler, int maxNum) {
+    long next = head.get();
+    int num = 0;
+    while (num < maxNum) {
+      long sequence = next + num;
+      int index = (int) sequence & mask;
+      if (published.get(index) != sequence) {
+        break;
+      }
+      handler.onResult(
+          recordTimes[index],
+          clientNames[index],
+          operations[index],
+          okPoints[index],
+          failPoints[index],
+          latencies[index],
+          remarks[index]);
+      num++;
+    }
+    if (num > 0) {
+      head.lazySet(next + num);
+    }
+    return num;
+  }
+
+  /** @return whether all the claimed results have been consumed */
+  public boolean isEmpty() {
+    return head.get() >= tail.get();
+  }
+
+  public int getCapacity() {
+    return capacity;
+  }
+
+  /** Consumer of drained operation results */
+  public interface OperationResultHandler {
+
+    void onResult(
+        long recordTime,
+        String clientName,
+        String operation,
+        int okPoint,
+        int failPoint,
+        double latency,
+        String remark);
+  }
+}
@@ -22,6 +22,7 @@ package cn.edu.tsinghua.iotdb.benchmark.measurement.persistence;
 import cn.edu.tsinghua.iotdb.benchmark.conf.Config;
 import cn.edu.tsinghua.iotdb.benchmark.conf.ConfigDescriptor;
 import cn.edu.tsinghua.iotdb.benchmark.conf.Constants;
+import cn.edu.tsinghua.iotdb.benchmark.measurement.persistence.binary.BinaryRecorder;
 import cn.edu.tsinghua.iotdb.benchmark.measurement.persistence.csv.CSVRecorder;
 import cn.edu.tsinghua.iotdb.benchmark.measurement.persistence.iotdb.IotdbRecorder;
 import cn.edu.tsinghua.iotdb.benchmark.measurement.persistence.mysql.MySqlRecorder;
@@ -43,6 +44,16 @@ public class PersistenceFactory {
         return new MySqlRecorder();
       case Constants.TDP_CSV:
         return new CSVRecorder();
+      case Constants.TDP_BINARY:
+        return new BinaryRecorder();
+      case Constants.TDP_IOTDB_SESSION:
+        try {
+          return (ITestDataPersistence)
+              Class.forName(Constants.IOTDB012_SESSION_RECORDER_CLASS).newInstance();
+        } catch (InstantiationException | IllegalAccessException | ClassNotFoundException e) {
+          LOGGER.error("Failed to create IoTDBSession recorder, use NoneRecorder", e);
+          return new NoneRecorder();
+        }
       default:
         LOGGER.error(
             "unsupported test data persistence way: {}, use NoneRecorder",
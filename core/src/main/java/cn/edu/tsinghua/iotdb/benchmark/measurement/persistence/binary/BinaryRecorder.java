@@ -0,0 +1,197 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package cn.edu.tsinghua.iotdb.benchmark.measurement.persistence.binary;
+
+import cn.edu.tsinghua.iotdb.benchmark.client.Operation;
+import cn.edu.tsinghua.iotdb.benchmark.conf.Config;
+import cn.edu.tsinghua.iotdb.benchmark.conf.ConfigDescriptor;
+import cn.edu.tsinghua.iotdb.benchmark.conf.Constants;
+import cn.edu.tsinghua.iotdb.benchmark.measurement.enums.SystemMetrics;
+import cn.edu.tsinghua.iotdb.benchmark.measurement.enums.WindowResult;
+import cn.edu.tsinghua.iotdb.benchmark.measurement.persistence.ITestDataPersistence;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Writes the result of every operation as a fixed-width binary record into a memory-mapped log of
+ * the calling client thread, located in data/binary/projectID. Remarks are not kept, only whether
+ * a record has one and whether it is of warm-up. Use BinaryResultLogConverter to convert the logs
+ * into csv or to aggregate them into the FINAL_RESULT layout. Other results are not recorded.
+ */
+public class BinaryRecorder implements ITestDataPersistence {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(BinaryRecorder.class);
+  private static final Config config = ConfigDescriptor.getInstance().getConfig();
+
+  private static final SimpleDateFormat projectDateFormat =
+      new SimpleDateFormat("yyyy_MM_dd_hh_mm_ss_SSS");
+  private static final long EXP_TIME = System.currentTimeMillis();
+  private static final String projectID =
+      String.format(
+          "%s_%s_%s_%s",
+          config.getBENCHMARK_WORK_MODE(),
+          config.getDB_SWITCH(),
+          config.getREMARK(),
+          projectDateFormat.format(new java.util.Date(EXP_TIME)));
+  private static final long BYTES_PER_MB = 1024L * 1024L;
+
+  private static final Map<String, Integer> operationOrdinals = new HashMap<>();
+  private static final AtomicInteger clientIdGenerator = new AtomicInteger(0);
+  /** logs of all threads, closed by the shutdown hook */
+  private static final List<BinaryResultLog> logs = new CopyOnWriteArrayList<>();
+
+  private static final ThreadLocal<BinaryResultLog> threadLog = new ThreadLocal<>();
+
+  static {
+    for (Operation operation : Operation.values()) {
+      operationOrdinals.put(operation.getName(), operation.ordinal());
+    }
+    Runtime.getRuntime().addShutdownHook(new Thread(BinaryRecorder::closeAll));
+  }
+
+  @Override
+  public void saveOperationResult(
+      String operation, int okPoint, int failPoint, double latency, String remark) {
+    BinaryResultLog log = getThreadLog();
+    if (log == null) {
+      return;
+    }
+    Integer ordinal = operationOrdinals.get(operation);
+    log.append(
+        System.currentTimeMillis(),
+        ordinal == null ? -1 : ordinal,
+        okPoint,
+        failPoint,
+        Math.round(latency * 1000000.0D),
+        getFlags(remark));
+  }
+
+  /**
+   * Get the flags of a record by its remark
+   *
+   * @param remark empty, or the exception of a failed operation, prefixed by WARM_UP_REMARK during
+   *     warm-up
+   */
+  static int getFlags(String remark) {
+    if (remark == null) {
+      return 0;
+    }
+    int flags = 0;
+    if (remark.startsWith(Constants.WARM_UP_REMARK)) {
+      flags |= BinaryResultLog.FLAG_WARM_UP;
+      remark = remark.substring(Constants.WARM_UP_REMARK.length());
+    }
+    if (!remark.isEmpty()) {
+      flags |= BinaryResultLog.FLAG_REMARK;
+    }
+    return flags;
+  }
+
+  private static BinaryResultLog getThreadLog() {
+    BinaryResultLog log = threadLog.get();
+    if (log == null) {
+      File dir = getLogDir();
+      if (!dir.exists() && !dir.mkdirs()) {
+        LOGGER.error("can't create dir {}", dir);
+        return null;
+      }
+      int clientId = clientIdGenerator.getAndIncrement();
+      String name = Thread.currentThread().getName().replaceAll("[^A-Za-z0-9-]", "-");
+      try {
+        log =
+            new BinaryResultLog(
+                dir,
+                name + "_" + clientId,
+                clientId,
+                config.getBINARY_LOG_SEGMENT_SIZE() * BYTES_PER_MB);
+      } catch (IOException e) {
+        LOGGER.error("Failed to create binary result log in {}", dir, e);
+        return null;
+      }
+      threadLog.set(log);
+      logs.add(log);
+    }
+    return log;
+  }
+
+  static File getLogDir() {
+    String confDir = System.getProperty(Constants.BENCHMARK_CONF);
+    String dataDir =
+        confDir == null ? "data" : confDir.substring(0, confDir.length() - 23) + "/data";
+    return new File(dataDir + "/binary/" + projectID);
+  }
+
+  @Override
+  public void insertSystemMetrics(Map<SystemMetrics, Float> systemMetricsMap) {
+    // only operation results are logged
+  }
+
+  @Override
+  public void saveTestConfig() {
+    // only operation results are logged
+  }
+
+  @Override
+  public void saveResult(String operation, String key, String value) {
+    // final results are aggregated from the logs by BinaryResultLogConverter
+  }
+
+  @Override
+  public void saveWindowResult(
+      long windowStartTime, String operation, Map<WindowResult, Double> windowResultMap) {
+    // window results can be aggregated from the logs
+  }
+
+  /** Close the log of the current thread, a new log is created if it saves results again */
+  @Override
+  public void close() {
+    BinaryResultLog log = threadLog.get();
+    if (log != null) {
+      threadLog.remove();
+      logs.remove(log);
+      closeLog(log);
+    }
+  }
+
+  /** Close logs of all threads, called when the JVM exits */
+  private static void closeAll() {
+    for (BinaryResultLog log : logs) {
+      closeLog(log);
+    }
+    logs.clear();
+  }
+
+  private static void closeLog(BinaryResultLog log) {
+    try {
+      log.close();
+    } catch (IOException e) {
+      LOGGER.error("Failed to close binary result log", e);
+    }
+  }
+}
@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package cn.edu.tsinghua.iotdb.benchmark.measurement.persistence.binary;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Memory-mapped log of operation results written by one client thread. The log is split into
+ * segment files of a fixed size, each segment starts with a header and is followed by fixed-width
+ * records:
+ *
+ * <pre>
+ * header: magic(int) version(int) recordNum(long)
+ * record: recordTime(long, ms) clientId(int) operation(int, ordinal) okPoint(int) failPoint(int)
+ *         latency(long, ns) flags(int) reserved(int)
+ * </pre>
+ *
+ * The record number in the header is updated after every record, so a segment is readable even if
+ * the test is killed. It is not thread-safe.
+ */
+public class BinaryResultLog {
+
+  static final int MAGIC = 0x49424C47;
+  static final int VERSION = 1;
+  static final int HEADER_SIZE = 16;
+  static final int RECORD_SIZE = 40;
+  static final int RECORD_NUM_OFFSET = 8;
+  static final String SUFFIX = ".bin";
+  /** flag of a record with remark, usually the exception of a failed operation */
+  static final int FLAG_REMARK = 1;
+  /** flag of a record of warm-up, which is excluded from the summary */
+  static final int FLAG_WARM_UP = 2;
+
+  private final File dir;
+  private final String name;
+  private final int clientId;
+  private final long segmentSize;
+
+  private int segmentIndex = 0;
+  private RandomAccessFile file;
+  private MappedByteBuffer buffer;
+  private long recordNum;
+  private boolean closed = false;
+
+  /**
+   * @param dir directory of the segment files
+   * @param name prefix of segment file names
+   * @param clientId id written into every record
+   * @param segmentSize size of each segment file in bytes
+   */
+  public BinaryResultLog(File dir, String name, int clientId, long segmentSize)
+      throws IOException {
+    this.dir = dir;
+    this.name = name;
+    this.clientId = clientId;
+    this.segmentSize = Math.max(segmentSize, HEADER_SIZE + RECORD_SIZE);
+    openSegment();
+  }
+
+  public void append(
+      long recordTime, int operation, int okPoint, int failPoint, long latencyInNanos, int flags) {
+    if (closed) {
+      return;
+    }
+    if (buffer.remaining() < RECORD_SIZE) {
+      try {
+        closeSegment();
+        segmentIndex++;
+        openSegment();
+      } catch (IOException e) {
+        throw new IllegalStateException("Failed to open segment of " + name, e);
+      }
+    }
+    buffer.putLong(recordTime);
+    buffer.putInt(clientId);
+    buffer.putInt(operation);
+    buffer.putInt(okPoint);
+    buffer.putInt(failPoint);
+    buffer.putLong(latencyInNanos);
+    buffer.putInt(flags);
+    buffer.putInt(0);
+    recordNum++;
+    buffer.putLong(RECORD_NUM_OFFSET, recordNum);
+  }
+
+  /** Flush the current segment to disk and stop writing */
+  public synchronized void close() throws IOException {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    buffer.force();
+    closeSegment();
+  }
+
+  private void openSegment() throws IOException {
+    file = new RandomAccessFile(new File(dir, segmentFileName(name, segmentIndex)), "rw");
+    buffer = file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+    buffer.order(ByteOrder.BIG_ENDIAN);
+    buffer.putInt(MAGIC);
+    buffer.putInt(VERSION);
+    buffer.putLong(0L);
+    recordNum = 0;
+  }
+
+  private void closeSegment() throws IOException {
+    // the mapping stays valid after the channel is closed and is released by GC
+    file.close();
+  }
+
+  static String segmentFileName(String name, int segmentIndex) {
+    return name + "_" + segmentIndex + SUFFIX;
+  }
+}
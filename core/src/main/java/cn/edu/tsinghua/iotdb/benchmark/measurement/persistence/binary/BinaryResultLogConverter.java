@@ -0,0 +1,330 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package cn.edu.tsinghua.iotdb.benchmark.measurement.persistence.binary;
+
+import cn.edu.tsinghua.iotdb.benchmark.client.Operation;
+import cn.edu.tsinghua.iotdb.benchmark.conf.Constants;
+import cn.edu.tsinghua.iotdb.benchmark.measurement.LatencyHistogram;
+import cn.edu.tsinghua.iotdb.benchmark.measurement.enums.Metric;
+import cn.edu.tsinghua.iotdb.benchmark.measurement.enums.TotalOperationResult;
+import cn.edu.tsinghua.iotdb.benchmark.measurement.enums.TotalResult;
+import cn.edu.tsinghua.iotdb.benchmark.measurement.persistence.csv.CSVResultWriter;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.Writer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Command line tool to convert the binary result logs of one test (a directory in data/binary)
+ *
+ * <pre>
+ * csv:     one line per operation, the same as the project csv of CSVRecorder
+ * summary: the results aggregated into the FINAL_RESULT layout, excluding warm-up
+ * </pre>
+ */
+public class BinaryResultLogConverter {
+
+  private static final String USAGE =
+      "Usage: BinaryResultLogConverter <csv|summary> <binary log directory> <output file>";
+  private static final double NANO_TO_MILLIS = 1000000.0D;
+  private static final Operation[] OPERATIONS = Operation.values();
+
+  public static void main(String[] args) throws IOException {
+    if (args.length != 3) {
+      System.out.println(USAGE);
+      return;
+    }
+    File dir = new File(args[1]);
+    try (BufferedWriter writer = new BufferedWriter(new FileWriter(args[2]), 1 << 20)) {
+      switch (args[0]) {
+        case "csv":
+          toCsv(dir, writer);
+          break;
+        case "summary":
+          toSummary(dir, writer);
+          break;
+        default:
+          System.out.println(USAGE);
+      }
+    }
+  }
+
+  /** Write one csv line per record */
+  public static void toCsv(File dir, Writer writer) throws IOException {
+    SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS");
+    StringBuilder line = new StringBuilder(256);
+    writer.write(CSVResultWriter.FIRST_LINE);
+    for (File segment : listSegments(dir)) {
+      String clientName = getClientName(segment);
+      read(
+          segment,
+          (recordTime, clientId, operation, okPoint, failPoint, latencyInNanos, flags) -> {
+            double latency = latencyInNanos / NANO_TO_MILLIS;
+            double rate = latency > 0 ? okPoint * 1000 / latency : 0;
+            line.setLength(0);
+            line.append(',').append(dateFormat.format(new Date(recordTime)));
+            line.append(',').append(clientName);
+            line.append(',').append(operationName(operation));
+            line.append(',').append(okPoint);
+            line.append(',').append(failPoint);
+            line.append(',');
+            CSVResultWriter.appendDecimal(line, latency);
+            line.append(',');
+            CSVResultWriter.appendDecimal(line, rate);
+            line.append(',');
+            appendRemark(line, flags);
+            line.append('\n');
+            writer.append(line);
+          });
+    }
+  }
+
+  /** Aggregate all records into id,projectID,operation,result_key,result_value lines */
+  public static void toSummary(File dir, Writer writer) throws IOException {
+    String projectID = dir.getName();
+    int operationNum = OPERATIONS.length;
+    long[] okOperationNum = new long[operationNum];
+    long[] okPointNum = new long[operationNum];
+    long[] failOperationNum = new long[operationNum];
+    long[] failPointNum = new long[operationNum];
+    double[] latencySum = new double[operationNum];
+    LatencyHistogram[] histograms = new LatencyHistogram[operationNum];
+    Map<Integer, double[]> clientLatencySum = new HashMap<>();
+    long[] timeRange = {Long.MAX_VALUE, Long.MIN_VALUE};
+    for (File segment : listSegments(dir)) {
+      read(
+          segment,
+          (recordTime, clientId, operation, okPoint, failPoint, latencyInNanos, flags) -> {
+            if (operation < 0
+                || operation >= operationNum
+                || (flags & BinaryResultLog.FLAG_WARM_UP) != 0) {
+              return;
+            }
+            timeRange[0] = Math.min(timeRange[0], recordTime);
+            timeRange[1] = Math.max(timeRange[1], recordTime);
+            // failed operations are saved with exception as remark and without latency
+            if ((flags & BinaryResultLog.FLAG_REMARK) != 0 && latencyInNanos == 0) {
+              failOperationNum[operation]++;
+              failPointNum[operation] += failPoint;
+              return;
+            }
+            double latency = latencyInNanos / NANO_TO_MILLIS;
+            okOperationNum[operation]++;
+            okPointNum[operation] += okPoint;
+            latencySum[operation] += latency;
+            if (histograms[operation] == null) {
+              histograms[operation] = new LatencyHistogram();
+            }
+            histograms[operation].record(latency);
+            clientLatencySum.computeIfAbsent(clientId, k -> new double[operationNum])[operation] +=
+                latency;
+          });
+    }
+    double elapsedTime =
+        timeRange[1] > timeRange[0] ? (timeRange[1] - timeRange[0]) / 1000.0D : 0.0D;
+    writer.write("id,projectID,operation,result_key,result_value\n");
+    writeResult(writer, projectID, "total", TotalResult.ELAPSED_TIME.getName(), elapsedTime);
+    for (int i = 0; i < operationNum; i++) {
+      String operation = OPERATIONS[i].toString();
+      writeResult(
+          writer,
+          projectID,
+          operation,
+          TotalOperationResult.OK_OPERATION_NUM.getName(),
+          okOperationNum[i]);
+      writeResult(
+          writer, projectID, operation, TotalOperationResult.OK_POINT_NUM.getName(), okPointNum[i]);
+      writeResult(
+          writer,
+          projectID,
+          operation,
+          TotalOperationResult.FAIL_OPERATION_NUM.getName(),
+          failOperationNum[i]);
+      writeResult(
+          writer,
+          projectID,
+          operation,
+          TotalOperationResult.FAIL_POINT_NUM.getName(),
+          failPointNum[i]);
+      writeResult(
+          writer,
+          projectID,
+          operation,
+          TotalOperationResult.THROUGHPUT.getName(),
+          elapsedTime > 0 ? okPointNum[i] / elapsedTime : 0);
+      if (histograms[i] == null) {
+        continue;
+      }
+      double slowestThread = 0;
+      for (double[] sum : clientLatencySum.values()) {
+        slowestThread = Math.max(slowestThread, sum[i]);
+      }
+      for (Metric metric : Metric.values()) {
+        writeResult(
+            writer,
+            projectID,
+            operation,
+            metric.getName(),
+            getMetric(metric, histograms[i], latencySum[i] / okOperationNum[i], slowestThread));
+      }
+    }
+  }
+
+  /** The remark is not kept, so it is written as warm-up and failed as CSVRecorder would */
+  private static void appendRemark(StringBuilder line, int flags) {
+    boolean failed = (flags & BinaryResultLog.FLAG_REMARK) != 0;
+    if ((flags & BinaryResultLog.FLAG_WARM_UP) != 0) {
+      line.append(Constants.WARM_UP_REMARK);
+      if (failed) {
+        line.append(": failed");
+      }
+    } else if (failed) {
+      line.append("failed");
+    }
+  }
+
+  private static double getMetric(
+      Metric metric, LatencyHistogram histogram, double avgLatency, double slowestThread) {
+    switch (metric) {
+      case AVG_LATENCY:
+        return avgLatency;
+      case MIN_LATENCY:
+        return histogram.getValueAtQuantile(0);
+      case P10_LATENCY:
+        return histogram.getValueAtQuantile(0.1);
+      case P25_LATENCY:
+        return histogram.getValueAtQuantile(0.25);
+      case MEDIAN_LATENCY:
+        return histogram.getValueAtQuantile(0.5);
+      case P75_LATENCY:
+        return histogram.getValueAtQuantile(0.75);
+      case P90_LATENCY:
+        return histogram.getValueAtQuantile(0.9);
+      case P95_LATENCY:
+        return histogram.getValueAtQuantile(0.95);
+      case P99_LATENCY:
+        return histogram.getValueAtQuantile(0.99);
+      case P999_LATENCY:
+        return histogram.getValueAtQuantile(0.999);
+      case MAX_LATENCY:
+        return histogram.getValueAtQuantile(1);
+      case MAX_THREAD_LATENCY_SUM:
+        return slowestThread;
+      default:
+        return 0;
+    }
+  }
+
+  private static void writeResult(
+      Writer writer, String projectID, String operation, String key, double value)
+      throws IOException {
+    writer.write(
+        "," + projectID + "," + operation + "," + key + "," + String.format("%.2f", value) + "\n");
+  }
+
+  private static String operationName(int ordinal) {
+    return ordinal >= 0 && ordinal < OPERATIONS.length ? OPERATIONS[ordinal].getName() : "UNKNOWN";
+  }
+
+  /** @return segment files sorted by name, so segments of one client are in order */
+  static File[] listSegments(File dir) throws IOException {
+    File[] segments = dir.listFiles((d, name) -> name.endsWith(BinaryResultLog.SUFFIX));
+    if (segments == null) {
+      throw new IOException(dir + " is not a directory");
+    }
+    Arrays.sort(
+        segments,
+        (a, b) -> {
+          int compare = getLogName(a).compareTo(getLogName(b));
+          return compare != 0 ? compare : Integer.compare(getSegmentIndex(a), getSegmentIndex(b));
+        });
+    return segments;
+  }
+
+  /** file name: clientName_clientId_segmentIndex.bin */
+  private static String getLogName(File segment) {
+    String name = segment.getName();
+    return name.substring(0, name.lastIndexOf('_'));
+  }
+
+  private static int getSegmentIndex(File segment) {
+    String name = segment.getName();
+    return Integer.parseInt(
+        name.substring(name.lastIndexOf('_') + 1, name.length() - BinaryResultLog.SUFFIX.length()));
+  }
+
+  private static String getClientName(File segment) {
+    String logName = getLogName(segment);
+    return logName.substring(0, logName.lastIndexOf('_'));
+  }
+
+  /** Read all the records of one segment */
+  static void read(File segment, RecordHandler handler) throws IOException {
+    try (RandomAccessFile file = new RandomAccessFile(segment, "r")) {
+      MappedByteBuffer buffer =
+          file.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, file.length());
+      buffer.order(ByteOrder.BIG_ENDIAN);
+      if (buffer.getInt() != BinaryResultLog.MAGIC) {
+        throw new IOException(segment + " is not a binary result log");
+      }
+      int version = buffer.getInt();
+      if (version != BinaryResultLog.VERSION) {
+        throw new IOException("Unsupported version " + version + " of " + segment);
+      }
+      long recordNum = buffer.getLong();
+      for (long i = 0; i < recordNum; i++) {
+        long recordTime = buffer.getLong();
+        int clientId = buffer.getInt();
+        int operation = buffer.getInt();
+        int okPoint = buffer.getInt();
+        int failPoint = buffer.getInt();
+        long latencyInNanos = buffer.getLong();
+        int flags = buffer.getInt();
+        buffer.getInt();
+        handler.onRecord(
+            recordTime, clientId, operation, okPoint, failPoint, latencyInNanos, flags);
+      }
+    }
+  }
+
+  interface RecordHandler {
+
+    void onRecord(
+        long recordTime,
+        int clientId,
+        int operation,
+        int okPoint,
+        int failPoint,
+        long latencyInNanos,
+        int flags)
+        throws IOException;
+  }
+}
@@ -23,7 +23,9 @@ import cn.edu.tsinghua.iotdb.benchmark.conf.Config;
 import cn.edu.tsinghua.iotdb.benchmark.conf.ConfigDescriptor;
 import cn.edu.tsinghua.iotdb.benchmark.conf.Constants;
 import cn.edu.tsinghua.iotdb.benchmark.measurement.enums.SystemMetrics;
+import cn.edu.tsinghua.iotdb.benchmark.measurement.enums.WindowResult;
 import cn.edu.tsinghua.iotdb.benchmark.measurement.persistence.ITestDataPersistence;
+import cn.edu.tsinghua.iotdb.benchmark.measurement.persistence.OperationResultRingBuffer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -35,20 +37,11 @@ import java.net.UnknownHostException;
 import java.sql.Date;
 import java.text.SimpleDateFormat;
 import java.util.Map;
-import java.util.concurrent.atomic.AtomicLong;
-import java.util.concurrent.locks.ReentrantLock;
 
 public class CSVRecorder implements ITestDataPersistence {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(CSVRecorder.class);
 
-  /** The count of write retry */
-  private static final int WRITE_RETRY_COUNT = 5;
-  /** reentrantLock used for writing result into file */
-  private static final ReentrantLock reentrantLock = new ReentrantLock(true);
-
-  private static final SimpleDateFormat dateFormat =
-      new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS");
   private static final SimpleDateFormat projectDateFormat =
       new SimpleDateFormat("yyyy_MM_dd_hh_mm_ss_SSS");
   private static final long EXP_TIME = System.currentTimeMillis();
@@ -63,21 +56,34 @@ public class CSVRecorder implements ITestDataPersistence {
 
   /** The name of host */
   private static String localName;
-  /** If now line > CSV_MAX_LINE, then the result will write into other files */
-  private static final AtomicLong fileNumber = new AtomicLong(1);
+  /** Operation results published by clients, written into files by resultWriter */
+  private static OperationResultRingBuffer ringBuffer;
 
-  static volatile FileWriter projectWriter;
+  static CSVResultWriter resultWriter;
   static FileWriter serverInfoWriter;
   static FileWriter confWriter;
   static FileWriter finalResultWriter;
+  /** created on the first window result */
+  static FileWriter windowResultWriter;
   static String confDir;
   static String dataDir;
   static String csvDir;
+  /** Whether the csv files have been opened */
   static boolean isRecord = false;
 
   private static final String FOUR = ",%s,%s,%s\n";
 
   public CSVRecorder() {
+    // all the recorders share the same files and writer thread
+    synchronized (CSVRecorder.class) {
+      if (!isRecord) {
+        init();
+        isRecord = true;
+      }
+    }
+  }
+
+  private static void init() {
     try {
       InetAddress localhost = InetAddress.getLocalHost();
       localName = localhost.getHostName();
@@ -108,16 +114,17 @@ public class CSVRecorder implements ITestDataPersistence {
     try {
       confWriter = new FileWriter(csvDir + "/CONF.csv", true);
       finalResultWriter = new FileWriter(csvDir + "/FINAL_RESULT.csv", true);
-      projectWriter = new FileWriter(csvDir + "/" + projectID + ".csv", true);
       serverInfoWriter =
           new FileWriter(csvDir + "/SERVER_MODE_" + localName + "_" + day + ".csv", true);
       initCSVFile();
+      ringBuffer = new OperationResultRingBuffer(config.getRESULT_BUFFER_SIZE());
+      resultWriter = new CSVResultWriter(ringBuffer, csvDir + "/" + projectID);
+      resultWriter.start();
     } catch (IOException e) {
       LOGGER.error("", e);
       try {
         confWriter.close();
         finalResultWriter.close();
-        projectWriter.close();
         serverInfoWriter.close();
       } catch (IOException ioException) {
         LOGGER.error("", ioException);
@@ -130,7 +137,7 @@ public class CSVRecorder implements ITestDataPersistence {
    *
    * @throws IOException
    */
-  public void initCSVFile() throws IOException {
+  public static void initCSVFile() throws IOException {
     if (serverInfoWriter != null) {
       String firstLine =
           "id,cpu_usage,mem_usage,diskIo_usage,net_recv_rate,net_send_rate"
@@ -146,12 +153,6 @@ public class CSVRecorder implements ITestDataPersistence {
       String firstLine = "id,projectID,operation,result_key,result_value\n";
       serverInfoWriter.append(firstLine);
     }
-    if (config.getBENCHMARK_WORK_MODE().equals(Constants.MODE_TEST_WITH_DEFAULT_PATH)
-        && projectWriter != null) {
-      String firstLine =
-          "id,recordTime,clientName,operation,okPoint,failPoint,latency,rate,remark\n";
-      projectWriter.append(firstLine);
-    }
   }
 
   @Override
@@ -246,89 +247,21 @@ public class CSVRecorder implements ITestDataPersistence {
     }
   }
 
+  /** Publish the result into the ring buffer, the result is written by the writer thread */
   @Override
   public void saveOperationResult(
       String operation, int okPoint, int failPoint, double latency, String remark) {
-    if (config.isCSV_FILE_SPLIT()) {
-      if (config.IncrementAndGetCURRENT_CSV_LINE() >= config.getCSV_MAX_LINE()) {
-        reentrantLock.lock();
-        try {
-          createNewCsvOrInsert(operation, okPoint, failPoint, latency, remark);
-        } finally {
-          reentrantLock.unlock();
-        }
-      } else {
-        insert(operation, okPoint, failPoint, latency, remark);
-      }
-    } else {
-      insert(operation, okPoint, failPoint, latency, remark);
-    }
-  }
-
-  private void insert(String operation, int okPoint, int failPoint, double latency, String remark) {
-    double rate = 0;
-    if (latency > 0) {
-      // unit: points/second
-      rate = okPoint * 1000 / latency;
-    }
-    String time = dateFormat.format(new java.util.Date(System.currentTimeMillis()));
-    String line =
-        String.format(
-            ",%s,%s,%s,%d,%d,%f,%f,%s\n",
-            time,
-            Thread.currentThread().getName(),
-            operation,
-            okPoint,
-            failPoint,
-            latency,
-            rate,
-            remark);
-
-    // when create a new file writer, old file may be closed.
-    int count = 0;
-    while (true) {
-      try {
-        projectWriter.append(line);
-        break;
-      } catch (IOException e) {
-        LOGGER.warn("try to write into old closed file, just try again");
-        count++;
-        if (count > WRITE_RETRY_COUNT) {
-          LOGGER.error("write to file failed", e);
-          break;
-        }
-      }
-    }
-  }
-
-  private void createNewCsvOrInsert(
-      String operation, int okPoint, int failPoint, double latency, String remark) {
-    if (config.getCURRENT_CSV_LINE() >= config.getCSV_MAX_LINE()) {
-      FileWriter newProjectWriter = null;
-      if (config.getBENCHMARK_WORK_MODE().equals(Constants.MODE_TEST_WITH_DEFAULT_PATH)) {
-        String firstLine =
-            "id,recordTime,clientName,operation,okPoint,failPoint,latency,rate,remark\n";
-        try {
-          newProjectWriter =
-              new FileWriter(
-                  csvDir + "/" + projectID + "_split" + fileNumber.getAndIncrement() + ".csv",
-                  true);
-          newProjectWriter.append(firstLine);
-        } catch (IOException e) {
-          LOGGER.error("", e);
-        }
-      }
-      FileWriter oldProjectWriter = projectWriter;
-      projectWriter = newProjectWriter;
-      try {
-        oldProjectWriter.close();
-      } catch (IOException e) {
-        LOGGER.error("", e);
-      }
-      config.resetCURRENT_CSV_LINE();
-    } else {
-      insert(operation, okPoint, failPoint, latency, remark);
+    if (ringBuffer == null) {
+      return;
     }
+    ringBuffer.publish(
+        System.currentTimeMillis(),
+        Thread.currentThread().getName(),
+        operation,
+        okPoint,
+        failPoint,
+        latency,
+        remark);
   }
 
   @Override
@@ -341,6 +274,33 @@ public class CSVRecorder implements ITestDataPersistence {
     }
   }
 
+  @Override
+  public void saveWindowResult(
+      long windowStartTime, String operation, Map<WindowResult, Double> windowResultMap) {
+    StringBuilder line = new StringBuilder();
+    line.append(windowStartTime).append(",").append(operation);
+    for (WindowResult windowResult : WindowResult.values()) {
+      line.append(",").append(windowResultMap.get(windowResult));
+    }
+    line.append("\n");
+    synchronized (CSVRecorder.class) {
+      try {
+        if (windowResultWriter == null) {
+          windowResultWriter = new FileWriter(csvDir + "/" + projectID + "_WINDOW.csv", true);
+          StringBuilder firstLine = new StringBuilder("windowStartTime,operation");
+          for (WindowResult windowResult : WindowResult.values()) {
+            firstLine.append(",").append(windowResult.getName());
+          }
+          windowResultWriter.append(firstLine).append("\n");
+        }
+        windowResultWriter.append(line);
+        windowResultWriter.flush();
+      } catch (IOException e) {
+        LOGGER.error("", e);
+      }
+    }
+  }
+
   /**
    * Use hook to close
    *
@@ -357,11 +317,16 @@ public class CSVRecorder implements ITestDataPersistence {
    * @see CSVShutdownHook
    */
   public static void readClose() {
+    if (resultWriter != null) {
+      resultWriter.close();
+    }
     try {
       confWriter.close();
       finalResultWriter.close();
-      projectWriter.close();
       serverInfoWriter.close();
+      if (windowResultWriter != null) {
+        windowResultWriter.close();
+      }
     } catch (IOException ioException) {
       LOGGER.error("Failed to close writer", ioException);
     }
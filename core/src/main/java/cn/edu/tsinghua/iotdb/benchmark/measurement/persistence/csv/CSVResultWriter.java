@@ -0,0 +1,217 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package cn.edu.tsinghua.iotdb.benchmark.measurement.persistence.csv;
+
+import cn.edu.tsinghua.iotdb.benchmark.conf.Config;
+import cn.edu.tsinghua.iotdb.benchmark.conf.ConfigDescriptor;
+import cn.edu.tsinghua.iotdb.benchmark.conf.Constants;
+import cn.edu.tsinghua.iotdb.benchmark.measurement.persistence.OperationResultRingBuffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The single writer of operation results. It drains the ring buffer in bulk, formats the lines
+ * without String.format, writes them through a large buffer and starts a new file every
+ * CSV_MAX_LINE lines if CSV_FILE_SPLIT is true.
+ */
+public class CSVResultWriter implements Runnable, OperationResultRingBuffer.OperationResultHandler {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(CSVResultWriter.class);
+  private static final Config config = ConfigDescriptor.getInstance().getConfig();
+
+  public static final String FIRST_LINE =
+      "id,recordTime,clientName,operation,okPoint,failPoint,latency,rate,remark\n";
+
+  private static final int WRITE_BUFFER_SIZE = 1 << 20;
+  private static final int DRAIN_BATCH_SIZE = 4096;
+  private static final long IDLE_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+  private static final long CLOSE_TIMEOUT_MS = 10000;
+  private static final long DECIMAL_SCALE = 1000000L;
+  /** larger numbers are formatted by String.format to avoid overflow */
+  private static final double MAX_FAST_DECIMAL = 1e12;
+
+  private final OperationResultRingBuffer ringBuffer;
+  private final String filePrefix;
+  private final StringBuilder lineBuilder = new StringBuilder(256);
+  /** only used by the writer thread */
+  private final SimpleDateFormat secondFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+
+  private BufferedWriter writer;
+  private long lineNum = 0;
+  private long fileNumber = 1;
+  private long cachedSecond = Long.MIN_VALUE;
+  private String cachedSecondString;
+
+  private volatile boolean running = true;
+  private Thread thread;
+
+  /**
+   * @param ringBuffer results to be written
+   * @param filePrefix path of the result file without ".csv"
+   */
+  public CSVResultWriter(OperationResultRingBuffer ringBuffer, String filePrefix)
+      throws IOException {
+    this.ringBuffer = ringBuffer;
+    this.filePrefix = filePrefix;
+    this.writer = openFile(filePrefix + ".csv");
+  }
+
+  /** Start the writer thread */
+  public void start() {
+    thread = new Thread(this, "csv-result-writer");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  @Override
+  public void run() {
+    while (running || !ringBuffer.isEmpty()) {
+      if (ringBuffer.drain(this, DRAIN_BATCH_SIZE) == 0) {
+        flush();
+        LockSupport.parkNanos(IDLE_WAIT_NANOS);
+      }
+    }
+    try {
+      writer.close();
+    } catch (IOException e) {
+      LOGGER.error("Failed to close csv result file", e);
+    }
+  }
+
+  /** Write all the published results and stop the writer thread */
+  public void close() {
+    running = false;
+    if (thread == null) {
+      return;
+    }
+    LockSupport.unpark(thread);
+    try {
+      thread.join(CLOSE_TIMEOUT_MS);
+    } catch (InterruptedException e) {
+      LOGGER.warn("Interrupted when waiting for csv result writer");
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  @Override
+  public void onResult(
+      long recordTime,
+      String clientName,
+      String operation,
+      int okPoint,
+      int failPoint,
+      double latency,
+      String remark) {
+    double rate = 0;
+    if (latency > 0) {
+      // unit: points/second
+      rate = okPoint * 1000 / latency;
+    }
+    StringBuilder line = lineBuilder;
+    line.setLength(0);
+    line.append(',');
+    appendTime(line, recordTime);
+    line.append(',').append(clientName);
+    line.append(',').append(operation);
+    line.append(',').append(okPoint);
+    line.append(',').append(failPoint);
+    line.append(',');
+    appendDecimal(line, latency);
+    line.append(',');
+    appendDecimal(line, rate);
+    line.append(',').append(remark).append('\n');
+    try {
+      if (config.isCSV_FILE_SPLIT() && lineNum >= config.getCSV_MAX_LINE()) {
+        rotate();
+      }
+      writer.append(line);
+      lineNum++;
+    } catch (IOException e) {
+      LOGGER.error("Failed to write csv result", e);
+    }
+  }
+
+  private void rotate() throws IOException {
+    writer.close();
+    writer = openFile(filePrefix + "_split" + fileNumber++ + ".csv");
+    lineNum = 0;
+  }
+
+  private BufferedWriter openFile(String fileName) throws IOException {
+    BufferedWriter newWriter =
+        new BufferedWriter(new FileWriter(fileName, true), WRITE_BUFFER_SIZE);
+    if (config.getBENCHMARK_WORK_MODE().equals(Constants.MODE_TEST_WITH_DEFAULT_PATH)) {
+      newWriter.append(FIRST_LINE);
+    }
+    return newWriter;
+  }
+
+  private void flush() {
+    try {
+      writer.flush();
+    } catch (IOException e) {
+      LOGGER.error("Failed to flush csv result", e);
+    }
+  }
+
+  /** Append time as yyyy-MM-dd HH:mm:ss.SSS, the second part is formatted once per second */
+  private void appendTime(StringBuilder builder, long time) {
+    long second = Math.floorDiv(time, 1000L);
+    if (second != cachedSecond) {
+      cachedSecond = second;
+      cachedSecondString = secondFormat.format(new Date(second * 1000L));
+    }
+    int millis = (int) Math.floorMod(time, 1000L);
+    builder.append(cachedSecondString).append('.');
+    if (millis < 100) {
+      builder.append('0');
+    }
+    if (millis < 10) {
+      builder.append('0');
+    }
+    builder.append(millis);
+  }
+
+  /** Append value with 6 decimal places, the same as %f */
+  public static void appendDecimal(StringBuilder builder, double value) {
+    if (Double.isNaN(value) || Double.isInfinite(value) || Math.abs(value) >= MAX_FAST_DECIMAL) {
+      builder.append(String.format("%f", value));
+      return;
+    }
+    long scaled = Math.round(Math.abs(value) * DECIMAL_SCALE);
+    if (value < 0 && scaled != 0) {
+      builder.append('-');
+    }
+    builder.append(scaled / DECIMAL_SCALE).append('.');
+    long fraction = scaled % DECIMAL_SCALE;
+    for (long digit = DECIMAL_SCALE / 10; digit > 1 && fraction < digit; digit /= 10) {
+      builder.append('0');
+    }
+    builder.append(fraction);
+  }
+}
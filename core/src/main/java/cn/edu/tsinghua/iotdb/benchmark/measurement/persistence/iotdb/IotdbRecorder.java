@@ -54,6 +54,7 @@ public class IotdbRecorder implements ITestDataPersistence {
   private static final String PATH_PREFIX = Constants.ROOT_SERIES_NAME;
   private static final String INSERT_SQL_PREFIX = "INSERT_INTO " + PATH_PREFIX;
   private static final String OPERATION_RESULT_PREFIX = INSERT_SQL_PREFIX + "." + PROJECT_ID + ".";
+  private static final String WINDOW_RESULT_PATH = PATH_PREFIX + "." + PROJECT_ID + ".window.";
   private static final String INSERT_SQL_STR1 = ") values(";
   private static final String INSERT_SQL_STR2 = "(timestamp";
 
@@ -101,6 +102,9 @@ public class IotdbRecorder implements ITestDataPersistence {
     if (config.getBENCHMARK_WORK_MODE().equals(Constants.MODE_TEST_WITH_DEFAULT_PATH)) {
       initSingleTestMetrics();
       initResultMetrics();
+      if (config.getWINDOW_REPORT_INTERVAL() > 0) {
+        initWindowMetrics();
+      }
     }
     if (config.getBENCHMARK_WORK_MODE().equals(Constants.MODE_SERVER_MODE)) {
       initSystemMetrics();
@@ -198,6 +202,30 @@ public class IotdbRecorder implements ITestDataPersistence {
     }
   }
 
+  private void initWindowMetrics() {
+    try (Statement statement = connection.createStatement()) {
+      for (Operation op : Operation.values()) {
+        for (WindowResult windowResult : WindowResult.values()) {
+          String createSeriesSql =
+              String.format(
+                  CREATE_SERIES_SQL,
+                  WINDOW_RESULT_PATH + op.getName() + "." + windowResult.getName(),
+                  DOUBLE_TYPE,
+                  ENCODING,
+                  COMPRESS);
+          statement.addBatch(createSeriesSql);
+        }
+      }
+      statement.executeBatch();
+      statement.clearBatch();
+    } catch (SQLException e) {
+      // ignore if already has the time series
+      if (!e.getMessage().contains(ALREADY_KEYWORD)) {
+        LOGGER.error(CRETE_SCHEMA_ERROR_HINT, e);
+      }
+    }
+  }
+
   @Override
   public void insertSystemMetrics(Map<SystemMetrics, Float> systemMetricsMap) {
     try (Statement statement = connection.createStatement()) {
@@ -255,6 +283,23 @@ public class IotdbRecorder implements ITestDataPersistence {
     addBatch(builder);
   }
 
+  @Override
+  public void saveWindowResult(
+      long windowStartTime, String operation, Map<WindowResult, Double> windowResultMap) {
+    StringBuilder builder = new StringBuilder(INSERT_SQL_PREFIX);
+    builder.append(".").append(PROJECT_ID).append(".window.");
+    builder.append(operation).append(INSERT_SQL_STR2);
+    for (WindowResult windowResult : WindowResult.values()) {
+      builder.append(",").append(windowResult.getName());
+    }
+    builder.append(INSERT_SQL_STR1);
+    builder.append(windowStartTime);
+    for (WindowResult windowResult : WindowResult.values()) {
+      builder.append(",").append(windowResultMap.get(windowResult));
+    }
+    addBatch(builder);
+  }
+
   private void addBatch(StringBuilder builder) {
     builder.append(")");
     try {
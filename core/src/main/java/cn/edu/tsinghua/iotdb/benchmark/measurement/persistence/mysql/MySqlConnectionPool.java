@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package cn.edu.tsinghua.iotdb.benchmark.measurement.persistence.mysql;
+
+import cn.edu.tsinghua.iotdb.benchmark.conf.Constants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Small pool of connections to MySQL. Connections are created lazily and checked before they are
+ * lent out, an invalid connection is replaced by a new one.
+ */
+public class MySqlConnectionPool {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(MySqlConnectionPool.class);
+  /** timeout of validating a connection in seconds */
+  private static final int VALID_TIME_OUT = 5;
+  private static final long BORROW_TIME_OUT_MS = 10000;
+
+  private final String url;
+  private final int size;
+  /** idle connections, null means a connection is not created yet */
+  private final BlockingQueue<Connection> idleConnections;
+  private int createdNum = 0;
+  private volatile boolean closed = false;
+
+  /**
+   * @param url jdbc url of MySQL
+   * @param size max number of connections
+   */
+  public MySqlConnectionPool(String url, int size) {
+    this.url = url;
+    this.size = Math.max(size, 1);
+    this.idleConnections = new ArrayBlockingQueue<>(this.size);
+  }
+
+  /**
+   * Get a valid connection, wait if all the connections are in use
+   *
+   * @throws SQLException if failed to connect or no connection is released in time
+   */
+  public Connection borrow() throws SQLException {
+    if (closed) {
+      throw new SQLException("Connection pool of MySQL is closed");
+    }
+    Connection connection = idleConnections.poll();
+    if (connection == null) {
+      synchronized (this) {
+        if (createdNum < size) {
+          createdNum++;
+          return connect();
+        }
+      }
+      try {
+        connection = idleConnections.poll(BORROW_TIME_OUT_MS, TimeUnit.MILLISECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new SQLException("Interrupted when waiting for a connection to MySQL", e);
+      }
+      if (connection == null) {
+        throw new SQLException(
+            "No connection to MySQL is released in " + BORROW_TIME_OUT_MS + "ms");
+      }
+    }
+    if (!isValid(connection)) {
+      LOGGER.info("Try to reconnect to MySQL");
+      closeQuietly(connection);
+      return connect();
+    }
+    return connection;
+  }
+
+  /** Give the connection back to the pool */
+  public void release(Connection connection) {
+    if (closed || !idleConnections.offer(connection)) {
+      closeQuietly(connection);
+    }
+  }
+
+  /** Close all the idle connections, connections in use are closed when they are released */
+  public void close() {
+    closed = true;
+    Connection connection;
+    while ((connection = idleConnections.poll()) != null) {
+      closeQuietly(connection);
+    }
+  }
+
+  private Connection connect() throws SQLException {
+    try {
+      Class.forName(Constants.MYSQL_DRIVENAME);
+    } catch (ClassNotFoundException e) {
+      throw new SQLException("Failed to load driver of MySQL", e);
+    }
+    try {
+      return DriverManager.getConnection(url);
+    } catch (SQLException e) {
+      synchronized (this) {
+        createdNum--;
+      }
+      throw e;
+    }
+  }
+
+  private static boolean isValid(Connection connection) {
+    try {
+      return connection.isValid(VALID_TIME_OUT);
+    } catch (SQLException e) {
+      return false;
+    }
+  }
+
+  private static void closeQuietly(Connection connection) {
+    try {
+      connection.close();
+    } catch (SQLException e) {
+      LOGGER.warn("Failed to close connection to MySQL", e);
+    }
+  }
+}
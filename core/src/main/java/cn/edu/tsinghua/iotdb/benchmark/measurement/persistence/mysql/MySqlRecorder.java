@@ -23,7 +23,9 @@ import cn.edu.tsinghua.iotdb.benchmark.conf.Config;
 import cn.edu.tsinghua.iotdb.benchmark.conf.ConfigDescriptor;
 import cn.edu.tsinghua.iotdb.benchmark.conf.Constants;
 import cn.edu.tsinghua.iotdb.benchmark.measurement.enums.SystemMetrics;
+import cn.edu.tsinghua.iotdb.benchmark.measurement.enums.WindowResult;
 import cn.edu.tsinghua.iotdb.benchmark.measurement.persistence.ITestDataPersistence;
+import cn.edu.tsinghua.iotdb.benchmark.measurement.persistence.OperationResultRingBuffer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -32,7 +34,13 @@ import java.net.UnknownHostException;
 import java.sql.*;
 import java.text.SimpleDateFormat;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Save test results into MySQL. All the recorders share a small connection pool, operation results
+ * are published into a ring buffer and inserted by batches in the writer thread. If MySQL is too
+ * slow and the buffer is full, operation results are given up instead of stalling the clients.
+ */
 public class MySqlRecorder implements ITestDataPersistence {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(MySqlRecorder.class);
@@ -40,12 +48,9 @@ public class MySqlRecorder implements ITestDataPersistence {
 
   private static final long EXP_TIME = System.currentTimeMillis();
 
-  private static final String SAVE_CONFIG = "insert into CONFIG values(NULL, %s, %s, %s)";
-  private static final String SAVE_RESULT =
-      "insert into FINAL_RESULT values(NULL, '%s', '%s', '%s', '%s')";
+  private static final String SAVE_CONFIG = "insert into CONFIG values(NULL, ?, ?, ?)";
+  private static final String SAVE_RESULT = "insert into FINAL_RESULT values(NULL, ?, ?, ?, ?)";
 
-  private static final SimpleDateFormat dateFormat =
-      new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS");
   private static final SimpleDateFormat projectDateFormat =
       new SimpleDateFormat("yyyy_MM_dd_hh_mm_ss_SSS");
 
@@ -59,8 +64,8 @@ public class MySqlRecorder implements ITestDataPersistence {
           config.getTEST_DATA_STORE_DB(),
           config.getTEST_DATA_STORE_USER(),
           config.getTEST_DATA_STORE_PW());
-  private static final int BATCH_SIZE = 5000;
-  private static final int TIME_OUT = 100;
+  /** number of columns of SERVER_MODE table */
+  private static final int SERVER_MODE_COLUMN_NUM = 15;
 
   private static final String PROJECT_ID =
       String.format(
@@ -70,13 +75,27 @@ public class MySqlRecorder implements ITestDataPersistence {
           config.getREMARK(),
           projectDateFormat.format(new java.util.Date(EXP_TIME)));
 
-  private final String day;
-  private Statement statement;
-  private Connection connection = null;
-  private String localName;
-  private long count = 0;
+  private static String day;
+  private static String localName;
+  private static MySqlConnectionPool pool;
+  private static OperationResultRingBuffer ringBuffer;
+  private static MySqlResultWriter resultWriter;
+  /** number of operation results given up because the ring buffer is full */
+  private static final AtomicLong droppedNum = new AtomicLong(0);
+  /** Whether the pool and writer thread have been created */
+  private static boolean isInit = false;
 
   public MySqlRecorder() {
+    // all the recorders share the same connections and writer thread
+    synchronized (MySqlRecorder.class) {
+      if (!isInit) {
+        init();
+        isInit = true;
+      }
+    }
+  }
+
+  private static void init() {
     try {
       InetAddress localhost = InetAddress.getLocalHost();
       localName = localhost.getHostName();
@@ -89,323 +108,291 @@ public class MySqlRecorder implements ITestDataPersistence {
     Date date = new Date(EXP_TIME);
     SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy_MM_dd");
     day = dateFormat.format(date);
-    try {
-      Class.forName(Constants.MYSQL_DRIVENAME);
-      connection = DriverManager.getConnection(URL);
-      statement = connection.createStatement();
-      initTable();
-    } catch (SQLException e) {
-      LOGGER.error("Failed to init mysql, because:", e);
-    } catch (ClassNotFoundException e) {
-      LOGGER.error("Failed to connect mysql, because:", e);
+    pool = new MySqlConnectionPool(URL, config.getMYSQL_POOL_SIZE());
+    initTable();
+    if (config.getBENCHMARK_WORK_MODE().equals(Constants.MODE_TEST_WITH_DEFAULT_PATH)) {
+      ringBuffer = new OperationResultRingBuffer(config.getRESULT_BUFFER_SIZE());
+      resultWriter =
+          new MySqlResultWriter(
+              ringBuffer,
+              pool,
+              PROJECT_ID,
+              config.getMYSQL_BATCH_SIZE(),
+              config.getMYSQL_FLUSH_INTERVAL());
+      resultWriter.start();
     }
+    Runtime.getRuntime().addShutdownHook(new Thread(MySqlRecorder::closeAll));
   }
 
   /** Check whether the table is created, if not then create */
-  private void initTable() {
+  private static void initTable() {
+    Connection connection = null;
     try {
-      if (config.getBENCHMARK_WORK_MODE().equals(Constants.MODE_SERVER_MODE)) {
-        if (!hasTable("SERVER_MODE_" + localName + "_" + day)) {
-          statement.executeUpdate(
-              "create table SERVER_MODE_"
-                  + localName
-                  + "_"
-                  + day
-                  + "(id BIGINT, "
-                  + "cpu_usage DOUBLE,mem_usage DOUBLE,diskIo_usage DOUBLE,net_recv_rate DOUBLE,"
-                  + "net_send_rate DOUBLE, pro_mem_size DOUBLE, dataFileSize DOUBLE,systemFizeSize DOUBLE,"
-                  + "sequenceFileSize DOUBLE,unsequenceFileSize DOUBLE, walFileSize DOUBLE,"
-                  + "tps DOUBLE,MB_read DOUBLE,MB_wrtn DOUBLE,"
-                  + "primary key(id))");
-          LOGGER.info("Table SERVER_MODE create success!");
-        }
-        return;
+      connection = pool.borrow();
+      try (Statement statement = connection.createStatement()) {
+        createTables(connection, statement);
       }
-      if (!hasTable("CONFIG")) {
-        statement.executeUpdate(
-            "create table CONFIG (id INT UNSIGNED NOT NULL PRIMARY KEY AUTO_INCREMENT,"
-                + " PROJECT_ID VARCHAR(150), configuration_item VARCHAR(150), "
-                + "configuration_value VARCHAR(150))AUTO_INCREMENT = 1;");
-        LOGGER.info("Table CONFIG create success!");
+    } catch (SQLException e) {
+      LOGGER.error("Failed to create tables in MySQL, because: ", e);
+    } finally {
+      if (connection != null) {
+        pool.release(connection);
       }
-      if (!hasTable("FINAL_RESULT")) {
+    }
+  }
+
+  private static void createTables(Connection connection, Statement statement)
+      throws SQLException {
+    if (config.getBENCHMARK_WORK_MODE().equals(Constants.MODE_SERVER_MODE)) {
+      if (!hasTable(connection, "SERVER_MODE_" + localName + "_" + day)) {
         statement.executeUpdate(
-            "create table FINAL_RESULT (id INT UNSIGNED NOT NULL PRIMARY KEY AUTO_INCREMENT,"
-                + " PROJECT_ID VARCHAR(150), operation VARCHAR(50), result_key VARCHAR(150),"
-                + " result_value VARCHAR(150))AUTO_INCREMENT = 1;");
-        LOGGER.info("Table FINAL_RESULT create success!");
+            "create table SERVER_MODE_"
+                + localName
+                + "_"
+                + day
+                + "(id BIGINT, "
+                + "cpu_usage DOUBLE,mem_usage DOUBLE,diskIo_usage DOUBLE,net_recv_rate DOUBLE,"
+                + "net_send_rate DOUBLE, pro_mem_size DOUBLE, dataFileSize DOUBLE,"
+                + "systemFizeSize DOUBLE,"
+                + "sequenceFileSize DOUBLE,unsequenceFileSize DOUBLE, walFileSize DOUBLE,"
+                + "tps DOUBLE,MB_read DOUBLE,MB_wrtn DOUBLE,"
+                + "primary key(id))");
+        LOGGER.info("Table SERVER_MODE create success!");
       }
-      if (config.getBENCHMARK_WORK_MODE().equals(Constants.MODE_TEST_WITH_DEFAULT_PATH)
-          && !hasTable(PROJECT_ID)) {
-        statement.executeUpdate(
-            "create table "
-                + PROJECT_ID
-                + "(id INT UNSIGNED NOT NULL PRIMARY KEY AUTO_INCREMENT, recordTime varchar(50),"
-                + " clientName varchar(50), operation varchar(50), okPoint INTEGER, failPoint INTEGER,"
-                + " latency DOUBLE, rate DOUBLE, remark varchar(1000))AUTO_INCREMENT = 1;");
-        LOGGER.info("Table {} create success!", PROJECT_ID);
+      return;
+    }
+    if (!hasTable(connection, "CONFIG")) {
+      statement.executeUpdate(
+          "create table CONFIG (id INT UNSIGNED NOT NULL PRIMARY KEY AUTO_INCREMENT,"
+              + " PROJECT_ID VARCHAR(150), configuration_item VARCHAR(150), "
+              + "configuration_value VARCHAR(150))AUTO_INCREMENT = 1;");
+      LOGGER.info("Table CONFIG create success!");
+    }
+    if (!hasTable(connection, "FINAL_RESULT")) {
+      statement.executeUpdate(
+          "create table FINAL_RESULT (id INT UNSIGNED NOT NULL PRIMARY KEY AUTO_INCREMENT,"
+              + " PROJECT_ID VARCHAR(150), operation VARCHAR(50), result_key VARCHAR(150),"
+              + " result_value VARCHAR(150))AUTO_INCREMENT = 1;");
+      LOGGER.info("Table FINAL_RESULT create success!");
+    }
+    if (config.getBENCHMARK_WORK_MODE().equals(Constants.MODE_TEST_WITH_DEFAULT_PATH)
+        && !hasTable(connection, PROJECT_ID)) {
+      statement.executeUpdate(
+          "create table "
+              + PROJECT_ID
+              + "(id INT UNSIGNED NOT NULL PRIMARY KEY AUTO_INCREMENT, recordTime varchar(50),"
+              + " clientName varchar(50), operation varchar(50), okPoint INTEGER,"
+              + " failPoint INTEGER,"
+              + " latency DOUBLE, rate DOUBLE, remark varchar(1000))AUTO_INCREMENT = 1;");
+      LOGGER.info("Table {} create success!", PROJECT_ID);
+    }
+    if (config.getBENCHMARK_WORK_MODE().equals(Constants.MODE_TEST_WITH_DEFAULT_PATH)
+        && config.getWINDOW_REPORT_INTERVAL() > 0
+        && !hasTable(connection, PROJECT_ID + "_WINDOW")) {
+      StringBuilder sql =
+          new StringBuilder("create table ")
+              .append(PROJECT_ID)
+              .append("_WINDOW (id INT UNSIGNED NOT NULL PRIMARY KEY AUTO_INCREMENT,")
+              .append(" windowStartTime BIGINT, operation varchar(50)");
+      for (WindowResult windowResult : WindowResult.values()) {
+        sql.append(", ").append(windowResult.getName()).append(" DOUBLE");
       }
-    } catch (SQLException e) {
-      LOGGER.error("Failed to create tables in MySQL, because: ", e);
+      sql.append(")AUTO_INCREMENT = 1;");
+      statement.executeUpdate(sql.toString());
+      LOGGER.info("Table {}_WINDOW create success!", PROJECT_ID);
     }
   }
 
   @Override
   public void insertSystemMetrics(Map<SystemMetrics, Float> systemMetricsMap) {
-    String sql = "";
-    try {
-      sql =
-          String.format(
-              "insert into SERVER_MODE_"
-                  + localName
-                  + "_"
-                  + day
-                  + " values(%d,%f,%f,%f,%f,%f,%f,%f,%f,%f,%f,%f,%f,%f,%f)",
-              System.currentTimeMillis(),
-              systemMetricsMap.get(SystemMetrics.CPU_USAGE),
-              systemMetricsMap.get(SystemMetrics.MEM_USAGE),
-              systemMetricsMap.get(SystemMetrics.DISK_IO_USAGE),
-              systemMetricsMap.get(SystemMetrics.NETWORK_R_RATE),
-              systemMetricsMap.get(SystemMetrics.NETWORK_S_RATE),
-              systemMetricsMap.get(SystemMetrics.PROCESS_MEM_SIZE),
-              systemMetricsMap.get(SystemMetrics.DATA_FILE_SIZE),
-              systemMetricsMap.get(SystemMetrics.SYSTEM_FILE_SIZE),
-              systemMetricsMap.get(SystemMetrics.SEQUENCE_FILE_SIZE),
-              systemMetricsMap.get(SystemMetrics.UN_SEQUENCE_FILE_SIZE),
-              systemMetricsMap.get(SystemMetrics.WAL_FILE_SIZE),
-              systemMetricsMap.get(SystemMetrics.DISK_TPS),
-              systemMetricsMap.get(SystemMetrics.DISK_READ_SPEED_MB),
-              systemMetricsMap.get(SystemMetrics.DISK_WRITE_SPEED_MB));
-      statement.executeUpdate(sql);
-    } catch (SQLException e) {
-      LOGGER.error("{} insert into MySQL failed, because {}", sql, e);
+    StringBuilder sql =
+        new StringBuilder("insert into SERVER_MODE_")
+            .append(localName)
+            .append("_")
+            .append(day)
+            .append(" values(?");
+    for (int i = 1; i < SERVER_MODE_COLUMN_NUM; i++) {
+      sql.append(",?");
     }
+    sql.append(")");
+    SystemMetrics[] columns = {
+      SystemMetrics.CPU_USAGE,
+      SystemMetrics.MEM_USAGE,
+      SystemMetrics.DISK_IO_USAGE,
+      SystemMetrics.NETWORK_R_RATE,
+      SystemMetrics.NETWORK_S_RATE,
+      SystemMetrics.PROCESS_MEM_SIZE,
+      SystemMetrics.DATA_FILE_SIZE,
+      SystemMetrics.SYSTEM_FILE_SIZE,
+      SystemMetrics.SEQUENCE_FILE_SIZE,
+      SystemMetrics.UN_SEQUENCE_FILE_SIZE,
+      SystemMetrics.WAL_FILE_SIZE,
+      SystemMetrics.DISK_TPS,
+      SystemMetrics.DISK_READ_SPEED_MB,
+      SystemMetrics.DISK_WRITE_SPEED_MB
+    };
+    execute(
+        sql.toString(),
+        statement -> {
+          statement.setLong(1, System.currentTimeMillis());
+          for (int i = 0; i < columns.length; i++) {
+            statement.setObject(i + 2, systemMetricsMap.get(columns[i]));
+          }
+          statement.executeUpdate();
+        });
   }
 
+  /**
+   * Publish the result into the ring buffer, the result is written by the writer thread. The
+   * result is given up if the buffer is full.
+   */
   @Override
   public void saveOperationResult(
       String operation, int okPoint, int failPoint, double latency, String remark) {
+    if (ringBuffer == null) {
+      return;
+    }
     if (config.IncrementAndGetCURRENT_CSV_LINE() % 10 < config.getMYSQL_REAL_INSERT_RATE() * 10) {
-      double rate = 0;
-      if (latency > 0) {
-        // unit: points/second
-        rate = okPoint * 1000 / latency;
-      }
-      String time = dateFormat.format(new java.util.Date(System.currentTimeMillis()));
-      String mysqlSql =
-          String.format(
-              "insert into %s values(NULL,'%s','%s','%s',%d,%d,%f,%f,'%s')",
-              PROJECT_ID,
-              time,
+      if (!ringBuffer.tryPublish(
+              System.currentTimeMillis(),
               Thread.currentThread().getName(),
               operation,
               okPoint,
               failPoint,
               latency,
-              rate,
-              remark);
-      // check whether the connection is valid
-      try {
-        if (!connection.isValid(TIME_OUT)) {
-          LOGGER.info("Try to reconnect to MySQL");
-          try {
-            if (statement != null) {
-              statement.close();
-            }
-            if (connection != null) {
-              connection.close();
-            }
-            Class.forName(Constants.MYSQL_DRIVENAME);
-            connection = DriverManager.getConnection(URL);
-            statement = connection.createStatement();
-          } catch (Exception ex) {
-            LOGGER.error("Reconnect to MySQL failed because", ex);
-          }
-        }
-      } catch (SQLException ex) {
-        LOGGER.error("Test if MySQL connection is valid failed", ex);
-      }
-      // execute sql
-      try {
-        statement.execute(mysqlSql);
-        count++;
-        if (count % BATCH_SIZE == 0) {
-          statement.executeBatch();
-          statement.clearBatch();
-        }
-      } catch (Exception e) {
-        LOGGER.error("Exception: {}", e.getMessage(), e);
-        try {
-          if (!connection.isValid(TIME_OUT)) {
-            LOGGER.info("Try to reconnect to MySQL");
-            try {
-              Class.forName(Constants.MYSQL_DRIVENAME);
-              connection = DriverManager.getConnection(URL);
-            } catch (Exception ex) {
-              LOGGER.error("Reconnect to MySQL failed because", ex);
-            }
-          }
-        } catch (SQLException ex) {
-          LOGGER.error("Test if MySQL connection is valid failed", ex);
-        }
-        LOGGER.error(
-            "{} save saveInsertProcess info into mysql failed! Error：{}",
-            Thread.currentThread().getName(),
-            e.getMessage());
-        LOGGER.error("{}", mysqlSql);
+              remark)
+          && droppedNum.getAndIncrement() == 0) {
+        LOGGER.warn("MySQL is too slow, operation results are given up");
       }
     }
   }
 
   @Override
   public void saveResult(String operation, String key, String value) {
-    String sql = String.format(SAVE_RESULT, PROJECT_ID, operation, key, value);
-    try {
-      statement.executeUpdate(sql);
-    } catch (SQLException e) {
-      LOGGER.error("{} failed to write result into MySQL, because: {}", sql, e);
+    execute(
+        SAVE_RESULT,
+        statement -> {
+          statement.setString(1, PROJECT_ID);
+          statement.setString(2, operation);
+          statement.setString(3, key);
+          statement.setString(4, value);
+          statement.executeUpdate();
+        });
+  }
+
+  @Override
+  public void saveWindowResult(
+      long windowStartTime, String operation, Map<WindowResult, Double> windowResultMap) {
+    WindowResult[] windowResults = WindowResult.values();
+    StringBuilder sql =
+        new StringBuilder("insert into ").append(PROJECT_ID).append("_WINDOW values(NULL,?,?");
+    for (int i = 0; i < windowResults.length; i++) {
+      sql.append(",?");
     }
+    sql.append(")");
+    execute(
+        sql.toString(),
+        statement -> {
+          statement.setLong(1, windowStartTime);
+          statement.setString(2, operation);
+          for (int i = 0; i < windowResults.length; i++) {
+            statement.setObject(i + 3, windowResultMap.get(windowResults[i]));
+          }
+          statement.executeUpdate();
+        });
   }
 
   @Override
   public void saveTestConfig() {
-    String sql = "";
-    try {
-      if (config.getBENCHMARK_WORK_MODE().equals(Constants.MODE_TEST_WITH_DEFAULT_PATH)) {
-        sql = String.format(SAVE_CONFIG, "'" + PROJECT_ID + "'", "'MODE'", "'DEFAULT_TEST_MODE'");
-        statement.addBatch(sql);
-      }
-      switch (config.getDB_SWITCH().split("-")[0].trim()) {
-        case Constants.DB_IOT:
-        case Constants.DB_TIMESCALE:
-          sql =
-              String.format(
-                  SAVE_CONFIG, "'" + PROJECT_ID + "'", "'ServerIP'", "'" + config.getHOST() + "'");
-          statement.addBatch(sql);
-          break;
-        case Constants.DB_INFLUX:
-        case Constants.DB_OPENTS:
-        case Constants.DB_KAIROS:
-        case Constants.DB_CTS:
-          String host = config.getHOST() + ":" + config.getPORT();
-          sql = String.format(SAVE_CONFIG, "'" + PROJECT_ID + "'", "'ServerIP'", "'" + host + "'");
-          statement.addBatch(sql);
-          break;
-        default:
-          throw new SQLException("unsupported database " + config.getDB_SWITCH());
-      }
-      sql = String.format(SAVE_CONFIG, "'" + PROJECT_ID + "'", "'CLIENT'", "'" + localName + "'");
-      statement.addBatch(sql);
-      sql =
-          String.format(
-              SAVE_CONFIG,
-              "'" + PROJECT_ID + "'",
-              "'DB_SWITCH'",
-              "'" + config.getDB_SWITCH() + "'");
-      statement.addBatch(sql);
-      sql =
-          String.format(
-              SAVE_CONFIG,
-              "'" + PROJECT_ID + "'",
-              "'getCLIENT_NUMBER()'",
-              "'" + config.getCLIENT_NUMBER() + "'");
-      statement.addBatch(sql);
-      sql =
-          String.format(
-              SAVE_CONFIG, "'" + PROJECT_ID + "'", "'LOOP'", "'" + config.getLOOP() + "'");
-      statement.addBatch(sql);
-      if (config.getBENCHMARK_WORK_MODE().equals(Constants.MODE_TEST_WITH_DEFAULT_PATH)) {
-        sql =
-            String.format(
-                SAVE_CONFIG,
-                "'" + PROJECT_ID + "'",
-                "'GROUP_NUMBER'",
-                "'" + config.getGROUP_NUMBER() + "'");
-        statement.addBatch(sql);
-        sql =
-            String.format(
-                SAVE_CONFIG,
-                "'" + PROJECT_ID + "'",
-                "'DEVICE_NUMBER'",
-                "'" + config.getDEVICE_NUMBER() + "'");
-        statement.addBatch(sql);
-        sql =
-            String.format(
-                SAVE_CONFIG,
-                "'" + PROJECT_ID + "'",
-                "'SENSOR_NUMBER'",
-                "'" + config.getSENSOR_NUMBER() + "'");
-        statement.addBatch(sql);
+    execute(
+        SAVE_CONFIG,
+        statement -> {
+          if (config.getBENCHMARK_WORK_MODE().equals(Constants.MODE_TEST_WITH_DEFAULT_PATH)) {
+            addConfig(statement, "MODE", "DEFAULT_TEST_MODE");
+          }
+          switch (config.getDB_SWITCH().split("-")[0].trim()) {
+            case Constants.DB_IOT:
+            case Constants.DB_TIMESCALE:
+              addConfig(statement, "ServerIP", config.getHOST());
+              break;
+            case Constants.DB_INFLUX:
+            case Constants.DB_OPENTS:
+            case Constants.DB_KAIROS:
+            case Constants.DB_CTS:
+              addConfig(statement, "ServerIP", config.getHOST() + ":" + config.getPORT());
+              break;
+            default:
+              throw new SQLException("unsupported database " + config.getDB_SWITCH());
+          }
+          addConfig(statement, "CLIENT", localName);
+          addConfig(statement, "DB_SWITCH", config.getDB_SWITCH());
+          addConfig(statement, "getCLIENT_NUMBER()", config.getCLIENT_NUMBER());
+          addConfig(statement, "LOOP", config.getLOOP());
+          if (config.getBENCHMARK_WORK_MODE().equals(Constants.MODE_TEST_WITH_DEFAULT_PATH)) {
+            addConfig(statement, "GROUP_NUMBER", config.getGROUP_NUMBER());
+            addConfig(statement, "DEVICE_NUMBER", config.getDEVICE_NUMBER());
+            addConfig(statement, "SENSOR_NUMBER", config.getSENSOR_NUMBER());
+            addConfig(statement, "QUERY_DEVICE_NUM", config.getQUERY_DEVICE_NUM());
+            addConfig(statement, "QUERY_SENSOR_NUM", config.getQUERY_SENSOR_NUM());
+            addConfig(statement, "IS_OUT_OF_ORDER", config.isIS_OUT_OF_ORDER());
+            if (config.isIS_OUT_OF_ORDER()) {
+              addConfig(statement, "OUT_OF_ORDER_RATIO", config.getOUT_OF_ORDER_RATIO());
+            }
+            addConfig(statement, "BATCH_SIZE_PER_WRITE", config.getBATCH_SIZE_PER_WRITE());
+            addConfig(statement, "POINT_STEP", config.getPOINT_STEP());
+          }
+          statement.executeBatch();
+        });
+  }
 
-        sql =
-            String.format(
-                SAVE_CONFIG,
-                "'" + PROJECT_ID + "'",
-                "'QUERY_DEVICE_NUM'",
-                "'" + config.getQUERY_DEVICE_NUM() + "'");
-        statement.addBatch(sql);
-        sql =
-            String.format(
-                SAVE_CONFIG,
-                "'" + PROJECT_ID + "'",
-                "'QUERY_SENSOR_NUM'",
-                "'" + config.getQUERY_SENSOR_NUM() + "'");
-        statement.addBatch(sql);
+  private static void addConfig(PreparedStatement statement, String item, Object value)
+      throws SQLException {
+    statement.setString(1, PROJECT_ID);
+    statement.setString(2, item);
+    statement.setString(3, String.valueOf(value));
+    statement.addBatch();
+  }
 
-        sql =
-            String.format(
-                SAVE_CONFIG,
-                "'" + PROJECT_ID + "'",
-                "'IS_OUT_OF_ORDER'",
-                "'" + config.isIS_OUT_OF_ORDER() + "'");
-        statement.addBatch(sql);
-        if (config.isIS_OUT_OF_ORDER()) {
-          sql =
-              String.format(
-                  SAVE_CONFIG,
-                  "'" + PROJECT_ID + "'",
-                  "'OUT_OF_ORDER_RATIO'",
-                  "'" + config.getOUT_OF_ORDER_RATIO() + "'");
-          statement.addBatch(sql);
-        }
-        statement.addBatch(sql);
-        sql =
-            String.format(
-                SAVE_CONFIG,
-                "'" + PROJECT_ID + "'",
-                "'DEVICE_NUMBER'",
-                "'" + config.getDEVICE_NUMBER() + "'");
-        statement.addBatch(sql);
-        sql =
-            String.format(
-                SAVE_CONFIG,
-                "'" + PROJECT_ID + "'",
-                "'BATCH_SIZE_PER_WRITE'",
-                "'" + config.getBATCH_SIZE_PER_WRITE() + "'");
-        statement.addBatch(sql);
-        sql =
-            String.format(
-                SAVE_CONFIG,
-                "'" + PROJECT_ID + "'",
-                "'POINT_STEP'",
-                "'" + config.getPOINT_STEP() + "'");
-        statement.addBatch(sql);
+  /**
+   * Prepare the sql on a connection of the pool and run the action
+   *
+   * @param sql sql to be prepared
+   * @param action action to set parameters and execute the statement
+   */
+  private static void execute(String sql, StatementAction action) {
+    Connection connection = null;
+    try {
+      connection = pool.borrow();
+      try (PreparedStatement statement = connection.prepareStatement(sql)) {
+        action.run(statement);
       }
-      statement.executeBatch();
     } catch (SQLException e) {
-      LOGGER.error("{} failed to write config into MySQL, because: {}", sql, e);
+      LOGGER.error("{} failed to be executed in MySQL, because: ", sql, e);
+    } finally {
+      if (connection != null) {
+        pool.release(connection);
+      }
     }
   }
 
+  /** The shared connections and writer thread are closed when the JVM exits */
   @Override
   public void close() {
-    if (connection != null) {
-      try {
-        statement.executeBatch();
-        statement.close();
-        connection.close();
-      } catch (SQLException e) {
-        LOGGER.error("Failed to close connection to MySQL, because: ", e);
+    // do nothing
+  }
+
+  /** Write the remaining operation results and close all the connections */
+  private static void closeAll() {
+    synchronized (MySqlRecorder.class) {
+      if (!isInit) {
+        return;
+      }
+      if (resultWriter != null) {
+        resultWriter.close();
+      }
+      pool.close();
+      if (droppedNum.get() > 0) {
+        LOGGER.warn("{} operation results are not saved because MySQL is too slow", droppedNum);
       }
     }
   }
@@ -417,7 +404,7 @@ public class MySqlRecorder implements ITestDataPersistence {
    * @return
    * @throws SQLException
    */
-  private Boolean hasTable(String table) throws SQLException {
+  private static Boolean hasTable(Connection connection, String table) throws SQLException {
     String showTableTemplate = "show tables like \"%s\"";
     String checkTable = String.format(showTableTemplate, table);
     try (Statement stmt = connection.createStatement()) {
@@ -426,4 +413,9 @@ public class MySqlRecorder implements ITestDataPersistence {
       }
     }
   }
+
+  private interface StatementAction {
+
+    void run(PreparedStatement statement) throws SQLException;
+  }
 }
@@ -0,0 +1,199 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package cn.edu.tsinghua.iotdb.benchmark.measurement.persistence.mysql;
+
+import cn.edu.tsinghua.iotdb.benchmark.measurement.persistence.OperationResultRingBuffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Writer thread which drains operation results from the ring buffer and inserts them into MySQL by
+ * batches of a prepared statement. A batch is executed when it is full or when the flush interval
+ * has passed. If MySQL fails, the batch is given up and the connection is replaced, so that the
+ * ring buffer keeps being drained.
+ */
+public class MySqlResultWriter
+    implements Runnable, OperationResultRingBuffer.OperationResultHandler {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(MySqlResultWriter.class);
+
+  private static final long IDLE_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+  private static final long CLOSE_TIMEOUT_MS = 30000;
+
+  private final OperationResultRingBuffer ringBuffer;
+  private final MySqlConnectionPool pool;
+  private final String insertSql;
+  private final int batchSize;
+  private final long flushIntervalNanos;
+  /** only used by the writer thread */
+  private final SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS");
+
+  private Connection connection;
+  private PreparedStatement statement;
+  private int batchNum = 0;
+  private long lastFlushTime = System.nanoTime();
+  private long failNum = 0;
+
+  private volatile boolean running = true;
+  private Thread thread;
+
+  /**
+   * @param ringBuffer results to be written
+   * @param pool connections to MySQL
+   * @param table table of operation results
+   * @param batchSize max number of results in one batch
+   * @param flushIntervalMs max interval between two batches
+   */
+  public MySqlResultWriter(
+      OperationResultRingBuffer ringBuffer,
+      MySqlConnectionPool pool,
+      String table,
+      int batchSize,
+      long flushIntervalMs) {
+    this.ringBuffer = ringBuffer;
+    this.pool = pool;
+    this.insertSql = "insert into " + table + " values(NULL,?,?,?,?,?,?,?,?)";
+    this.batchSize = Math.max(batchSize, 1);
+    this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+  }
+
+  /** Start the writer thread */
+  public void start() {
+    thread = new Thread(this, "mysql-result-writer");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  @Override
+  public void run() {
+    while (running || !ringBuffer.isEmpty()) {
+      int num = ringBuffer.drain(this, batchSize - batchNum);
+      if (batchNum >= batchSize || System.nanoTime() - lastFlushTime >= flushIntervalNanos) {
+        flush();
+      }
+      if (num == 0) {
+        LockSupport.parkNanos(IDLE_WAIT_NANOS);
+      }
+    }
+    flush();
+    if (connection != null) {
+      closeStatement();
+      pool.release(connection);
+    }
+    if (failNum > 0) {
+      LOGGER.warn("{} operation results are not written into MySQL because of failures", failNum);
+    }
+  }
+
+  @Override
+  public void onResult(
+      long recordTime,
+      String clientName,
+      String operation,
+      int okPoint,
+      int failPoint,
+      double latency,
+      String remark) {
+    double rate = 0;
+    if (latency > 0) {
+      // unit: points/second
+      rate = okPoint * 1000 / latency;
+    }
+    try {
+      if (statement == null) {
+        connection = pool.borrow();
+        statement = connection.prepareStatement(insertSql);
+      }
+      statement.setString(1, dateFormat.format(new Date(recordTime)));
+      statement.setString(2, clientName);
+      statement.setString(3, operation);
+      statement.setInt(4, okPoint);
+      statement.setInt(5, failPoint);
+      statement.setDouble(6, latency);
+      statement.setDouble(7, rate);
+      statement.setString(8, remark);
+      statement.addBatch();
+      batchNum++;
+    } catch (SQLException e) {
+      failNum++;
+      LOGGER.error("Failed to add operation result into batch of MySQL", e);
+      reset();
+    }
+  }
+
+  private void flush() {
+    lastFlushTime = System.nanoTime();
+    if (batchNum == 0) {
+      return;
+    }
+    try {
+      statement.executeBatch();
+      batchNum = 0;
+    } catch (SQLException e) {
+      LOGGER.error("Failed to write {} operation results into MySQL", batchNum, e);
+      reset();
+    }
+  }
+
+  /** Give up the current batch and connection, a new connection is borrowed for the next result */
+  private void reset() {
+    closeStatement();
+    if (connection != null) {
+      pool.release(connection);
+      connection = null;
+    }
+    failNum += batchNum;
+    batchNum = 0;
+  }
+
+  private void closeStatement() {
+    if (statement != null) {
+      try {
+        statement.close();
+      } catch (SQLException e) {
+        LOGGER.warn("Failed to close statement of MySQL", e);
+      }
+      statement = null;
+    }
+  }
+
+  /** Write all the published results and stop the writer thread */
+  public void close() {
+    running = false;
+    if (thread == null) {
+      return;
+    }
+    LockSupport.unpark(thread);
+    try {
+      thread.join(CLOSE_TIMEOUT_MS);
+    } catch (InterruptedException e) {
+      LOGGER.warn("Interrupted when waiting for mysql result writer");
+      Thread.currentThread().interrupt();
+    }
+  }
+}
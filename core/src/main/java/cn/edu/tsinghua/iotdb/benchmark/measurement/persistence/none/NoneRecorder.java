@@ -20,6 +20,7 @@
 package cn.edu.tsinghua.iotdb.benchmark.measurement.persistence.none;
 
 import cn.edu.tsinghua.iotdb.benchmark.measurement.enums.SystemMetrics;
+import cn.edu.tsinghua.iotdb.benchmark.measurement.enums.WindowResult;
 import cn.edu.tsinghua.iotdb.benchmark.measurement.persistence.ITestDataPersistence;
 
 import java.util.Map;
@@ -47,6 +48,12 @@ public class NoneRecorder implements ITestDataPersistence {
     // DO nothing
   }
 
+  @Override
+  public void saveWindowResult(
+      long windowStartTime, String operation, Map<WindowResult, Double> windowResultMap) {
+    // DO nothing
+  }
+
   @Override
   public void close() {
     // DO nothing
@@ -34,7 +34,7 @@ public class DBFactory {
   public DBFactory() {}
 
   /**
-   * Get database according to DB_SWITCH
+   * Get database according to DB_SWITCH, FakeDB in loaderCapacityMode
    *
    * @return
    * @throws SQLException
@@ -42,7 +42,11 @@ public class DBFactory {
   public IDatabase getDatabase() throws SQLException {
     String dbClass = "";
     try {
-      switch (config.getDB_SWITCH()) {
+      String dbSwitch = config.getDB_SWITCH();
+      if (Constants.MODE_LOADER_CAPACITY.equals(config.getBENCHMARK_WORK_MODE().trim())) {
+        dbSwitch = Constants.DB_FAKE;
+      }
+      switch (dbSwitch) {
           // IoTDB 0.12
         case Constants.DB_IOT_012_JDBC:
           if (config.isENABLE_DOUBLE_INSERT()) {
@@ -52,6 +56,7 @@ public class DBFactory {
           }
           break;
         case Constants.DB_IOT_012_SESSION_BY_TABLET:
+        case Constants.DB_IOT_012_SESSION_BY_TABLETS:
         case Constants.DB_IOT_012_SESSION_BY_RECORD:
         case Constants.DB_IOT_012_SESSION_BY_RECORDS:
           if (config.isIS_ALL_NODES_VISIBLE()) {
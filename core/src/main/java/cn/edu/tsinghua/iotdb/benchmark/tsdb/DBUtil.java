@@ -21,6 +21,9 @@ package cn.edu.tsinghua.iotdb.benchmark.tsdb;
 
 import cn.edu.tsinghua.iotdb.benchmark.conf.Config;
 import cn.edu.tsinghua.iotdb.benchmark.conf.ConfigDescriptor;
+import cn.edu.tsinghua.iotdb.benchmark.conf.Constants;
+import cn.edu.tsinghua.iotdb.benchmark.workload.ingestion.Batch;
+import cn.edu.tsinghua.iotdb.benchmark.workload.schema.DeviceSchema;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -70,6 +73,67 @@ public class DBUtil {
     }
   }
 
+  /**
+   * Append the head of IoTDB insert sql of batch, with one column per sensor of the batch. eg.
+   * insert into root.group_0.d_0(timestamp,s_0,s_1)
+   *
+   * @param builder sql builder
+   * @param batch batch to insert
+   */
+  public static void appendIoTDBInsertHead(StringBuilder builder, Batch batch) {
+    DeviceSchema deviceSchema = batch.getDeviceSchema();
+    builder
+        .append("insert into ")
+        .append(Constants.ROOT_SERIES_NAME)
+        .append(".")
+        .append(deviceSchema.getGroup())
+        .append(".")
+        .append(deviceSchema.getDevice())
+        .append("(timestamp");
+    for (int columnIndex = 0; columnIndex < batch.getColumnSize(); columnIndex++) {
+      builder.append(",").append(batch.getSensor(columnIndex));
+    }
+    builder.append(")");
+  }
+
+  /**
+   * Append the values of one row of batch to IoTDB insert sql. eg. (1535558400000,1,'abc')
+   *
+   * @param builder sql builder
+   * @param batch batch to insert
+   * @param recordIndex row index in batch
+   */
+  public static void appendIoTDBInsertRow(StringBuilder builder, Batch batch, int recordIndex) {
+    builder.append("(").append(batch.getTimestamp(recordIndex));
+    for (int columnIndex = 0; columnIndex < batch.getColumnSize(); columnIndex++) {
+      builder.append(",");
+      if ("TEXT".equals(batch.getDataType(columnIndex))) {
+        builder.append("'");
+        batch.appendValue(builder, recordIndex, columnIndex);
+        builder.append("'");
+      } else {
+        batch.appendValue(builder, recordIndex, columnIndex);
+      }
+    }
+    builder.append(")");
+  }
+
+  /**
+   * Generate IoTDB insert sql of one row in batch. If the batch only contains one sensor (colIndex
+   * != -1), only that sensor is inserted. eg. insert into root.group_0.d_0(timestamp,s_0,s_1)
+   * values(1535558400000,1,'abc')
+   *
+   * @param batch batch to insert
+   * @param recordIndex row index in batch
+   */
+  public static String getIoTDBInsertSql(Batch batch, int recordIndex) {
+    StringBuilder builder = new StringBuilder();
+    appendIoTDBInsertHead(builder, batch);
+    builder.append(" values");
+    appendIoTDBInsertRow(builder, batch, recordIndex);
+    return builder.toString();
+  }
+
   /** init probabilities */
   private static synchronized void resolveDataTypeProportion() {
     if (probabilities != null) {
@@ -20,8 +20,10 @@
 package cn.edu.tsinghua.iotdb.benchmark.tsdb;
 
 import cn.edu.tsinghua.iotdb.benchmark.client.Operation;
+import cn.edu.tsinghua.iotdb.benchmark.client.OperationPacer;
 import cn.edu.tsinghua.iotdb.benchmark.conf.Config;
 import cn.edu.tsinghua.iotdb.benchmark.conf.ConfigDescriptor;
+import cn.edu.tsinghua.iotdb.benchmark.conf.Constants;
 import cn.edu.tsinghua.iotdb.benchmark.exception.DBConnectException;
 import cn.edu.tsinghua.iotdb.benchmark.measurement.Measurement;
 import cn.edu.tsinghua.iotdb.benchmark.measurement.Status;
@@ -34,6 +36,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 public class DBWrapper implements IDatabase {
 
@@ -45,8 +51,23 @@ public class DBWrapper implements IDatabase {
   private static final String ERROR_LOG = "Failed to do {} because unexpected exception: ";
 
   private IDatabase db;
+  /** measurement in use, which is the warm-up measurement during warm-up */
   private Measurement measurement;
+  /** measurement of the operations after warm-up */
+  private Measurement testMeasurement;
+
+  private boolean warmingUp = false;
   private ITestDataPersistence recorder;
+  /** paces operations in open-loop mode, null in closed-loop mode */
+  private OperationPacer pacer = OperationPacer.createFromConfig();
+  /** permits of insert requests in flight, null if MAX_IN_FLIGHT <= 1 */
+  private final Semaphore inFlightPermits =
+      config.getMAX_IN_FLIGHT() > 1 ? new Semaphore(config.getMAX_IN_FLIGHT()) : null;
+  /**
+   * completed asynchronous inserts, they are measured by the client thread since measurement is not
+   * thread-safe
+   */
+  private final Queue<CompletedBatch> completedBatches = new ConcurrentLinkedQueue<>();
 
   /**
    * Use DBFactory to get database
@@ -61,16 +82,21 @@ public class DBWrapper implements IDatabase {
       LOGGER.error("Failed to get database because", e);
     }
     this.measurement = measurement;
+    this.testMeasurement = measurement;
     PersistenceFactory persistenceFactory = new PersistenceFactory();
     recorder = persistenceFactory.getPersistence();
   }
 
   @Override
   public Status insertOneBatch(Batch batch) throws DBConnectException {
+    if (inFlightPermits != null) {
+      sendOneBatch(batch);
+      return null;
+    }
     Status status = null;
     Operation operation = Operation.INGESTION;
     try {
-      long start = System.nanoTime();
+      long start = startOperation(batch.pointNum());
       status = db.insertOneBatch(batch);
       status = measureOneBatch(status, operation, batch, start);
     } catch (DBConnectException ex) {
@@ -78,8 +104,43 @@ public class DBWrapper implements IDatabase {
     } catch (Exception e) {
       measurement.addFailOperationNum(operation);
       measurement.addFailPointNum(operation, batch.pointNum());
-      recorder.saveOperationResult(operation.getName(), 0, batch.pointNum(), 0, e.toString());
+      saveOperationResult(operation, 0, batch.pointNum(), 0, e.toString());
       LOGGER.error("Failed to insert one batch because unexpected exception: ", e);
+    } finally {
+      // the adapter has finished with the batch, pooled batch goes back to its pool
+      batch.release();
+    }
+    return status;
+  }
+
+  /**
+   * Insert the batches of several devices as one write operation, whose latency covers all of
+   * them. It is always sent synchronously regardless of MAX_IN_FLIGHT.
+   */
+  @Override
+  public Status insertBatches(List<Batch> batches) throws DBConnectException {
+    Status status = null;
+    Operation operation = Operation.INGESTION;
+    int pointNum = 0;
+    for (Batch batch : batches) {
+      pointNum += batch.pointNum();
+    }
+    try {
+      long start = startOperation(pointNum);
+      status = db.insertBatches(batches);
+      status.setTimeCost(System.nanoTime() - start);
+      measureBatchStatus(status, operation, pointNum, batches.get(0).getDeviceSchema());
+    } catch (DBConnectException ex) {
+      throw ex;
+    } catch (Exception e) {
+      measurement.addFailOperationNum(operation);
+      measurement.addFailPointNum(operation, pointNum);
+      saveOperationResult(operation, 0, pointNum, 0, e.toString());
+      LOGGER.error("Failed to insert batches because unexpected exception: ", e);
+    } finally {
+      for (Batch batch : batches) {
+        batch.release();
+      }
     }
     return status;
   }
@@ -89,7 +150,7 @@ public class DBWrapper implements IDatabase {
     Status status = null;
     Operation operation = Operation.INGESTION;
     try {
-      long start = System.nanoTime();
+      long start = startOperation(batch.pointNum());
       status = db.insertOneSensorBatch(batch);
       status = measureOneBatch(status, operation, batch, start);
     } catch (DBConnectException ex) {
@@ -97,12 +158,152 @@ public class DBWrapper implements IDatabase {
     } catch (Exception e) {
       measurement.addFailOperationNum(operation);
       measurement.addFailPointNum(operation, batch.pointNum());
-      recorder.saveOperationResult(operation.getName(), 0, batch.pointNum(), 0, e.toString());
+      saveOperationResult(operation, 0, batch.pointNum(), 0, e.toString());
       LOGGER.error("Failed to insert one batch because unexpected exception: ", e);
+    } finally {
+      batch.release();
     }
     return status;
   }
 
+  /**
+   * Send one batch without waiting for its result, blocked if there are already MAX_IN_FLIGHT
+   * requests in flight. The latency of each request is measured from sending to completion.
+   */
+  private void sendOneBatch(Batch batch) throws DBConnectException {
+    measureCompletedBatches();
+    try {
+      inFlightPermits.acquire();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      batch.release();
+      return;
+    }
+    measureCompletedBatches();
+    int pointNum = batch.pointNum();
+    DeviceSchema deviceSchema = batch.getDeviceSchema();
+    long start = startOperation(pointNum);
+    // kept by the request, released by the callback
+    batch.retain();
+    try {
+      db.insertOneBatchAsync(
+          batch,
+          status -> {
+            status.setTimeCost(System.nanoTime() - start);
+            completedBatches.offer(new CompletedBatch(status, pointNum, deviceSchema));
+            batch.release();
+            inFlightPermits.release();
+          });
+    } catch (DBConnectException ex) {
+      batch.release();
+      inFlightPermits.release();
+      throw ex;
+    } catch (Exception e) {
+      batch.release();
+      inFlightPermits.release();
+      Operation operation = Operation.INGESTION;
+      measurement.addFailOperationNum(operation);
+      measurement.addFailPointNum(operation, pointNum);
+      saveOperationResult(operation, 0, pointNum, 0, e.toString());
+      LOGGER.error("Failed to insert one batch because unexpected exception: ", e);
+    } finally {
+      batch.release();
+    }
+  }
+
+  /** Measure the asynchronous inserts which are completed */
+  private void measureCompletedBatches() {
+    CompletedBatch completed;
+    while ((completed = completedBatches.poll()) != null) {
+      measureBatchStatus(
+          completed.status, Operation.INGESTION, completed.pointNum, completed.deviceSchema);
+    }
+  }
+
+  /** Wait for all the asynchronous inserts to complete and measure them */
+  private void waitInFlightBatches() {
+    int maxInFlight = config.getMAX_IN_FLIGHT();
+    long timeout = config.getWRITE_OPERATION_TIMEOUT_MS();
+    try {
+      if (inFlightPermits.tryAcquire(maxInFlight, timeout, TimeUnit.MILLISECONDS)) {
+        inFlightPermits.release(maxInFlight);
+      } else {
+        LOGGER.warn(
+            "{} insert requests are not completed in {} ms",
+            maxInFlight - inFlightPermits.availablePermits(),
+            timeout);
+      }
+    } catch (InterruptedException e) {
+      LOGGER.warn("Interrupted while waiting for insert requests in flight");
+      Thread.currentThread().interrupt();
+    }
+    measureCompletedBatches();
+  }
+
+  /**
+   * Start warming up, the following operations are measured by warmUpMeasurement instead, and their
+   * results are saved with remark starting with Constants.WARM_UP_REMARK
+   *
+   * @param warmUpMeasurement measurement of the operations during warm-up
+   */
+  public void startWarmUp(Measurement warmUpMeasurement) {
+    measurement = warmUpMeasurement;
+    warmingUp = true;
+  }
+
+  /** Finish warming up, the insert requests in flight are waited for and measured as warm-up */
+  public void finishWarmUp() {
+    if (inFlightPermits != null) {
+      waitInFlightBatches();
+    }
+    measurement = testMeasurement;
+    warmingUp = false;
+  }
+
+  /**
+   * Measure the following operations by another measurement, e.g. the one of the next phase. During
+   * warm-up, it takes effect after warm-up finished.
+   */
+  public void setMeasurement(Measurement measurement) {
+    testMeasurement = measurement;
+    if (!warmingUp) {
+      this.measurement = measurement;
+    }
+  }
+
+  /**
+   * Pace the following operations by another pacer, e.g. the one of the next phase
+   *
+   * @param pacer null for closed-loop mode
+   */
+  public void setPacer(OperationPacer pacer) {
+    this.pacer = pacer;
+  }
+
+  /** Save the result of one operation, the remark is marked during warm-up */
+  private void saveOperationResult(
+      Operation operation, int okPoint, int failPoint, double latency, String remark) {
+    if (warmingUp) {
+      remark =
+          remark.isEmpty()
+              ? Constants.WARM_UP_REMARK
+              : Constants.WARM_UP_REMARK + ": " + remark;
+    }
+    recorder.saveOperationResult(operation.getName(), okPoint, failPoint, latency, remark);
+  }
+
+  /**
+   * Get the start time of one operation. In open-loop mode, wait for the intended start time of the
+   * operation and return it, so that the latency also covers the time the operation was delayed by
+   * the previous ones.
+   *
+   * @param pointNum point number of the operation, 0 if unknown
+   * @return start time in nanoseconds
+   */
+  private long startOperation(int pointNum) {
+    return pacer == null ? System.nanoTime() : pacer.acquire(pointNum);
+  }
+
   /**
    * Measure one batch
    *
@@ -115,28 +316,40 @@ public class DBWrapper implements IDatabase {
   private Status measureOneBatch(Status status, Operation operation, Batch batch, long start) {
     long end = System.nanoTime();
     status.setTimeCost(end - start);
+    measureBatchStatus(status, operation, batch.pointNum(), batch.getDeviceSchema());
+    return status;
+  }
+
+  /**
+   * Measure one batch whose time cost is set
+   *
+   * @param status
+   * @param operation
+   * @param pointNum point number of batch
+   * @param deviceSchema schema of the device of batch
+   */
+  private void measureBatchStatus(
+      Status status, Operation operation, int pointNum, DeviceSchema deviceSchema) {
     if (status.isOk()) {
-      measureOkOperation(status, operation, batch.pointNum());
+      measureOkOperation(status, operation, pointNum);
       if (!config.isIS_QUIET_MODE()) {
         double timeInMillis = status.getTimeCost() / NANO_TO_MILLIS;
         String formatTimeInMillis = String.format("%.2f", timeInMillis);
-        double throughput = batch.pointNum() * 1000 / timeInMillis;
+        double throughput = pointNum * 1000 / timeInMillis;
         LOGGER.info(
             "{} insert one batch latency (device: {}, sg: {}) ,{}, ms, throughput ,{}, points/s",
             Thread.currentThread().getName(),
-            batch.getDeviceSchema().getDevice(),
-            batch.getDeviceSchema().getGroup(),
+            deviceSchema.getDevice(),
+            deviceSchema.getGroup(),
             formatTimeInMillis,
             throughput);
       }
     } else {
       measurement.addFailOperationNum(operation);
-      measurement.addFailPointNum(operation, batch.pointNum());
-      recorder.saveOperationResult(
-          operation.getName(), 0, batch.pointNum(), 0, status.getException().toString());
+      measurement.addFailPointNum(operation, pointNum);
+      saveOperationResult(operation, 0, pointNum, 0, status.getException().toString());
       LOGGER.error("Insert batch failed because", status.getException());
     }
-    return status;
   }
 
   @Override
@@ -144,7 +357,7 @@ public class DBWrapper implements IDatabase {
     Status status = null;
     Operation operation = Operation.PRECISE_QUERY;
     try {
-      long start = System.nanoTime();
+      long start = startOperation(0);
       status = db.preciseQuery(preciseQuery);
       long end = System.nanoTime();
       status.setTimeCost(end - start);
@@ -160,7 +373,7 @@ public class DBWrapper implements IDatabase {
     Status status = null;
     Operation operation = Operation.RANGE_QUERY;
     try {
-      long start = System.nanoTime();
+      long start = startOperation(0);
       status = db.rangeQuery(rangeQuery);
       long end = System.nanoTime();
       status.setTimeCost(end - start);
@@ -176,7 +389,7 @@ public class DBWrapper implements IDatabase {
     Status status = null;
     Operation operation = Operation.VALUE_RANGE_QUERY;
     try {
-      long start = System.nanoTime();
+      long start = startOperation(0);
       status = db.valueRangeQuery(valueRangeQuery);
       long end = System.nanoTime();
       status.setTimeCost(end - start);
@@ -192,7 +405,7 @@ public class DBWrapper implements IDatabase {
     Status status = null;
     Operation operation = Operation.AGG_RANGE_QUERY;
     try {
-      long start = System.nanoTime();
+      long start = startOperation(0);
       status = db.aggRangeQuery(aggRangeQuery);
       long end = System.nanoTime();
       status.setTimeCost(end - start);
@@ -208,7 +421,7 @@ public class DBWrapper implements IDatabase {
     Status status = null;
     Operation operation = Operation.AGG_VALUE_QUERY;
     try {
-      long start = System.nanoTime();
+      long start = startOperation(0);
       status = db.aggValueQuery(aggValueQuery);
       long end = System.nanoTime();
       status.setTimeCost(end - start);
@@ -224,7 +437,7 @@ public class DBWrapper implements IDatabase {
     Status status = null;
     Operation operation = Operation.AGG_RANGE_VALUE_QUERY;
     try {
-      long start = System.nanoTime();
+      long start = startOperation(0);
       status = db.aggRangeValueQuery(aggRangeValueQuery);
       long end = System.nanoTime();
       status.setTimeCost(end - start);
@@ -240,7 +453,7 @@ public class DBWrapper implements IDatabase {
     Status status = null;
     Operation operation = Operation.GROUP_BY_QUERY;
     try {
-      long start = System.nanoTime();
+      long start = startOperation(0);
       status = db.groupByQuery(groupByQuery);
       long end = System.nanoTime();
       status.setTimeCost(end - start);
@@ -256,7 +469,7 @@ public class DBWrapper implements IDatabase {
     Status status = null;
     Operation operation = Operation.LATEST_POINT_QUERY;
     try {
-      long start = System.nanoTime();
+      long start = startOperation(0);
       status = db.latestPointQuery(latestPointQuery);
       long end = System.nanoTime();
       status.setTimeCost(end - start);
@@ -273,7 +486,7 @@ public class DBWrapper implements IDatabase {
     Operation operation = Operation.RANGE_QUERY_ORDER_BY_TIME_DESC;
     try {
       rangeQuery.setDesc(true);
-      long start = System.nanoTime();
+      long start = startOperation(0);
       status = db.rangeQueryOrderByDesc(rangeQuery);
       long end = System.nanoTime();
       status.setTimeCost(end - start);
@@ -290,7 +503,7 @@ public class DBWrapper implements IDatabase {
     Operation operation = Operation.VALUE_RANGE_QUERY_ORDER_BY_TIME_DESC;
     try {
       valueRangeQuery.setDesc(true);
-      long start = System.nanoTime();
+      long start = startOperation(0);
       status = db.valueRangeQueryOrderByDesc(valueRangeQuery);
       long end = System.nanoTime();
       status.setTimeCost(end - start);
@@ -322,6 +535,9 @@ public class DBWrapper implements IDatabase {
 
   @Override
   public void close() throws TsdbException {
+    if (inFlightPermits != null) {
+      waitInFlightBatches();
+    }
     db.close();
     if (recorder != null) {
       recorder.close();
@@ -366,7 +582,7 @@ public class DBWrapper implements IDatabase {
     measurement.addOperationLatency(operation, latencyInMillis);
     measurement.addOkOperationNum(operation);
     measurement.addOkPointNum(operation, okPointNum);
-    recorder.saveOperationResult(operation.getName(), okPointNum, 0, latencyInMillis, "");
+    saveOperationResult(operation, okPointNum, 0, latencyInMillis, "");
   }
 
   /**
@@ -393,7 +609,7 @@ public class DBWrapper implements IDatabase {
       LOGGER.error("Execution fail: {}", status.getErrorMessage(), status.getException());
       measurement.addFailOperationNum(operation);
       // currently we do not have expected result point number for query
-      recorder.saveOperationResult(operation.getName(), 0, 0, 0, status.getException().toString());
+      saveOperationResult(operation, 0, 0, 0, status.getException().toString());
     }
   }
 
@@ -408,6 +624,19 @@ public class DBWrapper implements IDatabase {
     measurement.addFailOperationNum(operation);
     // currently we do not have expected result point number for query
     LOGGER.error(ERROR_LOG, operation, e);
-    recorder.saveOperationResult(operation.getName(), 0, 0, 0, e.toString());
+    saveOperationResult(operation, 0, 0, 0, e.toString());
+  }
+
+  /** Result of an asynchronous insert waiting to be measured */
+  private static class CompletedBatch {
+    private final Status status;
+    private final int pointNum;
+    private final DeviceSchema deviceSchema;
+
+    CompletedBatch(Status status, int pointNum, DeviceSchema deviceSchema) {
+      this.status = status;
+      this.pointNum = pointNum;
+      this.deviceSchema = deviceSchema;
+    }
   }
 }
@@ -33,6 +33,7 @@ import cn.edu.tsinghua.iotdb.benchmark.workload.query.impl.ValueRangeQuery;
 import cn.edu.tsinghua.iotdb.benchmark.workload.schema.DeviceSchema;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface IDatabase {
 
@@ -61,13 +62,49 @@ public interface IDatabase {
   /**
    * Insert one batch into the database, the DB implementation needs to resolve the data in batch
    * which contains device schema and Map[Long, List[String]] records. The key of records is a
-   * timestamp and the value is a list of sensor value data.
+   * timestamp and the value is a list of sensor value data. The batch may be reused after this
+   * method returns, an implementation which still uses it afterwards has to call {@link
+   * Batch#retain()} and {@link Batch#release()}.
    *
    * @param batch universal insertion data structure
    * @return status which contains successfully executed flag, error message and so on.
    */
   Status insertOneBatch(Batch batch) throws DBConnectException;
 
+  /**
+   * Insert one batch without waiting for the result, called instead of insertOneBatch when
+   * MAX_IN_FLIGHT > 1. The callback is called exactly once with the status when the request
+   * completes, possibly in another thread, unless an exception is thrown. The batch is kept until
+   * the callback is called. The default implementation inserts the batch synchronously.
+   *
+   * @param batch universal insertion data structure
+   * @param callback receives the status of the request
+   */
+  default void insertOneBatchAsync(Batch batch, Consumer<Status> callback)
+      throws DBConnectException {
+    callback.accept(insertOneBatch(batch));
+  }
+
+  /**
+   * Insert the batches of several devices as one write operation, called instead of insertOneBatch
+   * when DEVICE_NUMBER_PER_WRITE > 1. The batches may be reused after this method returns, as in
+   * insertOneBatch. The default implementation inserts the batches one by one, and the operation
+   * fails if any of them fails.
+   *
+   * @param batches batches of different devices
+   * @return status which contains successfully executed flag, error message and so on.
+   */
+  default Status insertBatches(List<Batch> batches) throws DBConnectException {
+    Status status = new Status(true);
+    for (Batch batch : batches) {
+      Status batchStatus = insertOneBatch(batch);
+      if (!batchStatus.isOk()) {
+        status = batchStatus;
+      }
+    }
+    return status;
+  }
+
   /**
    * Insert single-sensor one batch into the database, the DB implementation needs to resolve the
    * data in batch which contains device schema and Map[Long, List[String]] records. The key of
@@ -19,7 +19,11 @@
 
 package cn.edu.tsinghua.iotdb.benchmark.tsdb.fakedb;
 
+import cn.edu.tsinghua.iotdb.benchmark.conf.Config;
+import cn.edu.tsinghua.iotdb.benchmark.conf.ConfigDescriptor;
+import cn.edu.tsinghua.iotdb.benchmark.conf.Constants;
 import cn.edu.tsinghua.iotdb.benchmark.measurement.Status;
+import cn.edu.tsinghua.iotdb.benchmark.tsdb.DBUtil;
 import cn.edu.tsinghua.iotdb.benchmark.tsdb.IDatabase;
 import cn.edu.tsinghua.iotdb.benchmark.tsdb.TsdbException;
 import cn.edu.tsinghua.iotdb.benchmark.workload.ingestion.Batch;
@@ -33,10 +37,24 @@ import cn.edu.tsinghua.iotdb.benchmark.workload.query.impl.RangeQuery;
 import cn.edu.tsinghua.iotdb.benchmark.workload.query.impl.ValueRangeQuery;
 import cn.edu.tsinghua.iotdb.benchmark.workload.schema.DeviceSchema;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.util.List;
 
+/**
+ * A database which accepts everything, used to measure the benchmark itself. According to
+ * LOADER_SINK, it could also do the work of a real client with each batch and discard the result.
+ */
 public class FakeDB implements IDatabase {
 
+  private static final Config config = ConfigDescriptor.getInstance().getConfig();
+
+  private final String sink = config.getLOADER_SINK();
+  /** buffers reused by the batches of this client */
+  private final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+  private final StringBuilder sqlBuilder = new StringBuilder();
+
   @Override
   public void init() throws TsdbException {}
 
@@ -51,11 +69,36 @@ public class FakeDB implements IDatabase {
 
   @Override
   public Status insertOneBatch(Batch batch) {
-    return new Status(true);
+    return sinkBatch(batch);
   }
 
   @Override
   public Status insertOneSensorBatch(Batch batch) {
+    return sinkBatch(batch);
+  }
+
+  private Status sinkBatch(Batch batch) {
+    switch (sink) {
+      case Constants.LOADER_SINK_SERIALIZE:
+        outputStream.reset();
+        try {
+          batch.serialize(outputStream);
+        } catch (IOException e) {
+          return new Status(false, 0, e, e.toString());
+        }
+        break;
+      case Constants.LOADER_SINK_SQL:
+        for (int recordIndex = 0; recordIndex < batch.getRowSize(); recordIndex++) {
+          sqlBuilder.setLength(0);
+          // the same insert sql as the IoTDB JDBC adapters
+          DBUtil.appendIoTDBInsertHead(sqlBuilder, batch);
+          sqlBuilder.append(" values");
+          DBUtil.appendIoTDBInsertRow(sqlBuilder, batch, recordIndex);
+        }
+        break;
+      default:
+        break;
+    }
     return new Status(true);
   }
 
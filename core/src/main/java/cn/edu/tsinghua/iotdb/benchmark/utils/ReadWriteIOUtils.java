@@ -636,7 +636,7 @@ public class ReadWriteIOUtils {
     ClassSerializeId serializeId = ClassSerializeId.values()[inputstream.read()];
     switch (serializeId) {
       case BOOLEAN:
-        return readInt(inputstream) == 1;
+        return readBool(inputstream);
       case FLOAT:
         return readFloat(inputstream);
       case DOUBLE:
@@ -40,6 +40,7 @@ public class SingletonWorkload {
 
   private ProbTool probTool;
   private Random poissonRandom;
+  private PoissonDistribution poissonDistribution;
   private AtomicLong insertLoop;
   private ConcurrentHashMap<Integer, AtomicLong> deviceMaxTimeIndexMap;
 
@@ -55,17 +56,15 @@ public class SingletonWorkload {
     }
     probTool = new ProbTool();
     poissonRandom = new Random(config.getDATA_SEED());
+    poissonDistribution = new PoissonDistribution(poissonRandom);
   }
 
   private Batch getOrderedBatch() {
     long curLoop = insertLoop.getAndIncrement();
     DeviceSchema deviceSchema = new DeviceSchema((int) curLoop % config.getDEVICE_NUMBER());
-    Batch batch = new Batch();
-    for (long batchOffset = 0; batchOffset < config.getBATCH_SIZE_PER_WRITE(); batchOffset++) {
-      long stepOffset =
-          (curLoop / config.getDEVICE_NUMBER()) * config.getBATCH_SIZE_PER_WRITE() + batchOffset;
-      SyntheticWorkload.addOneRowIntoBatch(batch, stepOffset);
-    }
+    Batch batch = SyntheticWorkload.newBatch(deviceSchema);
+    SyntheticWorkload.addOrderedRowsIntoBatch(
+        batch, (curLoop / config.getDEVICE_NUMBER()) * config.getBATCH_SIZE_PER_WRITE());
     batch.setDeviceSchema(deviceSchema);
     return batch;
   }
@@ -91,8 +90,7 @@ public class SingletonWorkload {
     int deviceIndex = (int) (curLoop % config.getDEVICE_NUMBER());
     DeviceSchema deviceSchema = new DeviceSchema(deviceIndex);
 
-    Batch batch = new Batch();
-    PoissonDistribution poissonDistribution = new PoissonDistribution(poissonRandom);
+    Batch batch = SyntheticWorkload.newBatch(deviceSchema);
     int nextDelta;
     long stepOffset;
     for (long batchOffset = 0; batchOffset < config.getBATCH_SIZE_PER_WRITE(); batchOffset++) {
@@ -29,12 +29,14 @@ import cn.edu.tsinghua.iotdb.benchmark.function.Function;
 import cn.edu.tsinghua.iotdb.benchmark.function.FunctionParam;
 import cn.edu.tsinghua.iotdb.benchmark.tsdb.DBUtil;
 import cn.edu.tsinghua.iotdb.benchmark.workload.ingestion.Batch;
+import cn.edu.tsinghua.iotdb.benchmark.workload.ingestion.BatchPool;
 import cn.edu.tsinghua.iotdb.benchmark.workload.query.impl.*;
 import cn.edu.tsinghua.iotdb.benchmark.workload.schema.DataSchema;
 import cn.edu.tsinghua.iotdb.benchmark.workload.schema.DeviceSchema;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 
 public class SyntheticWorkload implements IWorkload {
@@ -46,23 +48,42 @@ public class SyntheticWorkload implements IWorkload {
 
   private static final ProbTool probTool = new ProbTool();
   private static final Random poissonRandom = new Random(config.getDATA_SEED());
+  private static final PoissonDistribution poissonDistribution =
+      new PoissonDistribution(poissonRandom);
 
   private final Map<DeviceSchema, Long> maxTimestampIndexMap;
   private final Map<Operation, Long> operationLoops;
 
   private final Random queryDeviceRandom;
+  /** reusable batches whose columns are all sensors */
+  private final BatchPool batchPool;
+  /** reusable batches whose only column is one sensor, created on demand */
+  private final BatchPool[] sensorBatchPools = new BatchPool[config.getSENSOR_NUMBER()];
   private static final Random random = new Random(config.getDATA_SEED());
   private static final Random dataRandom = new Random(config.getDATA_SEED());
 
-  /**
-   * workloadValues[SENSOR_NUMBER][WORKLOAD_BUFFER_SIZE]。 For those regular data, a piece of data of
-   * each sensor is stored for rapid generation according to the law
-   */
-  private static final Object[][] workloadValues = initWorkloadValues();
-
   private static final String CHAR_TABLE =
       "1234567890abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ";
+
+  /** data type of each sensor, used as the column types of generated batch */
+  private static final String[] dataTypes = initDataTypes();
+
+  /**
+   * workloadValues[SENSOR_NUMBER] is a ring of WORKLOAD_BUFFER_SIZE values of each sensor, kept in
+   * a primitive array of its data type (boolean[], int[], long[], float[], double[] or byte[][]).
+   * For those regular data, a piece of data of each sensor is stored for rapid generation according
+   * to the law. Row stepOffset takes values at index stepOffset % WORKLOAD_BUFFER_SIZE, so the
+   * values of consecutive rows are copied into batches by ranges. TEXT values are stored as encoded
+   * byte[] so that they could be shared by batches without copying.
+   */
+  private static final Object[] workloadValues = initWorkloadValues();
   private static final long timeStampConst = getTimestampConst(config.getTIMESTAMP_PRECISION());
+  /**
+   * number of idle batches kept by each pool, one being filled, those being sent together and those
+   * generated ahead by the ingestion pipeline
+   */
+  private static final int BATCH_POOL_SIZE =
+      1 + Math.max(config.getDEVICE_NUMBER_PER_WRITE(), 1) + config.getINGESTION_PIPELINE_DEPTH();
 
   public SyntheticWorkload(int clientId) {
     maxTimestampIndexMap = new HashMap<>();
@@ -70,65 +91,94 @@ public class SyntheticWorkload implements IWorkload {
       maxTimestampIndexMap.put(schema, 0L);
     }
     queryDeviceRandom = new Random(config.getQUERY_SEED() + clientId);
+    batchPool = new BatchPool(dataTypes, config.getBATCH_SIZE_PER_WRITE(), BATCH_POOL_SIZE);
     operationLoops = new EnumMap<>(Operation.class);
     for (Operation operation : Operation.values()) {
       operationLoops.put(operation, 0L);
     }
   }
 
+  private static String[] initDataTypes() {
+    String[] dataTypes = new String[config.getSENSOR_NUMBER()];
+    for (int i = 0; i < dataTypes.length; i++) {
+      dataTypes[i] = DBUtil.getDataType(i);
+    }
+    return dataTypes;
+  }
+
   /**
    * Init workload values
    *
    * @return
    */
-  private static Object[][] initWorkloadValues() {
-    Object[][] workloadValues = null;
+  private static Object[] initWorkloadValues() {
+    Object[] workloadValues = null;
     if (!config.getOPERATION_PROPORTION().split(":")[0].equals("0")) {
       // if the first number in OPERATION_PROPORTION not equals to 0, then write data
-      workloadValues = new Object[config.getSENSOR_NUMBER()][config.getWORKLOAD_BUFFER_SIZE()];
-      int sensorIndex = 0;
+      int bufferSize = config.getWORKLOAD_BUFFER_SIZE();
+      workloadValues = new Object[config.getSENSOR_NUMBER()];
       for (int j = 0; j < config.getSENSOR_NUMBER(); j++) {
         String sensor = config.getSENSOR_CODES().get(j);
-        for (int i = 0; i < config.getWORKLOAD_BUFFER_SIZE(); i++) {
+        String dataType = dataTypes[j];
+        FunctionParam param = config.getSENSOR_FUNCTION().get(sensor);
+        Object ring;
+        switch (dataType) {
+          case "BOOLEAN":
+            ring = new boolean[bufferSize];
+            break;
+          case "INT32":
+            ring = new int[bufferSize];
+            break;
+          case "INT64":
+            ring = new long[bufferSize];
+            break;
+          case "FLOAT":
+            ring = new float[bufferSize];
+            break;
+          case "DOUBLE":
+            ring = new double[bufferSize];
+            break;
+          default:
+            ring = new byte[bufferSize][];
+            break;
+        }
+        for (int i = 0; i < bufferSize; i++) {
           // This time stamp is only used to generate periodic data. So the timestamp is also
           // periodic
           long currentTimestamp = getCurrentTimestamp(i);
-          Object value;
-          if (DBUtil.getDataType(sensorIndex).equals("TEXT")) {
+          if (dataType.equals("TEXT")) {
             // TEXT case: pick STRING_LENGTH chars to be a String for insertion.
             StringBuilder builder = new StringBuilder(config.getSTRING_LENGTH());
             for (int k = 0; k < config.getSTRING_LENGTH(); k++) {
               builder.append(CHAR_TABLE.charAt(dataRandom.nextInt(CHAR_TABLE.length())));
             }
-            value = builder.toString();
-          } else {
-            // not TEXT case
-            FunctionParam param = config.getSENSOR_FUNCTION().get(sensor);
-            Number number = Function.getValueByFunctionIdAndParam(param, currentTimestamp);
-            switch (DBUtil.getDataType(sensorIndex)) {
-              case "BOOLEAN":
-                value = number.floatValue() > ((param.getMax() + param.getMin()) / 2);
-                break;
-              case "INT32":
-                value = number.intValue();
-                break;
-              case "INT64":
-                value = number.longValue();
-                break;
-              case "FLOAT":
-                value = (float) (Math.round(number.floatValue()));
-                break;
-              case "DOUBLE":
-                value = (double) Math.round(number.doubleValue());
-                break;
-              default:
-                value = null;
-                break;
-            }
+            ((byte[][]) ring)[i] = builder.toString().getBytes(StandardCharsets.UTF_8);
+            continue;
+          }
+          // not TEXT case
+          Number number = Function.getValueByFunctionIdAndParam(param, currentTimestamp);
+          switch (dataType) {
+            case "BOOLEAN":
+              ((boolean[]) ring)[i] =
+                  number.floatValue() > ((param.getMax() + param.getMin()) / 2);
+              break;
+            case "INT32":
+              ((int[]) ring)[i] = number.intValue();
+              break;
+            case "INT64":
+              ((long[]) ring)[i] = number.longValue();
+              break;
+            case "FLOAT":
+              ((float[]) ring)[i] = (float) (Math.round(number.floatValue()));
+              break;
+            case "DOUBLE":
+              ((double[]) ring)[i] = (double) Math.round(number.doubleValue());
+              break;
+            default:
+              break;
           }
-          workloadValues[j][i] = value;
         }
-        sensorIndex++;
+        workloadValues[j] = ring;
       }
     } else {
       LOGGER.info("According to OPERATION_PROPORTION, there is no need to write");
@@ -201,11 +251,8 @@ public class SyntheticWorkload implements IWorkload {
    * @return
    */
   private Batch getOrderedBatch(DeviceSchema deviceSchema, long loopIndex) {
-    Batch batch = new Batch();
-    for (long batchOffset = 0; batchOffset < config.getBATCH_SIZE_PER_WRITE(); batchOffset++) {
-      long stepOffset = loopIndex * config.getBATCH_SIZE_PER_WRITE() + batchOffset;
-      addOneRowIntoBatch(batch, stepOffset);
-    }
+    Batch batch = batchPool.acquire(deviceSchema);
+    addOrderedRowsIntoBatch(batch, loopIndex * config.getBATCH_SIZE_PER_WRITE());
     batch.setDeviceSchema(deviceSchema);
     return batch;
   }
@@ -219,11 +266,10 @@ public class SyntheticWorkload implements IWorkload {
    * @return
    */
   private Batch getOrderedBatch(DeviceSchema deviceSchema, long loopIndex, int colIndex) {
-    Batch batch = new Batch();
-    for (long batchOffset = 0; batchOffset < config.getBATCH_SIZE_PER_WRITE(); batchOffset++) {
-      long stepOffset = loopIndex * config.getBATCH_SIZE_PER_WRITE() + batchOffset;
-      addOneRowIntoBatch(batch, stepOffset, colIndex);
-    }
+    Batch batch = getSensorBatchPool(colIndex).acquire(deviceSchema);
+    long firstStepOffset = loopIndex * config.getBATCH_SIZE_PER_WRITE();
+    addTimestampsIntoBatch(batch, firstStepOffset);
+    copyValuesIntoBatch(batch, 0, colIndex, firstStepOffset);
     batch.setDeviceSchema(deviceSchema);
     return batch;
   }
@@ -235,8 +281,7 @@ public class SyntheticWorkload implements IWorkload {
    * @return
    */
   private Batch getDistOutOfOrderBatch(DeviceSchema deviceSchema) {
-    Batch batch = new Batch();
-    PoissonDistribution poissonDistribution = new PoissonDistribution(poissonRandom);
+    Batch batch = batchPool.acquire(deviceSchema);
     int nextDelta;
     long stepOffset;
     for (long batchOffset = 0; batchOffset < config.getBATCH_SIZE_PER_WRITE(); batchOffset++) {
@@ -263,7 +308,7 @@ public class SyntheticWorkload implements IWorkload {
    * @return
    */
   private Batch getLocalOutOfOrderBatch(DeviceSchema deviceSchema, long loopIndex) {
-    Batch batch = new Batch();
+    Batch batch = batchPool.acquire(deviceSchema);
     // 插入到前面的个数(含)
     long barrier = (long) (config.getBATCH_SIZE_PER_WRITE() * config.getOUT_OF_ORDER_RATIO());
     long beforeOffset = loopIndex * config.getBATCH_SIZE_PER_WRITE();
@@ -292,6 +337,27 @@ public class SyntheticWorkload implements IWorkload {
     return batch;
   }
 
+  private BatchPool getSensorBatchPool(int colIndex) {
+    if (sensorBatchPools[colIndex] == null) {
+      sensorBatchPools[colIndex] =
+          new BatchPool(
+              new String[] {dataTypes[colIndex]},
+              config.getBATCH_SIZE_PER_WRITE(),
+              BATCH_POOL_SIZE);
+    }
+    return sensorBatchPools[colIndex];
+  }
+
+  /**
+   * Create an empty batch whose columns are all sensors
+   *
+   * @param deviceSchema
+   * @return
+   */
+  static Batch newBatch(DeviceSchema deviceSchema) {
+    return new Batch(deviceSchema, dataTypes, config.getBATCH_SIZE_PER_WRITE());
+  }
+
   /**
    * Add one row into batch, row contains data from all sensors
    *
@@ -299,13 +365,12 @@ public class SyntheticWorkload implements IWorkload {
    * @param stepOffset
    */
   static void addOneRowIntoBatch(Batch batch, long stepOffset) {
-    List<Object> values = new ArrayList<>();
     long currentTimestamp = getCurrentTimestamp(stepOffset);
+    int row = batch.addRow(currentTimestamp);
+    int valueIndex = (int) (Math.abs(stepOffset) % config.getWORKLOAD_BUFFER_SIZE());
     for (int i = 0; i < config.getSENSOR_NUMBER(); i++) {
-      values.add(
-          workloadValues[i][(int) (Math.abs(stepOffset) % config.getWORKLOAD_BUFFER_SIZE())]);
+      setValue(batch, row, i, i, valueIndex);
     }
-    batch.add(currentTimestamp, values);
   }
 
   /**
@@ -316,11 +381,83 @@ public class SyntheticWorkload implements IWorkload {
    * @param colIndex
    */
   static void addOneRowIntoBatch(Batch batch, long stepOffset, int colIndex) {
-    List<Object> values = new ArrayList<>();
     long currentTimestamp = getCurrentTimestamp(stepOffset);
-    values.add(
-        workloadValues[colIndex][(int) (Math.abs(stepOffset) % config.getWORKLOAD_BUFFER_SIZE())]);
-    batch.add(currentTimestamp, values);
+    int row = batch.addRow(currentTimestamp);
+    int valueIndex = (int) (Math.abs(stepOffset) % config.getWORKLOAD_BUFFER_SIZE());
+    setValue(batch, row, 0, colIndex, valueIndex);
+  }
+
+  /**
+   * Add BATCH_SIZE_PER_WRITE rows with consecutive step offsets into batch, rows contain data from
+   * all sensors
+   *
+   * @param batch
+   * @param firstStepOffset step offset of the first row
+   */
+  static void addOrderedRowsIntoBatch(Batch batch, long firstStepOffset) {
+    addTimestampsIntoBatch(batch, firstStepOffset);
+    for (int i = 0; i < config.getSENSOR_NUMBER(); i++) {
+      copyValuesIntoBatch(batch, i, i, firstStepOffset);
+    }
+  }
+
+  /**
+   * Add BATCH_SIZE_PER_WRITE rows with consecutive step offsets into batch, only timestamps are set
+   *
+   * @param batch
+   * @param firstStepOffset step offset of the first row
+   */
+  private static void addTimestampsIntoBatch(Batch batch, long firstStepOffset) {
+    for (long batchOffset = 0; batchOffset < config.getBATCH_SIZE_PER_WRITE(); batchOffset++) {
+      batch.addRow(getCurrentTimestamp(firstStepOffset + batchOffset));
+    }
+  }
+
+  /**
+   * Copy the buffered values of sensor into all rows of the typed column of batch, rows have
+   * consecutive step offsets, so values are copied by ranges of the ring
+   *
+   * @param batch
+   * @param col
+   * @param sensorIndex
+   * @param firstStepOffset step offset of the first row
+   */
+  private static void copyValuesIntoBatch(
+      Batch batch, int col, int sensorIndex, long firstStepOffset) {
+    int bufferSize = config.getWORKLOAD_BUFFER_SIZE();
+    int valueIndex = (int) (firstStepOffset % bufferSize);
+    int row = 0;
+    while (row < batch.getRowSize()) {
+      int length = Math.min(batch.getRowSize() - row, bufferSize - valueIndex);
+      batch.copyColumn(col, workloadValues[sensorIndex], valueIndex, row, length);
+      row += length;
+      valueIndex = 0;
+    }
+  }
+
+  /** Copy the buffered value of sensor into the typed column of batch */
+  private static void setValue(Batch batch, int row, int col, int sensorIndex, int valueIndex) {
+    Object ring = workloadValues[sensorIndex];
+    switch (dataTypes[sensorIndex]) {
+      case "BOOLEAN":
+        batch.setBoolean(row, col, ((boolean[]) ring)[valueIndex]);
+        break;
+      case "INT32":
+        batch.setInt(row, col, ((int[]) ring)[valueIndex]);
+        break;
+      case "INT64":
+        batch.setLong(row, col, ((long[]) ring)[valueIndex]);
+        break;
+      case "FLOAT":
+        batch.setFloat(row, col, ((float[]) ring)[valueIndex]);
+        break;
+      case "DOUBLE":
+        batch.setDouble(row, col, ((double[]) ring)[valueIndex]);
+        break;
+      default:
+        batch.setText(row, col, ((byte[][]) ring)[valueIndex]);
+        break;
+    }
   }
 
   private List<DeviceSchema> getQueryDeviceSchemaList() throws WorkloadException {
@@ -27,52 +27,407 @@ import org.apache.commons.lang3.builder.HashCodeBuilder;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.util.LinkedList;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Batch uses the column protocol: timestamps are kept in a long[] and each column (sensor) is kept
+ * in a primitive array whose type is decided by its data type (BOOLEAN -> boolean[], INT32 ->
+ * int[], INT64 -> long[], FLOAT -> float[], DOUBLE -> double[], TEXT -> byte[][]). TEXT values are
+ * byte slices which may be shared with the workload buffer, so they must not be modified.
+ *
+ * <p>A batch taken from a {@link BatchPool} is reference counted: whoever keeps using the batch
+ * after handing it over, e.g. to send it asynchronously, calls {@link #retain()} first and {@link
+ * #release()} when done. The batch goes back to the pool when the count drops to 0 and must not be
+ * used any more.
+ */
 public class Batch {
 
+  private static final int DEFAULT_CAPACITY = 16;
+
   private DeviceSchema deviceSchema;
-  private List<Record> records;
+  /** data type of each column, e.g. INT32 */
+  private String[] dataTypes;
+
+  private long[] timestamps;
+  /** one primitive array per column */
+  private Object[] columns;
+
+  private int rowSize;
   private int colIndex = -1;
   private String colType;
 
+  /** boxed row view, only materialized on demand */
+  private List<Record> records;
+
+  /** pool which the batch goes back to, null if the batch is not pooled */
+  private BatchPool pool;
+
+  private final AtomicInteger refCount = new AtomicInteger(0);
+
+  /** Create an empty batch whose column types are inferred from the first added row */
   public Batch() {
-    records = new LinkedList<>();
+    this.timestamps = new long[DEFAULT_CAPACITY];
+  }
+
+  /**
+   * Create an empty batch with fixed column types
+   *
+   * @param deviceSchema schema of device
+   * @param dataTypes data type of each column
+   * @param capacity expected row number
+   */
+  public Batch(DeviceSchema deviceSchema, String[] dataTypes, int capacity) {
+    this.deviceSchema = deviceSchema;
+    initColumns(dataTypes, Math.max(capacity, 1));
   }
 
+  /** Create batch from records, column types are inferred from the values of the first record */
   public Batch(DeviceSchema deviceSchema, List<Record> records) {
+    this();
     this.deviceSchema = deviceSchema;
-    this.records = records;
+    for (Record record : records) {
+      add(record.getTimestamp(), record.getRecordDataValue());
+    }
+  }
+
+  private void initColumns(String[] dataTypes, int capacity) {
+    this.dataTypes = dataTypes;
+    this.timestamps = new long[capacity];
+    this.columns = new Object[dataTypes.length];
+    for (int i = 0; i < dataTypes.length; i++) {
+      columns[i] = newColumn(dataTypes[i], capacity);
+    }
+  }
+
+  private static Object newColumn(String dataType, int capacity) {
+    switch (dataType) {
+      case "BOOLEAN":
+        return new boolean[capacity];
+      case "INT32":
+        return new int[capacity];
+      case "INT64":
+        return new long[capacity];
+      case "FLOAT":
+        return new float[capacity];
+      case "DOUBLE":
+        return new double[capacity];
+      case "TEXT":
+        return new byte[capacity][];
+      default:
+        throw new IllegalArgumentException("Unsupported data type: " + dataType);
+    }
   }
 
+  private static String inferDataType(Object value) {
+    if (value instanceof Boolean) {
+      return "BOOLEAN";
+    } else if (value instanceof Integer) {
+      return "INT32";
+    } else if (value instanceof Long) {
+      return "INT64";
+    } else if (value instanceof Float) {
+      return "FLOAT";
+    } else if (value instanceof Double) {
+      return "DOUBLE";
+    } else {
+      return "TEXT";
+    }
+  }
+
+  private void ensureCapacity(int capacity) {
+    if (capacity <= timestamps.length) {
+      return;
+    }
+    int newCapacity = Math.max(capacity, timestamps.length << 1);
+    timestamps = Arrays.copyOf(timestamps, newCapacity);
+    for (int i = 0; i < columns.length; i++) {
+      Object column = columns[i];
+      Object newColumn = newColumn(dataTypes[i], newCapacity);
+      System.arraycopy(column, 0, newColumn, 0, rowSize);
+      columns[i] = newColumn;
+    }
+  }
+
+  /**
+   * Append a new row, values of the row should be set by the typed setters afterwards
+   *
+   * @param timestamp timestamp of the row
+   * @return index of the new row
+   */
+  public int addRow(long timestamp) {
+    ensureCapacity(rowSize + 1);
+    timestamps[rowSize] = timestamp;
+    records = null;
+    return rowSize++;
+  }
+
+  /** Add a user of the pooled batch */
+  public void retain() {
+    refCount.incrementAndGet();
+  }
+
+  /** Remove a user of the pooled batch, the last one gives the batch back to its pool */
+  public void release() {
+    if (pool != null && refCount.decrementAndGet() == 0) {
+      pool.recycle(this);
+    }
+  }
+
+  void setPool(BatchPool pool) {
+    this.pool = pool;
+  }
+
+  /** Remove all rows and keep the columns, so the batch could be filled again */
+  void clear() {
+    rowSize = 0;
+    records = null;
+    colIndex = -1;
+    colType = null;
+  }
+
+  /** Append a row of boxed values, slower than {@link #addRow(long)} with the typed setters */
   public void add(long timestamp, List<Object> values) {
-    records.add(new Record(timestamp, values));
+    if (columns == null) {
+      String[] types = new String[values.size()];
+      for (int i = 0; i < types.length; i++) {
+        types[i] = inferDataType(values.get(i));
+      }
+      initColumns(types, timestamps.length);
+    }
+    int row = addRow(timestamp);
+    for (int col = 0; col < values.size(); col++) {
+      setValue(row, col, values.get(col));
+    }
+  }
+
+  public void setBoolean(int row, int col, boolean value) {
+    ((boolean[]) columns[col])[row] = value;
+  }
+
+  public void setInt(int row, int col, int value) {
+    ((int[]) columns[col])[row] = value;
+  }
+
+  public void setLong(int row, int col, long value) {
+    ((long[]) columns[col])[row] = value;
+  }
+
+  public void setFloat(int row, int col, float value) {
+    ((float[]) columns[col])[row] = value;
+  }
+
+  public void setDouble(int row, int col, double value) {
+    ((double[]) columns[col])[row] = value;
+  }
+
+  public void setText(int row, int col, byte[] value) {
+    ((byte[][]) columns[col])[row] = value;
   }
 
   /**
-   * use the row protocol which means data are organized in List[timestamp, List[value]]
+   * Copy values from a primitive array of the same type into the column
+   *
+   * @param col column index
+   * @param source boolean[], int[], long[], float[], double[] or byte[][] as the column
+   * @param sourcePos start index in source
+   * @param row first row to be set
+   * @param length number of rows to be set
+   */
+  public void copyColumn(int col, Object source, int sourcePos, int row, int length) {
+    System.arraycopy(source, sourcePos, columns[col], row, length);
+  }
+
+  /** Set a boxed value, TEXT value could be String or byte[] */
+  public void setValue(int row, int col, Object value) {
+    switch (dataTypes[col]) {
+      case "BOOLEAN":
+        setBoolean(row, col, (boolean) value);
+        break;
+      case "INT32":
+        setInt(row, col, ((Number) value).intValue());
+        break;
+      case "INT64":
+        setLong(row, col, ((Number) value).longValue());
+        break;
+      case "FLOAT":
+        setFloat(row, col, ((Number) value).floatValue());
+        break;
+      case "DOUBLE":
+        setDouble(row, col, ((Number) value).doubleValue());
+        break;
+      default:
+        if (value == null || value instanceof byte[]) {
+          setText(row, col, (byte[]) value);
+        } else {
+          setText(row, col, value.toString().getBytes(StandardCharsets.UTF_8));
+        }
+        break;
+    }
+  }
+
+  public long getTimestamp(int row) {
+    return timestamps[row];
+  }
+
+  public boolean getBoolean(int row, int col) {
+    return ((boolean[]) columns[col])[row];
+  }
+
+  public int getInt(int row, int col) {
+    return ((int[]) columns[col])[row];
+  }
+
+  public long getLong(int row, int col) {
+    return ((long[]) columns[col])[row];
+  }
+
+  public float getFloat(int row, int col) {
+    return ((float[]) columns[col])[row];
+  }
+
+  public double getDouble(int row, int col) {
+    return ((double[]) columns[col])[row];
+  }
+
+  public byte[] getText(int row, int col) {
+    return ((byte[][]) columns[col])[row];
+  }
+
+  /** TEXT value decoded as String */
+  public String getString(int row, int col) {
+    byte[] bytes = getText(row, col);
+    return bytes == null ? null : new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  /** Boxed value, TEXT is returned as String. Only for slow paths. */
+  public Object getValue(int row, int col) {
+    switch (dataTypes[col]) {
+      case "BOOLEAN":
+        return getBoolean(row, col);
+      case "INT32":
+        return getInt(row, col);
+      case "INT64":
+        return getLong(row, col);
+      case "FLOAT":
+        return getFloat(row, col);
+      case "DOUBLE":
+        return getDouble(row, col);
+      default:
+        return getString(row, col);
+    }
+  }
+
+  /**
+   * Append the value as SQL literal text without boxing. TEXT is appended without quotes.
+   *
+   * @param builder target builder
+   * @param row row index
+   * @param col column index
+   */
+  public StringBuilder appendValue(StringBuilder builder, int row, int col) {
+    switch (dataTypes[col]) {
+      case "BOOLEAN":
+        return builder.append(getBoolean(row, col));
+      case "INT32":
+        return builder.append(getInt(row, col));
+      case "INT64":
+        return builder.append(getLong(row, col));
+      case "FLOAT":
+        return builder.append(getFloat(row, col));
+      case "DOUBLE":
+        return builder.append(getDouble(row, col));
+      default:
+        byte[] bytes = getText(row, col);
+        if (bytes == null) {
+          return builder.append((String) null);
+        }
+        return builder.append(new String(bytes, StandardCharsets.UTF_8));
+    }
+  }
+
+  /** Boxed values of one row, TEXT is returned as String. Only for slow paths. */
+  public List<Object> getRowValues(int row) {
+    List<Object> values = new ArrayList<>(getColumnSize());
+    for (int col = 0; col < getColumnSize(); col++) {
+      values.add(getValue(row, col));
+    }
+    return values;
+  }
+
+  public int getRowSize() {
+    return rowSize;
+  }
+
+  public int getColumnSize() {
+    return dataTypes == null ? 0 : dataTypes.length;
+  }
+
+  public String getDataType(int col) {
+    return dataTypes[col];
+  }
+
+  /**
+   * Get the sensor of one column. The schema of a single-sensor batch (colIndex != -1) normally
+   * only contains that sensor, a schema of the whole device is also accepted.
+   *
+   * @param col column index in batch
+   * @return name of sensor
+   */
+  public String getSensor(int col) {
+    List<String> sensors = deviceSchema.getSensors();
+    if (colIndex != -1 && sensors.size() > 1) {
+      return sensors.get(colIndex);
+    }
+    return sensors.get(col);
+  }
+
+  /**
+   * The backing timestamp array, its length may be larger than {@link #getRowSize()}
+   *
+   * @return timestamps
+   */
+  public long[] getTimestamps() {
+    return timestamps;
+  }
+
+  /**
+   * The backing primitive array of column, its length may be larger than {@link #getRowSize()}
+   *
+   * @param col column index
+   * @return boolean[], int[], long[], float[], double[] or byte[][]
+   */
+  public Object getColumn(int col) {
+    return columns[col];
+  }
+
+  /**
+   * use the column protocol which means data are organized in [timestamps, columns]
    *
    * @return data point number in this batch
    */
   public int pointNum() {
-    int pointNum = 0;
-    for (Record record : records) {
-      pointNum += record.size();
-    }
-    return pointNum;
+    return rowSize * getColumnSize();
   }
 
   /**
-   * serialize to output stream
+   * serialize to output stream, compatible with the row format
    *
    * @param outputStream output stream
    */
   public void serialize(ByteArrayOutputStream outputStream) throws IOException {
     deviceSchema.serialize(outputStream);
-    ReadWriteIOUtils.write(records.size(), outputStream);
-    for (Record record : records) {
-      record.serialize(outputStream);
+    ReadWriteIOUtils.write(rowSize, outputStream);
+    int columnSize = getColumnSize();
+    for (int row = 0; row < rowSize; row++) {
+      ReadWriteIOUtils.write(timestamps[row], outputStream);
+      ReadWriteIOUtils.write(columnSize, outputStream);
+      for (int col = 0; col < columnSize; col++) {
+        ReadWriteIOUtils.writeObject(getValue(row, col), outputStream);
+      }
     }
   }
 
@@ -84,12 +439,13 @@ public class Batch {
   public static Batch deserialize(ByteArrayInputStream inputStream) throws IOException {
     DeviceSchema deviceSchema = DeviceSchema.deserialize(inputStream);
     int size = ReadWriteIOUtils.readInt(inputStream);
-    List<Record> records = new LinkedList<>();
+    Batch batch = new Batch();
+    batch.setDeviceSchema(deviceSchema);
     for (int i = 0; i < size; i++) {
-      records.add(Record.deserialize(inputStream));
+      Record record = Record.deserialize(inputStream);
+      batch.add(record.getTimestamp(), record.getRecordDataValue());
     }
-
-    return new Batch(deviceSchema, records);
+    return batch;
   }
 
   public DeviceSchema getDeviceSchema() {
@@ -116,7 +472,19 @@ public class Batch {
     return colType;
   }
 
+  /**
+   * Boxed row view of this batch, which is built on first call. Prefer the typed accessors.
+   *
+   * @return records
+   */
   public List<Record> getRecords() {
+    if (records == null) {
+      List<Record> view = new ArrayList<>(rowSize);
+      for (int row = 0; row < rowSize; row++) {
+        view.add(new Record(timestamps[row], getRowValues(row)));
+      }
+      records = view;
+    }
     return records;
   }
 
@@ -134,17 +502,17 @@ public class Batch {
 
     return new EqualsBuilder()
         .append(deviceSchema, batch.deviceSchema)
-        .append(records, batch.records)
+        .append(getRecords(), batch.getRecords())
         .isEquals();
   }
 
   @Override
   public String toString() {
-    return "Batch{" + "deviceSchema=" + deviceSchema + ", records=" + records + '}';
+    return "Batch{" + "deviceSchema=" + deviceSchema + ", records=" + getRecords() + '}';
   }
 
   @Override
   public int hashCode() {
-    return new HashCodeBuilder(17, 37).append(deviceSchema).append(records).toHashCode();
+    return new HashCodeBuilder(17, 37).append(deviceSchema).append(getRecords()).toHashCode();
   }
 }
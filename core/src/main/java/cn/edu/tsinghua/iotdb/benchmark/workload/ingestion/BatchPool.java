@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package cn.edu.tsinghua.iotdb.benchmark.workload.ingestion;
+
+import cn.edu.tsinghua.iotdb.benchmark.workload.schema.DeviceSchema;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Pool of batches with the same column types, so that the primitive columns are reused across loops
+ * instead of being allocated for every batch. A batch taken from the pool goes back when its last
+ * user calls {@link Batch#release()}, which may happen in another thread if the batch is sent
+ * asynchronously. If all the pooled batches are in use, a new one is created.
+ */
+public class BatchPool {
+
+  private final String[] dataTypes;
+  private final int capacity;
+  private final BlockingQueue<Batch> idleBatches;
+
+  /**
+   * @param dataTypes data type of each column
+   * @param capacity expected row number of each batch
+   * @param size max number of idle batches kept in the pool
+   */
+  public BatchPool(String[] dataTypes, int capacity, int size) {
+    this.dataTypes = dataTypes;
+    this.capacity = capacity;
+    this.idleBatches = new ArrayBlockingQueue<>(Math.max(size, 1));
+  }
+
+  /**
+   * Get an empty batch, its reference count is 1
+   *
+   * @param deviceSchema schema of device
+   */
+  public Batch acquire(DeviceSchema deviceSchema) {
+    Batch batch = idleBatches.poll();
+    if (batch == null) {
+      batch = new Batch(deviceSchema, dataTypes, capacity);
+      batch.setPool(this);
+    } else {
+      batch.setDeviceSchema(deviceSchema);
+    }
+    batch.retain();
+    return batch;
+  }
+
+  /** Called by the last {@link Batch#release()}, the batch is dropped if the pool is full */
+  void recycle(Batch batch) {
+    batch.clear();
+    idleBatches.offer(batch);
+  }
+
+  /** @return number of idle batches */
+  public int getIdleSize() {
+    return idleBatches.size();
+  }
+}
@@ -29,6 +29,7 @@ import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileReader;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -124,9 +125,35 @@ public abstract class BasicReader {
     return !cachedLines.isEmpty();
   }
 
-  /** convert the cachedLines to Record list */
+  /** convert the cachedLines to Batch */
   public abstract Batch nextBatch();
 
+  /**
+   * Create an empty batch for cachedLines, all fields of real data set are DOUBLE
+   *
+   * @param deviceSchema schema of current device
+   * @param fieldNumber number of fields in one line
+   */
+  protected Batch newBatch(DeviceSchema deviceSchema, int fieldNumber) {
+    String[] dataTypes = new String[fieldNumber];
+    Arrays.fill(dataTypes, "DOUBLE");
+    return new Batch(deviceSchema, dataTypes, cachedLines.size());
+  }
+
+  /**
+   * Append one parsed line into batch
+   *
+   * @param batch target batch
+   * @param time timestamp of line
+   * @param fields parsed fields of line
+   */
+  protected static void addRow(Batch batch, long time, double[] fields) {
+    int row = batch.addRow(time);
+    for (int col = 0; col < fields.length; col++) {
+      batch.setDouble(row, col, fields[col]);
+    }
+  }
+
   /**
    * initialize when start reading a file maybe skip the first lines maybe init the
    * tagValue(deviceId) from file name
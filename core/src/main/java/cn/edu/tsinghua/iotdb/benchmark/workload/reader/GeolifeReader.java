@@ -21,14 +21,12 @@ package cn.edu.tsinghua.iotdb.benchmark.workload.reader;
 
 import cn.edu.tsinghua.iotdb.benchmark.conf.Config;
 import cn.edu.tsinghua.iotdb.benchmark.workload.ingestion.Batch;
-import cn.edu.tsinghua.iotdb.benchmark.workload.ingestion.Record;
 import cn.edu.tsinghua.iotdb.benchmark.workload.schema.DeviceSchema;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
-import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 
@@ -38,24 +36,24 @@ public class GeolifeReader extends BasicReader {
   private static Logger logger = LoggerFactory.getLogger(GeolifeReader.class);
   private DateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd-hh:mm:ss");
   private DeviceSchema deviceSchema;
+  private final double[] fields = new double[4];
 
   public GeolifeReader(Config config, List<String> files) {
     super(config, files);
   }
 
-  private Record convertToRecord(String line) {
+  private void convertToRow(Batch batch, String line) {
     try {
-      List<Object> fields = new ArrayList<>();
       String[] items = line.split(",");
 
-      fields.add(Double.valueOf(items[0]));
-      fields.add(Double.valueOf(items[1]));
-      fields.add(Double.valueOf(items[2]));
-      fields.add(Double.valueOf(items[3]));
+      fields[0] = Double.parseDouble(items[0]);
+      fields[1] = Double.parseDouble(items[1]);
+      fields[2] = Double.parseDouble(items[2]);
+      fields[3] = Double.parseDouble(items[3]);
 
       Date date = dateFormat.parse(items[5] + "-" + items[6]);
       long time = date.getTime();
-      return new Record(time, fields);
+      addRow(batch, time, fields);
     } catch (Exception ignore) {
       logger.warn(
           "can not parse: {}, error message: {}, File name: {}",
@@ -63,7 +61,6 @@ public class GeolifeReader extends BasicReader {
           ignore.getMessage(),
           currentFile);
     }
-    return null;
   }
 
   @Override
@@ -83,13 +80,10 @@ public class GeolifeReader extends BasicReader {
 
   @Override
   public Batch nextBatch() {
-    List<Record> records = new ArrayList<>();
+    Batch batch = newBatch(deviceSchema, fields.length);
     for (String line : cachedLines) {
-      Record record = convertToRecord(line);
-      if (record != null) {
-        records.add(record);
-      }
+      convertToRow(batch, line);
     }
-    return new Batch(deviceSchema, records);
+    return batch;
   }
 }
@@ -21,7 +21,6 @@ package cn.edu.tsinghua.iotdb.benchmark.workload.reader;
 
 import cn.edu.tsinghua.iotdb.benchmark.conf.Config;
 import cn.edu.tsinghua.iotdb.benchmark.workload.ingestion.Batch;
-import cn.edu.tsinghua.iotdb.benchmark.workload.ingestion.Record;
 import cn.edu.tsinghua.iotdb.benchmark.workload.schema.DeviceSchema;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -29,7 +28,6 @@ import org.slf4j.LoggerFactory;
 import java.io.File;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
-import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 
@@ -38,6 +36,7 @@ public class NOAAReader extends BasicReader {
   private static Logger logger = LoggerFactory.getLogger(NOAAReader.class);
   private DateFormat dateFormat = new SimpleDateFormat("yyyyMMdd");
   private DeviceSchema deviceSchema;
+  private final double[] fields = new double[13];
 
   public NOAAReader(Config config, List<String> files) {
     super(config, files);
@@ -59,44 +58,38 @@ public class NOAAReader extends BasicReader {
 
   @Override
   public Batch nextBatch() {
-    List<Record> records = new ArrayList<>();
+    Batch batch = newBatch(deviceSchema, fields.length);
     for (String line : cachedLines) {
-      Record record = convertToRecord(line);
-      if (record != null) {
-        records.add(record);
-      }
+      convertToRow(batch, line);
     }
-    return new Batch(deviceSchema, records);
+    return batch;
   }
 
-  private Record convertToRecord(String line) {
+  private void convertToRow(Batch batch, String line) {
     try {
-      List<Object> fields = new ArrayList<>();
-
       // add 70 years, make sure time > 0
       String yearmoda = line.substring(14, 22).trim();
       Date date = dateFormat.parse(yearmoda);
       long time = date.getTime() + 2209046400000L;
 
-      fields.add(Double.valueOf(line.substring(24, 30).trim()));
-      fields.add(Double.valueOf(line.substring(35, 41).trim()));
-      fields.add(Double.valueOf(line.substring(46, 52).trim()));
-      fields.add(Double.valueOf(line.substring(57, 63).trim()));
-      fields.add(Double.valueOf(line.substring(68, 73).trim()));
-      fields.add(Double.valueOf(line.substring(78, 83).trim()));
-      fields.add(Double.valueOf(line.substring(88, 93).trim()));
-      fields.add(Double.valueOf(line.substring(95, 100).trim()));
-      fields.add(Double.valueOf(line.substring(102, 108).trim()));
-      fields.add(Double.valueOf(line.substring(110, 116).trim()));
-      fields.add(Double.valueOf(line.substring(118, 123).trim()));
-      fields.add(Double.valueOf(line.substring(125, 130).trim()));
-      fields.add(Double.valueOf(line.substring(132, 138).trim()));
+      fields[0] = Double.parseDouble(line.substring(24, 30).trim());
+      fields[1] = Double.parseDouble(line.substring(35, 41).trim());
+      fields[2] = Double.parseDouble(line.substring(46, 52).trim());
+      fields[3] = Double.parseDouble(line.substring(57, 63).trim());
+      fields[4] = Double.parseDouble(line.substring(68, 73).trim());
+      fields[5] = Double.parseDouble(line.substring(78, 83).trim());
+      fields[6] = Double.parseDouble(line.substring(88, 93).trim());
+      fields[7] = Double.parseDouble(line.substring(95, 100).trim());
+      fields[8] = Double.parseDouble(line.substring(102, 108).trim());
+      fields[9] = Double.parseDouble(line.substring(110, 116).trim());
+      fields[10] = Double.parseDouble(line.substring(118, 123).trim());
+      fields[11] = Double.parseDouble(line.substring(125, 130).trim());
+      fields[12] = Double.parseDouble(line.substring(132, 138).trim());
 
-      return new Record(time, fields);
+      addRow(batch, time, fields);
     } catch (Exception e) {
       logger.warn(
           "can not parse: {}, error message: {}, File name: {}", line, e.getMessage(), currentFile);
     }
-    return null;
   }
 }
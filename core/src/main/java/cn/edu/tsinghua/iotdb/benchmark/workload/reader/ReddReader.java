@@ -21,17 +21,16 @@ package cn.edu.tsinghua.iotdb.benchmark.workload.reader;
 
 import cn.edu.tsinghua.iotdb.benchmark.conf.Config;
 import cn.edu.tsinghua.iotdb.benchmark.workload.ingestion.Batch;
-import cn.edu.tsinghua.iotdb.benchmark.workload.ingestion.Record;
 import cn.edu.tsinghua.iotdb.benchmark.workload.schema.DeviceSchema;
 
 import java.io.File;
-import java.util.ArrayList;
 import java.util.List;
 
 /** DeviceID: house_1_channel_1 sensor: v */
 public class ReddReader extends BasicReader {
 
   private DeviceSchema deviceSchema;
+  private final double[] fields = new double[1];
 
   public ReddReader(Config config, List<String> files) {
     super(config, files);
@@ -51,26 +50,21 @@ public class ReddReader extends BasicReader {
 
   @Override
   public Batch nextBatch() {
-    List<Record> records = new ArrayList<>();
+    Batch batch = newBatch(deviceSchema, fields.length);
     for (String line : cachedLines) {
-      Record record = convertToRecord(line);
-      if (record != null) {
-        records.add(record);
-      }
+      convertToRow(batch, line);
     }
-    return new Batch(deviceSchema, records);
+    return batch;
   }
 
-  private Record convertToRecord(String line) {
+  private void convertToRow(Batch batch, String line) {
     try {
-      List<Object> fields = new ArrayList<>();
       String[] items = line.split(" ");
       long time = Long.parseLong(items[0]) * 1000;
-      fields.add(Double.valueOf(items[1]));
-      return new Record(time, fields);
+      fields[0] = Double.parseDouble(items[1]);
+      addRow(batch, time, fields);
     } catch (Exception ignore) {
       ignore.printStackTrace();
     }
-    return null;
   }
 }
@@ -21,7 +21,6 @@ package cn.edu.tsinghua.iotdb.benchmark.workload.reader;
 
 import cn.edu.tsinghua.iotdb.benchmark.conf.Config;
 import cn.edu.tsinghua.iotdb.benchmark.workload.ingestion.Batch;
-import cn.edu.tsinghua.iotdb.benchmark.workload.ingestion.Record;
 import cn.edu.tsinghua.iotdb.benchmark.workload.schema.DeviceSchema;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -40,6 +39,7 @@ public class TDriveReader extends BasicReader {
   private DateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd hh:mm:ss");
 
   private DeviceSchema deviceSchema;
+  private final double[] fields = new double[2];
   private List<String> sensors = new ArrayList<>();
 
   public TDriveReader(Config config, List<String> files) {
@@ -58,33 +58,27 @@ public class TDriveReader extends BasicReader {
 
   @Override
   public Batch nextBatch() {
-    List<Record> records = new ArrayList<>();
+    Batch batch = newBatch(deviceSchema, fields.length);
     for (String line : cachedLines) {
-      Record record = convertToRecord(line);
-      if (record != null) {
-        records.add(record);
-      }
+      convertToRow(batch, line);
     }
-    return new Batch(deviceSchema, records);
+    return batch;
   }
 
-  private Record convertToRecord(String line) {
+  private void convertToRow(Batch batch, String line) {
 
     try {
-      List<Object> fields = new ArrayList<>();
-
       String[] items = line.split(",");
 
-      fields.add(Double.valueOf(items[2]));
-      fields.add(Double.valueOf(items[3]));
+      fields[0] = Double.parseDouble(items[2]);
+      fields[1] = Double.parseDouble(items[3]);
 
       Date date = dateFormat.parse(items[1]);
       long time = date.getTime();
 
-      return new Record(time, fields);
+      addRow(batch, time, fields);
     } catch (Exception ignore) {
       ignore.printStackTrace();
     }
-    return null;
   }
 }
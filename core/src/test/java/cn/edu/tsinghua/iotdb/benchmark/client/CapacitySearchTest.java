@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package cn.edu.tsinghua.iotdb.benchmark.client;
+
+import cn.edu.tsinghua.iotdb.benchmark.measurement.WindowRecorder;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/** CapacitySearch Tester. */
+public class CapacitySearchTest {
+
+  /** Method: nextLoad(), the load doubles until unsustainable, then it is binary searched */
+  @Test
+  public void testNextLoadByRate() {
+    assertEquals(2000, CapacitySearch.nextLoad(1000, 0, 0, 0.05, false), 0);
+    // limited by the max load
+    assertEquals(3000, CapacitySearch.nextLoad(2000, 0, 3000, 0.05, false), 0);
+    assertEquals(-1, CapacitySearch.nextLoad(3000, 0, 3000, 0.05, false), 0);
+    // binary search
+    assertEquals(3000, CapacitySearch.nextLoad(2000, 4000, 0, 0.05, false), 0);
+    assertEquals(500, CapacitySearch.nextLoad(0, 1000, 0, 0.05, false), 0);
+    assertEquals(-1, CapacitySearch.nextLoad(3900, 4000, 0, 0.05, false), 0);
+  }
+
+  /** Method: nextLoad(), the number of clients is searched until the range is 1 */
+  @Test
+  public void testNextLoadByClient() {
+    assertEquals(8, CapacitySearch.nextLoad(4, 0, 10, 0.05, true), 0);
+    assertEquals(10, CapacitySearch.nextLoad(8, 0, 10, 0.05, true), 0);
+    assertEquals(9, CapacitySearch.nextLoad(8, 10, 10, 0.05, true), 0);
+    assertEquals(-1, CapacitySearch.nextLoad(8, 9, 10, 0.05, true), 0);
+    assertEquals(-1, CapacitySearch.nextLoad(0, 1, 10, 0.05, true), 0);
+  }
+
+  /** Method: evaluate(), a step is sustainable if it meets the latency SLO and error rate */
+  @Test
+  public void testEvaluate() {
+    CapacitySearch capacitySearch = new CapacitySearch();
+    WindowRecorder recorder = new WindowRecorder();
+    for (int i = 0; i < 100; i++) {
+      recorder.recordOkOperation(Operation.INGESTION, 1);
+      recorder.addOkPointNum(Operation.INGESTION, 10);
+    }
+    WindowRecorder.Window window = new WindowRecorder.Window();
+    recorder.sampleInto(window);
+    CapacitySearch.StepResult result = capacitySearch.evaluate(1000, window, 2);
+    assertTrue(result.isSustainable());
+    assertEquals(500, result.getAchievedRate(), 1e-9);
+
+    // too many failed operations
+    recorder.recordOkOperation(Operation.INGESTION, 1);
+    recorder.addFailOperationNum(Operation.INGESTION);
+    window.reset();
+    recorder.sampleInto(window);
+    assertFalse(capacitySearch.evaluate(1000, window, 1).isSustainable());
+
+    // latency over SLO
+    for (int i = 0; i < 100; i++) {
+      recorder.recordOkOperation(Operation.PRECISE_QUERY, 1000);
+    }
+    window.reset();
+    recorder.sampleInto(window);
+    assertFalse(capacitySearch.evaluate(1000, window, 1).isSustainable());
+
+    // no operation is finished
+    window.reset();
+    assertFalse(capacitySearch.evaluate(1000, window, 1).isSustainable());
+  }
+}
@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package cn.edu.tsinghua.iotdb.benchmark.client;
+
+import cn.edu.tsinghua.iotdb.benchmark.workload.WorkloadException;
+import cn.edu.tsinghua.iotdb.benchmark.workload.ingestion.Batch;
+import cn.edu.tsinghua.iotdb.benchmark.workload.ingestion.BatchPool;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/** IngestionPipeline Tester. */
+public class IngestionPipelineTest {
+
+  private static final String[] DATA_TYPES = {"INT64"};
+
+  /** Method: take(), batches are sent in the generated order and the queue is bounded */
+  @Test
+  public void testOrder() throws Exception {
+    BatchPool pool = new BatchPool(DATA_TYPES, 1, 8);
+    AtomicLong generated = new AtomicLong();
+    IngestionPipeline pipeline =
+        new IngestionPipeline(
+            "test-generator",
+            2,
+            () -> {
+              Batch batch = pool.acquire(null);
+              batch.addRow(generated.getAndIncrement());
+              return batch;
+            });
+    pipeline.start();
+    for (long i = 0; i < 100; i++) {
+      Batch batch = pipeline.take();
+      assertEquals(i, batch.getTimestamp(0));
+      // the sent batches are kept, so the pool only gets those released by close()
+    }
+    Thread.sleep(50);
+    // at most depth batches in the queue and one waiting to be put
+    assertTrue(generated.get() <= 100 + 3);
+    pipeline.close();
+    // the batches left in the queue go back to the pool
+    assertEquals(generated.get() - 100, pool.getIdleSize());
+  }
+
+  /** Method: take(), the failure of generator is thrown to the sender */
+  @Test
+  public void testFailure() throws InterruptedException {
+    IngestionPipeline pipeline =
+        new IngestionPipeline(
+            "test-generator",
+            2,
+            () -> {
+              throw new WorkloadException("unsupported");
+            });
+    pipeline.start();
+    for (int i = 0; i < 2; i++) {
+      try {
+        pipeline.take();
+        fail();
+      } catch (WorkloadException e) {
+        assertEquals("unsupported", e.getCause().getMessage());
+      }
+    }
+    pipeline.close();
+  }
+}
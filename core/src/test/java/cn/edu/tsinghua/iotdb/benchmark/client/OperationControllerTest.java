@@ -62,4 +62,36 @@ public class OperationControllerTest {
       assertEquals(Operation.PRECISE_QUERY, operationController.getNextOperationType());
     }
   }
+
+  @Test
+  public void testInterleavedOperation() {
+    config.setOPERATION_PROPORTION("9:1:0:0:0:0:0:0:0:0:0");
+    config.setIS_OPERATION_INTERLEAVED(true);
+    OperationController controller = new OperationController(3);
+    for (int round = 0; round < 100; round++) {
+      int queryNum = 0;
+      for (int i = 0; i < 10; i++) {
+        if (controller.getNextOperationType() == Operation.PRECISE_QUERY) {
+          queryNum++;
+        }
+      }
+      // exactly 1 query in every 10 operations
+      assertEquals(1, queryNum);
+    }
+    config.setIS_OPERATION_INTERLEAVED(false);
+  }
+
+  @Test
+  public void testWeightedOperation() {
+    config.setOPERATION_PROPORTION("3:0:1:0:0:0:0:0:0:0:0");
+    int loop = 100000;
+    int[] count = new int[Operation.values().length];
+    for (int i = 0; i < loop; i++) {
+      count[operationController.getNextOperationType().ordinal()]++;
+    }
+    assertEquals(0.75, count[Operation.INGESTION.ordinal()] * 1.0 / loop, 0.01);
+    assertEquals(0.25, count[Operation.RANGE_QUERY.ordinal()] * 1.0 / loop, 0.01);
+    assertEquals(
+        loop, count[Operation.INGESTION.ordinal()] + count[Operation.RANGE_QUERY.ordinal()]);
+  }
 }
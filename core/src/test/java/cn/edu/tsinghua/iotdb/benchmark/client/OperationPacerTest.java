@@ -0,0 +1,57 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package cn.edu.tsinghua.iotdb.benchmark.client;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class OperationPacerTest {
+
+  /** Method: acquire(), the schedule does not slide when operations are slower than the rate */
+  @Test
+  public void testIntendedStartTime() throws InterruptedException {
+    // one operation per 10 ms
+    OperationPacer pacer = new OperationPacer(100, false, 1);
+    long first = pacer.acquire(0);
+    // a stall of 50 ms
+    Thread.sleep(50);
+    for (int i = 1; i <= 10; i++) {
+      long intendedStart = pacer.acquire(0);
+      assertEquals(first + i * 10_000_000L, intendedStart);
+      assertTrue(System.nanoTime() >= intendedStart);
+    }
+    // the 5 delayed operations are issued at once, then the pacer waits again
+    long elapsed = System.nanoTime() - first;
+    assertTrue(elapsed >= 100_000_000L);
+  }
+
+  /** Method: acquire(), rate in points/s */
+  @Test
+  public void testPointRate() {
+    // 1000 points per ms, query is charged 500 points
+    OperationPacer pacer = new OperationPacer(1_000_000, true, 500);
+    long first = pacer.acquire(2000);
+    assertEquals(first + 2_000_000L, pacer.acquire(1000));
+    assertEquals(first + 3_000_000L, pacer.acquire(0));
+    assertEquals(first + 3_500_000L, pacer.acquire(0));
+  }
+}
@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package cn.edu.tsinghua.iotdb.benchmark.client;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/** PhasePlan Tester. */
+public class PhasePlanTest {
+
+  private static final String PROPORTION = "1:0:0:0:0:0:0:0:0:0:0";
+  private static final String READ_PROPORTION = "0:1:0:0:0:0:0:0:0:0:0";
+
+  /** Method: parse(), parameters not given are inherited from the previous phase */
+  @Test
+  public void testParse() {
+    List<String> lines =
+        Arrays.asList(
+            "# ramp up clients",
+            "[ramp]",
+            "DURATION=1000",
+            "CLIENT_NUMBER=1-4",
+            "",
+            "[steady]",
+            "DURATION = 2000",
+            "TARGET_RATE=100",
+            "[read]",
+            "DURATION=500",
+            "OPERATION_PROPORTION=" + READ_PROPORTION);
+    PhasePlan plan = PhasePlan.parse(lines, 4, PROPORTION, 0);
+    assertEquals(3, plan.size());
+
+    Phase ramp = plan.getPhase(0);
+    assertEquals("ramp", ramp.getName());
+    assertEquals(1, ramp.getStartClientNumber());
+    assertEquals(4, ramp.getEndClientNumber());
+    assertEquals(PROPORTION, ramp.getOperationProportion());
+    assertEquals(0, ramp.getTargetRate(), 0);
+
+    Phase steady = plan.getPhase(1);
+    assertEquals(2000, steady.getDuration());
+    assertEquals(4, steady.getStartClientNumber());
+    assertEquals(4, steady.getEndClientNumber());
+    assertEquals(100, steady.getTargetRate(), 0);
+
+    Phase read = plan.getPhase(2);
+    assertEquals(READ_PROPORTION, read.getOperationProportion());
+    assertEquals(100, read.getTargetRate(), 0);
+  }
+
+  /** Method: parse(), illegal scripts are rejected */
+  @Test
+  public void testParseIllegal() {
+    assertIllegal(Arrays.asList("DURATION=1000"));
+    assertIllegal(Arrays.asList("[a]", "CLIENT_NUMBER=2"));
+    assertIllegal(Arrays.asList("[a]", "DURATION=1000", "CLIENT_NUMBER=1-5"));
+    assertIllegal(Arrays.asList("[a]", "DURATION=1000", "OPERATION_PROPORTION=1:1"));
+    assertIllegal(Arrays.asList("[a]", "DURATION=1000", "LOOP=10"));
+  }
+
+  private static void assertIllegal(List<String> lines) {
+    try {
+      PhasePlan.parse(lines, 4, PROPORTION, 0);
+      fail("Illegal script is accepted: " + lines);
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+  }
+
+  /** Method: getPhaseIndex(), getActiveClientNumber() */
+  @Test
+  public void testTimeline() {
+    PhasePlan plan =
+        PhasePlan.parse(
+            Arrays.asList(
+                "[ramp]",
+                "DURATION=1000",
+                "CLIENT_NUMBER=1-4",
+                "[down]",
+                "DURATION=10",
+                "CLIENT_NUMBER=2-1"),
+            4,
+            PROPORTION,
+            0);
+    plan.start();
+    long start = plan.getPhaseStartNanos(0);
+    assertEquals(0, plan.getPhaseIndex(start));
+    assertEquals(0, plan.getPhaseIndex(start + 999_999_999L));
+    assertEquals(1, plan.getPhaseIndex(start + 1_000_000_000L));
+    assertEquals(-1, plan.getPhaseIndex(start + 1_010_000_000L));
+    assertEquals(start + 1_000_000_000L, plan.getPhaseEndNanos(0));
+
+    // each number of clients lasts for a quarter of ramp
+    Phase ramp = plan.getPhase(0);
+    assertEquals(1, ramp.getActiveClientNumber(0));
+    assertEquals(1, ramp.getActiveClientNumber(249_999_999L));
+    assertEquals(2, ramp.getActiveClientNumber(250_000_000L));
+    assertEquals(4, ramp.getActiveClientNumber(999_999_999L));
+    assertEquals(4, ramp.getMaxClientNumber());
+
+    Phase down = plan.getPhase(1);
+    assertEquals(2, down.getActiveClientNumber(0));
+    assertEquals(1, down.getActiveClientNumber(5_000_000L));
+  }
+}
@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package cn.edu.tsinghua.iotdb.benchmark.client;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/** ProgressSnapshot Tester. */
+public class ProgressSnapshotTest {
+
+  /** Method: ProgressSnapshot(), counters of all clients are summed up */
+  @Test
+  public void testAggregate() {
+    ClientProgress first = new ClientProgress(10);
+    ClientProgress second = new ClientProgress(10);
+    List<ClientProgress> progresses = Arrays.asList(first, second);
+    ProgressSnapshot start = new ProgressSnapshot(progresses, null, 0);
+    assertEquals(0, start.getFinishedLoops());
+    assertEquals(-1, start.getEtaSeconds(), 0);
+
+    for (int i = 0; i < 4; i++) {
+      first.finishOperation(Operation.INGESTION);
+    }
+    second.finishOperation(Operation.PRECISE_QUERY);
+    // the second client stops after one loop
+    second.finish();
+    ProgressSnapshot snapshot = new ProgressSnapshot(progresses, start, 1_000_000_000L);
+    assertEquals(2, snapshot.getClientNum());
+    assertEquals(1, snapshot.getRunningClientNum());
+    assertEquals(5, snapshot.getFinishedLoops());
+    assertEquals(11, snapshot.getTotalLoops());
+    assertEquals(4, snapshot.getOperationNum(Operation.INGESTION));
+    assertEquals(1, snapshot.getOperationNum(Operation.PRECISE_QUERY));
+    assertEquals(5.0, snapshot.getRate(), 1e-9);
+    assertEquals(1.2, snapshot.getEtaSeconds(), 1e-9);
+
+    String message = snapshot.toLogMessage();
+    assertTrue(message, message.startsWith("1/2 clients are running"));
+    assertTrue(message, message.endsWith(", INGESTION 4, PRECISE_POINT 1"));
+    String metrics = snapshot.toPrometheus();
+    assertTrue(metrics, metrics.contains("benchmark_finished_loops 5.0\n"));
+    assertTrue(
+        metrics, metrics.contains("benchmark_operations_total{operation=\"INGESTION\"} 4\n"));
+  }
+}
@@ -0,0 +1,74 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package cn.edu.tsinghua.iotdb.benchmark.coordinator;
+
+import cn.edu.tsinghua.iotdb.benchmark.client.Operation;
+import cn.edu.tsinghua.iotdb.benchmark.measurement.Measurement;
+import org.junit.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+
+/** Coordinator Tester. */
+public class CoordinatorTest {
+
+  /** Method: coordinate(), indexes follow the configured ones and results are merged */
+  @Test
+  public void testCoordinate() throws Exception {
+    ExecutorService service = Executors.newFixedThreadPool(3);
+    try (Coordinator coordinator = new Coordinator(0, 2)) {
+      Future<Measurement> merged = service.submit(coordinator::coordinate);
+      // the benchmark configured as 5 connects first
+      Future<Integer> second = service.submit(() -> runBenchmark(coordinator.getPort(), 5, 10));
+      Thread.sleep(100);
+      Future<Integer> first = service.submit(() -> runBenchmark(coordinator.getPort(), 2, 30));
+      assertEquals(0, (int) first.get(10, TimeUnit.SECONDS));
+      assertEquals(1, (int) second.get(10, TimeUnit.SECONDS));
+
+      Measurement measurement = merged.get(10, TimeUnit.SECONDS);
+      measurement.calculateMetrics();
+      assertEquals(30, measurement.getElapseTime(), 0);
+      assertEquals(4, measurement.getOkOperationNum(Operation.INGESTION));
+      assertEquals(400, measurement.getOkPointNum(Operation.INGESTION));
+    } finally {
+      service.shutdownNow();
+    }
+  }
+
+  /** Connect as a benchmark which executes two ingestion operations */
+  private int runBenchmark(int port, int configuredIndex, double elapseTime) throws Exception {
+    try (CoordinatorClient client = CoordinatorClient.connect("127.0.0.1", port, configuredIndex)) {
+      client.awaitStart();
+      Measurement measurement = new Measurement();
+      for (int i = 0; i < 2; i++) {
+        measurement.addOperationLatency(Operation.INGESTION, 1 + configuredIndex);
+        measurement.addOkOperationNum(Operation.INGESTION);
+        measurement.addOkPointNum(Operation.INGESTION, 100);
+      }
+      measurement.setElapseTime(elapseTime);
+      client.sendResult(measurement);
+      return client.getBenchmarkIndex();
+    }
+  }
+}
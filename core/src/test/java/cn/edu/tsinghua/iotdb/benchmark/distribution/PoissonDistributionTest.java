@@ -55,4 +55,55 @@ public class PoissonDistributionTest {
     assertEquals(0, count[9]);
     assertEquals(0, count[10]);
   }
+
+  /** Method: getNextPoissonDelta(), compared with computing the distribution for each sample */
+  @Test
+  public void testSameAsNaiveDistribution() {
+    double[][] params = {{5.0, 10}, {40.0, 120}, {2200.0, 170000}};
+    for (double[] param : params) {
+      PoissonDistribution poissonDistribution = new PoissonDistribution(new Random(7));
+      poissonDistribution.setLambdaConfig(param[0]);
+      poissonDistribution.setDeltaKindsConfig((int) param[1]);
+      Random random = new Random(7);
+      for (int i = 0; i < 1000; i++) {
+        assertEquals(
+            naiveNextPoissonDelta(random, param[0], (int) param[1]),
+            poissonDistribution.getNextPoissonDelta());
+      }
+    }
+  }
+
+  private int naiveNextPoissonDelta(Random random, double lambda, int maxK) {
+    int kInUse = 25;
+    double lambdaInUse = 10;
+    if (lambda < 500) {
+      kInUse = maxK;
+      lambdaInUse = lambda;
+    }
+    double rand = random.nextDouble();
+    double[] range = new double[kInUse + 1];
+    double sum = 0;
+    for (int i = 0; i < kInUse - 1; i++) {
+      double p = Math.exp(-lambdaInUse);
+      double product = 1;
+      for (int j = 1; j <= i; j++) {
+        product *= lambdaInUse / j;
+      }
+      range[i + 1] = range[i] + product * p;
+      sum += product * p;
+    }
+    range[kInUse] = range[kInUse - 1] + (1 - sum);
+    int nextDelta = 0;
+    for (int i = 0; i < kInUse; i++) {
+      nextDelta++;
+      if (rand > range[i] && rand < range[i + 1]) {
+        break;
+      }
+    }
+    if (lambda >= 500) {
+      double step = nextDelta <= 10 ? lambda / 10 : (maxK - lambda) / (25 - 10);
+      nextDelta = (int) (lambda + ((nextDelta - 10) * step));
+    }
+    return nextDelta;
+  }
 }
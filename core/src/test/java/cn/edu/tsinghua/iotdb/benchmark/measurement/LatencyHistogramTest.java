@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package cn.edu.tsinghua.iotdb.benchmark.measurement;
+
+import cn.edu.tsinghua.iotdb.benchmark.client.Operation;
+import cn.edu.tsinghua.iotdb.benchmark.measurement.enums.Metric;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LatencyHistogramTest {
+
+  /** Method: bucketIndex(), every value falls into a bucket with less than 1% relative error */
+  @Test
+  public void testBucketBound() {
+    for (long micros = 0; micros < 100_000_000L; micros = micros * 21 / 20 + 1) {
+      int index = LatencyHistogram.bucketIndex(micros);
+      long upper = LatencyHistogram.bucketUpperBound(index);
+      assertTrue(upper >= micros);
+      assertTrue(upper - micros <= micros / 100);
+      if (index > 0) {
+        assertTrue(LatencyHistogram.bucketUpperBound(index - 1) < micros);
+      }
+    }
+  }
+
+  /** Method: merge(), getValueAtQuantile() */
+  @Test
+  public void testMergeAndQuantile() {
+    LatencyHistogram first = new LatencyHistogram();
+    LatencyHistogram second = new LatencyHistogram();
+    for (int i = 1; i <= 100; i++) {
+      first.record(i * 0.1);
+      second.record(i * 10.0);
+    }
+    first.merge(second);
+    assertEquals(200, first.getTotalCount());
+    assertEquals(0.1, first.getValueAtQuantile(0), 1e-9);
+    assertEquals(10.0, first.getValueAtQuantile(0.5), 10.0 / 100);
+    assertEquals(990.0, first.getValueAtQuantile(0.995), 990.0 / 100);
+    assertEquals(1000.0, first.getValueAtQuantile(1), 1e-9);
+  }
+
+  /** Method: Measurement.mergeMeasurement(), latencies of every client are merged */
+  @Test
+  public void testMergeMeasurement() {
+    Measurement total = new Measurement();
+    Measurement first = new Measurement();
+    Measurement second = new Measurement();
+    for (int i = 0; i < 100; i++) {
+      first.addOperationLatency(Operation.PRECISE_QUERY, 1);
+      first.addOkOperationNum(Operation.PRECISE_QUERY);
+      second.addOperationLatency(Operation.PRECISE_QUERY, 3);
+      second.addOkOperationNum(Operation.PRECISE_QUERY);
+    }
+    total.mergeMeasurement(first);
+    total.mergeMeasurement(second);
+    total.calculateMetrics();
+    assertEquals(2.0, Metric.AVG_LATENCY.getTypeValueMap().get(Operation.PRECISE_QUERY), 1e-9);
+    assertEquals(1.0, Metric.MIN_LATENCY.getTypeValueMap().get(Operation.PRECISE_QUERY), 1e-9);
+    assertEquals(3.0, Metric.MAX_LATENCY.getTypeValueMap().get(Operation.PRECISE_QUERY), 1e-9);
+  }
+}
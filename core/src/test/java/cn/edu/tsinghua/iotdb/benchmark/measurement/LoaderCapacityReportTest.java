@@ -0,0 +1,39 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package cn.edu.tsinghua.iotdb.benchmark.measurement;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/** LoaderCapacityReport Tester. */
+public class LoaderCapacityReportTest {
+
+  /** Method: getPointRate(), getUsedCores(), both are taken over the same window */
+  @Test
+  public void testRatePerCore() {
+    long elapsedNanos = 2000000000L;
+    double pointRate = LoaderCapacityReport.getPointRate(1000000, elapsedNanos);
+    double usedCores = LoaderCapacityReport.getUsedCores(3000000000L, elapsedNanos, 4);
+    assertEquals(500000, pointRate, 0);
+    assertEquals(1.5, usedCores, 0);
+    assertEquals(0, LoaderCapacityReport.getPointRate(1000000, 0), 0);
+  }
+}
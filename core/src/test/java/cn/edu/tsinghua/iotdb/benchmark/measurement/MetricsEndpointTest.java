@@ -0,0 +1,58 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package cn.edu.tsinghua.iotdb.benchmark.measurement;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+
+public class MetricsEndpointTest {
+
+  /** Method: handle(), the current metrics text is served at /metrics */
+  @Test
+  public void testServe() throws IOException {
+    MetricsEndpoint endpoint = new MetricsEndpoint(0, () -> "benchmark_clients 2.0\n");
+    endpoint.start();
+    try {
+      URL url = new URL("http://localhost:" + endpoint.getPort() + "/metrics");
+      HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+      assertEquals(200, connection.getResponseCode());
+      ByteArrayOutputStream body = new ByteArrayOutputStream();
+      try (InputStream in = connection.getInputStream()) {
+        byte[] buffer = new byte[1024];
+        int length;
+        while ((length = in.read(buffer)) > 0) {
+          body.write(buffer, 0, length);
+        }
+      }
+      String text = new String(body.toByteArray(), StandardCharsets.UTF_8);
+      assertEquals("benchmark_clients 2.0\n", text);
+    } finally {
+      endpoint.stop();
+    }
+  }
+}
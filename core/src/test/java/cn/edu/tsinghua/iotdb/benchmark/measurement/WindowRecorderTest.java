@@ -0,0 +1,60 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package cn.edu.tsinghua.iotdb.benchmark.measurement;
+
+import cn.edu.tsinghua.iotdb.benchmark.client.Operation;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class WindowRecorderTest {
+
+  /** Method: sampleInto(), no operation is lost or counted twice while the client is writing */
+  @Test
+  public void testSampleWhileRecording() throws InterruptedException {
+    WindowRecorder recorder = new WindowRecorder();
+    int loop = 200000;
+    Thread client =
+        new Thread(
+            () -> {
+              for (int i = 0; i < loop; i++) {
+                recorder.recordOkOperation(Operation.INGESTION, 1);
+                recorder.addOkPointNum(Operation.INGESTION, 10);
+                if (i % 10 == 0) {
+                  recorder.addFailOperationNum(Operation.PRECISE_QUERY);
+                }
+              }
+            });
+    client.start();
+    WindowRecorder.Window total = new WindowRecorder.Window();
+    WindowRecorder.Window window = new WindowRecorder.Window();
+    while (client.isAlive()) {
+      window.reset();
+      recorder.sampleInto(window);
+      total.merge(window);
+    }
+    client.join();
+    recorder.sampleInto(total);
+    assertEquals(loop, total.getOkOperationNum(Operation.INGESTION));
+    assertEquals(loop * 10L, total.getOkPointNum(Operation.INGESTION));
+    assertEquals(loop / 10, total.getFailOperationNum(Operation.PRECISE_QUERY));
+    assertEquals(1.0, total.getLatency(Operation.INGESTION, 0.99), 1e-9);
+  }
+}
@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package cn.edu.tsinghua.iotdb.benchmark.measurement.persistence;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class OperationResultRingBufferTest {
+
+  /** Method: publish(), drain(), results of every producer are consumed once and in order */
+  @Test
+  public void testMultiProducer() throws InterruptedException {
+    // smaller than the number of results to test back-pressure
+    OperationResultRingBuffer ringBuffer = new OperationResultRingBuffer(100);
+    assertEquals(128, ringBuffer.getCapacity());
+    int producerNum = 4;
+    int loop = 50000;
+    List<Thread> producers = new ArrayList<>();
+    for (int i = 0; i < producerNum; i++) {
+      String clientName = "client-" + i;
+      Thread producer =
+          new Thread(
+              () -> {
+                for (int j = 0; j < loop; j++) {
+                  ringBuffer.publish(j, clientName, "INGESTION", j, 0, 1.5, "");
+                }
+              });
+      producers.add(producer);
+      producer.start();
+    }
+    long[] lastTime = new long[producerNum];
+    long[] count = new long[producerNum];
+    for (int i = 0; i < producerNum; i++) {
+      lastTime[i] = -1;
+    }
+    OperationResultRingBuffer.OperationResultHandler handler =
+        (recordTime, clientName, operation, okPoint, failPoint, latency, remark) -> {
+          int client = Integer.parseInt(clientName.substring("client-".length()));
+          assertEquals(lastTime[client] + 1, recordTime);
+          assertEquals(recordTime, okPoint);
+          lastTime[client] = recordTime;
+          count[client]++;
+        };
+    long total = 0;
+    while (total < (long) producerNum * loop) {
+      total += ringBuffer.drain(handler, 1000);
+    }
+    for (Thread producer : producers) {
+      producer.join();
+    }
+    assertTrue(ringBuffer.isEmpty());
+    for (int i = 0; i < producerNum; i++) {
+      assertEquals(loop, count[i]);
+    }
+  }
+
+  /** Method: tryPublish(), results are given up when the buffer is full */
+  @Test
+  public void testTryPublish() {
+    OperationResultRingBuffer ringBuffer = new OperationResultRingBuffer(4);
+    for (int i = 0; i < 4; i++) {
+      assertTrue(ringBuffer.tryPublish(i, "client-0", "INGESTION", i, 0, 1.5, ""));
+    }
+    assertFalse(ringBuffer.tryPublish(4, "client-0", "INGESTION", 4, 0, 1.5, ""));
+    List<Long> times = new ArrayList<>();
+    OperationResultRingBuffer.OperationResultHandler handler =
+        (recordTime, clientName, operation, okPoint, failPoint, latency, remark) ->
+            times.add(recordTime);
+    assertEquals(2, ringBuffer.drain(handler, 2));
+    assertTrue(ringBuffer.tryPublish(5, "client-0", "INGESTION", 5, 0, 1.5, ""));
+    assertEquals(3, ringBuffer.drain(handler, 10));
+    assertTrue(ringBuffer.isEmpty());
+    assertEquals(Arrays.asList(0L, 1L, 2L, 3L, 5L), times);
+  }
+}
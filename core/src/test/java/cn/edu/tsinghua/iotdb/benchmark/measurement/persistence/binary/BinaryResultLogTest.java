@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package cn.edu.tsinghua.iotdb.benchmark.measurement.persistence.binary;
+
+import cn.edu.tsinghua.iotdb.benchmark.client.Operation;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class BinaryResultLogTest {
+
+  private File dir;
+
+  @Before
+  public void before() throws IOException {
+    dir = Files.createTempDirectory("binary-result-log").toFile();
+  }
+
+  @After
+  public void after() {
+    File[] files = dir.listFiles();
+    if (files != null) {
+      for (File file : files) {
+        file.delete();
+      }
+    }
+    dir.delete();
+  }
+
+  /** Method: append(), records are split into segments and read back in order */
+  @Test
+  public void testSegmentRotation() throws IOException {
+    // 3 records in each segment
+    long segmentSize = BinaryResultLog.HEADER_SIZE + 3 * BinaryResultLog.RECORD_SIZE;
+    BinaryResultLog log = new BinaryResultLog(dir, "pool-1-thread-1_7", 7, segmentSize);
+    int recordNum = 10;
+    for (int i = 0; i < recordNum; i++) {
+      log.append(1000L + i, Operation.INGESTION.ordinal(), i, 0, i * 1000000L, 0);
+    }
+    log.close();
+
+    File[] segments = BinaryResultLogConverter.listSegments(dir);
+    assertEquals(4, segments.length);
+    List<Long> times = new ArrayList<>();
+    for (File segment : segments) {
+      BinaryResultLogConverter.read(
+          segment,
+          (recordTime, clientId, operation, okPoint, failPoint, latencyInNanos, flags) -> {
+            assertEquals(7, clientId);
+            assertEquals(Operation.INGESTION.ordinal(), operation);
+            assertEquals(recordTime - 1000L, okPoint);
+            assertEquals(okPoint * 1000000L, latencyInNanos);
+            times.add(recordTime);
+          });
+    }
+    assertEquals(recordNum, times.size());
+    for (int i = 0; i < recordNum; i++) {
+      assertEquals(1000L + i, (long) times.get(i));
+    }
+  }
+
+  /** Method: toCsv(), toSummary() */
+  @Test
+  public void testConvert() throws IOException {
+    BinaryResultLog log = new BinaryResultLog(dir, "client_0", 0, 1024 * 1024);
+    log.append(0L, Operation.INGESTION.ordinal(), 100, 0, 2000000L, 0);
+    log.append(1000L, Operation.INGESTION.ordinal(), 100, 0, 4000000L, 0);
+    log.append(2000L, Operation.INGESTION.ordinal(), 0, 100, 0L, BinaryResultLog.FLAG_REMARK);
+    log.close();
+
+    StringWriter csv = new StringWriter();
+    BinaryResultLogConverter.toCsv(dir, csv);
+    String[] lines = csv.toString().split("\n");
+    assertEquals(4, lines.length);
+    String[] fields = lines[1].split(",");
+    assertEquals("client", fields[2]);
+    assertEquals(Operation.INGESTION.getName(), fields[3]);
+    assertEquals("2.000000", fields[6]);
+    assertEquals("50000.000000", fields[7]);
+    assertTrue(lines[3].endsWith(",failed"));
+
+    StringWriter summary = new StringWriter();
+    BinaryResultLogConverter.toSummary(dir, summary);
+    String result = summary.toString();
+    String prefix = "," + dir.getName() + "," + Operation.INGESTION + ",";
+    assertTrue(result.contains(",total,elapsedTime,2.00\n"));
+    assertTrue(result.contains(prefix + "okOperationNum,2.00\n"));
+    assertTrue(result.contains(prefix + "okPointNum,200.00\n"));
+    assertTrue(result.contains(prefix + "failOperationNum,1.00\n"));
+    assertTrue(result.contains(prefix + "failPointNum,100.00\n"));
+    assertTrue(result.contains(prefix + "throughput,100.00\n"));
+    assertTrue(result.contains(prefix + "AVG,3.00\n"));
+    assertTrue(result.contains(prefix + "SLOWEST_THREAD,6.00\n"));
+  }
+
+  /** Method: toCsv(), toSummary(), records of warm-up are marked and excluded from summary */
+  @Test
+  public void testConvertWarmUp() throws IOException {
+    BinaryResultLog log = new BinaryResultLog(dir, "client_0", 0, 1024 * 1024);
+    int ordinal = Operation.INGESTION.ordinal();
+    log.append(0L, ordinal, 100, 0, 8000000L, BinaryRecorder.getFlags("warm-up"));
+    log.append(500L, ordinal, 0, 100, 0L, BinaryRecorder.getFlags("warm-up: timeout"));
+    log.append(1000L, ordinal, 100, 0, 2000000L, BinaryRecorder.getFlags(""));
+    log.append(2000L, ordinal, 100, 0, 4000000L, BinaryRecorder.getFlags(""));
+    log.close();
+
+    StringWriter csv = new StringWriter();
+    BinaryResultLogConverter.toCsv(dir, csv);
+    String[] lines = csv.toString().split("\n");
+    assertEquals(5, lines.length);
+    assertTrue(lines[1].endsWith(",warm-up"));
+    assertTrue(lines[2].endsWith(",warm-up: failed"));
+    assertTrue(lines[3].endsWith(","));
+
+    StringWriter summary = new StringWriter();
+    BinaryResultLogConverter.toSummary(dir, summary);
+    String result = summary.toString();
+    String prefix = "," + dir.getName() + "," + Operation.INGESTION + ",";
+    assertTrue(result.contains(",total,elapsedTime,1.00\n"));
+    assertTrue(result.contains(prefix + "okOperationNum,2.00\n"));
+    assertTrue(result.contains(prefix + "okPointNum,200.00\n"));
+    assertTrue(result.contains(prefix + "failOperationNum,0.00\n"));
+    assertTrue(result.contains(prefix + "AVG,3.00\n"));
+  }
+}
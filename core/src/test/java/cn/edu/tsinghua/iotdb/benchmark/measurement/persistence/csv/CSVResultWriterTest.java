@@ -0,0 +1,38 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package cn.edu.tsinghua.iotdb.benchmark.measurement.persistence.csv;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class CSVResultWriterTest {
+
+  /** Method: appendDecimal(), same as String.format("%f") */
+  @Test
+  public void testAppendDecimal() {
+    double[] values = {0, 0.5, 1.25, 3.0000004, 12.3456789, 1000.000001, 98765.4321, 123456789.5};
+    for (double value : values) {
+      StringBuilder builder = new StringBuilder();
+      CSVResultWriter.appendDecimal(builder, value);
+      assertEquals(String.format("%f", value), builder.toString());
+    }
+  }
+}
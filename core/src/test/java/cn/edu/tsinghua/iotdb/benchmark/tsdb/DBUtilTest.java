@@ -0,0 +1,74 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package cn.edu.tsinghua.iotdb.benchmark.tsdb;
+
+import cn.edu.tsinghua.iotdb.benchmark.conf.Constants;
+import cn.edu.tsinghua.iotdb.benchmark.workload.ingestion.Batch;
+import cn.edu.tsinghua.iotdb.benchmark.workload.schema.DeviceSchema;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/** DBUtil Tester. */
+public class DBUtilTest {
+
+  private static String getDevicePath(DeviceSchema deviceSchema) {
+    return Constants.ROOT_SERIES_NAME
+        + "."
+        + deviceSchema.getGroup()
+        + "."
+        + deviceSchema.getDevice();
+  }
+
+  /** Method: getIoTDBInsertSql() */
+  @Test
+  public void testIoTDBInsertSql() {
+    List<String> sensors = Arrays.asList("s_0", "s_1");
+    DeviceSchema deviceSchema = new DeviceSchema("g_0", "d_0", sensors);
+    Batch batch = new Batch(deviceSchema, new String[] {"INT32", "TEXT"}, 1);
+    int row = batch.addRow(1000L);
+    batch.setInt(row, 0, 5);
+    batch.setText(row, 1, "abc".getBytes(StandardCharsets.UTF_8));
+    assertEquals(
+        "insert into " + getDevicePath(deviceSchema) + "(timestamp,s_0,s_1) values(1000,5,'abc')",
+        DBUtil.getIoTDBInsertSql(batch, 0));
+  }
+
+  /** Method: getIoTDBInsertSql(), the schema of a single-sensor batch only contains its sensor */
+  @Test
+  public void testIoTDBInsertSqlOfSensorBatch() throws Exception {
+    DeviceSchema deviceSchema =
+        new DeviceSchema("g_0", "d_0", Arrays.asList("s_0", "s_1", "s_2", "s_3"));
+    DeviceSchema sensorSchema = (DeviceSchema) deviceSchema.clone();
+    sensorSchema.setSensors(new ArrayList<>(Arrays.asList("s_2")));
+    Batch batch = new Batch(sensorSchema, new String[] {"INT64"}, 1);
+    batch.setColIndex(2);
+    int row = batch.addRow(1000L);
+    batch.setLong(row, 0, 7L);
+    assertEquals(
+        "insert into " + getDevicePath(deviceSchema) + "(timestamp,s_2) values(1000,7)",
+        DBUtil.getIoTDBInsertSql(batch, 0));
+  }
+}
@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package cn.edu.tsinghua.iotdb.benchmark.tsdb;
+
+import cn.edu.tsinghua.iotdb.benchmark.client.Operation;
+import cn.edu.tsinghua.iotdb.benchmark.conf.Config;
+import cn.edu.tsinghua.iotdb.benchmark.conf.ConfigDescriptor;
+import cn.edu.tsinghua.iotdb.benchmark.conf.Constants;
+import cn.edu.tsinghua.iotdb.benchmark.measurement.Measurement;
+import cn.edu.tsinghua.iotdb.benchmark.workload.SyntheticWorkload;
+import cn.edu.tsinghua.iotdb.benchmark.workload.ingestion.Batch;
+import cn.edu.tsinghua.iotdb.benchmark.workload.schema.DeviceSchema;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/** DBWrapper Tester. */
+public class DBWrapperTest {
+
+  private static final Config config = ConfigDescriptor.getInstance().getConfig();
+
+  /** Method: startWarmUp(), finishWarmUp(), operations of warm-up are measured separately */
+  @Test
+  public void testWarmUp() {
+    Measurement measurement = new Measurement();
+    Measurement warmUpMeasurement = new Measurement();
+    // no database is available in tests, so that each query fails
+    DBWrapper dbWrapper = new DBWrapper(measurement);
+
+    dbWrapper.startWarmUp(warmUpMeasurement);
+    dbWrapper.preciseQuery(null);
+    dbWrapper.preciseQuery(null);
+    dbWrapper.finishWarmUp();
+    dbWrapper.preciseQuery(null);
+
+    assertEquals(2, warmUpMeasurement.getFailOperationNum(Operation.PRECISE_QUERY));
+    assertEquals(1, measurement.getFailOperationNum(Operation.PRECISE_QUERY));
+  }
+
+  /** Method: insertBatches(), the batches of several devices are measured as one operation */
+  @Test
+  public void testInsertBatches() throws Exception {
+    String dbSwitch = config.getDB_SWITCH();
+    config.setDB_SWITCH(Constants.DB_FAKE);
+    try {
+      Measurement measurement = new Measurement();
+      DBWrapper dbWrapper = new DBWrapper(measurement);
+      SyntheticWorkload workload = new SyntheticWorkload(0);
+      List<Batch> batches = new ArrayList<>();
+      int pointNum = 0;
+      for (int deviceId = 0; deviceId < 3; deviceId++) {
+        Batch batch = workload.getOneBatch(new DeviceSchema(deviceId), 0);
+        pointNum += batch.pointNum();
+        batches.add(batch);
+      }
+
+      dbWrapper.insertBatches(batches);
+
+      assertEquals(1, measurement.getOkOperationNum(Operation.INGESTION));
+      assertEquals(pointNum, measurement.getOkPointNum(Operation.INGESTION));
+    } finally {
+      config.setDB_SWITCH(dbSwitch);
+    }
+  }
+}
@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package cn.edu.tsinghua.iotdb.benchmark.tsdb.fakedb;
+
+import cn.edu.tsinghua.iotdb.benchmark.conf.Config;
+import cn.edu.tsinghua.iotdb.benchmark.conf.ConfigDescriptor;
+import cn.edu.tsinghua.iotdb.benchmark.conf.Constants;
+import cn.edu.tsinghua.iotdb.benchmark.tsdb.DBFactory;
+import cn.edu.tsinghua.iotdb.benchmark.workload.SyntheticWorkload;
+import cn.edu.tsinghua.iotdb.benchmark.workload.ingestion.Batch;
+import cn.edu.tsinghua.iotdb.benchmark.workload.schema.DeviceSchema;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+
+import static org.junit.Assert.assertTrue;
+
+/** FakeDB Tester. */
+public class FakeDBTest {
+
+  private static final Config config = ConfigDescriptor.getInstance().getConfig();
+
+  @After
+  public void tearDown() {
+    config.setLOADER_SINK(Constants.LOADER_SINK_NONE);
+  }
+
+  /** Method: insertOneBatch(), each sink accepts the batch */
+  @Test
+  public void testSinks() throws Exception {
+    Batch batch = new SyntheticWorkload(1).getOneBatch(new DeviceSchema(1), 0);
+    for (String sink :
+        new String[] {
+          Constants.LOADER_SINK_NONE, Constants.LOADER_SINK_SERIALIZE, Constants.LOADER_SINK_SQL
+        }) {
+      config.setLOADER_SINK(sink);
+      FakeDB fakeDB = new FakeDB();
+      assertTrue(sink, fakeDB.insertOneBatch(batch).isOk());
+      assertTrue(sink, fakeDB.insertOneBatch(batch).isOk());
+    }
+  }
+
+  /** Method: insertOneSensorBatch(), the sql sink accepts a batch of any sensor */
+  @Test
+  public void testSensorBatchSql() throws Exception {
+    config.setLOADER_SINK(Constants.LOADER_SINK_SQL);
+    FakeDB fakeDB = new FakeDB();
+    DeviceSchema deviceSchema = new DeviceSchema(1);
+    for (int colIndex = 0; colIndex < deviceSchema.getSensors().size(); colIndex++) {
+      // the schema of a single-sensor batch only contains its sensor, as BaseClient does
+      DeviceSchema sensorSchema = (DeviceSchema) deviceSchema.clone();
+      sensorSchema.setSensors(
+          new ArrayList<>(Collections.singletonList(deviceSchema.getSensors().get(colIndex))));
+      Batch batch = new SyntheticWorkload(1).getOneBatch(sensorSchema, 0, colIndex);
+      batch.setColIndex(colIndex);
+      assertTrue(fakeDB.insertOneSensorBatch(batch).isOk());
+    }
+  }
+
+  /** Method: DBFactory.getDatabase(), loaderCapacityMode writes to FakeDB whatever DB_SWITCH is */
+  @Test
+  public void testLoaderCapacityMode() throws Exception {
+    String dbSwitch = config.getDB_SWITCH();
+    String workMode = config.getBENCHMARK_WORK_MODE();
+    config.setDB_SWITCH(Constants.DB_TIMESCALE);
+    config.setBENCHMARK_WORK_MODE(Constants.MODE_LOADER_CAPACITY);
+    try {
+      assertTrue(new DBFactory().getDatabase() instanceof FakeDB);
+    } finally {
+      config.setDB_SWITCH(dbSwitch);
+      config.setBENCHMARK_WORK_MODE(workMode);
+    }
+  }
+}
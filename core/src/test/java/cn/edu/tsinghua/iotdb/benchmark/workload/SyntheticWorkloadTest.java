@@ -26,6 +26,7 @@ import cn.edu.tsinghua.iotdb.benchmark.workload.ingestion.Record;
 import cn.edu.tsinghua.iotdb.benchmark.workload.schema.DeviceSchema;
 import org.junit.Test;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 /** SyntheticWorkload Tester. */
@@ -51,4 +52,29 @@ public class SyntheticWorkloadTest {
       System.out.println(batch.getRecords().toString());
     }
   }
+
+  /** Method: getOrderedBatch(), values copied from the rings are the same as those set by row */
+  @Test
+  public void testOrderedBatchValues() throws Exception {
+    int bufferSize = config.getWORKLOAD_BUFFER_SIZE();
+    int batchSize = config.getBATCH_SIZE_PER_WRITE();
+    config.setBATCH_SIZE_PER_WRITE(7);
+    try {
+      SyntheticWorkload syntheticWorkload = new SyntheticWorkload(1);
+      // the rows of this batch cross the end of the rings if bufferSize is not a multiple of 7
+      long loopIndex = bufferSize / 7;
+      DeviceSchema deviceSchema = new DeviceSchema(1);
+      Batch batch = syntheticWorkload.getOneBatch(deviceSchema, loopIndex);
+      Batch expected = SyntheticWorkload.newBatch(deviceSchema);
+      for (int i = 0; i < 7; i++) {
+        SyntheticWorkload.addOneRowIntoBatch(expected, loopIndex * 7 + i);
+      }
+      assertEquals(7, batch.getRowSize());
+      for (int row = 0; row < 7; row++) {
+        assertEquals(expected.getRowValues(row), batch.getRowValues(row));
+      }
+    } finally {
+      config.setBATCH_SIZE_PER_WRITE(batchSize);
+    }
+  }
 }
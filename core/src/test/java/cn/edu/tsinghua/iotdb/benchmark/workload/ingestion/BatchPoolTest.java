@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package cn.edu.tsinghua.iotdb.benchmark.workload.ingestion;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+/** BatchPool Tester. */
+public class BatchPoolTest {
+
+  private static final String[] DATA_TYPES = {"INT64", "DOUBLE"};
+
+  /** Method: acquire(), a released batch is reused after it is cleared */
+  @Test
+  public void testReuse() {
+    BatchPool pool = new BatchPool(DATA_TYPES, 4, 2);
+    Batch batch = pool.acquire(null);
+    int row = batch.addRow(1L);
+    batch.setLong(row, 0, 2L);
+    batch.setColIndex(1);
+    batch.release();
+    assertEquals(1, pool.getIdleSize());
+
+    Batch reused = pool.acquire(null);
+    assertSame(batch, reused);
+    assertEquals(0, reused.getRowSize());
+    assertEquals(-1, reused.getColIndex());
+    assertEquals(0, pool.getIdleSize());
+  }
+
+  /** Method: retain(), the batch goes back to the pool only after the last release */
+  @Test
+  public void testRetain() throws InterruptedException {
+    BatchPool pool = new BatchPool(DATA_TYPES, 4, 2);
+    Batch batch = pool.acquire(null);
+    batch.retain();
+    // e.g. the adapter sends the batch in another thread
+    Thread sender = new Thread(batch::release);
+    batch.release();
+    assertEquals(0, pool.getIdleSize());
+    assertNotSame(batch, pool.acquire(null));
+    sender.start();
+    sender.join();
+    assertEquals(1, pool.getIdleSize());
+  }
+
+  /** Method: release(), batches which are not from a pool are not affected */
+  @Test
+  public void testUnpooled() {
+    Batch batch = new Batch(null, DATA_TYPES, 4);
+    batch.addRow(1L);
+    batch.release();
+    assertEquals(1, batch.getRowSize());
+  }
+}
@@ -0,0 +1,143 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package cn.edu.tsinghua.iotdb.benchmark.workload.ingestion;
+
+import cn.edu.tsinghua.iotdb.benchmark.workload.schema.DeviceSchema;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/** Batch Tester. */
+public class BatchTest {
+
+  private static final String[] DATA_TYPES = {
+    "BOOLEAN", "INT32", "INT64", "FLOAT", "DOUBLE", "TEXT"
+  };
+
+  private Batch buildBatch(int rowSize, int capacity) {
+    List<String> sensors = new ArrayList<>();
+    for (int i = 0; i < DATA_TYPES.length; i++) {
+      sensors.add("s_" + i);
+    }
+    Batch batch = new Batch(new DeviceSchema("g_0", "d_0", sensors), DATA_TYPES, capacity);
+    for (int i = 0; i < rowSize; i++) {
+      int row = batch.addRow(1000L + i);
+      batch.setBoolean(row, 0, i % 2 == 0);
+      batch.setInt(row, 1, i);
+      batch.setLong(row, 2, i * 10L);
+      batch.setFloat(row, 3, i * 1.5f);
+      batch.setDouble(row, 4, i * 2.5);
+      batch.setText(row, 5, ("v" + i).getBytes(StandardCharsets.UTF_8));
+    }
+    return batch;
+  }
+
+  @Test
+  public void testTypedColumns() {
+    // capacity is smaller than row size, so the columns have to grow
+    Batch batch = buildBatch(10, 3);
+    assertEquals(10, batch.getRowSize());
+    assertEquals(DATA_TYPES.length, batch.getColumnSize());
+    assertEquals(10 * DATA_TYPES.length, batch.pointNum());
+    for (int i = 0; i < 10; i++) {
+      assertEquals(1000L + i, batch.getTimestamp(i));
+      assertEquals(i % 2 == 0, batch.getBoolean(i, 0));
+      assertEquals(i, batch.getInt(i, 1));
+      assertEquals(i * 10L, batch.getLong(i, 2));
+      assertEquals(i * 1.5f, batch.getFloat(i, 3), 0);
+      assertEquals(i * 2.5, batch.getDouble(i, 4), 0);
+      assertEquals("v" + i, batch.getString(i, 5));
+    }
+    assertEquals(
+        Arrays.asList((Object) true, 0, 0L, 0f, 0d, "v0"),
+        batch.getRecords().get(0).getRecordDataValue());
+    assertEquals("5", batch.appendValue(new StringBuilder(), 5, 1).toString());
+  }
+
+  /** Method: copyColumn() */
+  @Test
+  public void testCopyColumn() {
+    Batch batch = new Batch(null, new String[] {"DOUBLE", "TEXT"}, 4);
+    for (int i = 0; i < 4; i++) {
+      batch.addRow(i);
+    }
+    double[] doubles = {0.5, 1.5, 2.5, 3.5, 4.5};
+    byte[][] texts = {{1}, {2}, {3}};
+    batch.copyColumn(0, doubles, 3, 0, 2);
+    batch.copyColumn(0, doubles, 0, 2, 2);
+    batch.copyColumn(1, texts, 0, 0, 3);
+    batch.copyColumn(1, texts, 0, 3, 1);
+    assertEquals(3.5, batch.getDouble(0, 0), 0);
+    assertEquals(4.5, batch.getDouble(1, 0), 0);
+    assertEquals(0.5, batch.getDouble(2, 0), 0);
+    assertEquals(1.5, batch.getDouble(3, 0), 0);
+    assertArrayEquals(new byte[] {3}, batch.getText(2, 1));
+    assertArrayEquals(new byte[] {1}, batch.getText(3, 1));
+  }
+
+  /** Method: getSensor(), a single-sensor batch is named by the only sensor of its schema */
+  @Test
+  public void testGetSensor() throws Exception {
+    Batch batch = buildBatch(1, 1);
+    assertEquals("s_2", batch.getSensor(2));
+
+    // the schema of a single-sensor batch is cloned with only its sensor, as BaseClient does
+    DeviceSchema sensorSchema = (DeviceSchema) batch.getDeviceSchema().clone();
+    sensorSchema.setSensors(new ArrayList<>(Arrays.asList("s_2")));
+    Batch sensorBatch = new Batch(sensorSchema, new String[] {"INT64"}, 1);
+    sensorBatch.setColIndex(2);
+    assertEquals("s_2", sensorBatch.getSensor(0));
+
+    // a schema of the whole device is also accepted
+    sensorBatch.setDeviceSchema(batch.getDeviceSchema());
+    assertEquals("s_2", sensorBatch.getSensor(0));
+  }
+
+  @Test
+  public void testRecordCompatibility() {
+    Batch batch = new Batch();
+    batch.add(1L, Arrays.asList((Object) 1, 2L, "a"));
+    batch.add(2L, Arrays.asList((Object) 3, 4L, "b"));
+    assertEquals("INT32", batch.getDataType(0));
+    assertEquals("INT64", batch.getDataType(1));
+    assertEquals("TEXT", batch.getDataType(2));
+    assertEquals(6, batch.pointNum());
+    assertEquals(4L, batch.getLong(1, 1));
+    assertArrayEquals("b".getBytes(StandardCharsets.UTF_8), batch.getText(1, 2));
+  }
+
+  @Test
+  public void testSerialize() throws Exception {
+    Batch batch = buildBatch(12, 16);
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    batch.serialize(outputStream);
+    Batch deserializeBatch =
+        Batch.deserialize(new ByteArrayInputStream(outputStream.toByteArray()));
+    assertEquals(batch, deserializeBatch);
+  }
+}
@@ -25,7 +25,6 @@ import cn.edu.tsinghua.iotdb.benchmark.measurement.Status;
 import cn.edu.tsinghua.iotdb.benchmark.tsdb.IDatabase;
 import cn.edu.tsinghua.iotdb.benchmark.tsdb.TsdbException;
 import cn.edu.tsinghua.iotdb.benchmark.workload.ingestion.Batch;
-import cn.edu.tsinghua.iotdb.benchmark.workload.ingestion.Record;
 import cn.edu.tsinghua.iotdb.benchmark.workload.query.impl.*;
 import cn.edu.tsinghua.iotdb.benchmark.workload.schema.DeviceSchema;
 import okhttp3.OkHttpClient.Builder;
@@ -115,10 +114,8 @@ public class InfluxDB implements IDatabase {
             .build();
     try {
       InfluxDataModel model;
-      for (Record record : batch.getRecords()) {
-        model =
-            createDataModel(
-                batch.getDeviceSchema(), record.getTimestamp(), record.getRecordDataValue());
+      for (int recordIndex = 0; recordIndex < batch.getRowSize(); recordIndex++) {
+        model = createDataModel(batch, recordIndex);
         batchPoints.point(model.toInfluxPoint());
       }
 
@@ -141,13 +138,8 @@ public class InfluxDB implements IDatabase {
     try {
       InfluxDataModel model;
       int colIndex = batch.getColIndex();
-      for (Record record : batch.getRecords()) {
-        model =
-            createDataModel(
-                batch.getDeviceSchema(),
-                record.getTimestamp(),
-                record.getRecordDataValue(),
-                colIndex);
+      for (int recordIndex = 0; recordIndex < batch.getRowSize(); recordIndex++) {
+        model = createDataModel(batch, recordIndex, colIndex);
         batchPoints.point(model.toInfluxPoint());
       }
 
@@ -263,8 +255,9 @@ public class InfluxDB implements IDatabase {
     return null;
   }
 
-  private InfluxDataModel createDataModel(
-      DeviceSchema deviceSchema, Long time, List<Object> valueList) throws TsdbException {
+  InfluxDataModel createDataModel(Batch batch, int recordIndex) throws TsdbException {
+    DeviceSchema deviceSchema = batch.getDeviceSchema();
+    long time = batch.getTimestamp(recordIndex);
     InfluxDataModel model = new InfluxDataModel();
     model.setMeasurement(deviceSchema.getGroup());
     HashMap<String, String> tags = new HashMap<>();
@@ -275,14 +268,15 @@ public class InfluxDB implements IDatabase {
     HashMap<String, Object> fields = new HashMap<>();
     List<String> sensors = deviceSchema.getSensors();
     for (int i = 0; i < sensors.size(); i++) {
-      fields.put(sensors.get(i), valueList.get(i));
+      fields.put(sensors.get(i), batch.getValue(recordIndex, i));
     }
     model.setFields(fields);
     return model;
   }
 
-  private InfluxDataModel createDataModel(
-      DeviceSchema deviceSchema, Long time, List<Object> valueList, int colIndex) {
+  private InfluxDataModel createDataModel(Batch batch, int recordIndex, int colIndex) {
+    DeviceSchema deviceSchema = batch.getDeviceSchema();
+    long time = batch.getTimestamp(recordIndex);
     InfluxDataModel model = new InfluxDataModel();
     model.setMeasurement(deviceSchema.getGroup());
     HashMap<String, String> tags = new HashMap<>();
@@ -291,9 +285,8 @@ public class InfluxDB implements IDatabase {
     model.setTimestamp(time);
     model.setTimestampPrecision(config.getTIMESTAMP_PRECISION());
     HashMap<String, Object> fields = new HashMap<>();
-    List<String> sensors = deviceSchema.getSensors();
-    // 值只有一个，在get(0)处，但是schema为了复用，没有改，所以在colIndex处
-    fields.put(sensors.get(colIndex), valueList.get(0));
+    // 值只有一个，在get(0)处
+    fields.put(batch.getSensor(0), batch.getValue(recordIndex, 0));
     model.setFields(fields);
     return model;
   }
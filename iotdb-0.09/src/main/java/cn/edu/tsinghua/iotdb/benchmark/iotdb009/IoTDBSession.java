@@ -32,9 +32,7 @@ import cn.edu.tsinghua.iotdb.benchmark.conf.ConfigDescriptor;
 import cn.edu.tsinghua.iotdb.benchmark.conf.Constants;
 import cn.edu.tsinghua.iotdb.benchmark.exception.DBConnectException;
 import cn.edu.tsinghua.iotdb.benchmark.measurement.Status;
-import cn.edu.tsinghua.iotdb.benchmark.tsdb.DBUtil;
 import cn.edu.tsinghua.iotdb.benchmark.workload.ingestion.Batch;
-import cn.edu.tsinghua.iotdb.benchmark.workload.ingestion.Record;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -64,7 +62,7 @@ public class IoTDBSession extends IoTDB {
     List<MeasurementSchema> schemaList = new ArrayList<>();
     int sensorIndex = 0;
     for (String sensor : batch.getDeviceSchema().getSensors()) {
-      String dataType = DBUtil.getDataType(sensorIndex);
+      String dataType = batch.getDataType(sensorIndex);
       schemaList.add(
           new MeasurementSchema(
               sensor,
@@ -78,51 +76,24 @@ public class IoTDBSession extends IoTDB {
             + batch.getDeviceSchema().getGroup()
             + "."
             + batch.getDeviceSchema().getDevice();
-    RowBatch tablet = new RowBatch(deviceId, schemaList, batch.getRecords().size());
-    long[] timestamps = tablet.timestamps;
+    int rowSize = batch.getRowSize();
+    RowBatch tablet = new RowBatch(deviceId, schemaList, rowSize);
     Object[] values = tablet.values;
 
-    for (int recordIndex = 0; recordIndex < batch.getRecords().size(); recordIndex++) {
-      tablet.batchSize++;
-      Record record = batch.getRecords().get(recordIndex);
-      sensorIndex = 0;
-      long currentTime = record.getTimestamp();
-      timestamps[recordIndex] = currentTime;
-      for (int recordValueIndex = 0;
-          recordValueIndex < record.getRecordDataValue().size();
-          recordValueIndex++) {
-        switch (DBUtil.getDataType(sensorIndex)) {
-          case "BOOLEAN":
-            boolean[] sensorsBool = (boolean[]) values[recordValueIndex];
-            sensorsBool[recordIndex] =
-                (boolean) (record.getRecordDataValue().get(recordValueIndex));
-            break;
-          case "INT32":
-            int[] sensorsInt = (int[]) values[recordValueIndex];
-            sensorsInt[recordIndex] = (int) (record.getRecordDataValue().get(recordValueIndex));
-            break;
-          case "INT64":
-            long[] sensorsLong = (long[]) values[recordValueIndex];
-            sensorsLong[recordIndex] = (long) (record.getRecordDataValue().get(recordValueIndex));
-            break;
-          case "FLOAT":
-            float[] sensorsFloat = (float[]) values[recordValueIndex];
-            sensorsFloat[recordIndex] = (float) (record.getRecordDataValue().get(recordValueIndex));
-            break;
-          case "DOUBLE":
-            double[] sensorsDouble = (double[]) values[recordValueIndex];
-            sensorsDouble[recordIndex] =
-                (double) (record.getRecordDataValue().get(recordValueIndex));
-            break;
-          case "TEXT":
-            Binary[] sensorsText = (Binary[]) values[recordValueIndex];
-            sensorsText[recordIndex] =
-                Binary.valueOf((String) (record.getRecordDataValue().get(recordValueIndex)));
-            break;
+    // batch is already column-oriented, so copy each column as a whole
+    System.arraycopy(batch.getTimestamps(), 0, tablet.timestamps, 0, rowSize);
+    for (int columnIndex = 0; columnIndex < values.length; columnIndex++) {
+      if ("TEXT".equals(batch.getDataType(columnIndex))) {
+        byte[][] texts = (byte[][]) batch.getColumn(columnIndex);
+        Binary[] sensorsText = (Binary[]) values[columnIndex];
+        for (int recordIndex = 0; recordIndex < rowSize; recordIndex++) {
+          sensorsText[recordIndex] = new Binary(texts[recordIndex]);
         }
-        sensorIndex++;
+      } else {
+        System.arraycopy(batch.getColumn(columnIndex), 0, values[columnIndex], 0, rowSize);
       }
     }
+    tablet.batchSize = rowSize;
     try {
       session.insertBatch(tablet);
       tablet.reset();
@@ -28,7 +28,6 @@ import cn.edu.tsinghua.iotdb.benchmark.tsdb.DBUtil;
 import cn.edu.tsinghua.iotdb.benchmark.tsdb.IDatabase;
 import cn.edu.tsinghua.iotdb.benchmark.tsdb.TsdbException;
 import cn.edu.tsinghua.iotdb.benchmark.workload.ingestion.Batch;
-import cn.edu.tsinghua.iotdb.benchmark.workload.ingestion.Record;
 import cn.edu.tsinghua.iotdb.benchmark.workload.query.impl.*;
 import cn.edu.tsinghua.iotdb.benchmark.workload.schema.DeviceSchema;
 import org.slf4j.Logger;
@@ -171,11 +170,8 @@ public class IoTDB implements IDatabase {
   @Override
   public Status insertOneBatch(Batch batch) throws DBConnectException {
     try (Statement statement = connection.createStatement()) {
-      for (Record record : batch.getRecords()) {
-        String sql =
-            getInsertOneBatchSql(
-                batch.getDeviceSchema(), record.getTimestamp(), record.getRecordDataValue());
-        statement.addBatch(sql);
+      for (int recordIndex = 0; recordIndex < batch.getRowSize(); recordIndex++) {
+        statement.addBatch(getInsertOneBatchSql(batch, recordIndex));
       }
       statement.executeBatch();
       return new Status(true);
@@ -187,11 +183,8 @@ public class IoTDB implements IDatabase {
   @Override
   public Status insertOneSensorBatch(Batch batch) throws DBConnectException {
     try (Statement statement = connection.createStatement()) {
-      for (Record record : batch.getRecords()) {
-        String sql =
-            getInsertOneBatchSql(
-                batch.getDeviceSchema(), record.getTimestamp(), record.getRecordDataValue());
-        statement.addBatch(sql);
+      for (int recordIndex = 0; recordIndex < batch.getRowSize(); recordIndex++) {
+        statement.addBatch(getInsertOneBatchSql(batch, recordIndex));
       }
       statement.executeBatch();
       return new Status(true);
@@ -347,37 +340,18 @@ public class IoTDB implements IDatabase {
     return builder.toString();
   }
 
-  private String getInsertOneBatchSql(
-      DeviceSchema deviceSchema, long timestamp, List<Object> values) {
-    StringBuilder builder = new StringBuilder();
-    builder
-        .append("insert into ")
-        .append(Constants.ROOT_SERIES_NAME)
-        .append(".")
-        .append(deviceSchema.getGroup())
-        .append(".")
-        .append(deviceSchema.getDevice())
-        .append("(timestamp");
-    for (String sensor : deviceSchema.getSensors()) {
-      builder.append(",").append(sensor);
-    }
-    builder.append(") values(");
-    builder.append(timestamp);
-    int sensorIndex = 0;
-    for (Object value : values) {
-      switch (DBUtil.getDataType(sensorIndex)) {
-        case "TEXT":
-          builder.append(",").append("'").append(value).append("'");
-          break;
-        default:
-          builder.append(",").append(value);
-          break;
-      }
-      sensorIndex++;
-    }
-    builder.append(")");
-    LOGGER.debug("getInsertOneBatchSql: {}", builder);
-    return builder.toString();
+  /**
+   * generate insert sql of one row in batch. If the batch only contains one sensor (colIndex !=
+   * -1), only that sensor is inserted. eg. insert into root.group_0.d_0(timestamp,s_0,s_1)
+   * values(1535558400000,1,'abc')
+   *
+   * @param batch batch to insert
+   * @param recordIndex row index in batch
+   */
+  private String getInsertOneBatchSql(Batch batch, int recordIndex) {
+    String sql = DBUtil.getIoTDBInsertSql(batch, recordIndex);
+    LOGGER.debug("getInsertOneBatchSql: {}", sql);
+    return sql;
   }
 
   /**
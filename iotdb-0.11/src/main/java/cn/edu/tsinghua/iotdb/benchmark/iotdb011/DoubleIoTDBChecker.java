@@ -22,7 +22,6 @@ package cn.edu.tsinghua.iotdb.benchmark.iotdb011;
 import cn.edu.tsinghua.iotdb.benchmark.measurement.Status;
 import cn.edu.tsinghua.iotdb.benchmark.tsdb.TsdbException;
 import cn.edu.tsinghua.iotdb.benchmark.workload.ingestion.Batch;
-import cn.edu.tsinghua.iotdb.benchmark.workload.ingestion.Record;
 
 import java.sql.Connection;
 import java.sql.Statement;
@@ -52,11 +51,8 @@ public class DoubleIoTDBChecker extends DoubleIOTDB {
 
   private boolean insertOneConnectionBatch(Batch batch, Connection connection) {
     try (Statement statement = connection.createStatement()) {
-      for (Record record : batch.getRecords()) {
-        String sql =
-            IoTDB.getInsertOneBatchSql(
-                batch.getDeviceSchema(), record.getTimestamp(), record.getRecordDataValue());
-        statement.addBatch(sql);
+      for (int recordIndex = 0; recordIndex < batch.getRowSize(); recordIndex++) {
+        statement.addBatch(IoTDB.getInsertOneBatchSql(batch, recordIndex));
       }
       statement.executeBatch();
       return true;
@@ -40,7 +40,6 @@ import cn.edu.tsinghua.iotdb.benchmark.tsdb.DBUtil;
 import cn.edu.tsinghua.iotdb.benchmark.tsdb.IDatabase;
 import cn.edu.tsinghua.iotdb.benchmark.tsdb.TsdbException;
 import cn.edu.tsinghua.iotdb.benchmark.workload.ingestion.Batch;
-import cn.edu.tsinghua.iotdb.benchmark.workload.ingestion.Record;
 import cn.edu.tsinghua.iotdb.benchmark.workload.query.impl.*;
 import cn.edu.tsinghua.iotdb.benchmark.workload.schema.DeviceSchema;
 import org.slf4j.Logger;
@@ -180,7 +179,7 @@ public class IoTDBSessionPool implements IDatabase {
     List<MeasurementSchema> schemaList = new ArrayList<>();
     int sensorIndex = 0;
     for (String sensor : batch.getDeviceSchema().getSensors()) {
-      String dataType = DBUtil.getDataType(sensorIndex);
+      String dataType = batch.getDataType(sensorIndex);
       schemaList.add(
           new MeasurementSchema(
               sensor,
@@ -194,50 +193,24 @@ public class IoTDBSessionPool implements IDatabase {
             + batch.getDeviceSchema().getGroup()
             + "."
             + batch.getDeviceSchema().getDevice();
-    Tablet tablet = new Tablet(deviceId, schemaList, batch.getRecords().size());
-    long[] timestamps = tablet.timestamps;
+    int rowSize = batch.getRowSize();
+    Tablet tablet = new Tablet(deviceId, schemaList, rowSize);
     Object[] values = tablet.values;
 
-    for (int recordIndex = 0; recordIndex < batch.getRecords().size(); recordIndex++) {
-      tablet.rowSize++;
-      Record record = batch.getRecords().get(recordIndex);
-      sensorIndex = 0;
-      long currentTime = record.getTimestamp();
-      timestamps[recordIndex] = currentTime;
-      for (int recordValueIndex = 0;
-          recordValueIndex < record.getRecordDataValue().size();
-          recordValueIndex++) {
-        switch (DBUtil.getDataType(sensorIndex)) {
-          case "BOOLEAN":
-            boolean[] sensorsBool = (boolean[]) values[recordValueIndex];
-            sensorsBool[recordIndex] = (boolean) record.getRecordDataValue().get(recordValueIndex);
-            break;
-          case "INT32":
-            int[] sensorsInt = (int[]) values[recordValueIndex];
-            sensorsInt[recordIndex] = (int) record.getRecordDataValue().get(recordValueIndex);
-            break;
-          case "INT64":
-            long[] sensorsLong = (long[]) values[recordValueIndex];
-            sensorsLong[recordIndex] = (long) record.getRecordDataValue().get(recordValueIndex);
-            break;
-          case "FLOAT":
-            float[] sensorsFloat = (float[]) values[recordValueIndex];
-            sensorsFloat[recordIndex] = (float) record.getRecordDataValue().get(recordValueIndex);
-            break;
-          case "DOUBLE":
-            double[] sensorsDouble = (double[]) values[recordValueIndex];
-            sensorsDouble[recordIndex] = (double) record.getRecordDataValue().get(recordValueIndex);
-            break;
-          case "TEXT":
-            // TODO FIXME seems the text is not supported.
-            Binary[] sensorsText = (Binary[]) values[recordValueIndex];
-            sensorsText[recordIndex] =
-                Binary.valueOf((String) (record.getRecordDataValue().get(recordValueIndex)));
-            break;
+    // batch is already column-oriented, so copy each column as a whole
+    System.arraycopy(batch.getTimestamps(), 0, tablet.timestamps, 0, rowSize);
+    for (int columnIndex = 0; columnIndex < values.length; columnIndex++) {
+      if ("TEXT".equals(batch.getDataType(columnIndex))) {
+        byte[][] texts = (byte[][]) batch.getColumn(columnIndex);
+        Binary[] sensorsText = (Binary[]) values[columnIndex];
+        for (int recordIndex = 0; recordIndex < rowSize; recordIndex++) {
+          sensorsText[recordIndex] = new Binary(texts[recordIndex]);
         }
-        sensorIndex++;
+      } else {
+        System.arraycopy(batch.getColumn(columnIndex), 0, values[columnIndex], 0, rowSize);
       }
     }
+    tablet.rowSize = rowSize;
     try {
       pool.insertTablet(tablet);
       tablet.reset();
@@ -254,66 +227,35 @@ public class IoTDBSessionPool implements IDatabase {
   public Status insertOneSensorBatch(Batch batch) throws DBConnectException {
     List<MeasurementSchema> schemaList = new ArrayList<>();
     String dataType = batch.getColType();
-    int sensorIndex = 0;
-    for (String sensor : batch.getDeviceSchema().getSensors()) {
-      schemaList.add(
-          new MeasurementSchema(
-              sensor,
-              Enum.valueOf(TSDataType.class, dataType),
-              Enum.valueOf(TSEncoding.class, getEncodingType(dataType))));
-      sensorIndex++;
-    }
+    schemaList.add(
+        new MeasurementSchema(
+            batch.getSensor(0),
+            Enum.valueOf(TSDataType.class, dataType),
+            Enum.valueOf(TSEncoding.class, getEncodingType(dataType))));
     String deviceId =
         Constants.ROOT_SERIES_NAME
             + "."
             + batch.getDeviceSchema().getGroup()
             + "."
             + batch.getDeviceSchema().getDevice();
-    Tablet tablet = new Tablet(deviceId, schemaList, batch.getRecords().size());
-    long[] timestamps = tablet.timestamps;
+    int rowSize = batch.getRowSize();
+    Tablet tablet = new Tablet(deviceId, schemaList, rowSize);
     Object[] values = tablet.values;
 
-    for (int recordIndex = 0; recordIndex < batch.getRecords().size(); recordIndex++) {
-      tablet.rowSize++;
-      Record record = batch.getRecords().get(recordIndex);
-      sensorIndex = 0;
-      long currentTime = record.getTimestamp();
-      timestamps[recordIndex] = currentTime;
-      for (int recordValueIndex = 0;
-          recordValueIndex < record.getRecordDataValue().size();
-          recordValueIndex++) {
-        switch (DBUtil.getDataType(sensorIndex)) {
-          case "BOOLEAN":
-            boolean[] sensorsBool = (boolean[]) values[recordValueIndex];
-            sensorsBool[recordIndex] =
-                (boolean) (record.getRecordDataValue().get(recordValueIndex));
-            break;
-          case "INT32":
-            int[] sensorsInt = (int[]) values[recordValueIndex];
-            sensorsInt[recordIndex] = (int) (record.getRecordDataValue().get(recordValueIndex));
-            break;
-          case "INT64":
-            long[] sensorsLong = (long[]) values[recordValueIndex];
-            sensorsLong[recordIndex] = (long) (record.getRecordDataValue().get(recordValueIndex));
-            break;
-          case "FLOAT":
-            float[] sensorsFloat = (float[]) values[recordValueIndex];
-            sensorsFloat[recordIndex] = (float) (record.getRecordDataValue().get(recordValueIndex));
-            break;
-          case "DOUBLE":
-            double[] sensorsDouble = (double[]) values[recordValueIndex];
-            sensorsDouble[recordIndex] =
-                (double) (record.getRecordDataValue().get(recordValueIndex));
-            break;
-          case "TEXT":
-            Binary[] sensorsText = (Binary[]) values[recordValueIndex];
-            sensorsText[recordIndex] =
-                Binary.valueOf((String) (record.getRecordDataValue().get(recordValueIndex)));
-            break;
+    // batch is already column-oriented, so copy each column as a whole
+    System.arraycopy(batch.getTimestamps(), 0, tablet.timestamps, 0, rowSize);
+    for (int columnIndex = 0; columnIndex < values.length; columnIndex++) {
+      if ("TEXT".equals(batch.getDataType(columnIndex))) {
+        byte[][] texts = (byte[][]) batch.getColumn(columnIndex);
+        Binary[] sensorsText = (Binary[]) values[columnIndex];
+        for (int recordIndex = 0; recordIndex < rowSize; recordIndex++) {
+          sensorsText[recordIndex] = new Binary(texts[recordIndex]);
         }
-        sensorIndex++;
+      } else {
+        System.arraycopy(batch.getColumn(columnIndex), 0, values[columnIndex], 0, rowSize);
       }
     }
+    tablet.rowSize = rowSize;
     try {
       pool.insertTablet(tablet);
       tablet.reset();
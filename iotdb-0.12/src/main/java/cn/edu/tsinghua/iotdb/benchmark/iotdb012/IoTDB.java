@@ -34,7 +34,6 @@ import cn.edu.tsinghua.iotdb.benchmark.tsdb.DBUtil;
 import cn.edu.tsinghua.iotdb.benchmark.tsdb.IDatabase;
 import cn.edu.tsinghua.iotdb.benchmark.tsdb.TsdbException;
 import cn.edu.tsinghua.iotdb.benchmark.workload.ingestion.Batch;
-import cn.edu.tsinghua.iotdb.benchmark.workload.ingestion.Record;
 import cn.edu.tsinghua.iotdb.benchmark.workload.query.impl.*;
 import cn.edu.tsinghua.iotdb.benchmark.workload.schema.DeviceSchema;
 import org.slf4j.Logger;
@@ -66,7 +65,9 @@ public class IoTDB implements IDatabase {
   protected ExecutorService service;
   protected Future<?> future;
 
-  public IoTDB() {}
+  public IoTDB() {
+    StandInServer.startIfEnabled();
+  }
 
   @Override
   public void init() throws TsdbException {
@@ -235,38 +236,34 @@ public class IoTDB implements IDatabase {
 
   @Override
   public Status insertOneBatch(Batch batch) throws DBConnectException {
-    try (Statement statement = ioTDBConnection.getConnection().createStatement()) {
-      for (Record record : batch.getRecords()) {
-        String sql =
-            getInsertOneBatchSql(
-                batch.getDeviceSchema(), record.getTimestamp(), record.getRecordDataValue());
-        statement.addBatch(sql);
-      }
-      statement.executeBatch();
-      return new Status(true);
-    } catch (Exception e) {
-      return new Status(false, 0, e, e.toString());
-    }
+    return insertBatchByJDBC(batch);
   }
 
   @Override
   public Status insertOneSensorBatch(Batch batch) throws DBConnectException {
-    try (Statement statement = ioTDBConnection.getConnection().createStatement()) {
-      String colType = batch.getColType();
-      int colIndex = batch.getColIndex();
-      for (Record record : batch.getRecords()) {
-        String sql =
-            getInsertOneBatchSql(
-                batch.getDeviceSchema(),
-                record.getTimestamp(),
-                record.getRecordDataValue().get(colIndex),
-                colType);
-        statement.addBatch(sql);
-      }
-      statement.executeBatch();
-      return new Status(true);
-    } catch (Exception e) {
-      return new Status(false, 0, e, e.toString());
+    return insertBatchByJDBC(batch);
+  }
+
+  /** Insert a batch of all sensors or one sensor according to IOTDB_JDBC_INSERT_MODE */
+  private Status insertBatchByJDBC(Batch batch) {
+    switch (config.getIOTDB_JDBC_INSERT_MODE()) {
+      case Constants.JDBC_INSERT_MULTI_ROW:
+        try (Statement statement = ioTDBConnection.getConnection().createStatement()) {
+          statement.execute(getInsertMultiRowSql(batch));
+          return new Status(true);
+        } catch (Exception e) {
+          return new Status(false, 0, e, e.toString());
+        }
+      default:
+        try (Statement statement = ioTDBConnection.getConnection().createStatement()) {
+          for (int recordIndex = 0; recordIndex < batch.getRowSize(); recordIndex++) {
+            statement.addBatch(getInsertOneBatchSql(batch, recordIndex));
+          }
+          statement.executeBatch();
+          return new Status(true);
+        } catch (Exception e) {
+          return new Status(false, 0, e, e.toString());
+        }
     }
   }
 
@@ -424,36 +421,6 @@ public class IoTDB implements IDatabase {
     return builder.toString();
   }
 
-  public static String getInsertOneBatchSql(
-      DeviceSchema deviceSchema, long timestamp, Object value, String colType) {
-    StringBuilder builder = new StringBuilder();
-    builder
-        .append("insert into ")
-        .append(Constants.ROOT_SERIES_NAME)
-        .append(".")
-        .append(deviceSchema.getGroup())
-        .append(".")
-        .append(deviceSchema.getDevice())
-        .append("(timestamp");
-    for (String sensor : deviceSchema.getSensors()) {
-      builder.append(",").append(sensor);
-    }
-    builder.append(") values(");
-    builder.append(timestamp);
-    switch (colType) {
-      case "TEXT":
-        builder.append(",").append("'").append(value).append("'");
-        break;
-      default:
-        builder.append(",").append(value);
-        break;
-    }
-
-    builder.append(")");
-    LOGGER.debug("getInsertOneBatchSql: {}", builder);
-    return builder.toString();
-  }
-
   /**
    * generate simple query header.
    *
@@ -574,40 +541,37 @@ public class IoTDB implements IDatabase {
     return prefix + " group by ([" + start + "," + end + ")," + granularity + "ms) ";
   }
 
-  public static String getInsertOneBatchSql(
-      DeviceSchema deviceSchema, long timestamp, List<Object> values) {
+  /**
+   * generate insert sql of one row in batch. If the batch only contains one sensor (colIndex !=
+   * -1), only that sensor is inserted. eg. insert into root.group_0.d_0(timestamp,s_0,s_1)
+   * values(1535558400000,1,'abc')
+   *
+   * @param batch batch to insert
+   * @param recordIndex row index in batch
+   */
+  public static String getInsertOneBatchSql(Batch batch, int recordIndex) {
+    String sql = DBUtil.getIoTDBInsertSql(batch, recordIndex);
+    LOGGER.debug("getInsertOneBatchSql: {}", sql);
+    return sql;
+  }
+
+  /**
+   * generate one insert sql of all rows in batch. eg. insert into
+   * root.group_0.d_0(timestamp,s_0,s_1) values(1535558400000,1,'abc'),(1535558405000,2,'def')
+   *
+   * @param batch batch to insert
+   */
+  public static String getInsertMultiRowSql(Batch batch) {
     StringBuilder builder = new StringBuilder();
-    builder
-        .append("insert into ")
-        .append(Constants.ROOT_SERIES_NAME)
-        .append(".")
-        .append(deviceSchema.getGroup())
-        .append(".")
-        .append(deviceSchema.getDevice())
-        .append("(timestamp");
-    for (String sensor : deviceSchema.getSensors()) {
-      builder.append(",").append(sensor);
-    }
-    builder.append(") values(");
-    builder.append(timestamp);
-    int sensorIndex = 0;
-    for (Object value : values) {
-      switch (DBUtil.getDataType(sensorIndex)) {
-        case "BOOLEAN":
-        case "INT32":
-        case "INT64":
-        case "FLOAT":
-        case "DOUBLE":
-          builder.append(",").append(value);
-          break;
-        case "TEXT":
-          builder.append(",").append("'").append(value).append("'");
-          break;
+    DBUtil.appendIoTDBInsertHead(builder, batch);
+    builder.append(" values");
+    for (int recordIndex = 0; recordIndex < batch.getRowSize(); recordIndex++) {
+      if (recordIndex > 0) {
+        builder.append(",");
       }
-      sensorIndex++;
+      DBUtil.appendIoTDBInsertRow(builder, batch, recordIndex);
     }
-    builder.append(")");
-    LOGGER.debug("getInsertOneBatchSql: {}", builder);
+    LOGGER.debug("getInsertMultiRowSql: {}", builder);
     return builder.toString();
   }
 }
@@ -29,16 +29,26 @@ import cn.edu.tsinghua.iotdb.benchmark.conf.Config;
 import cn.edu.tsinghua.iotdb.benchmark.conf.ConfigDescriptor;
 import cn.edu.tsinghua.iotdb.benchmark.conf.Constants;
 import cn.edu.tsinghua.iotdb.benchmark.measurement.Status;
+import cn.edu.tsinghua.iotdb.benchmark.tsdb.TsdbException;
 import cn.edu.tsinghua.iotdb.benchmark.workload.ingestion.Batch;
-import cn.edu.tsinghua.iotdb.benchmark.workload.ingestion.Record;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
 public class IoTDBClusterSession extends IoTDBSessionBase {
 
@@ -47,6 +57,10 @@ public class IoTDBClusterSession extends IoTDBSessionBase {
   private SessionPool[] sessions;
   private int currSession;
   private static final int MAX_SESSION_CONNECTION_PER_CLIENT = 3;
+  /** sends insert requests asynchronously, null if MAX_IN_FLIGHT <= 1 */
+  private ExecutorService asyncService;
+  /** fails the asynchronous requests which exceed WRITE_OPERATION_TIMEOUT_MS */
+  private ScheduledThreadPoolExecutor timeoutService;
 
   public IoTDBClusterSession() {
     super();
@@ -62,12 +76,32 @@ public class IoTDBClusterSession extends IoTDBSessionBase {
               Integer.parseInt(config.getPORT().get(i)),
               Constants.USER,
               Constants.PASSWD,
-              MAX_SESSION_CONNECTION_PER_CLIENT,
+              Math.max(MAX_SESSION_CONNECTION_PER_CLIENT, config.getMAX_IN_FLIGHT()),
               config.isENABLE_THRIFT_COMPRESSION(),
               true);
     }
   }
 
+  @Override
+  public void init() throws TsdbException {
+    super.init();
+    if (config.getMAX_IN_FLIGHT() > 1) {
+      asyncService = Executors.newFixedThreadPool(config.getMAX_IN_FLIGHT());
+      timeoutService = new ScheduledThreadPoolExecutor(1);
+      timeoutService.setRemoveOnCancelPolicy(true);
+    }
+  }
+
+  @Override
+  public void close() throws TsdbException {
+    // DBWrapper has waited for the requests in flight
+    if (asyncService != null) {
+      asyncService.shutdownNow();
+      timeoutService.shutdownNow();
+    }
+    super.close();
+  }
+
   @Override
   public Status insertOneBatchByRecord(Batch batch) {
     String deviceId =
@@ -77,16 +111,16 @@ public class IoTDBClusterSession extends IoTDBSessionBase {
             + "."
             + batch.getDeviceSchema().getDevice();
     int failRecord = 0;
-    for (Record record : batch.getRecords()) {
-      long timestamp = record.getTimestamp();
-      List<TSDataType> dataTypes = constructDataTypes(record.getRecordDataValue().size());
+    List<TSDataType> dataTypes = constructDataTypes(batch);
+    for (int recordIndex = 0; recordIndex < batch.getRowSize(); recordIndex++) {
+      long timestamp = batch.getTimestamp(recordIndex);
       try {
         sessions[currSession].insertRecord(
             deviceId,
             timestamp,
             batch.getDeviceSchema().getSensors(),
             dataTypes,
-            record.getRecordDataValue());
+            batch.getRowValues(recordIndex));
       } catch (IoTDBConnectionException | StatementExecutionException e) {
         LOGGER.error("insert record failed", e);
         failRecord++;
@@ -104,6 +138,90 @@ public class IoTDBClusterSession extends IoTDBSessionBase {
 
   @Override
   public Status insertOneBatchByRecords(Batch batch) {
+    future = service.submit(createRecordsRequest(batch));
+    return waitFuture();
+  }
+
+  @Override
+  public Status insertOneBatchByTablet(Batch batch) {
+    future = service.submit(createTabletRequest(batch));
+    return waitFuture();
+  }
+
+  @Override
+  public Status insertBatchesByTablets(List<Batch> batches) {
+    Map<String, Tablet> tablets = genTablets(batches);
+    SessionPool session = nextSession();
+    future =
+        service.submit(
+            () -> {
+              session.insertTablets(tablets);
+              return null;
+            });
+    return waitFuture();
+  }
+
+  /**
+   * Insert one batch by a thread of asyncService, so that up to MAX_IN_FLIGHT batches are in
+   * flight. The batch is converted to request before returning, so it is not used afterwards. A
+   * request not completed in WRITE_OPERATION_TIMEOUT_MS is cancelled and reported as failed, like
+   * the synchronous ones in waitFuture().
+   */
+  @Override
+  public void insertOneBatchAsync(Batch batch, Consumer<Status> callback) {
+    if (asyncService == null) {
+      callback.accept(insertOneBatch(batch));
+      return;
+    }
+    Callable<Void> request;
+    switch (getInsertMode()) {
+      case Constants.INSERT_USE_SESSION_TABLET:
+        request = createTabletRequest(batch);
+        break;
+      case Constants.INSERT_USE_SESSION_RECORDS:
+        request = createRecordsRequest(batch);
+        break;
+      default:
+        // records are inserted one by one, which are not sent as one request
+        callback.accept(insertOneBatch(batch));
+        return;
+    }
+    // whichever of the request and its timeout completes first calls the callback
+    AtomicBoolean completed = new AtomicBoolean(false);
+    AtomicReference<Future<?>> requestFuture = new AtomicReference<>();
+    long timeout = config.getWRITE_OPERATION_TIMEOUT_MS();
+    ScheduledFuture<?> timeoutFuture =
+        timeoutService.schedule(
+            () -> {
+              if (completed.compareAndSet(false, true)) {
+                Future<?> future = requestFuture.get();
+                if (future != null) {
+                  future.cancel(true);
+                }
+                Exception e = new TimeoutException("insert is not completed in " + timeout + " ms");
+                callback.accept(new Status(false, 0, e, e.toString()));
+              }
+            },
+            timeout,
+            TimeUnit.MILLISECONDS);
+    requestFuture.set(
+        asyncService.submit(
+            () -> {
+              Status status;
+              try {
+                request.call();
+                status = new Status(true);
+              } catch (Exception e) {
+                status = new Status(false, 0, e, e.toString());
+              }
+              if (completed.compareAndSet(false, true)) {
+                timeoutFuture.cancel(false);
+                callback.accept(status);
+              }
+            }));
+  }
+
+  private Callable<Void> createRecordsRequest(Batch batch) {
     List<String> deviceIds = new ArrayList<>();
     String deviceId =
         Constants.ROOT_SERIES_NAME
@@ -115,47 +233,35 @@ public class IoTDBClusterSession extends IoTDBSessionBase {
     List<List<String>> measurementsList = new ArrayList<>();
     List<List<TSDataType>> typesList = new ArrayList<>();
     List<List<Object>> valuesList = new ArrayList<>();
-    for (Record record : batch.getRecords()) {
+    List<TSDataType> dataTypes = constructDataTypes(batch);
+    for (int recordIndex = 0; recordIndex < batch.getRowSize(); recordIndex++) {
       deviceIds.add(deviceId);
-      times.add(record.getTimestamp());
+      times.add(batch.getTimestamp(recordIndex));
       measurementsList.add(batch.getDeviceSchema().getSensors());
-      valuesList.add(record.getRecordDataValue());
-      typesList.add(constructDataTypes(record.getRecordDataValue().size()));
+      valuesList.add(batch.getRowValues(recordIndex));
+      typesList.add(dataTypes);
     }
-
-    future =
-        service.submit(
-            () -> {
-              try {
-                sessions[currSession].insertRecords(
-                    deviceIds, times, measurementsList, typesList, valuesList);
-              } catch (IoTDBConnectionException | StatementExecutionException e) {
-                LOGGER.error("insert records failed", e);
-              }
-            });
-
-    Status status = waitFuture();
-    currSession = (currSession + 1) % sessions.length;
-    return status;
+    SessionPool session = nextSession();
+    return () -> {
+      session.insertRecords(deviceIds, times, measurementsList, typesList, valuesList);
+      return null;
+    };
   }
 
-  @Override
-  public Status insertOneBatchByTablet(Batch batch) {
+  private Callable<Void> createTabletRequest(Batch batch) {
     Tablet tablet = genTablet(batch);
+    SessionPool session = nextSession();
+    return () -> {
+      session.insertTablet(tablet);
+      return null;
+    };
+  }
 
-    future =
-        service.submit(
-            () -> {
-              try {
-                sessions[currSession].insertTablet(tablet);
-              } catch (IoTDBConnectionException | StatementExecutionException e) {
-                LOGGER.error("insert tablet failed", e);
-              }
-            });
-
-    Status status = waitFuture();
+  /** Get the session pool of the next request, requests are sent to each host in turn */
+  private SessionPool nextSession() {
+    SessionPool session = sessions[currSession];
     currSession = (currSession + 1) % sessions.length;
-    return status;
+    return session;
   }
 
   private Status waitFuture() {
@@ -30,12 +30,12 @@ import cn.edu.tsinghua.iotdb.benchmark.conf.ConfigDescriptor;
 import cn.edu.tsinghua.iotdb.benchmark.conf.Constants;
 import cn.edu.tsinghua.iotdb.benchmark.measurement.Status;
 import cn.edu.tsinghua.iotdb.benchmark.workload.ingestion.Batch;
-import cn.edu.tsinghua.iotdb.benchmark.workload.ingestion.Record;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 public class IoTDBSession extends IoTDBSessionBase {
 
@@ -87,16 +87,16 @@ public class IoTDBSession extends IoTDBSessionBase {
             + "."
             + batch.getDeviceSchema().getDevice();
     int failRecord = 0;
-    for (Record record : batch.getRecords()) {
-      long timestamp = record.getTimestamp();
-      List<TSDataType> dataTypes = constructDataTypes(record.getRecordDataValue().size());
+    List<TSDataType> dataTypes = constructDataTypes(batch);
+    for (int recordIndex = 0; recordIndex < batch.getRowSize(); recordIndex++) {
+      long timestamp = batch.getTimestamp(recordIndex);
       try {
         session.insertRecord(
             deviceId,
             timestamp,
             batch.getDeviceSchema().getSensors(),
             dataTypes,
-            record.getRecordDataValue());
+            batch.getRowValues(recordIndex));
       } catch (IoTDBConnectionException | StatementExecutionException e) {
         failRecord++;
       }
@@ -122,12 +122,13 @@ public class IoTDBSession extends IoTDBSessionBase {
     List<List<String>> measurementsList = new ArrayList<>();
     List<List<TSDataType>> typesList = new ArrayList<>();
     List<List<Object>> valuesList = new ArrayList<>();
-    for (Record record : batch.getRecords()) {
+    List<TSDataType> dataTypes = constructDataTypes(batch);
+    for (int recordIndex = 0; recordIndex < batch.getRowSize(); recordIndex++) {
       deviceIds.add(deviceId);
-      times.add(record.getTimestamp());
+      times.add(batch.getTimestamp(recordIndex));
       measurementsList.add(batch.getDeviceSchema().getSensors());
-      valuesList.add(record.getRecordDataValue());
-      typesList.add(constructDataTypes(record.getRecordDataValue().size()));
+      valuesList.add(batch.getRowValues(recordIndex));
+      typesList.add(dataTypes);
     }
     try {
       session.insertRecords(deviceIds, times, measurementsList, typesList, valuesList);
@@ -147,4 +148,15 @@ public class IoTDBSession extends IoTDBSessionBase {
       return new Status(false, 0, e, e.toString());
     }
   }
+
+  @Override
+  public Status insertBatchesByTablets(List<Batch> batches) {
+    Map<String, Tablet> tablets = genTablets(batches);
+    try {
+      session.insertTablets(tablets);
+      return new Status(true);
+    } catch (IoTDBConnectionException | StatementExecutionException e) {
+      return new Status(false, 0, e, e.toString());
+    }
+  }
 }
@@ -26,13 +26,14 @@ import org.apache.iotdb.tsfile.write.record.Tablet;
 import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
 
 import cn.edu.tsinghua.iotdb.benchmark.conf.Constants;
+import cn.edu.tsinghua.iotdb.benchmark.exception.DBConnectException;
 import cn.edu.tsinghua.iotdb.benchmark.measurement.Status;
-import cn.edu.tsinghua.iotdb.benchmark.tsdb.DBUtil;
 import cn.edu.tsinghua.iotdb.benchmark.workload.ingestion.Batch;
-import cn.edu.tsinghua.iotdb.benchmark.workload.ingestion.Record;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class IoTDBSessionBase extends IoTDB {
   public IoTDBSessionBase() {
@@ -51,11 +52,26 @@ public class IoTDBSessionBase extends IoTDB {
     return new Status(true);
   }
 
+  /** Insert the batches of several devices by one insertTablets request */
+  public Status insertBatchesByTablets(List<Batch> batches) {
+    return new Status(true);
+  }
+
+  /** @return tablets of the batches, keyed by device path as insertTablets requires */
+  protected Map<String, Tablet> genTablets(List<Batch> batches) {
+    Map<String, Tablet> tablets = new HashMap<>();
+    for (Batch batch : batches) {
+      Tablet tablet = genTablet(batch);
+      tablets.put(tablet.deviceId, tablet);
+    }
+    return tablets;
+  }
+
   protected Tablet genTablet(Batch batch) {
     List<MeasurementSchema> schemaList = new ArrayList<>();
     int sensorIndex = 0;
     for (String sensor : batch.getDeviceSchema().getSensors()) {
-      String dataType = DBUtil.getDataType(sensorIndex);
+      String dataType = batch.getDataType(sensorIndex);
       schemaList.add(
           new MeasurementSchema(
               sensor,
@@ -69,58 +85,31 @@ public class IoTDBSessionBase extends IoTDB {
             + batch.getDeviceSchema().getGroup()
             + "."
             + batch.getDeviceSchema().getDevice();
-    Tablet tablet = new Tablet(deviceId, schemaList, batch.getRecords().size());
-    long[] timestamps = tablet.timestamps;
+    int rowSize = batch.getRowSize();
+    Tablet tablet = new Tablet(deviceId, schemaList, rowSize);
     Object[] values = tablet.values;
 
-    for (int recordIndex = 0; recordIndex < batch.getRecords().size(); recordIndex++) {
-      tablet.rowSize++;
-      Record record = batch.getRecords().get(recordIndex);
-      sensorIndex = 0;
-      long currentTime = record.getTimestamp();
-      timestamps[recordIndex] = currentTime;
-      for (int recordValueIndex = 0;
-          recordValueIndex < record.getRecordDataValue().size();
-          recordValueIndex++) {
-        switch (DBUtil.getDataType(sensorIndex)) {
-          case "BOOLEAN":
-            boolean[] sensorsBool = (boolean[]) values[recordValueIndex];
-            sensorsBool[recordIndex] =
-                (boolean) (record.getRecordDataValue().get(recordValueIndex));
-            break;
-          case "INT32":
-            int[] sensorsInt = (int[]) values[recordValueIndex];
-            sensorsInt[recordIndex] = (int) (record.getRecordDataValue().get(recordValueIndex));
-            break;
-          case "INT64":
-            long[] sensorsLong = (long[]) values[recordValueIndex];
-            sensorsLong[recordIndex] = (long) (record.getRecordDataValue().get(recordValueIndex));
-            break;
-          case "FLOAT":
-            float[] sensorsFloat = (float[]) values[recordValueIndex];
-            sensorsFloat[recordIndex] = (float) (record.getRecordDataValue().get(recordValueIndex));
-            break;
-          case "DOUBLE":
-            double[] sensorsDouble = (double[]) values[recordValueIndex];
-            sensorsDouble[recordIndex] =
-                (double) (record.getRecordDataValue().get(recordValueIndex));
-            break;
-          case "TEXT":
-            Binary[] sensorsText = (Binary[]) values[recordValueIndex];
-            sensorsText[recordIndex] =
-                Binary.valueOf((String) record.getRecordDataValue().get(recordValueIndex));
-            break;
+    // batch is already column-oriented, so copy each column as a whole
+    System.arraycopy(batch.getTimestamps(), 0, tablet.timestamps, 0, rowSize);
+    for (int columnIndex = 0; columnIndex < values.length; columnIndex++) {
+      if ("TEXT".equals(batch.getDataType(columnIndex))) {
+        byte[][] texts = (byte[][]) batch.getColumn(columnIndex);
+        Binary[] sensorsText = (Binary[]) values[columnIndex];
+        for (int recordIndex = 0; recordIndex < rowSize; recordIndex++) {
+          sensorsText[recordIndex] = new Binary(texts[recordIndex]);
         }
-        sensorIndex++;
+      } else {
+        System.arraycopy(batch.getColumn(columnIndex), 0, values[columnIndex], 0, rowSize);
       }
     }
+    tablet.rowSize = rowSize;
     return tablet;
   }
 
-  public List<TSDataType> constructDataTypes(int recordValueSize) {
+  public List<TSDataType> constructDataTypes(Batch batch) {
     List<TSDataType> dataTypes = new ArrayList<>();
-    for (int sensorIndex = 0; sensorIndex < recordValueSize; sensorIndex++) {
-      switch (DBUtil.getDataType(sensorIndex)) {
+    for (int sensorIndex = 0; sensorIndex < batch.getColumnSize(); sensorIndex++) {
+      switch (batch.getDataType(sensorIndex)) {
         case "BOOLEAN":
           dataTypes.add(TSDataType.BOOLEAN);
           break;
@@ -144,12 +133,18 @@ public class IoTDBSessionBase extends IoTDB {
     return dataTypes;
   }
 
+  /** @return insert mode of session, the last part of DB_SWITCH */
+  protected String getInsertMode() {
+    String[] params = config.getDB_SWITCH().split("-");
+    return params[params.length - 1];
+  }
+
   @Override
   public Status insertOneBatch(Batch batch) {
-    String[] params = config.getDB_SWITCH().split("-");
-    String insert_mode = params[params.length - 1];
+    String insert_mode = getInsertMode();
     switch (insert_mode) {
       case Constants.INSERT_USE_SESSION_TABLET:
+      case Constants.INSERT_USE_SESSION_TABLETS:
         return insertOneBatchByTablet(batch);
       case Constants.INSERT_USE_SESSION_RECORD:
         return insertOneBatchByRecord(batch);
@@ -159,4 +154,13 @@ public class IoTDBSessionBase extends IoTDB {
         throw new IllegalStateException("Unexpected INSERT_MODE value: " + insert_mode);
     }
   }
+
+  /** In SESSION_BY_TABLETS mode, the batches are sent together, otherwise one by one */
+  @Override
+  public Status insertBatches(List<Batch> batches) throws DBConnectException {
+    if (Constants.INSERT_USE_SESSION_TABLETS.equals(getInsertMode())) {
+      return insertBatchesByTablets(batches);
+    }
+    return super.insertBatches(batches);
+  }
 }
@@ -0,0 +1,313 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package cn.edu.tsinghua.iotdb.benchmark.iotdb012;
+
+import org.apache.iotdb.rpc.IoTDBConnectionException;
+import org.apache.iotdb.rpc.StatementExecutionException;
+import org.apache.iotdb.session.pool.SessionPool;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.utils.Binary;
+import org.apache.iotdb.tsfile.write.record.Tablet;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+
+import cn.edu.tsinghua.iotdb.benchmark.conf.Config;
+import cn.edu.tsinghua.iotdb.benchmark.conf.ConfigDescriptor;
+import cn.edu.tsinghua.iotdb.benchmark.conf.Constants;
+import cn.edu.tsinghua.iotdb.benchmark.measurement.enums.SingleTestMetrics;
+import cn.edu.tsinghua.iotdb.benchmark.measurement.enums.SystemMetrics;
+import cn.edu.tsinghua.iotdb.benchmark.measurement.enums.WindowResult;
+import cn.edu.tsinghua.iotdb.benchmark.measurement.persistence.ITestDataPersistence;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Save test results into IoTDB 0.12 by tablets instead of sql. Operation results and window results
+ * are appended into the tablet of their device, a tablet is sent by the flush thread through
+ * SessionPool.insertTablet when it has IOTDB_RECORDER_TABLET_SIZE rows, and all the tablets are
+ * sent every IOTDB_RECORDER_FLUSH_INTERVAL ms. Time series are created automatically by IoTDB.
+ */
+public class IoTDBSessionRecorder implements ITestDataPersistence {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(IoTDBSessionRecorder.class);
+  private static final Config config = ConfigDescriptor.getInstance().getConfig();
+
+  private static final SimpleDateFormat projectDateFormat =
+      new SimpleDateFormat("yyyy_MM_dd_hh_mm_ss");
+  private static final long EXP_TIME = System.currentTimeMillis();
+  private static final String PROJECT_ID =
+      String.format(
+          "%s_%s", config.getREMARK(), projectDateFormat.format(new java.util.Date(EXP_TIME)));
+  private static final String PATH_PREFIX = Constants.ROOT_SERIES_NAME;
+  private static final String OPERATION_RESULT_PREFIX = PATH_PREFIX + "." + PROJECT_ID + ".";
+  private static final String WINDOW_RESULT_PREFIX = PATH_PREFIX + "." + PROJECT_ID + ".window.";
+
+  private static final int MAX_SESSION_CONNECTION = 2;
+  /** full tablets waiting to be sent, results are given up when it is full */
+  private static final int FULL_TABLET_QUEUE_SIZE = 16;
+  private static final long CLOSE_TIMEOUT_MS = 30000;
+
+  private static final List<MeasurementSchema> OPERATION_SCHEMAS = new ArrayList<>();
+  private static final List<MeasurementSchema> WINDOW_SCHEMAS = new ArrayList<>();
+
+  private static String localName;
+  private static SessionPool sessionPool;
+  /** tablet being appended of each device, guarded by itself */
+  private static final Map<String, Tablet> tablets = new HashMap<>();
+
+  private static final BlockingQueue<Tablet> fullTablets =
+      new ArrayBlockingQueue<>(FULL_TABLET_QUEUE_SIZE);
+  /** number of results given up because IoTDB is too slow */
+  private static final AtomicLong droppedNum = new AtomicLong(0);
+
+  private static volatile boolean running = true;
+  private static Thread flushThread;
+  /** Whether the session pool and flush thread have been created */
+  private static boolean isInit = false;
+
+  static {
+    for (SingleTestMetrics metrics : SingleTestMetrics.values()) {
+      OPERATION_SCHEMAS.add(
+          new MeasurementSchema(metrics.getName(), TSDataType.valueOf(metrics.getType())));
+    }
+    for (WindowResult windowResult : WindowResult.values()) {
+      WINDOW_SCHEMAS.add(new MeasurementSchema(windowResult.getName(), TSDataType.DOUBLE));
+    }
+  }
+
+  public IoTDBSessionRecorder() {
+    // all the recorders share the same session pool and flush thread
+    synchronized (IoTDBSessionRecorder.class) {
+      if (!isInit) {
+        init();
+        isInit = true;
+      }
+    }
+  }
+
+  private static void init() {
+    try {
+      InetAddress localhost = InetAddress.getLocalHost();
+      localName = localhost.getHostName();
+    } catch (UnknownHostException e) {
+      localName = "localName";
+      LOGGER.error("Get localhost failed because: {}", e.getMessage(), e);
+    }
+    localName = localName.replace("-", "_");
+    localName = localName.replace(".", "_");
+    sessionPool =
+        new SessionPool(
+            config.getTEST_DATA_STORE_IP(),
+            Integer.parseInt(config.getTEST_DATA_STORE_PORT()),
+            config.getTEST_DATA_STORE_USER(),
+            config.getTEST_DATA_STORE_PW(),
+            MAX_SESSION_CONNECTION);
+    flushThread = new Thread(IoTDBSessionRecorder::runFlush, "iotdb-result-writer");
+    flushThread.setDaemon(true);
+    flushThread.start();
+    Runtime.getRuntime().addShutdownHook(new Thread(IoTDBSessionRecorder::closeAll));
+  }
+
+  private static void runFlush() {
+    long flushIntervalNanos =
+        TimeUnit.MILLISECONDS.toNanos(config.getIOTDB_RECORDER_FLUSH_INTERVAL());
+    long lastFlushTime = System.nanoTime();
+    while (running) {
+      try {
+        Tablet tablet = fullTablets.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+        if (tablet != null) {
+          send(tablet);
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+      if (System.nanoTime() - lastFlushTime >= flushIntervalNanos) {
+        flush();
+        lastFlushTime = System.nanoTime();
+      }
+    }
+  }
+
+  @Override
+  public void insertSystemMetrics(Map<SystemMetrics, Float> systemMetricsMap) {
+    List<String> measurements = new ArrayList<>();
+    List<TSDataType> types = new ArrayList<>();
+    List<Object> values = new ArrayList<>();
+    for (Map.Entry<SystemMetrics, Float> entry : systemMetricsMap.entrySet()) {
+      measurements.add(entry.getKey().toString());
+      types.add(TSDataType.DOUBLE);
+      values.add(entry.getValue() == null ? 0.0D : entry.getValue().doubleValue());
+    }
+    try {
+      sessionPool.insertRecord(
+          PATH_PREFIX + "." + localName + "." + PROJECT_ID,
+          System.currentTimeMillis(),
+          measurements,
+          types,
+          values);
+    } catch (IoTDBConnectionException | StatementExecutionException e) {
+      LOGGER.error("Insert system metric data failed ", e);
+    }
+  }
+
+  @Override
+  public void saveOperationResult(
+      String operation, int okPoint, int failPoint, double latency, String remark) {
+    Tablet full;
+    synchronized (tablets) {
+      Tablet tablet =
+          tablets.computeIfAbsent(
+              OPERATION_RESULT_PREFIX + operation,
+              device ->
+                  new Tablet(device, OPERATION_SCHEMAS, config.getIOTDB_RECORDER_TABLET_SIZE()));
+      int row = tablet.rowSize++;
+      tablet.timestamps[row] = System.currentTimeMillis();
+      Object[] values = tablet.values;
+      ((Binary[]) values[0])[row] = Binary.valueOf(Thread.currentThread().getName());
+      ((int[]) values[1])[row] = okPoint;
+      ((int[]) values[2])[row] = failPoint;
+      ((double[]) values[3])[row] = latency;
+      ((Binary[]) values[4])[row] = Binary.valueOf(remark == null ? "" : remark);
+      full = removeIfFull(tablet);
+    }
+    offer(full);
+  }
+
+  @Override
+  public void saveResult(String operation, String key, String value) {
+    double result;
+    try {
+      result = Double.parseDouble(value);
+    } catch (NumberFormatException e) {
+      LOGGER.warn("Result {} of {} is not a number", key, operation);
+      return;
+    }
+    try {
+      sessionPool.insertRecord(
+          PATH_PREFIX + "." + operation,
+          EXP_TIME,
+          Collections.singletonList(key),
+          Collections.singletonList(TSDataType.DOUBLE),
+          Collections.singletonList(result));
+    } catch (IoTDBConnectionException | StatementExecutionException e) {
+      LOGGER.error("Insert result {} of {} failed", key, operation, e);
+    }
+  }
+
+  @Override
+  public void saveWindowResult(
+      long windowStartTime, String operation, Map<WindowResult, Double> windowResultMap) {
+    Tablet full;
+    synchronized (tablets) {
+      Tablet tablet =
+          tablets.computeIfAbsent(
+              WINDOW_RESULT_PREFIX + operation,
+              device -> new Tablet(device, WINDOW_SCHEMAS, config.getIOTDB_RECORDER_TABLET_SIZE()));
+      int row = tablet.rowSize++;
+      tablet.timestamps[row] = windowStartTime;
+      WindowResult[] windowResults = WindowResult.values();
+      for (int i = 0; i < windowResults.length; i++) {
+        Double result = windowResultMap.get(windowResults[i]);
+        ((double[]) tablet.values[i])[row] = result == null ? 0.0D : result;
+      }
+      full = removeIfFull(tablet);
+    }
+    offer(full);
+  }
+
+  /** @return the tablet if it is full and removed, otherwise null */
+  private static Tablet removeIfFull(Tablet tablet) {
+    if (tablet.rowSize < tablet.getMaxRowNumber()) {
+      return null;
+    }
+    tablets.remove(tablet.deviceId);
+    return tablet;
+  }
+
+  /** Hand the full tablet to the flush thread, give it up if the flush thread is too slow */
+  private static void offer(Tablet tablet) {
+    if (tablet != null
+        && !fullTablets.offer(tablet)
+        && droppedNum.getAndAdd(tablet.rowSize) == 0) {
+      LOGGER.warn("IoTDB is too slow, results are given up");
+    }
+  }
+
+  /** Send all the full tablets and the tablets being appended */
+  private static void flush() {
+    List<Tablet> pending = new ArrayList<>();
+    fullTablets.drainTo(pending);
+    synchronized (tablets) {
+      pending.addAll(tablets.values());
+      tablets.clear();
+    }
+    for (Tablet tablet : pending) {
+      send(tablet);
+    }
+  }
+
+  private static void send(Tablet tablet) {
+    try {
+      sessionPool.insertTablet(tablet);
+    } catch (IoTDBConnectionException | StatementExecutionException e) {
+      LOGGER.error("Failed to insert {} results of {}", tablet.rowSize, tablet.deviceId, e);
+    }
+  }
+
+  @Override
+  public void saveTestConfig() {
+    // TODO save config into IoTDB
+  }
+
+  /** Send the results saved so far, the session pool is closed when the JVM exits */
+  @Override
+  public void close() {
+    flush();
+  }
+
+  /** Stop the flush thread, send the remaining results and close the session pool */
+  private static void closeAll() {
+    running = false;
+    try {
+      flushThread.join(CLOSE_TIMEOUT_MS);
+    } catch (InterruptedException e) {
+      LOGGER.warn("Interrupted when waiting for iotdb result writer");
+      Thread.currentThread().interrupt();
+    }
+    flush();
+    sessionPool.close();
+    if (droppedNum.get() > 0) {
+      LOGGER.warn("{} results are not saved because IoTDB is too slow", droppedNum);
+    }
+  }
+}
@@ -0,0 +1,241 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package cn.edu.tsinghua.iotdb.benchmark.iotdb012;
+
+import org.apache.iotdb.rpc.RpcTransportFactory;
+import org.apache.iotdb.rpc.RpcUtils;
+import org.apache.iotdb.rpc.TSStatusCode;
+import org.apache.iotdb.service.rpc.thrift.TSExecuteStatementResp;
+import org.apache.iotdb.service.rpc.thrift.TSFetchResultsResp;
+import org.apache.iotdb.service.rpc.thrift.TSGetTimeZoneResp;
+import org.apache.iotdb.service.rpc.thrift.TSIService;
+import org.apache.iotdb.service.rpc.thrift.TSOpenSessionReq;
+import org.apache.iotdb.service.rpc.thrift.TSOpenSessionResp;
+import org.apache.iotdb.service.rpc.thrift.TSQueryDataSet;
+import org.apache.iotdb.service.rpc.thrift.TSStatus;
+
+import cn.edu.tsinghua.iotdb.benchmark.conf.Config;
+import cn.edu.tsinghua.iotdb.benchmark.conf.ConfigDescriptor;
+import org.apache.thrift.protocol.TBinaryProtocol;
+import org.apache.thrift.protocol.TCompactProtocol;
+import org.apache.thrift.protocol.TProtocolFactory;
+import org.apache.thrift.server.TServer;
+import org.apache.thrift.server.TThreadPoolServer;
+import org.apache.thrift.transport.TServerSocket;
+import org.apache.thrift.transport.TTransportException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An in-process stand-in of the IoTDB RPC service, enabled by IOTDB_STAND_IN, for testing the
+ * batching, pooling and timeout logic of the adapters without a server. It serves TSIService by
+ * thrift on each PORT: sessions and schema requests succeed at once, inserts are accepted and
+ * discarded, and queries return STAND_IN_QUERY_ROWS rows of synthetic values. Inserts and queries
+ * are delayed by STAND_IN_LATENCY plus a random jitter, and a STAND_IN_ERROR_RATE of them fail.
+ */
+public class StandInServer implements InvocationHandler {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(StandInServer.class);
+  private static final Config config = ConfigDescriptor.getInstance().getConfig();
+  private static final String QUERY_COLUMN_PREFIX = "root.stand_in.d_0.s_";
+  private static final String QUERY_COLUMN_TYPE = "DOUBLE";
+  private static final int BITMAP_FLAG = 0x80;
+
+  private static final List<TServer> servers = new ArrayList<>();
+
+  private final AtomicLong sessionId = new AtomicLong(0);
+  private final AtomicLong statementId = new AtomicLong(0);
+  private final AtomicLong queryId = new AtomicLong(0);
+
+  /** Start the stand-in on each PORT if IOTDB_STAND_IN is set, called before connecting */
+  public static synchronized void startIfEnabled() {
+    if (!config.isIOTDB_STAND_IN() || !servers.isEmpty()) {
+      return;
+    }
+    TSIService.Iface service =
+        (TSIService.Iface)
+            Proxy.newProxyInstance(
+                TSIService.Iface.class.getClassLoader(),
+                new Class<?>[] {TSIService.Iface.class},
+                new StandInServer());
+    TProtocolFactory protocolFactory =
+        config.isENABLE_THRIFT_COMPRESSION()
+            ? new TCompactProtocol.Factory()
+            : new TBinaryProtocol.Factory();
+    Set<String> ports = new LinkedHashSet<>(config.getPORT());
+    for (String port : ports) {
+      try {
+        // the socket is bound here, so connections wait in backlog until the server serves
+        TServerSocket serverSocket = new TServerSocket(Integer.parseInt(port));
+        TServer server =
+            new TThreadPoolServer(
+                new TThreadPoolServer.Args(serverSocket)
+                    .processor(new TSIService.Processor<>(service))
+                    .transportFactory(RpcTransportFactory.INSTANCE)
+                    .protocolFactory(protocolFactory));
+        Thread thread = new Thread(server::serve, "stand-in-" + port);
+        thread.setDaemon(true);
+        thread.start();
+        servers.add(server);
+        LOGGER.info("IoTDB stand-in is listening on port {}", port);
+      } catch (TTransportException e) {
+        LOGGER.error("Failed to start IoTDB stand-in on port {} because ", port, e);
+      }
+    }
+  }
+
+  @Override
+  public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+    if (method.getDeclaringClass() == Object.class) {
+      return method.invoke(this, args);
+    }
+    String name = method.getName();
+    if (isInjected(name)) {
+      int jitter = config.getSTAND_IN_LATENCY_JITTER();
+      long latency =
+          config.getSTAND_IN_LATENCY()
+              + (jitter > 0 ? ThreadLocalRandom.current().nextInt(jitter) : 0);
+      if (latency > 0) {
+        Thread.sleep(latency);
+      }
+      if (ThreadLocalRandom.current().nextDouble() < config.getSTAND_IN_ERROR_RATE()) {
+        TSStatus error =
+            RpcUtils.getStatus(TSStatusCode.INTERNAL_SERVER_ERROR, "error injected by stand-in");
+        return reply(method.getReturnType(), error);
+      }
+    }
+    switch (name) {
+      case "openSession":
+        return openSession((TSOpenSessionReq) args[0]);
+      case "requestStatementId":
+        return statementId.incrementAndGet();
+      case "getTimeZone":
+        return new TSGetTimeZoneResp()
+            .setStatus(success())
+            .setTimeZone(ZoneId.systemDefault().toString());
+      case "executeQueryStatement":
+      case "executeRawDataQuery":
+        return query();
+      case "fetchResults":
+        // all the rows are returned by the first response
+        return new TSFetchResultsResp()
+            .setStatus(success())
+            .setHasResultSet(false)
+            .setIsAlign(true);
+      default:
+        return reply(method.getReturnType(), success());
+    }
+  }
+
+  /** Only inserts and queries are delayed and failed, so that a test could always start */
+  private static boolean isInjected(String methodName) {
+    return methodName.startsWith("insert")
+        || "executeQueryStatement".equals(methodName)
+        || "executeRawDataQuery".equals(methodName);
+  }
+
+  private static TSStatus success() {
+    return RpcUtils.getStatus(TSStatusCode.SUCCESS_STATUS);
+  }
+
+  /**
+   * Reply a request with only a status, which is all that the clients check in most responses
+   *
+   * @param returnType TSStatus, or a response struct with field status
+   */
+  private static Object reply(Class<?> returnType, TSStatus status) throws Exception {
+    if (returnType == TSStatus.class) {
+      return status;
+    }
+    if (returnType == long.class) {
+      return 0L;
+    }
+    Object response = returnType.newInstance();
+    returnType.getMethod("setStatus", TSStatus.class).invoke(response, status);
+    return response;
+  }
+
+  private TSOpenSessionResp openSession(TSOpenSessionReq req) {
+    // accept the protocol of the client, whatever version it is
+    return new TSOpenSessionResp()
+        .setStatus(success())
+        .setServerProtocolVersion(req.getClient_protocol())
+        .setSessionId(sessionId.incrementAndGet());
+  }
+
+  /** A result of QUERY_SENSOR_NUM * QUERY_DEVICE_NUM double columns without null values */
+  private TSExecuteStatementResp query() {
+    int rowNum = config.getSTAND_IN_QUERY_ROWS();
+    int columnNum = Math.max(1, config.getQUERY_SENSOR_NUM() * config.getQUERY_DEVICE_NUM());
+    List<String> columns = new ArrayList<>(columnNum);
+    List<String> dataTypes = new ArrayList<>(columnNum);
+    Map<String, Integer> columnNameIndexMap = new HashMap<>();
+    for (int i = 0; i < columnNum; i++) {
+      columns.add(QUERY_COLUMN_PREFIX + i);
+      dataTypes.add(QUERY_COLUMN_TYPE);
+      columnNameIndexMap.put(QUERY_COLUMN_PREFIX + i, i);
+    }
+    ByteBuffer time = ByteBuffer.allocate(rowNum * Long.BYTES);
+    for (int row = 0; row < rowNum; row++) {
+      time.putLong(row);
+    }
+    time.flip();
+    // a set bit means a non-null value in the row
+    byte[] bitmap = new byte[(rowNum + 7) / 8];
+    for (int row = 0; row < rowNum; row++) {
+      bitmap[row / 8] |= (byte) (BITMAP_FLAG >>> (row % 8));
+    }
+    List<ByteBuffer> valueList = new ArrayList<>(columnNum);
+    List<ByteBuffer> bitmapList = new ArrayList<>(columnNum);
+    for (int i = 0; i < columnNum; i++) {
+      ByteBuffer values = ByteBuffer.allocate(rowNum * Double.BYTES);
+      for (int row = 0; row < rowNum; row++) {
+        values.putDouble(row * 0.5);
+      }
+      values.flip();
+      valueList.add(values);
+      bitmapList.add(ByteBuffer.wrap(bitmap));
+    }
+    TSQueryDataSet queryDataSet =
+        new TSQueryDataSet().setTime(time).setValueList(valueList).setBitmapList(bitmapList);
+    return new TSExecuteStatementResp()
+        .setStatus(success())
+        .setQueryId(queryId.incrementAndGet())
+        .setColumns(columns)
+        .setDataTypeList(dataTypes)
+        .setColumnNameIndexMap(columnNameIndexMap)
+        .setIgnoreTimeStamp(false)
+        .setQueryDataSet(queryDataSet);
+  }
+}
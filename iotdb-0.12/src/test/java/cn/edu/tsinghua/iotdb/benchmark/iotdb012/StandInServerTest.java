@@ -0,0 +1,169 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package cn.edu.tsinghua.iotdb.benchmark.iotdb012;
+
+import cn.edu.tsinghua.iotdb.benchmark.conf.Config;
+import cn.edu.tsinghua.iotdb.benchmark.conf.ConfigDescriptor;
+import cn.edu.tsinghua.iotdb.benchmark.conf.Constants;
+import cn.edu.tsinghua.iotdb.benchmark.measurement.Status;
+import cn.edu.tsinghua.iotdb.benchmark.workload.SyntheticWorkload;
+import cn.edu.tsinghua.iotdb.benchmark.workload.ingestion.Batch;
+import cn.edu.tsinghua.iotdb.benchmark.workload.query.impl.RangeQuery;
+import cn.edu.tsinghua.iotdb.benchmark.workload.schema.DeviceSchema;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.net.ServerSocket;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/** StandInServer Tester, the session adapters are driven against the stand-in. */
+public class StandInServerTest {
+
+  private static final Config config = ConfigDescriptor.getInstance().getConfig();
+  private static final int LATENCY = 50;
+  private static final int QUERY_ROWS = 5;
+
+  private static List<String> host;
+  private static List<String> port;
+  private static String dbSwitch;
+  private static boolean standIn;
+  private static int latency;
+  private static int latencyJitter;
+  private static double errorRate;
+  private static int queryRows;
+
+  @BeforeClass
+  public static void setUp() throws Exception {
+    host = config.getHOST();
+    port = config.getPORT();
+    dbSwitch = config.getDB_SWITCH();
+    standIn = config.isIOTDB_STAND_IN();
+    latency = config.getSTAND_IN_LATENCY();
+    latencyJitter = config.getSTAND_IN_LATENCY_JITTER();
+    errorRate = config.getSTAND_IN_ERROR_RATE();
+    queryRows = config.getSTAND_IN_QUERY_ROWS();
+
+    int freePort;
+    try (ServerSocket socket = new ServerSocket(0)) {
+      freePort = socket.getLocalPort();
+    }
+    config.setHOST(Collections.singletonList("127.0.0.1"));
+    config.setPORT(Collections.singletonList(String.valueOf(freePort)));
+    config.setIOTDB_STAND_IN(true);
+    config.setSTAND_IN_LATENCY(LATENCY);
+    config.setSTAND_IN_LATENCY_JITTER(0);
+    config.setSTAND_IN_QUERY_ROWS(QUERY_ROWS);
+  }
+
+  @AfterClass
+  public static void tearDown() {
+    config.setHOST(host);
+    config.setPORT(port);
+    config.setDB_SWITCH(dbSwitch);
+    config.setIOTDB_STAND_IN(standIn);
+    config.setSTAND_IN_LATENCY(latency);
+    config.setSTAND_IN_LATENCY_JITTER(latencyJitter);
+    config.setSTAND_IN_ERROR_RATE(errorRate);
+    config.setSTAND_IN_QUERY_ROWS(queryRows);
+  }
+
+  @After
+  public void resetErrorRate() {
+    config.setSTAND_IN_ERROR_RATE(0);
+  }
+
+  /** Method: insertOneBatch() of IoTDBSession by tablet and by records */
+  @Test
+  public void testSessionInsert() throws Exception {
+    config.setDB_SWITCH(Constants.DB_IOT_012_SESSION_BY_TABLET);
+    IoTDBSession session = new IoTDBSession();
+    session.init();
+    try {
+      checkInsert(session, Constants.DB_IOT_012_SESSION_BY_TABLET);
+      checkInsert(session, Constants.DB_IOT_012_SESSION_BY_RECORDS);
+    } finally {
+      session.close();
+    }
+  }
+
+  /** Method: insertOneBatch() of IoTDBClusterSession by tablet and by records */
+  @Test
+  public void testClusterSessionInsert() throws Exception {
+    config.setDB_SWITCH(Constants.DB_IOT_012_SESSION_BY_TABLET);
+    IoTDBClusterSession session = new IoTDBClusterSession();
+    session.init();
+    try {
+      checkInsert(session, Constants.DB_IOT_012_SESSION_BY_TABLET);
+      checkInsert(session, Constants.DB_IOT_012_SESSION_BY_RECORDS);
+    } finally {
+      session.close();
+    }
+  }
+
+  /** Method: rangeQuery(), the rows of the stand-in are counted after the injected latency */
+  @Test
+  public void testQuery() throws Exception {
+    config.setDB_SWITCH(Constants.DB_IOT_012_SESSION_BY_TABLET);
+    IoTDBSession session = new IoTDBSession();
+    session.init();
+    try {
+      RangeQuery rangeQuery =
+          new RangeQuery(Collections.singletonList(new DeviceSchema(0)), 0, QUERY_ROWS);
+      long start = System.nanoTime();
+      Status status = session.rangeQuery(rangeQuery);
+      long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+      assertTrue(status.isOk());
+      assertTrue(elapsed >= LATENCY);
+      assertEquals(
+          QUERY_ROWS * config.getQUERY_SENSOR_NUM() * config.getQUERY_DEVICE_NUM(),
+          status.getQueryResultPointNum());
+
+      // a failed query is logged by the adapter, which returns no points
+      config.setSTAND_IN_ERROR_RATE(1);
+      assertEquals(0, session.rangeQuery(rangeQuery).getQueryResultPointNum());
+    } finally {
+      session.close();
+    }
+  }
+
+  /** An insert succeeds after the injected latency, and fails if each request fails */
+  private static void checkInsert(IoTDBSessionBase session, String dbSwitch) throws Exception {
+    config.setDB_SWITCH(dbSwitch);
+    Batch batch = new SyntheticWorkload(0).getOneBatch(new DeviceSchema(0), 0);
+
+    config.setSTAND_IN_ERROR_RATE(0);
+    long start = System.nanoTime();
+    Status status = session.insertOneBatch(batch);
+    long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    assertTrue(dbSwitch, status.isOk());
+    assertTrue(dbSwitch, elapsed >= LATENCY);
+
+    config.setSTAND_IN_ERROR_RATE(1);
+    assertFalse(dbSwitch, session.insertOneBatch(batch).isOk());
+  }
+}
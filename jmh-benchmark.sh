@@ -0,0 +1,18 @@
+#!/bin/sh
+
+if [ -z "${BENCHMARK_HOME}" ]; then
+  export BENCHMARK_HOME="$(cd "`dirname "$0"`"; pwd)"
+fi
+
+JMH_JAR=$BENCHMARK_HOME/benchmark-jmh/target/benchmarks.jar
+if [ ! -f "$JMH_JAR" ]; then
+  echo "$JMH_JAR not found, please run: mvn clean package -pl benchmark-jmh -am -DskipTests"
+  exit 1
+fi
+
+# name the result by the commit, so that the results of different commits could be compared
+COMMIT=$(cd $BENCHMARK_HOME && git rev-parse --short HEAD 2>/dev/null || echo "unknown")
+RESULT_DIR=$BENCHMARK_HOME/benchmark-jmh/results
+mkdir -p $RESULT_DIR
+
+java -jar $JMH_JAR -rf json -rff $RESULT_DIR/jmh-$COMMIT.json "$@"
@@ -26,7 +26,6 @@ import cn.edu.tsinghua.iotdb.benchmark.tsdb.IDatabase;
 import cn.edu.tsinghua.iotdb.benchmark.tsdb.TsdbException;
 import cn.edu.tsinghua.iotdb.benchmark.utils.HttpRequest;
 import cn.edu.tsinghua.iotdb.benchmark.workload.ingestion.Batch;
-import cn.edu.tsinghua.iotdb.benchmark.workload.ingestion.Record;
 import cn.edu.tsinghua.iotdb.benchmark.workload.query.impl.*;
 import cn.edu.tsinghua.iotdb.benchmark.workload.schema.DeviceSchema;
 import com.alibaba.fastjson.JSON;
@@ -106,8 +105,9 @@ public class KairosDB implements IDatabase {
     // no need for KairosDB
   }
 
-  private LinkedList<KairosDataModel> createDataModel(
-      DeviceSchema deviceSchema, long timestamp, List<Object> recordValues) {
+  private LinkedList<KairosDataModel> createDataModel(Batch batch, int recordIndex) {
+    DeviceSchema deviceSchema = batch.getDeviceSchema();
+    long timestamp = batch.getTimestamp(recordIndex);
     LinkedList<KairosDataModel> models = new LinkedList<>();
     String groupId = deviceSchema.getGroup();
     int i = 0;
@@ -116,7 +116,7 @@ public class KairosDB implements IDatabase {
       model.setName(sensor);
       // TODO: KairosDB do not support float as data type, use double instead.
       model.setTimestamp(timestamp);
-      model.setValue(recordValues.get(i));
+      model.setValue(batch.getValue(recordIndex, i));
       Map<String, String> tags = new HashMap<>();
       tags.put(GROUP_STR, groupId);
       tags.put(DEVICE_STR, deviceSchema.getDevice());
@@ -127,15 +127,16 @@ public class KairosDB implements IDatabase {
     return models;
   }
 
-  private LinkedList<KairosDataModel> createDataModel(
-      DeviceSchema deviceSchema, long timestamp, List<Object> recordValues, int colIndex) {
+  private LinkedList<KairosDataModel> createDataModel(Batch batch, int recordIndex, int colIndex) {
+    DeviceSchema deviceSchema = batch.getDeviceSchema();
+    long timestamp = batch.getTimestamp(recordIndex);
     LinkedList<KairosDataModel> models = new LinkedList<>();
     String groupId = deviceSchema.getGroup();
     KairosDataModel model = new KairosDataModel();
-    model.setName(deviceSchema.getSensors().get(colIndex));
+    model.setName(batch.getSensor(0));
     // TODO: KairosDB do not support float as data type, use double instead.
     model.setTimestamp(timestamp);
-    model.setValue(recordValues.get(0));
+    model.setValue(batch.getValue(recordIndex, 0));
     Map<String, String> tags = new HashMap<>();
     tags.put(GROUP_STR, groupId);
     tags.put(DEVICE_STR, deviceSchema.getDevice());
@@ -147,10 +148,8 @@ public class KairosDB implements IDatabase {
   @Override
   public Status insertOneBatch(Batch batch) {
     LinkedList<KairosDataModel> models = new LinkedList<>();
-    for (Record record : batch.getRecords()) {
-      models.addAll(
-          createDataModel(
-              batch.getDeviceSchema(), record.getTimestamp(), record.getRecordDataValue()));
+    for (int recordIndex = 0; recordIndex < batch.getRowSize(); recordIndex++) {
+      models.addAll(createDataModel(batch, recordIndex));
     }
     String body = JSON.toJSONString(models);
     LOGGER.debug("body: {}", body);
@@ -169,13 +168,8 @@ public class KairosDB implements IDatabase {
   public Status insertOneSensorBatch(Batch batch) {
     LinkedList<KairosDataModel> models = new LinkedList<>();
     int colIndex = batch.getColIndex();
-    for (Record record : batch.getRecords()) {
-      models.addAll(
-          createDataModel(
-              batch.getDeviceSchema(),
-              record.getTimestamp(),
-              record.getRecordDataValue(),
-              colIndex));
+    for (int recordIndex = 0; recordIndex < batch.getRowSize(); recordIndex++) {
+      models.addAll(createDataModel(batch, recordIndex, colIndex));
     }
     String body = JSON.toJSONString(models);
     LOGGER.debug("body: {}", body);
@@ -27,7 +27,6 @@ import cn.edu.tsinghua.iotdb.benchmark.tsdb.IDatabase;
 import cn.edu.tsinghua.iotdb.benchmark.tsdb.TsdbException;
 import cn.edu.tsinghua.iotdb.benchmark.utils.HttpRequest;
 import cn.edu.tsinghua.iotdb.benchmark.workload.ingestion.Batch;
-import cn.edu.tsinghua.iotdb.benchmark.workload.ingestion.Record;
 import cn.edu.tsinghua.iotdb.benchmark.workload.query.impl.*;
 import cn.edu.tsinghua.iotdb.benchmark.workload.schema.DeviceSchema;
 import com.alibaba.fastjson.JSON;
@@ -219,23 +218,21 @@ public class OpenTSDB implements IDatabase {
   private LinkedList<OpenTSDBDataModel> createDataModelByBatch(Batch batch) throws TsdbException {
     DeviceSchema deviceSchema = batch.getDeviceSchema();
     String device = deviceSchema.getDevice();
-    List<Record> records = batch.getRecords();
     List<String> sensors = deviceSchema.getSensors();
     int sensorNum = sensors.size();
-    int recordNum = records.size();
+    int recordNum = batch.getRowSize();
     LinkedList<OpenTSDBDataModel> models = new LinkedList<>();
 
     for (int i = 0; i < recordNum; i++) {
-      Record record = records.get(i);
       if (batch.getColIndex() != -1) {
         // 只插入一列
         OpenTSDBDataModel model = new OpenTSDBDataModel();
         model.setMetric(deviceSchema.getGroup());
-        model.setTimestamp(record.getTimestamp());
-        model.setValue(record.getRecordDataValue().get(0));
+        model.setTimestamp(batch.getTimestamp(i));
+        model.setValue(batch.getValue(i, 0));
         Map<String, String> tags = new HashMap<>();
         tags.put("device", device);
-        tags.put("sensor", deviceSchema.getSensors().get(batch.getColIndex()));
+        tags.put("sensor", batch.getSensor(0));
         model.setTags(tags);
         models.addLast(model);
       } else {
@@ -243,8 +240,8 @@ public class OpenTSDB implements IDatabase {
         for (int j = 0; j < sensorNum; j++) {
           OpenTSDBDataModel model = new OpenTSDBDataModel();
           model.setMetric(deviceSchema.getGroup());
-          model.setTimestamp(record.getTimestamp());
-          model.setValue(record.getRecordDataValue().get(j));
+          model.setTimestamp(batch.getTimestamp(i));
+          model.setValue(batch.getValue(i, j));
           Map<String, String> tags = new HashMap<>();
           tags.put("device", device);
           tags.put("sensor", deviceSchema.getSensors().get(j));
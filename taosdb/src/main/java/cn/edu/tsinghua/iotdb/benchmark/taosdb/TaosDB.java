@@ -26,7 +26,6 @@ import cn.edu.tsinghua.iotdb.benchmark.tsdb.DBUtil;
 import cn.edu.tsinghua.iotdb.benchmark.tsdb.IDatabase;
 import cn.edu.tsinghua.iotdb.benchmark.tsdb.TsdbException;
 import cn.edu.tsinghua.iotdb.benchmark.workload.ingestion.Batch;
-import cn.edu.tsinghua.iotdb.benchmark.workload.ingestion.Record;
 import cn.edu.tsinghua.iotdb.benchmark.workload.query.impl.*;
 import cn.edu.tsinghua.iotdb.benchmark.workload.schema.DeviceSchema;
 import org.slf4j.Logger;
@@ -153,16 +152,9 @@ public class TaosDB implements IDatabase {
   public Status insertOneBatch(Batch batch) {
     try (Statement statement = connection.createStatement()) {
       statement.execute(String.format(USE_DB, TEST_DB));
-      StringBuilder builder = new StringBuilder();
-      DeviceSchema deviceSchema = batch.getDeviceSchema();
-      builder.append("insert into ").append(deviceSchema.getDevice()).append(" values ");
-      for (Record record : batch.getRecords()) {
-        builder.append(
-            getInsertOneRecordSql(
-                batch.getDeviceSchema(), record.getTimestamp(), record.getRecordDataValue()));
-      }
-      LOGGER.debug("getInsertOneBatchSql: {}", builder.toString());
-      statement.addBatch(builder.toString());
+      String sql = getInsertOneBatchSql(batch);
+      LOGGER.debug("getInsertOneBatchSql: {}", sql);
+      statement.addBatch(sql);
       statement.executeBatch();
       return new Status(true);
     } catch (Exception e) {
@@ -170,28 +162,35 @@ public class TaosDB implements IDatabase {
     }
   }
 
+  /**
+   * eg. insert into d_0 values ('2018-08-30 00:00:00.000',1,2.0,'abc') ('2018-08-30
+   * 00:00:05.000',3,4.0,'def')
+   *
+   * @param batch batch to insert, all rows and columns of batch are appended
+   */
+  String getInsertOneBatchSql(Batch batch) {
+    StringBuilder builder = new StringBuilder();
+    builder.append("insert into ").append(batch.getDeviceSchema().getDevice()).append(" values ");
+    for (int recordIndex = 0; recordIndex < batch.getRowSize(); recordIndex++) {
+      appendInsertOneRecordSql(builder, batch, recordIndex);
+    }
+    return builder.toString();
+  }
+
   @Override
   public Status insertOneSensorBatch(Batch batch) {
     try (Statement statement = connection.createStatement()) {
       statement.execute(String.format(USE_DB, TEST_DB));
       StringBuilder builder = new StringBuilder();
       DeviceSchema deviceSchema = batch.getDeviceSchema();
-      List<String> colList = deviceSchema.getSensors();
       builder
           .append("insert into ")
           .append(deviceSchema.getDevice())
           .append(" (time, ")
-          .append(colList.get(batch.getColIndex()));
+          .append(batch.getSensor(0));
       builder.append(") values ");
-      int colIndex = batch.getColIndex();
-
-      for (Record record : batch.getRecords()) {
-        builder.append(
-            getInsertOneRecordSql(
-                batch.getDeviceSchema(),
-                record.getTimestamp(),
-                record.getRecordDataValue(),
-                colIndex));
+      for (int recordIndex = 0; recordIndex < batch.getRowSize(); recordIndex++) {
+        appendInsertOneRecordSql(builder, batch, recordIndex);
       }
       LOGGER.debug("getInsertOneBatchSql: {}", builder.toString());
       statement.addBatch(builder.toString());
@@ -203,72 +202,26 @@ public class TaosDB implements IDatabase {
     }
   }
 
-  private String getInsertOneRecordSql(
-      DeviceSchema deviceSchema, long timestamp, List<Object> values) {
-    StringBuilder builder = new StringBuilder();
+  /**
+   * append one row of batch, eg. ('2018-08-30 00:00:00.000',1,2.0,'abc')
+   *
+   * @param builder sql builder
+   * @param batch batch to insert, all columns of batch are appended
+   * @param recordIndex row index in batch
+   */
+  private void appendInsertOneRecordSql(StringBuilder builder, Batch batch, int recordIndex) {
     builder.append(" ('");
-    builder.append(sdf.format(new Date(timestamp))).append("'");
-    int sensorIndex = 0;
-    for (Object value : values) {
-      switch (typeMap(DBUtil.getDataType(sensorIndex))) {
-        case "BOOL":
-          builder.append(",").append((boolean) value);
-          break;
-        case "INT":
-          builder.append(",").append((int) value);
-          break;
-        case "BIGINT":
-          builder.append(",").append((long) value);
-          break;
-        case "FLOAT":
-          builder.append(",").append((float) value);
-          break;
-        case "DOUBLE":
-          builder.append(",").append((double) value);
-          break;
-        case "BINARY":
-        default:
-          builder.append(",").append("'").append((String) value).append("'");
-          break;
+    builder.append(sdf.format(new Date(batch.getTimestamp(recordIndex)))).append("'");
+    for (int columnIndex = 0; columnIndex < batch.getColumnSize(); columnIndex++) {
+      builder.append(",");
+      if ("BINARY".equals(typeMap(batch.getDataType(columnIndex)))) {
+        builder.append("'");
+        batch.appendValue(builder, recordIndex, columnIndex).append("'");
+      } else {
+        batch.appendValue(builder, recordIndex, columnIndex);
       }
-      sensorIndex++;
-    }
-    builder.append(")");
-    return builder.toString();
-  }
-
-  private String getInsertOneRecordSql(
-      DeviceSchema deviceSchema, long timestamp, List<Object> values, int colIndex) {
-    StringBuilder builder = new StringBuilder();
-    builder.append(" ('");
-    builder.append(sdf.format(new Date(timestamp))).append("'");
-    int sensorIndex = colIndex;
-    Object value = values.get(0);
-    switch (typeMap(DBUtil.getDataType(sensorIndex))) {
-      case "BOOL":
-        builder.append(",").append((boolean) value);
-        break;
-      case "INT":
-        builder.append(",").append((int) value);
-        break;
-      case "BIGINT":
-        builder.append(",").append((long) value);
-        break;
-      case "FLOAT":
-        builder.append(",").append((float) value);
-        break;
-      case "DOUBLE":
-        builder.append(",").append((double) value);
-        break;
-      case "BINARY":
-      default:
-        builder.append(",").append("'").append(value).append("'");
-        break;
     }
-    sensorIndex++;
-
     builder.append(")");
-    return builder.toString();
   }
 
   @Override
@@ -27,7 +27,6 @@ import cn.edu.tsinghua.iotdb.benchmark.tsdb.DBUtil;
 import cn.edu.tsinghua.iotdb.benchmark.tsdb.IDatabase;
 import cn.edu.tsinghua.iotdb.benchmark.tsdb.TsdbException;
 import cn.edu.tsinghua.iotdb.benchmark.workload.ingestion.Batch;
-import cn.edu.tsinghua.iotdb.benchmark.workload.ingestion.Record;
 import cn.edu.tsinghua.iotdb.benchmark.workload.query.impl.*;
 import cn.edu.tsinghua.iotdb.benchmark.workload.schema.DeviceSchema;
 import org.slf4j.Logger;
@@ -136,11 +135,8 @@ public class TimescaleDB implements IDatabase {
   @Override
   public Status insertOneBatch(Batch batch) {
     try (Statement statement = connection.createStatement()) {
-      for (Record record : batch.getRecords()) {
-        String sql =
-            getInsertOneBatchSql(
-                batch.getDeviceSchema(), record.getTimestamp(), record.getRecordDataValue());
-        statement.addBatch(sql);
+      for (int recordIndex = 0; recordIndex < batch.getRowSize(); recordIndex++) {
+        statement.addBatch(getInsertOneBatchSql(batch, recordIndex));
       }
 
       statement.executeBatch();
@@ -155,14 +151,8 @@ public class TimescaleDB implements IDatabase {
   public Status insertOneSensorBatch(Batch batch) {
     try (Statement statement = connection.createStatement()) {
       int colIndex = batch.getColIndex();
-      for (Record record : batch.getRecords()) {
-        String sql =
-            getInsertOneBatchSql(
-                batch.getDeviceSchema(),
-                record.getTimestamp(),
-                record.getRecordDataValue().get(colIndex),
-                colIndex);
-        statement.addBatch(sql);
+      for (int recordIndex = 0; recordIndex < batch.getRowSize(); recordIndex++) {
+        statement.addBatch(getInsertOneBatchSql(batch, recordIndex, colIndex));
       }
       statement.executeBatch();
 
@@ -450,19 +440,20 @@ public class TimescaleDB implements IDatabase {
    * <p>INSERT INTO conditions(time, group, device, s_0, s_1) VALUES (1535558400000, 'group_0',
    * 'd_0', 70.0, 50.0);
    */
-  private String getInsertOneBatchSql(
-      DeviceSchema deviceSchema, long timestamp, List<Object> values) {
+  String getInsertOneBatchSql(Batch batch, int recordIndex) {
+    DeviceSchema deviceSchema = batch.getDeviceSchema();
     StringBuilder builder = new StringBuilder();
     builder.append("insert into ").append(tableName).append("(time, sGroup, device");
     for (String sensor : deviceSchema.getSensors()) {
       builder.append(",").append(sensor);
     }
     builder.append(") values(");
-    builder.append(timestamp);
+    builder.append(batch.getTimestamp(recordIndex));
     builder.append(",'").append(deviceSchema.getGroup()).append("'");
     builder.append(",'").append(deviceSchema.getDevice()).append("'");
-    for (Object value : values) {
-      builder.append(",'").append(value).append("'");
+    for (int columnIndex = 0; columnIndex < batch.getColumnSize(); columnIndex++) {
+      builder.append(",'");
+      batch.appendValue(builder, recordIndex, columnIndex).append("'");
     }
     builder.append(")");
     LOGGER.debug("getInsertOneBatchSql: {}", builder);
@@ -475,19 +466,20 @@ public class TimescaleDB implements IDatabase {
    * <p>INSERT INTO conditions(time, group, device, s_0, s_1) VALUES (1535558400000, 'group_0',
    * 'd_0', 70.0, 50.0);
    */
-  private String getInsertOneBatchSql(
-      DeviceSchema deviceSchema, long timestamp, Object value, int colIndex) {
+  private String getInsertOneBatchSql(Batch batch, int recordIndex, int colIndex) {
+    DeviceSchema deviceSchema = batch.getDeviceSchema();
     StringBuilder builder = new StringBuilder();
     builder
         .append("insert into ")
         .append(tableName)
         .append("(time, sGroup, device,")
-        .append(deviceSchema.getSensors().get(colIndex));
+        .append(batch.getSensor(0));
     builder.append(") values(");
-    builder.append(timestamp);
+    builder.append(batch.getTimestamp(recordIndex));
     builder.append(",'").append(deviceSchema.getGroup()).append("'");
     builder.append(",'").append(deviceSchema.getDevice()).append("'");
-    builder.append(",'").append(value).append("'");
+    builder.append(",'");
+    batch.appendValue(builder, recordIndex, 0).append("'");
 
     builder.append(")");
     LOGGER.debug("getInsertOneBatchSql: {}", builder);